@@ -1,6 +1,8 @@
 package io.github.iweidujiang.industry.modbusoverserial;
 
 import com.fazecast.jSerialComm.SerialPort;
+import io.github.iweidujiang.industry.modbus.rtu.JSerialCommChannel;
+import io.github.iweidujiang.industry.modbus.rtu.RtuFrameReceiver;
 import io.github.iweidujiang.industry.modbusoverserial.util.ModbusRTUUtils;
 
 import java.util.Arrays;
@@ -32,18 +34,10 @@ public class ModbusRtuReader {
             byte[] request = ModbusRTUUtils.buildReadHoldingRegistersFrame(1, 0, 1);
             System.out.println("📤 发送请求: " + bytesToHex(request));
 
-            // 发送并等待响应（简单延时，工业场景可优化）
-            serialPort.getOutputStream().write(request);
-            serialPort.getOutputStream().flush();
-
-            Thread.sleep(100); // 等待设备响应（Modbus RTU 响应通常 < 50ms）
-
-            // 读取响应
+            // 发送并按帧接收响应：凑齐完整帧立即返回，不再固定延时
+            RtuFrameReceiver receiver = new RtuFrameReceiver(serialPort.getBaudRate());
             byte[] buffer = new byte[256];
-            int len = serialPort.getInputStream().read(buffer);
-            if (len <= 0) {
-                throw new RuntimeException("未收到响应");
-            }
+            int len = receiver.transact(new JSerialCommChannel(serialPort), request, request.length, buffer);
             byte[] response = Arrays.copyOf(buffer, len);
             System.out.println("📥 收到响应: " + bytesToHex(response));
 
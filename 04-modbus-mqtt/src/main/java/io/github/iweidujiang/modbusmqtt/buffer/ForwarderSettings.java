@@ -0,0 +1,39 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+/**
+ * 落盘缓冲与转发参数（mqtt.buffer）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param segmentSizeMb  单个分段文件大小（MB），分段整段映射到内存，不超过 2047
+ * @param maxSegments    分段数上限，超出时丢弃最旧的分段
+ * @param batchSize      每批从日志读出的消息数
+ * @param rate           积压补发时的发送限速（条/秒）
+ * @param maxInFlight    已发出、未确认的消息数上限
+ * @param ackTimeoutMs   等待 Broker 确认的超时，超时后断开重连并从日志重发
+ * @param retryInitialMs 失败后的首次退避时间
+ * @param retryMaxMs     退避时间上限
+ */
+public record ForwarderSettings(int segmentSizeMb, int maxSegments, int batchSize, int rate, int maxInFlight,
+                                long ackTimeoutMs, long retryInitialMs, long retryMaxMs) {
+
+    public ForwarderSettings {
+        if (batchSize <= 0 || rate <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("mqtt.buffer.batch-size、rate、max-in-flight 必须大于 0");
+        }
+        if (segmentSizeMb <= 0 || segmentSizeMb * 1024L * 1024 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("mqtt.buffer.segment-size-mb 必须在 1 到 2047 之间：" + segmentSizeMb);
+        }
+        retryMaxMs = Math.max(retryInitialMs, retryMaxMs);
+    }
+
+    /**
+     * 单个分段文件的字节数
+     */
+    public int segmentSizeBytes() {
+        return (int) (segmentSizeMb * 1024L * 1024);
+    }
+}
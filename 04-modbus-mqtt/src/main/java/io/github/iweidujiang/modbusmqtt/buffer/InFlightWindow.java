@@ -0,0 +1,251 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 已发出、等待 Broker 确认的消息窗口
+ * <p>
+ * 转发线程按日志顺序登记每条发出的消息，Paho 回调线程在确认（QoS 0 为写出、QoS 1/2 为 PUBACK/PUBCOMP）时标记完成。
+ * 只有从窗口头部起连续完成的消息才能提交日志读位置，乱序确认不会让未确认的消息被跳过。
+ * <ul>
+ *     <li>窗口满时 {@link #awaitRoom(long)} 阻塞转发线程，Broker 变慢时不会无限堆积未确认消息</li>
+ *     <li>任一消息失败或超时后整体 {@link #reset()}，未提交的消息从日志重新发送（至少一次，可能重复）</li>
+ *     <li>reset 之前发出的消息迟到的回调按代次忽略</li>
+ * </ul>
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class InFlightWindow {
+
+    private final int capacity;
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private long generation;
+    private String failure;
+
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public InFlightWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("在途窗口大小必须大于 0：" + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * 登记一条即将发出的消息，调用前应确认窗口有空位
+     */
+    public Entry add() {
+        lock.lock();
+        try {
+            Entry entry = new Entry(generation, System.nanoTime());
+            entries.addLast(entry);
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Broker 已确认
+     */
+    public void complete(Entry entry) {
+        long latency = System.nanoTime() - entry.sentNanos;
+        lock.lock();
+        try {
+            if (entry.generation != generation || entry.done) {
+                return;
+            }
+            entry.done = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        acked.increment();
+        latencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * 发送失败，转发线程下一轮检查时 reset
+     */
+    public void fail(Entry entry, String reason) {
+        lock.lock();
+        try {
+            if (entry.generation != generation || failure != null) {
+                return;
+            }
+            failure = reason;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        failures.increment();
+    }
+
+    /**
+     * 移除头部连续已确认的消息
+     *
+     * @return 可以提交的消息数
+     */
+    public int pollCompleted() {
+        lock.lock();
+        try {
+            int count = 0;
+            while (!entries.isEmpty() && entries.peekFirst().done) {
+                entries.pollFirst();
+                count++;
+            }
+            if (count > 0) {
+                changed.signalAll();
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 失败原因；最早的未确认消息超过 timeoutNanos 也视为失败。没有失败时返回 null
+     */
+    public String checkFailure(long timeoutNanos) {
+        lock.lock();
+        try {
+            if (failure != null) {
+                return failure;
+            }
+            Entry oldest = entries.peekFirst();
+            if (oldest != null && !oldest.done && System.nanoTime() - oldest.sentNanos > timeoutNanos) {
+                failures.increment();
+                return "等待确认超时（" + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms）";
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 丢弃所有未提交的消息，之后的迟到回调被忽略
+     *
+     * @return 丢弃的消息数，即需要从日志重新发送的消息数
+     */
+    public int reset() {
+        lock.lock();
+        try {
+            int discarded = entries.size();
+            entries.clear();
+            generation++;
+            failure = null;
+            changed.signalAll();
+            return discarded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 已发出但还未提交的消息数（含已确认、等待前面的消息确认的）
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasRoom() {
+        return size() < capacity;
+    }
+
+    /**
+     * 等待窗口出现空位、有消息确认或失败，最长 timeoutNanos
+     */
+    public void awaitRoom(long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (entries.size() >= capacity && failure == null) {
+                changed.awaitNanos(timeoutNanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待任意状态变化（确认、失败），最长 timeoutNanos
+     */
+    public void awaitChange(long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            changed.awaitNanos(timeoutNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void signal() {
+        lock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getAcked() {
+        return acked.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * 平均确认延迟（毫秒，自启动以来）
+     */
+    public double getAverageLatencyMs() {
+        long count = acked.sum();
+        return count == 0 ? 0 : latencyNanos.sum() / 1e6 / count;
+    }
+
+    /**
+     * 最大确认延迟（毫秒），读取后清零，即两次读取之间的最大值
+     */
+    public double takeMaxLatencyMs() {
+        return maxLatencyNanos.getAndSet(0) / 1e6;
+    }
+
+    /**
+     * 一条在途消息
+     */
+    public static final class Entry {
+        private final long generation;
+        private final long sentNanos;
+        private volatile boolean done;
+
+        private Entry(long generation, long sentNanos) {
+            this.generation = generation;
+            this.sentNanos = sentNanos;
+        }
+    }
+}
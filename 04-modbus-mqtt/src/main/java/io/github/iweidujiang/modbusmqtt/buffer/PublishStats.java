@@ -0,0 +1,31 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+/**
+ * 单个消息类别的发布统计
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param name          消息类别
+ * @param online        最近一次发送是否成功
+ * @param pending       落盘缓冲中未提交的消息数（含在途）
+ * @param inFlight      已发出、未提交的消息数
+ * @param maxInFlight   在途窗口大小
+ * @param acked         累计得到 Broker 确认的消息数
+ * @param failures      累计发送失败或确认超时次数
+ * @param dropped       因缓冲已满被丢弃的消息数
+ * @param avgLatencyMs  发出到确认的平均延迟
+ * @param maxLatencyMs  上次统计以来的最大确认延迟
+ */
+public record PublishStats(String name, boolean online, long pending, int inFlight, int maxInFlight, long acked,
+                           long failures, long dropped, double avgLatencyMs, double maxLatencyMs) {
+
+    @Override
+    public String toString() {
+        return String.format("[%s] %s，待发送 %d，在途 %d/%d，已确认 %d，失败 %d，丢弃 %d，确认延迟 平均 %.1fms / 最大 %.1fms",
+                name, online ? "在线" : "离线", pending, inFlight, maxInFlight, acked, failures, dropped,
+                avgLatencyMs, maxLatencyMs);
+    }
+}
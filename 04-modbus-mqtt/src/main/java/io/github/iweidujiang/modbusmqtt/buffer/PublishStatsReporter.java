@@ -0,0 +1,33 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 定时输出各消息类别的发布统计（待发送、在途深度、确认延迟）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Component
+public class PublishStatsReporter {
+
+    private final List<StoreAndForwardPublisher> publishers;
+
+    public PublishStatsReporter(List<StoreAndForwardPublisher> publishers) {
+        this.publishers = publishers;
+    }
+
+    @Scheduled(fixedRateString = "${mqtt.buffer.stats-interval-ms:60000}",
+            initialDelayString = "${mqtt.buffer.stats-interval-ms:60000}")
+    public void report() {
+        for (StoreAndForwardPublisher publisher : publishers) {
+            System.out.println("📊 MQTT 发布统计 " + publisher.getStats());
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * 只追加的内存映射分段日志，用作 MQTT 出站消息的落盘缓冲
+ * <p>
+ * 目录下每个分段是一个固定大小的文件（{@code 00000000000000000001.seg}），整段映射到内存，
+ * 追加只是一次内存拷贝，由操作系统异步刷盘；进程崩溃不丢数据，断电最多丢失最后一次 {@link #flush()} 之后的写入。
+ * <ul>
+ *     <li>记录格式：4 字节长度 + 4 字节 CRC32 + 数据，长度为 0 表示分段结束</li>
+ *     <li>读位置（分段号 + 段内偏移）保存在 {@code cursor} 文件中，{@link #commit(int)} 后更新</li>
+ *     <li>打开时逐条校验 CRC，写到一半的尾部记录被截掉</li>
+ *     <li>分段全部读完即删除；分段数超过上限时丢弃最旧的分段，磁盘占用有上界</li>
+ * </ul>
+ * 所有方法同步，可由采集线程追加、转发线程读取。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SegmentLog implements Closeable {
+
+    /** 记录头：长度 + CRC32 */
+    static final int RECORD_HEADER = 8;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CURSOR_FILE = "cursor";
+
+    private final Path dir;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final MappedByteBuffer cursor;
+    private final CRC32 crc = new CRC32();
+
+    private Segment head;           // 正在追加的分段
+    private long readSegmentId;     // 读位置所在分段
+    private int readPosition;       // 读位置的段内偏移
+    private long pending;           // 未读记录数
+    private long dropped;           // 因超出分段上限而丢弃的记录数
+    private boolean closed;
+
+    /**
+     * 打开（或创建）日志目录，恢复写位置与读位置
+     *
+     * @param segmentSize 单个分段的字节数
+     * @param maxSegments 最多保留的分段数
+     */
+    public SegmentLog(Path dir, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("分段大小不能小于 1024 字节：" + segmentSize);
+        }
+        if (maxSegments < 2) {
+            throw new IllegalArgumentException("分段数上限不能小于 2：" + maxSegments);
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(dir);
+
+        try (FileChannel channel = FileChannel.open(dir.resolve(CURSOR_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            cursor = channel.map(FileChannel.MapMode.READ_WRITE, 0, 12);
+        }
+        long savedSegmentId = cursor.getLong(0);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                if (id < savedSegmentId) {
+                    Files.deleteIfExists(file); // 上次运行已读完但未能删除的分段
+                } else {
+                    segments.put(id, Segment.open(file, id, segmentSize));
+                }
+            }
+        }
+        recover(savedSegmentId, cursor.getInt(8));
+    }
+
+    /**
+     * 追加一条记录
+     *
+     * @throws IllegalArgumentException 记录超过单个分段的容量
+     */
+    public synchronized void append(byte[] data) throws IOException {
+        ensureOpen();
+        int required = RECORD_HEADER + data.length;
+        if (data.length == 0 || required > segmentSize) {
+            throw new IllegalArgumentException("记录长度必须在 1 到 " + (segmentSize - RECORD_HEADER) + " 字节之间：" + data.length);
+        }
+        if (head == null || head.writePosition + required > segmentSize) {
+            roll();
+        }
+        crc.reset();
+        crc.update(data);
+        MappedByteBuffer buffer = head.buffer;
+        int position = head.writePosition;
+        buffer.put(position + RECORD_HEADER, data);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, data.length); // 长度最后写，崩溃时不会出现长度有效而数据不全的记录
+        head.writePosition += required;
+        head.records++;
+        if (head.writePosition + 4 <= segmentSize) {
+            buffer.putInt(head.writePosition, 0); // 清掉可能残留的旧记录头
+        }
+        pending++;
+    }
+
+    /**
+     * 从读位置起取出至多 max 条记录，不移动读位置
+     */
+    public List<byte[]> peek(int max) {
+        return peek(0, max);
+    }
+
+    /**
+     * 跳过读位置后的 skip 条记录（已发出、尚未提交），再取出至多 max 条
+     */
+    public synchronized List<byte[]> peek(int skip, int max) {
+        ensureOpen();
+        List<byte[]> records = new ArrayList<>((int) Math.max(0, Math.min(max, pending - skip)));
+        long segmentId = readSegmentId;
+        int position = readPosition;
+        int skipped = 0;
+        while (records.size() < max) {
+            Segment segment = segments.get(segmentId);
+            if (segment == null) {
+                break;
+            }
+            if (position >= segment.writePosition) {
+                Map.Entry<Long, Segment> next = segments.higherEntry(segmentId);
+                if (next == null) {
+                    break;
+                }
+                segmentId = next.getKey();
+                position = 0;
+                continue;
+            }
+            int length = segment.buffer.getInt(position);
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                byte[] data = new byte[length];
+                segment.buffer.get(position + RECORD_HEADER, data);
+                records.add(data);
+            }
+            position += RECORD_HEADER + length;
+        }
+        return records;
+    }
+
+    /**
+     * 读位置前移 count 条记录（即 {@link #peek(int)} 取出的前 count 条已处理完），删除读完的分段
+     */
+    public synchronized void commit(int count) {
+        ensureOpen();
+        for (int i = 0; i < count && pending > 0; i++) {
+            Segment segment = segments.get(readSegmentId);
+            while (readPosition >= segment.writePosition) {
+                Map.Entry<Long, Segment> next = segments.higherEntry(readSegmentId);
+                if (next == null) {
+                    throw new IllegalStateException("提交的记录数超过未读记录数");
+                }
+                readSegmentId = next.getKey();
+                readPosition = 0;
+                segment = next.getValue();
+            }
+            readPosition += RECORD_HEADER + segment.buffer.getInt(readPosition);
+            segment.consumed++;
+            pending--;
+        }
+        if (pending == 0 && head != null) {
+            // 已全部读完，读位置移到正在追加的分段末尾
+            readSegmentId = head.id;
+            readPosition = head.writePosition;
+        }
+        // 读位置之前的分段已读完，删除（正在追加的分段不会被删除）
+        while (!segments.isEmpty() && segments.firstKey() < readSegmentId) {
+            deleteSegment(segments.firstEntry().getValue());
+        }
+        saveCursor();
+    }
+
+    /**
+     * 未读记录数
+     */
+    public synchronized long getPending() {
+        return pending;
+    }
+
+    /**
+     * 因超出分段上限而丢弃的记录数（自打开以来）
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 把映射内存中的修改刷到磁盘
+     */
+    public synchronized void flush() {
+        if (closed) {
+            return;
+        }
+        if (head != null) {
+            head.buffer.force();
+        }
+        cursor.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        segments.clear();
+        head = null;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("缓冲日志已关闭：" + dir);
+        }
+    }
+
+    /**
+     * 恢复：校验各分段的记录确定写位置，再从 cursor 文件恢复读位置并统计未读记录
+     */
+    private void recover(long savedSegmentId, int savedPosition) {
+        for (Segment segment : segments.values()) {
+            segment.scan(crc);
+        }
+        head = segments.isEmpty() ? null : segments.lastEntry().getValue();
+
+        if (segments.isEmpty()) {
+            readSegmentId = 0;
+            readPosition = 0;
+        } else if (!segments.containsKey(savedSegmentId)) {
+            // 读位置所在分段已删除（或从未提交过）：从最旧的分段开始读
+            readSegmentId = segments.firstKey();
+            readPosition = 0;
+        } else {
+            readSegmentId = savedSegmentId;
+            readPosition = Math.min(savedPosition, segments.get(savedSegmentId).writePosition);
+        }
+
+        pending = 0;
+        for (Segment segment : segments.tailMap(readSegmentId, true).values()) {
+            int position = 0;
+            int skipped = 0;
+            if (segment.id == readSegmentId) {
+                while (position < readPosition) {
+                    position += RECORD_HEADER + segment.buffer.getInt(position);
+                    skipped++;
+                }
+            }
+            segment.consumed = skipped;
+            pending += segment.records - skipped;
+        }
+    }
+
+    /**
+     * 开始新分段；分段数达到上限时丢弃最旧的分段
+     */
+    private void roll() throws IOException {
+        long id = head == null ? Math.max(1, readSegmentId) : head.id + 1;
+        while (segments.size() >= maxSegments) {
+            Segment oldest = segments.firstEntry().getValue();
+            long lost = oldest.records - oldest.consumed;
+            dropped += lost;
+            pending -= lost;
+            deleteSegment(oldest);
+            Map.Entry<Long, Segment> next = segments.firstEntry();
+            if (oldest.id == readSegmentId) {
+                readSegmentId = next != null ? next.getKey() : id;
+                readPosition = 0;
+            }
+            System.err.println("⚠️ MQTT 缓冲分段已满 " + maxSegments + " 个，丢弃最旧分段中未发送的 " + lost + " 条消息");
+        }
+        Path file = dir.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+        head = Segment.open(file, id, segmentSize);
+        segments.put(id, head);
+        if (segments.size() == 1) {
+            readSegmentId = id;
+            readPosition = 0;
+        }
+        saveCursor();
+    }
+
+    /**
+     * MappedByteBuffer 无法主动解除映射，Linux 下删除已映射的文件不受影响；
+     * Windows 下删除会失败，文件留到下次打开时按读位置清理（打开时不再映射读位置之前的分段）
+     */
+    private void deleteSegment(Segment segment) {
+        segments.remove(segment.id);
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            System.err.println("⚠️ 删除 MQTT 缓冲分段失败，下次启动时清理: " + segment.file + "，" + e.getMessage());
+        }
+    }
+
+    private void saveCursor() {
+        cursor.putLong(0, readSegmentId);
+        cursor.putInt(8, readPosition);
+    }
+
+    /**
+     * 一个分段文件及其写位置
+     */
+    private static final class Segment {
+        final Path file;
+        final long id;
+        final MappedByteBuffer buffer;
+        int writePosition;
+        long records;
+        long consumed;
+
+        private Segment(Path file, long id, MappedByteBuffer buffer) {
+            this.file = file;
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path file, long id, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Segment(file, id, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        /**
+         * 逐条校验记录，写位置停在第一条无效记录处
+         */
+        void scan(CRC32 crc) {
+            int position = 0;
+            int capacity = buffer.capacity();
+            while (position + RECORD_HEADER <= capacity) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + RECORD_HEADER + length > capacity) {
+                    break;
+                }
+                byte[] data = new byte[length];
+                buffer.get(position + RECORD_HEADER, data);
+                crc.reset();
+                crc.update(data);
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    break; // 崩溃时写到一半的记录
+                }
+                position += RECORD_HEADER + length;
+                records++;
+            }
+            writePosition = position;
+        }
+    }
+}
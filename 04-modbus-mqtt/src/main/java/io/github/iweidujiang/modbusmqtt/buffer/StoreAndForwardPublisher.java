@@ -0,0 +1,330 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 先落盘再转发的 MQTT 发布器
+ * <p>
+ * 采集线程只把消息追加到 {@link SegmentLog}，立即返回，不受 Broker 快慢影响；
+ * 后台转发线程按批从日志读出消息，用 Paho 异步客户端发出，不等待单条确认。
+ * 确认由 {@link InFlightWindow} 跟踪，从头部起连续确认的消息才提交读位置；
+ * 在途消息达到 max-in-flight 时转发线程暂停发送（背压只作用在转发线程上，采集线程始终只写本地日志）。
+ * Broker 不可达、发送失败或确认超时时，未提交的消息留在磁盘上，重连后按顺序重发：
+ * <ul>
+ *     <li>积压补发（断线恢复后、启动时缓冲中有遗留消息）按 {@code mqtt.buffer.rate} 限速，
+ *     积压再多也不会一下子压垮刚恢复的 Broker 和上行链路；读位置追上写位置后不再限速，实时消息不受影响</li>
+ *     <li>失败后按指数退避重试，退避时间加随机抖动，大量网关同时断网时不会在同一时刻一起重连</li>
+ *     <li>磁盘占用上限为 segment-size-mb × max-segments，超出时丢弃最旧的数据</li>
+ * </ul>
+ * 每个消息类别一个实例（见 {@link io.github.iweidujiang.modbusmqtt.config.MqttConfig}），
+ * 各自的缓冲目录、转发线程和客户端连接互不影响，报警不会排在大量积压的趋势数据后面。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class StoreAndForwardPublisher {
+
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final String name;
+    private final IMqttAsyncClient client;
+    private final MqttConnectOptions connectOptions;
+    private final Path dir;
+    private final ForwarderSettings settings;
+    private final long sendIntervalNanos;
+    private final long ackTimeoutNanos;
+    private final InFlightWindow window;
+
+    private SegmentLog log;
+    private Thread forwarder;
+    private volatile boolean running;
+    private volatile boolean online = true;
+    private volatile String lastError;
+
+    /**
+     * @param name   消息类别名，用于线程名和日志
+     * @param client 本实例独占的客户端连接，由转发线程负责连接与重连
+     * @param dir    本实例独占的缓冲目录
+     */
+    public StoreAndForwardPublisher(String name, IMqttAsyncClient client, MqttConnectOptions connectOptions,
+                                    Path dir, ForwarderSettings settings) {
+        this.name = name;
+        this.client = client;
+        this.connectOptions = connectOptions;
+        this.dir = dir;
+        this.settings = settings;
+        this.sendIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        this.ackTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.ackTimeoutMs());
+        this.window = new InFlightWindow(settings.maxInFlight());
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        log = new SegmentLog(dir, settings.segmentSizeBytes(), settings.maxSegments());
+        boolean backlog = log.getPending() > 0;
+        if (backlog) {
+            System.out.println("📦 MQTT [" + name + "] 缓冲中有 " + log.getPending() + " 条未发送消息，将按顺序补发");
+        }
+        running = true;
+        forwarder = new Thread(() -> forwardLoop(backlog), "mqtt-forwarder-" + name);
+        forwarder.setDaemon(true);
+        forwarder.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        window.signal();
+        LockSupport.unpark(forwarder);
+        try {
+            forwarder.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (client.isConnected()) {
+                client.disconnect().waitForCompletion(TimeUnit.SECONDS.toMillis(5));
+            }
+            client.close();
+        } catch (MqttException e) {
+            System.err.println("⚠️ MQTT [" + name + "] 断开连接失败: " + e.getMessage());
+        }
+        log.close();
+    }
+
+    public void publish(String topic, int qos, String payload) throws IOException {
+        publish(topic, qos, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 追加到落盘缓冲，由转发线程异步发送
+     */
+    public void publish(String topic, int qos, byte[] payload) throws IOException {
+        log.append(encode(topic, qos, payload));
+        window.signal();
+    }
+
+    /**
+     * 缓冲中等待发送的消息数
+     */
+    public long getPending() {
+        return log.getPending();
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    /**
+     * 发布统计；最大确认延迟在每次调用后清零
+     */
+    public PublishStats getStats() {
+        return new PublishStats(name, online, log.getPending(), window.size(), window.getCapacity(),
+                window.getAcked(), window.getFailures(), log.getDropped(),
+                window.getAverageLatencyMs(), window.takeMaxLatencyMs());
+    }
+
+    /**
+     * @param draining 启动时缓冲中有上次运行遗留的消息，先限速补发
+     */
+    private void forwardLoop(boolean draining) {
+        long backoffMs = settings.retryInitialMs();
+        long nextSendNanos = System.nanoTime();
+        long dropped = log.getDropped();
+        // 正在补发积压（启动时有遗留消息，或发送失败之后），日志读空即结束
+        while (running) {
+            try {
+                if (log.getDropped() != dropped) {
+                    // 缓冲满时丢弃了最旧的分段，在途窗口与日志不再对应，整体重发
+                    dropped = log.getDropped();
+                    window.reset();
+                }
+                int completed = window.pollCompleted();
+                if (completed > 0) {
+                    log.commit(completed);
+                    if (!online) {
+                        online = true;
+                        backoffMs = settings.retryInitialMs();
+                        System.out.println("✅ MQTT [" + name + "] 已恢复，缓冲中剩余 " + log.getPending() + " 条待补发");
+                    }
+                }
+
+                String failure = window.checkFailure(ackTimeoutNanos);
+                if (failure == null && !connect()) {
+                    failure = lastError;
+                }
+                if (failure != null) {
+                    lastError = failure;
+                    draining = true;
+                    backoffMs = backOff(backoffMs);
+                    continue;
+                }
+
+                // 跳过已发出未提交的消息，窗口满时等待确认
+                if (!window.hasRoom()) {
+                    window.awaitRoom(IDLE_WAIT_NANOS);
+                    continue;
+                }
+                List<byte[]> batch = log.peek(window.size(), Math.min(settings.batchSize(),
+                        window.getCapacity() - window.size()));
+                if (batch.isEmpty()) {
+                    draining = false;
+                    window.awaitChange(IDLE_WAIT_NANOS);
+                    continue;
+                }
+                for (byte[] record : batch) {
+                    if (draining) {
+                        long wait = nextSendNanos - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    }
+                    if (!running || !send(record)) {
+                        break;
+                    }
+                    if (draining) {
+                        nextSendNanos = Math.max(nextSendNanos, System.nanoTime() - sendIntervalNanos) + sendIntervalNanos;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                System.err.println("❌ MQTT [" + name + "] 转发线程异常: " + e.getMessage());
+                draining = true;
+                backoffMs = backOff(backoffMs);
+            }
+        }
+        log.flush();
+    }
+
+    /**
+     * 发出一条消息，不等待确认
+     *
+     * @return false 表示发送失败，窗口已标记失败
+     */
+    private boolean send(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        int qos = buffer.get();
+        byte[] topic = new byte[buffer.getShort() & 0xFFFF];
+        byte[] payload = new byte[buffer.remaining() - topic.length];
+        buffer.get(topic);
+        buffer.get(payload);
+        MqttMessage message = new MqttMessage(payload);
+        message.setQos(qos);
+
+        InFlightWindow.Entry entry = window.add();
+        try {
+            client.publish(new String(topic, StandardCharsets.UTF_8), message, entry, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken token) {
+                    window.complete(entry);
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable exception) {
+                    window.fail(entry, Objects.toString(exception.getMessage(), exception.toString()));
+                }
+            });
+            return true;
+        } catch (MqttException e) {
+            window.fail(entry, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean connect() {
+        if (client.isConnected()) {
+            return true;
+        }
+        try {
+            client.connect(connectOptions).waitForCompletion(settings.ackTimeoutMs());
+            return true;
+        } catch (MqttException e) {
+            if (e.getReasonCode() == MqttException.REASON_CODE_CLIENT_CONNECTED) {
+                return true;
+            }
+            lastError = "连接失败: " + e.getMessage();
+            return false;
+        }
+    }
+
+    /**
+     * 丢弃在途窗口，未确认的消息留在日志里等重发；指数退避 + 抖动：在 [backoff/2, backoff] 内随机等待
+     *
+     * @return 下一次的退避时间
+     */
+    private long backOff(long backoffMs) {
+        int discarded = window.reset();
+        if (online) {
+            online = false;
+            System.err.println("⚠️ MQTT [" + name + "] 发送失败: " + lastError + "，消息转入落盘缓冲（待发送 "
+                    + log.getPending() + " 条，其中 " + discarded + " 条将重发）");
+        }
+        if (client.isConnected()) {
+            // 确认超时或发送失败时连接可能已不可用，断开后重连
+            try {
+                client.disconnectForcibly(0, TimeUnit.SECONDS.toMillis(1));
+            } catch (MqttException ignored) {
+                // 下一轮 connect 会重新建立连接
+            }
+        }
+        log.flush();
+        long sleepMs = backoffMs / 2 + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1);
+        sleepUninterruptibly(sleepMs);
+        return Math.min(backoffMs * 2, settings.retryMaxMs());
+    }
+
+    /**
+     * 记录格式：1 字节 QoS + 2 字节主题长度 + UTF-8 主题 + 消息体
+     */
+    static byte[] encode(String topic, int qos, byte[] payload) {
+        if (topic == null || topic.isEmpty()) {
+            throw new IllegalArgumentException("MQTT 主题不能为空");
+        }
+        if (qos < 0 || qos > 2) {
+            throw new IllegalArgumentException("MQTT QoS 必须在 0 到 2 之间：" + qos);
+        }
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        if (topicBytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("MQTT 主题过长：" + topicBytes.length);
+        }
+        return ByteBuffer.allocate(3 + topicBytes.length + payload.length)
+                .put((byte) qos)
+                .putShort((short) topicBytes.length)
+                .put(topicBytes)
+                .put(payload)
+                .array();
+    }
+
+    /**
+     * 退避期间不响应新消息（新消息到达不应提前结束退避）
+     */
+    private void sleepUninterruptibly(long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        long remaining;
+        while (running && (remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
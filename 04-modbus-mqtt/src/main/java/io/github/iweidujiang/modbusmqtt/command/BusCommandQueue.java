@@ -0,0 +1,162 @@
+package io.github.iweidujiang.modbusmqtt.command;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 单条总线的写命令队列：一个工作线程按到达顺序逐条写入，同一寄存器的排队命令合并
+ * <p>
+ * RS-485 总线同一时刻只能有一个请求，命令涌入时排队不可避免。
+ * 对设定值这类“只关心最终值”的寄存器，排队中被后来的命令覆盖的旧值没有必要再写一遍：
+ * <ul>
+ *     <li>同一从站、同一寄存器已有命令在排队时，新命令取代旧命令并沿用其排队位置，旧命令以 SUPERSEDED 结束</li>
+ *     <li>正在写入的命令不受影响，新命令重新排队</li>
+ *     <li>排队超过有效期的命令以 EXPIRED 结束，不再写入（避免通信恢复后执行过时的控制指令）</li>
+ *     <li>队列（合并后）已满时新命令以 REJECTED 结束</li>
+ * </ul>
+ * 每条命令都会经 resultSink 得到一个结果。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class BusCommandQueue implements AutoCloseable {
+
+    /**
+     * 寄存器写入，由调用方绑定到具体的串口会话
+     */
+    @FunctionalInterface
+    public interface RegisterWriter {
+        void write(int slaveId, int address, int value) throws Exception;
+    }
+
+    private final String name;
+    private final int capacity;
+    private final RegisterWriter writer;
+    private final Consumer<CommandResult> resultSink;
+    private final LinkedHashMap<Long, RegisterWrite> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public BusCommandQueue(String name, int capacity, RegisterWriter writer, Consumer<CommandResult> resultSink) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("命令队列容量必须大于 0：" + capacity);
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.writer = writer;
+        this.resultSink = resultSink;
+        this.worker = new Thread(this::runLoop, "mqtt-command-" + name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 提交写命令，立即返回
+     */
+    public void submit(RegisterWrite write) {
+        CommandResult early = null;
+        lock.lock();
+        try {
+            if (!running) {
+                early = CommandResult.of(write, CommandStatus.REJECTED, "网关正在停止");
+            } else {
+                RegisterWrite previous = pending.get(write.registerKey());
+                if (previous != null) {
+                    pending.put(write.registerKey(), write); // 已存在的键保持原排队位置
+                    early = CommandResult.of(previous, CommandStatus.SUPERSEDED, "被命令 " + write.id() + " 取代");
+                } else if (pending.size() >= capacity) {
+                    early = CommandResult.of(write, CommandStatus.REJECTED, "总线 " + name + " 命令队列已满");
+                } else {
+                    pending.put(write.registerKey(), write);
+                    notEmpty.signal();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (early != null) {
+            resultSink.accept(early);
+        }
+    }
+
+    /**
+     * 排队中的命令数
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runLoop() {
+        while (true) {
+            RegisterWrite write;
+            lock.lock();
+            try {
+                while (running && pending.isEmpty()) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (!running) {
+                    break;
+                }
+                Iterator<Map.Entry<Long, RegisterWrite>> it = pending.entrySet().iterator();
+                write = it.next().getValue();
+                it.remove();
+            } finally {
+                lock.unlock();
+            }
+            resultSink.accept(execute(write));
+        }
+        // 停止时未执行的命令逐条给出结果
+        lock.lock();
+        try {
+            for (RegisterWrite write : pending.values()) {
+                resultSink.accept(CommandResult.of(write, CommandStatus.REJECTED, "网关正在停止"));
+            }
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CommandResult execute(RegisterWrite write) {
+        if (System.currentTimeMillis() > write.expireMillis()) {
+            return CommandResult.of(write, CommandStatus.EXPIRED, "排队超过有效期，未写入");
+        }
+        try {
+            writer.write(write.slaveId(), write.address(), write.value());
+            return CommandResult.of(write, CommandStatus.OK, null);
+        } catch (Exception e) {
+            return CommandResult.of(write, CommandStatus.FAILED, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.iweidujiang.modbusmqtt.command;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.iweidujiang.industry.modbus.rtu.SerialLineConfig;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSession;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSessionManager;
+import io.github.iweidujiang.modbusmqtt.buffer.StoreAndForwardPublisher;
+import io.github.iweidujiang.modbusmqtt.routing.MessageClass;
+import io.github.iweidujiang.modbusmqtt.routing.TopicRoute;
+import io.github.iweidujiang.modbusmqtt.routing.TopicRouter;
+import io.github.iweidujiang.modbusmqtt.util.ModbusRTUUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.integration.annotation.ServiceActivator;
+import org.springframework.integration.mqtt.support.MqttHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MQTT 控制命令入口：解析命令主题上的消息，转换为寄存器写请求，投递到设备所在总线的命令队列
+ * <p>
+ * 命令主题 {@code devices/<设备名>/commands}，消息体为 JSON：
+ * <pre>
+ * {"id": "c-001", "type": "setpoint", "value": 25.5}        设定目标温度，寄存器 1，×10 存储
+ * {"id": "c-002", "type": "pump", "start": true}             水泵启停，寄存器 10，1=启动 0=停止
+ * {"id": "c-003", "type": "write", "address": 20, "value": 50} 通用写寄存器
+ * </pre>
+ * 执行结果发布到 {@link MessageClass#RESPONSE} 路由的主题（默认 {@code devices/<设备名>/commands/result}）。
+ * 寄存器映射与 05 模块的 REST 接口一致，控制不再需要每条命令一次 HTTP 请求。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Component
+public class CommandDispatcher {
+
+    /** 目标温度寄存器 */
+    static final int SETPOINT_REGISTER = 1;
+    /** 水泵启停寄存器 */
+    static final int PUMP_REGISTER = 10;
+
+    private final CommandProperties properties;
+    private final SerialSessionManager serialSessionManager;
+    private final StoreAndForwardPublisher responsePublisher;
+    private final TopicRouter topicRouter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int deviceLevel;
+    private final Map<SerialLineConfig, BusCommandQueue> queues = new ConcurrentHashMap<>();
+
+    public CommandDispatcher(CommandProperties properties, SerialSessionManager serialSessionManager,
+                             @Qualifier("responsePublisher") StoreAndForwardPublisher responsePublisher,
+                             TopicRouter topicRouter) {
+        this.properties = properties;
+        this.serialSessionManager = serialSessionManager;
+        this.responsePublisher = responsePublisher;
+        this.topicRouter = topicRouter;
+        this.deviceLevel = Arrays.asList(properties.getTopic().split("/")).indexOf("+");
+        if (deviceLevel < 0) {
+            throw new IllegalArgumentException("mqtt.command.topic 必须用 + 表示设备名所在层级：" + properties.getTopic());
+        }
+    }
+
+    /**
+     * 在 Paho 回调线程上执行，只做解析和入队，不访问总线
+     */
+    @ServiceActivator(inputChannel = "mqttCommandChannel")
+    public void handle(Message<?> message) {
+        String topic = String.valueOf(message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC));
+        String[] levels = topic.split("/");
+        String device = deviceLevel < levels.length ? levels[deviceLevel] : "";
+        String id = null;
+        try {
+            JsonNode command = objectMapper.readTree(payloadAsString(message.getPayload()));
+            id = command.hasNonNull("id") ? command.get("id").asText() : UUID.randomUUID().toString();
+            CommandProperties.DeviceBinding binding = properties.getDevices().get(device);
+            if (binding == null) {
+                throw new IllegalArgumentException("未配置的设备：" + device);
+            }
+            RegisterWrite write = toWrite(id, device, binding.getSlaveId(), command);
+            SerialLineConfig line = SerialLineConfig.of(binding.getPort(), binding.getBaudRate());
+            queues.computeIfAbsent(line, this::newQueue).submit(write);
+        } catch (Exception e) {
+            publishResult(new CommandResult(id, device, CommandStatus.REJECTED, null, null, e.getMessage(),
+                    System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 命令 → 寄存器写请求
+     *
+     * @throws IllegalArgumentException 命令类型未知或参数缺失、越界
+     */
+    RegisterWrite toWrite(String id, String device, int slaveId, JsonNode command) {
+        String type = command.path("type").asText("");
+        int address;
+        int value;
+        switch (type) {
+            case "setpoint" -> {
+                double temperature = requireNumber(command, "value");
+                if (temperature < 0 || temperature > 100) {
+                    throw new IllegalArgumentException("温度必须在 0 到 100 摄氏度之间");
+                }
+                address = SETPOINT_REGISTER;
+                value = (int) Math.round(temperature * 10);
+            }
+            case "pump" -> {
+                if (!command.path("start").isBoolean()) {
+                    throw new IllegalArgumentException("命令缺少 'start' 字段");
+                }
+                address = PUMP_REGISTER;
+                value = command.get("start").asBoolean() ? 1 : 0;
+            }
+            case "write" -> {
+                address = requireInt(command, "address");
+                value = requireInt(command, "value");
+                if (address < 0 || address > 0xFFFF || value < 0 || value > 0xFFFF) {
+                    throw new IllegalArgumentException("寄存器地址和值必须在 0 到 65535 之间");
+                }
+            }
+            default -> throw new IllegalArgumentException("未知的命令类型：" + type);
+        }
+        return new RegisterWrite(id, device, slaveId, address, value, System.currentTimeMillis() + properties.getTtlMs());
+    }
+
+    @PreDestroy
+    public void close() {
+        queues.values().forEach(BusCommandQueue::close);
+    }
+
+    private BusCommandQueue newQueue(SerialLineConfig line) {
+        // 与采集共用同一个串口会话，总线访问在会话内串行化
+        SerialSession session = serialSessionManager.getSession(line);
+        return new BusCommandQueue(line.getPortName(), properties.getQueueCapacity(),
+                (slaveId, address, value) -> ModbusRTUUtils.writeSingleRegister(session, slaveId, address, value),
+                this::publishResult);
+    }
+
+    private void publishResult(CommandResult result) {
+        try {
+            String device = result.device() == null || result.device().isEmpty() ? "unknown" : result.device();
+            TopicRoute route = topicRouter.route(MessageClass.RESPONSE, device, null);
+            responsePublisher.publish(route.topic(), route.qos(), objectMapper.writeValueAsString(result));
+            if (result.status() == CommandStatus.OK) {
+                System.out.println("✅ 命令 " + result.id() + " 已执行: " + device + " 寄存器 " + result.address()
+                        + " = " + result.value());
+            } else {
+                System.err.println("⚠️ 命令 " + result.id() + " " + result.status() + ": " + result.message());
+            }
+        } catch (Exception e) {
+            System.err.println("❌ 命令结果发布失败: " + e.getMessage());
+        }
+    }
+
+    private static double requireNumber(JsonNode command, String field) {
+        JsonNode node = command.get(field);
+        if (node == null || !node.isNumber()) {
+            throw new IllegalArgumentException("命令缺少数值字段 '" + field + "'");
+        }
+        return node.asDouble();
+    }
+
+    /**
+     * 整数字段：50.7 这样的小数直接拒绝，不截断后写入设备
+     */
+    private static int requireInt(JsonNode command, String field) {
+        JsonNode node = command.get(field);
+        if (node == null || !node.isIntegralNumber() || !node.canConvertToInt()) {
+            throw new IllegalArgumentException("命令字段 '" + field + "' 必须是整数");
+        }
+        return node.intValue();
+    }
+
+    private static String payloadAsString(Object payload) {
+        return payload instanceof byte[] bytes
+                ? new String(bytes, StandardCharsets.UTF_8)
+                : String.valueOf(payload);
+    }
+}
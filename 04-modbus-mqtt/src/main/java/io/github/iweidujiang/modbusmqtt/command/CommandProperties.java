@@ -0,0 +1,45 @@
+package io.github.iweidujiang.modbusmqtt.command;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MQTT 控制命令配置（mqtt.command）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mqtt.command")
+public class CommandProperties {
+
+    /** 订阅的命令主题，{@code +} 所在层级为设备名 */
+    private String topic = "devices/+/commands";
+
+    /** 订阅 QoS */
+    private int qos = 1;
+
+    /** 每条总线排队的写请求上限（合并后） */
+    private int queueCapacity = 256;
+
+    /** 命令有效期，排队超过此时间未执行的命令作废，不再写入设备 */
+    private long ttlMs = 30_000;
+
+    /** 设备名 → 所在总线与从站地址 */
+    private Map<String, DeviceBinding> devices = new HashMap<>();
+
+    @Data
+    public static class DeviceBinding {
+        private String port;
+        private int baudRate = 9600;
+        private int slaveId = 1;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.iweidujiang.modbusmqtt.command;
+
+/**
+ * 命令执行结果，以 JSON 发布到结果主题
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param id        命令 ID
+ * @param device    设备名
+ * @param status    结果状态
+ * @param address   寄存器地址，命令未能解析时为 null
+ * @param value     写入值，命令未能解析时为 null
+ * @param message   说明（失败原因、取代它的命令 ID 等）
+ * @param timestamp 结果产生时刻
+ */
+public record CommandResult(String id, String device, CommandStatus status, Integer address, Integer value,
+                            String message, long timestamp) {
+
+    static CommandResult of(RegisterWrite write, CommandStatus status, String message) {
+        return new CommandResult(write.id(), write.device(), status, write.address(), write.value(), message,
+                System.currentTimeMillis());
+    }
+}
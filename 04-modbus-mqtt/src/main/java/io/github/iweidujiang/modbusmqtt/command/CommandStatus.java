@@ -0,0 +1,28 @@
+package io.github.iweidujiang.modbusmqtt.command;
+
+/**
+ * 命令执行结果状态
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public enum CommandStatus {
+
+    /** 已写入设备 */
+    OK,
+
+    /** 写入失败（设备无响应、异常响应等） */
+    FAILED,
+
+    /** 执行前被同一寄存器上更新的命令取代，未写入 */
+    SUPERSEDED,
+
+    /** 排队超过有效期，未写入 */
+    EXPIRED,
+
+    /** 命令非法或队列已满，未受理 */
+    REJECTED
+}
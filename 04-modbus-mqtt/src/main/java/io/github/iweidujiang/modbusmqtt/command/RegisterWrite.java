@@ -0,0 +1,26 @@
+package io.github.iweidujiang.modbusmqtt.command;
+
+/**
+ * 一条待执行的寄存器写请求
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param id           命令 ID，原样带回执行结果
+ * @param device       设备名
+ * @param slaveId      从站地址
+ * @param address      寄存器地址
+ * @param value        写入值（0~65535）
+ * @param expireMillis 过期时刻，到期仍未执行则作废
+ */
+public record RegisterWrite(String id, String device, int slaveId, int address, int value, long expireMillis) {
+
+    /**
+     * 合并键：同一从站的同一寄存器
+     */
+    long registerKey() {
+        return ((long) slaveId << 16) | address;
+    }
+}
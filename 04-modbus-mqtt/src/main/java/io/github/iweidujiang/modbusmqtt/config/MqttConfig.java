@@ -1,19 +1,31 @@
 package io.github.iweidujiang.modbusmqtt.config;
 
+import io.github.iweidujiang.modbusmqtt.buffer.ForwarderSettings;
+import io.github.iweidujiang.modbusmqtt.buffer.StoreAndForwardPublisher;
+import io.github.iweidujiang.modbusmqtt.command.CommandProperties;
+import io.github.iweidujiang.modbusmqtt.routing.MessageClass;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.config.EnableIntegration;
 import org.springframework.integration.mqtt.core.DefaultMqttPahoClientFactory;
-import org.springframework.integration.mqtt.outbound.MqttPahoMessageHandler;
+import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
 import org.springframework.messaging.MessageChannel;
 
+import java.nio.file.Path;
+
 /**
  * 配置 MQTT
  * <p>
+ * 每个消息类别（{@link MessageClass}）一套独立的出站链路：客户端连接 → 落盘缓冲与转发线程。
+ * 报警走单独的 TCP 连接和在途窗口，不会被趋势数据的积压补发或慢速确认拖住。
+ * 出站直接使用 Paho 异步客户端而不经 MessageChannel：逐条拿到 Broker 确认，才能按确认提交缓冲读位置。
+ * 入站控制命令经 mqttCommandChannel 交给 {@link io.github.iweidujiang.modbusmqtt.command.CommandDispatcher}。
+ * <p>
  * 作者: 苏渡苇
  * GitHub:  https://github.com/iweidujiang
  * 公众号: 苏渡苇
@@ -30,19 +42,43 @@ public class MqttConfig {
     @Value("${mqtt.client-id:modbus-gateway}")
     private String clientId;
 
-    // 创建消息通道
-    @Bean
-    public MessageChannel mqttOutboundChannel() {
-        return new DirectChannel();
-    }
+    @Value("${mqtt.buffer.dir:data/mqtt-buffer}")
+    private String bufferDir;
+
+    @Value("${mqtt.buffer.segment-size-mb:16}")
+    private int segmentSizeMb;
+
+    @Value("${mqtt.buffer.max-segments:64}")
+    private int maxSegments;
+
+    @Value("${mqtt.buffer.batch-size:100}")
+    private int batchSize;
+
+    @Value("${mqtt.buffer.rate:200}")
+    private int rate;
+
+    @Value("${mqtt.buffer.max-in-flight:100}")
+    private int maxInFlight;
+
+    @Value("${mqtt.buffer.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    @Value("${mqtt.buffer.retry-initial-ms:1000}")
+    private long retryInitialMs;
+
+    @Value("${mqtt.buffer.retry-max-ms:60000}")
+    private long retryMaxMs;
 
     // 创建 MQTT 连接选项
     @Bean
     public MqttConnectOptions mqttConnectOptions() {
         MqttConnectOptions options = new MqttConnectOptions();
         options.setServerURIs(new String[]{brokerUrl});
-        options.setAutomaticReconnect(true);
+        // 出站连接由转发线程按带抖动的指数退避重连，不使用 Paho 的固定节奏自动重连
+        options.setAutomaticReconnect(false);
         options.setCleanSession(false);
+        // Paho 自身的在途上限不能小于转发线程的在途窗口
+        options.setMaxInflight(maxInFlight);
         return options;
     }
 
@@ -51,19 +87,49 @@ public class MqttConfig {
     public DefaultMqttPahoClientFactory mqttClientFactory() {
         DefaultMqttPahoClientFactory factory = new DefaultMqttPahoClientFactory();
         factory.setConnectionOptions(mqttConnectOptions());
+        // 未确认的消息以落盘缓冲为准，Paho 不再另存一份
+        factory.setPersistence(new MemoryPersistence());
         return factory;
     }
 
-    // 创建出站处理器
     @Bean
-    @ServiceActivator(inputChannel = "mqttOutboundChannel")
-    public MqttPahoMessageHandler mqttOutbound() {
-        // 构造函数只接受 clientId 和 clientFactory
-        MqttPahoMessageHandler messageHandler =
-                new MqttPahoMessageHandler(clientId, mqttClientFactory());
-
-        messageHandler.setDefaultTopic("devices/thermostat/telemetry");
-        messageHandler.setAsync(true);
-        return messageHandler;
+    public StoreAndForwardPublisher telemetryPublisher() throws MqttException {
+        return publisher(MessageClass.TELEMETRY);
+    }
+
+    @Bean
+    public StoreAndForwardPublisher alarmPublisher() throws MqttException {
+        return publisher(MessageClass.ALARM);
+    }
+
+    @Bean
+    public StoreAndForwardPublisher responsePublisher() throws MqttException {
+        return publisher(MessageClass.RESPONSE);
+    }
+
+    // 入站命令通道
+    @Bean
+    public MessageChannel mqttCommandChannel() {
+        return new DirectChannel();
+    }
+
+    // 订阅命令主题，独立的 clientId，与出站连接互不影响
+    @Bean
+    public MqttPahoMessageDrivenChannelAdapter mqttCommandInbound(CommandProperties commandProperties) {
+        MqttPahoMessageDrivenChannelAdapter adapter = new MqttPahoMessageDrivenChannelAdapter(
+                clientId + "-command", mqttClientFactory(), commandProperties.getTopic());
+        adapter.setQos(commandProperties.getQos());
+        adapter.setOutputChannel(mqttCommandChannel());
+        return adapter;
+    }
+
+    private StoreAndForwardPublisher publisher(MessageClass messageClass) throws MqttException {
+        // 每个类别独立的 clientId，即独立的连接与会话
+        DefaultMqttPahoClientFactory factory = mqttClientFactory();
+        ForwarderSettings settings = new ForwarderSettings(segmentSizeMb, maxSegments, batchSize, rate, maxInFlight,
+                ackTimeoutMs, retryInitialMs, retryMaxMs);
+        return new StoreAndForwardPublisher(messageClass.key(),
+                factory.getAsyncClientInstance(brokerUrl, clientId + "-" + messageClass.key()),
+                factory.getConnectionOptions(), Path.of(bufferDir, messageClass.key()), settings);
     }
 }
@@ -0,0 +1,120 @@
+package io.github.iweidujiang.modbusmqtt.envelope;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 遥测信封的压缩算法，id 写入信封头
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public enum EnvelopeCompression {
+
+    NONE(0) {
+        @Override
+        byte[] compress(byte[] data) {
+            return data;
+        }
+
+        @Override
+        byte[] decompress(byte[] data, int offset, int length, int originalLength) {
+            byte[] out = new byte[length];
+            System.arraycopy(data, offset, out, 0, length);
+            return out;
+        }
+    },
+
+    /** JDK 自带，无额外依赖 */
+    DEFLATE(1) {
+        @Override
+        byte[] compress(byte[] data) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(data);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+                byte[] chunk = new byte[4096];
+                while (!deflater.finished()) {
+                    out.write(chunk, 0, deflater.deflate(chunk));
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        byte[] decompress(byte[] data, int offset, int length, int originalLength) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data, offset, length);
+                byte[] out = new byte[originalLength];
+                int n = 0;
+                while (n < originalLength && !inflater.finished()) {
+                    int read = inflater.inflate(out, n, originalLength - n);
+                    if (read == 0 && inflater.needsInput()) {
+                        break;
+                    }
+                    n += read;
+                }
+                if (n != originalLength) {
+                    throw new IllegalArgumentException("信封解压后长度不符：" + n + " != " + originalLength);
+                }
+                return out;
+            } catch (DataFormatException e) {
+                throw new IllegalArgumentException("信封解压失败：" + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+        }
+    },
+
+    /** 压缩率与速度都优于 deflate，需要 zstd-jni 本地库 */
+    ZSTD(2) {
+        @Override
+        byte[] compress(byte[] data) {
+            return Zstd.compress(data, 3);
+        }
+
+        @Override
+        byte[] decompress(byte[] data, int offset, int length, int originalLength) {
+            byte[] out = new byte[originalLength];
+            long n = Zstd.decompressByteArray(out, 0, originalLength, data, offset, length);
+            if (Zstd.isError(n) || n != originalLength) {
+                throw new IllegalArgumentException("信封解压失败：" + (Zstd.isError(n) ? Zstd.getErrorName(n) : n + " != " + originalLength));
+            }
+            return out;
+        }
+    };
+
+    private final int id;
+
+    EnvelopeCompression(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    abstract byte[] compress(byte[] data);
+
+    abstract byte[] decompress(byte[] data, int offset, int length, int originalLength);
+
+    static EnvelopeCompression ofId(int id) {
+        for (EnvelopeCompression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("未知的信封压缩算法：" + id);
+    }
+}
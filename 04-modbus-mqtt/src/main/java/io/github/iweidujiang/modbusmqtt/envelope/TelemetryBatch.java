@@ -0,0 +1,95 @@
+package io.github.iweidujiang.modbusmqtt.envelope;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按列存放的一批遥测采样：点位索引、时间戳、值各占一列，点位名只存一次
+ * <p>
+ * 非线程安全，由 {@link TelemetryBatcher} 加锁使用。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class TelemetryBatch {
+
+    private final List<String> points = new ArrayList<>();
+    private final Map<String, Integer> pointIndexes = new HashMap<>();
+    private int[] pointColumn;
+    private long[] timestampColumn;
+    private double[] valueColumn;
+    private int size;
+
+    public TelemetryBatch() {
+        this(64);
+    }
+
+    public TelemetryBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.pointColumn = new int[capacity];
+        this.timestampColumn = new long[capacity];
+        this.valueColumn = new double[capacity];
+    }
+
+    public void add(String point, long timestamp, double value) {
+        Integer index = pointIndexes.get(point);
+        if (index == null) {
+            index = points.size();
+            points.add(point);
+            pointIndexes.put(point, index);
+        }
+        if (size == pointColumn.length) {
+            int capacity = size * 2;
+            pointColumn = Arrays.copyOf(pointColumn, capacity);
+            timestampColumn = Arrays.copyOf(timestampColumn, capacity);
+            valueColumn = Arrays.copyOf(valueColumn, capacity);
+        }
+        pointColumn[size] = index;
+        timestampColumn[size] = timestamp;
+        valueColumn[size] = value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 点位名字典，按首次出现的顺序
+     */
+    public List<String> getPoints() {
+        return points;
+    }
+
+    public String getPoint(int i) {
+        return points.get(pointColumn[i]);
+    }
+
+    int getPointIndex(int i) {
+        return pointColumn[i];
+    }
+
+    public long getTimestamp(int i) {
+        return timestampColumn[i];
+    }
+
+    public double getValue(int i) {
+        return valueColumn[i];
+    }
+
+    public void clear() {
+        points.clear();
+        pointIndexes.clear();
+        size = 0;
+    }
+}
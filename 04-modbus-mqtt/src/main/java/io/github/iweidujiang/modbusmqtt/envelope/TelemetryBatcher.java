@@ -0,0 +1,131 @@
+package io.github.iweidujiang.modbusmqtt.envelope;
+
+import io.github.iweidujiang.modbusmqtt.buffer.StoreAndForwardPublisher;
+import io.github.iweidujiang.modbusmqtt.routing.MessageClass;
+import io.github.iweidujiang.modbusmqtt.routing.TopicRoute;
+import io.github.iweidujiang.modbusmqtt.routing.TopicRouter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 把采样攒成批量信封再发布，按条数或时间触发
+ * <p>
+ * 每个 MQTT 消息在 Broker 侧都有固定开销（报文头、路由、会话状态、确认），
+ * 每个网关上千个点位逐条发布时，这部分开销远大于数据本身。攒批后一条消息携带几百个采样，
+ * 再经 {@link TelemetryEnvelopeCodec} 列式编码和压缩，消息数和字节数都大幅减少。
+ * <ul>
+ *     <li>采样数达到 {@code max-samples} 立即发送</li>
+ *     <li>最早一条采样等待超过 {@code max-age-ms} 时发送，低频数据的延迟有上界</li>
+ * </ul>
+ * 按 {@link TopicRouter} 解析出的趋势数据主题分别攒批，发往 {@code <主题>/batch}，与逐条 JSON 的主题区分开。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Component
+public class TelemetryBatcher {
+
+    /** 批量信封主题 = 趋势数据主题 + 此后缀 */
+    public static final String BATCH_TOPIC_SUFFIX = "/batch";
+
+    private final StoreAndForwardPublisher publisher;
+    private final TopicRouter topicRouter;
+    private final int maxSamples;
+    private final long maxAgeMs;
+    private final EnvelopeCompression compression;
+
+    private final Map<TopicRoute, PendingBatch> batches = new HashMap<>();
+
+    public TelemetryBatcher(@Qualifier("telemetryPublisher") StoreAndForwardPublisher publisher,
+                            TopicRouter topicRouter,
+                            @Value("${mqtt.telemetry.batch.max-samples:500}") int maxSamples,
+                            @Value("${mqtt.telemetry.batch.max-age-ms:5000}") long maxAgeMs,
+                            @Value("${mqtt.telemetry.batch.compression:zstd}") String compression) {
+        if (maxSamples <= 0) {
+            throw new IllegalArgumentException("mqtt.telemetry.batch.max-samples 必须大于 0：" + maxSamples);
+        }
+        this.publisher = publisher;
+        this.topicRouter = topicRouter;
+        this.maxSamples = maxSamples;
+        this.maxAgeMs = maxAgeMs;
+        this.compression = EnvelopeCompression.valueOf(compression.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * 加入一条采样，所在批次攒够条数时立即发送
+     */
+    public synchronized void add(String device, String point, long timestamp, double value) throws IOException {
+        TopicRoute route = topicRouter.route(MessageClass.TELEMETRY, device, point);
+        PendingBatch pending = batches.computeIfAbsent(route, r -> new PendingBatch());
+        if (pending.batch.isEmpty()) {
+            pending.firstSampleMillis = System.currentTimeMillis();
+        }
+        pending.batch.add(point, timestamp, value);
+        if (pending.batch.size() >= maxSamples) {
+            flush(route, pending);
+        }
+    }
+
+    /**
+     * 定时检查，最早一条采样超时的批次发送
+     */
+    @Scheduled(fixedDelay = 500)
+    public synchronized void flushIfExpired() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Map.Entry<TopicRoute, PendingBatch>> it = batches.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<TopicRoute, PendingBatch> entry = it.next();
+            PendingBatch pending = entry.getValue();
+            if (pending.batch.isEmpty()) {
+                it.remove(); // 不再有数据的主题
+            } else if (now - pending.firstSampleMillis >= maxAgeMs) {
+                flushQuietly(entry.getKey(), pending);
+            }
+        }
+    }
+
+    /**
+     * 发送所有未满的批次
+     */
+    public synchronized void flush() {
+        batches.forEach(this::flushQuietly);
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private void flushQuietly(TopicRoute route, PendingBatch pending) {
+        try {
+            flush(route, pending);
+        } catch (IOException e) {
+            System.err.println("❌ 批量遥测写入缓冲失败: " + e.getMessage());
+        }
+    }
+
+    private void flush(TopicRoute route, PendingBatch pending) throws IOException {
+        if (pending.batch.isEmpty()) {
+            return;
+        }
+        byte[] envelope = TelemetryEnvelopeCodec.encode(pending.batch, compression);
+        pending.batch.clear(); // 写缓冲失败时丢弃本批，避免批次无限增长
+        publisher.publish(route.topic() + BATCH_TOPIC_SUFFIX, route.qos(), envelope);
+    }
+
+    private final class PendingBatch {
+        final TelemetryBatch batch = new TelemetryBatch(Math.min(maxSamples, 1024));
+        long firstSampleMillis;
+    }
+}
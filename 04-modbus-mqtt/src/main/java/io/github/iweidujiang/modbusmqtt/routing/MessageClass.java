@@ -0,0 +1,31 @@
+package io.github.iweidujiang.modbusmqtt.routing;
+
+import java.util.Locale;
+
+/**
+ * 消息类别：每类使用独立的 MQTT 客户端连接、落盘缓冲和转发线程
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public enum MessageClass {
+
+    /** 周期采集的趋势数据：量大，可攒批，默认 QoS 0 */
+    TELEMETRY,
+
+    /** 报警：量小，逐条立即发送，默认 QoS 1 */
+    ALARM,
+
+    /** 控制命令的执行结果，默认 QoS 1 */
+    RESPONSE;
+
+    /**
+     * 配置文件中的键名，如 {@code telemetry}
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
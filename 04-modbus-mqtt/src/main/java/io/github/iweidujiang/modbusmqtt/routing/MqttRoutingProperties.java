@@ -0,0 +1,49 @@
+package io.github.iweidujiang.modbusmqtt.routing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 主题路由配置（mqtt.routing）
+ * <p>
+ * 每个消息类别配置默认的主题模板和 QoS，设备可以按类别覆盖。
+ * 主题模板支持占位符 {@code {device}}、{@code {point}}、{@code {class}}。
+ * <pre>
+ * mqtt:
+ *   routing:
+ *     classes:
+ *       telemetry: { topic: "devices/{device}/telemetry", qos: 0 }
+ *       alarm:     { topic: "devices/{device}/alarms/{point}", qos: 1 }
+ *       response:  { topic: "devices/{device}/commands/result", qos: 1 }
+ *     devices:
+ *       boiler-1:
+ *         alarm: { topic: "plant/boiler/alarms/{point}", qos: 2 }
+ * </pre>
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mqtt.routing")
+public class MqttRoutingProperties {
+
+    /** 类别键（telemetry / alarm / response）→ 默认路由 */
+    private Map<String, Route> classes = new HashMap<>();
+
+    /** 设备名 → 类别键 → 覆盖的路由，未配置的字段沿用类别默认值 */
+    private Map<String, Map<String, Route>> devices = new HashMap<>();
+
+    @Data
+    public static class Route {
+        private String topic;
+        private Integer qos;
+    }
+}
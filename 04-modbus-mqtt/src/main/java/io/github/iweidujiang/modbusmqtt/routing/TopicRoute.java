@@ -0,0 +1,13 @@
+package io.github.iweidujiang.modbusmqtt.routing;
+
+/**
+ * 解析后的路由：具体主题与 QoS
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public record TopicRoute(String topic, int qos) {
+}
@@ -0,0 +1,101 @@
+package io.github.iweidujiang.modbusmqtt.routing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按设备、点位和消息类别解析 MQTT 主题与 QoS
+ * <p>
+ * 设备级配置优先，其次是类别默认值；解析结果按 (类别, 设备, 点位) 缓存，采集路径上不做字符串替换。
+ * 启动时校验每个类别都有主题模板，QoS 在 0~2 之间，模板中不含通配符。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Component
+public class TopicRouter {
+
+    private static final Map<MessageClass, MqttRoutingProperties.Route> DEFAULTS = new EnumMap<>(MessageClass.class);
+
+    static {
+        DEFAULTS.put(MessageClass.TELEMETRY, route("devices/{device}/telemetry", 0));
+        DEFAULTS.put(MessageClass.ALARM, route("devices/{device}/alarms/{point}", 1));
+        DEFAULTS.put(MessageClass.RESPONSE, route("devices/{device}/commands/result", 1));
+    }
+
+    private final MqttRoutingProperties properties;
+    private final Map<String, TopicRoute> cache = new ConcurrentHashMap<>();
+
+    public TopicRouter(MqttRoutingProperties properties) {
+        this.properties = properties;
+        for (MessageClass messageClass : MessageClass.values()) {
+            validate(messageClass.key(), resolveTemplate(messageClass, null));
+        }
+        properties.getDevices().forEach((device, routes) -> routes.forEach((key, route) -> {
+            MessageClass messageClass = MessageClass.valueOf(key.toUpperCase(Locale.ROOT));
+            validate(device + "." + key, resolveTemplate(messageClass, device));
+        }));
+    }
+
+    /**
+     * 解析路由
+     *
+     * @param point 点位名，主题模板不含 {@code {point}} 时可为 null
+     */
+    public TopicRoute route(MessageClass messageClass, String device, String point) {
+        String key = messageClass.ordinal() + "|" + device + "|" + point;
+        return cache.computeIfAbsent(key, k -> {
+            MqttRoutingProperties.Route template = resolveTemplate(messageClass, device);
+            String topic = template.getTopic()
+                    .replace("{class}", messageClass.key())
+                    .replace("{device}", device)
+                    .replace("{point}", point == null ? "" : point);
+            return new TopicRoute(topic, template.getQos());
+        });
+    }
+
+    private MqttRoutingProperties.Route resolveTemplate(MessageClass messageClass, String device) {
+        MqttRoutingProperties.Route fallback = DEFAULTS.get(messageClass);
+        MqttRoutingProperties.Route classRoute = properties.getClasses().get(messageClass.key());
+        MqttRoutingProperties.Route deviceRoute = device == null ? null
+                : properties.getDevices().getOrDefault(device, Map.of()).get(messageClass.key());
+        String topic = firstNonNull(deviceRoute == null ? null : deviceRoute.getTopic(),
+                classRoute == null ? null : classRoute.getTopic(), fallback.getTopic());
+        Integer qos = firstNonNull(deviceRoute == null ? null : deviceRoute.getQos(),
+                classRoute == null ? null : classRoute.getQos(), fallback.getQos());
+        return route(topic, qos);
+    }
+
+    private static void validate(String name, MqttRoutingProperties.Route route) {
+        if (route.getTopic().isBlank() || route.getTopic().contains("+") || route.getTopic().contains("#")) {
+            throw new IllegalArgumentException("MQTT 路由 " + name + " 的主题模板非法：" + route.getTopic());
+        }
+        if (route.getQos() < 0 || route.getQos() > 2) {
+            throw new IllegalArgumentException("MQTT 路由 " + name + " 的 QoS 必须在 0 到 2 之间：" + route.getQos());
+        }
+    }
+
+    @SafeVarargs
+    private static <T> T firstNonNull(T... values) {
+        for (T value : values) {
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static MqttRoutingProperties.Route route(String topic, int qos) {
+        MqttRoutingProperties.Route route = new MqttRoutingProperties.Route();
+        route.setTopic(topic);
+        route.setQos(qos);
+        return route;
+    }
+}
@@ -1,11 +1,14 @@
 package io.github.iweidujiang.modbusmqtt.scheduler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.iweidujiang.modbusmqtt.buffer.StoreAndForwardPublisher;
+import io.github.iweidujiang.modbusmqtt.envelope.TelemetryBatcher;
+import io.github.iweidujiang.modbusmqtt.routing.MessageClass;
+import io.github.iweidujiang.modbusmqtt.routing.TopicRoute;
+import io.github.iweidujiang.modbusmqtt.routing.TopicRouter;
 import io.github.iweidujiang.modbusmqtt.service.ModbusService;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.integration.support.MessageBuilder;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.MessageChannel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -14,6 +17,10 @@ import java.util.Map;
 /**
  * 定时采集发布
  * <p>
+ * 采集结果先写入落盘缓冲再异步发送，Broker 断开期间的数据在恢复后补发。
+ * 发布模式由 {@code mqtt.telemetry.mode} 选择：json 每个读数一条 JSON 消息；batch 交给 {@link TelemetryBatcher} 攒批编码。
+ * 温度越过报警上限或恢复时，经报警通道立即发送一条报警消息，主题与 QoS 由 {@link TopicRouter} 决定。
+ * <p>
  * 作者: 苏渡苇
  * GitHub:  https://github.com/iweidujiang
  * 公众号: 苏渡苇
@@ -22,30 +29,84 @@ import java.util.Map;
  */
 @Component
 public class DataCollector {
+    private static final String POINT = "temperature";
+
     private final ModbusService modbusService;
-    private final MessageChannel mqttOutboundChannel;
+    private final StoreAndForwardPublisher telemetryPublisher;
+    private final StoreAndForwardPublisher alarmPublisher;
+    private final TelemetryBatcher batcher;
+    private final TopicRouter topicRouter;
+    private final String device;
+    private final double alarmHigh;
+    private final boolean batchMode;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private boolean alarmActive;
 
     public DataCollector(ModbusService modbusService,
-                         @Qualifier("mqttOutboundChannel") MessageChannel mqttOutboundChannel) {
+                         @Qualifier("telemetryPublisher") StoreAndForwardPublisher telemetryPublisher,
+                         @Qualifier("alarmPublisher") StoreAndForwardPublisher alarmPublisher,
+                         TelemetryBatcher batcher, TopicRouter topicRouter,
+                         @Value("${collector.device:thermostat}") String device,
+                         @Value("${collector.temperature-alarm-high:80.0}") double alarmHigh,
+                         @Value("${mqtt.telemetry.mode:json}") String mode) {
         this.modbusService = modbusService;
-        this.mqttOutboundChannel = mqttOutboundChannel;
+        this.telemetryPublisher = telemetryPublisher;
+        this.alarmPublisher = alarmPublisher;
+        this.batcher = batcher;
+        this.topicRouter = topicRouter;
+        this.device = device;
+        this.alarmHigh = alarmHigh;
+        this.batchMode = "batch".equalsIgnoreCase(mode.trim());
     }
 
     @Scheduled(fixedRate = 10_000)
     public void collectAndPublish() {
         try {
             double temperature = modbusService.readTemperature();
+            long timestamp = System.currentTimeMillis();
+            checkAlarm(temperature, timestamp);
+            if (batchMode) {
+                batcher.add(device, POINT, timestamp, temperature);
+                return;
+            }
             String json = objectMapper.writeValueAsString(Map.of(
-                    "temperature", temperature,
-                    "timestamp", System.currentTimeMillis()
+                    POINT, temperature,
+                    "timestamp", timestamp
             ));
 
-            Message<String> message = MessageBuilder.withPayload(json).build();
-            boolean sent = mqttOutboundChannel.send(message, 5000);
-            System.out.println(sent ? "📤 MQTT 发布成功: " + json : "❌ 发送超时");
+            TopicRoute route = topicRouter.route(MessageClass.TELEMETRY, device, POINT);
+            telemetryPublisher.publish(route.topic(), route.qos(), json);
+            System.out.println("📤 MQTT 发布已入队: " + json + "（待发送 " + telemetryPublisher.getPending() + " 条）");
+        } catch (Exception e) {
+            System.err.println("❌ 采集或缓冲失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 越限与恢复各发一次报警，不在每个采集周期重复发送
+     * <p>
+     * 报警写入缓冲成功后才记下新状态：写入失败时下个周期重新判定并补发，
+     * 失败也不影响本周期遥测的发布。
+     */
+    private void checkAlarm(double temperature, long timestamp) {
+        boolean active = temperature >= alarmHigh;
+        if (active == alarmActive) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(Map.of(
+                    "point", POINT,
+                    "state", active ? "ACTIVE" : "CLEARED",
+                    "value", temperature,
+                    "limit", alarmHigh,
+                    "timestamp", timestamp
+            ));
+            TopicRoute route = topicRouter.route(MessageClass.ALARM, device, POINT);
+            alarmPublisher.publish(route.topic(), route.qos(), json);
+            alarmActive = active;
+            System.out.println((active ? "🚨 温度越限报警: " : "✅ 温度报警恢复: ") + json);
         } catch (Exception e) {
-            System.err.println("❌ 采集或发送失败: " + e.getMessage());
+            System.err.println("❌ 报警缓冲失败，下个周期重试: " + e.getMessage());
         }
     }
 }
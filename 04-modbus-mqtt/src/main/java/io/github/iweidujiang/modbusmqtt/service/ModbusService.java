@@ -1,5 +1,8 @@
 package io.github.iweidujiang.modbusmqtt.service;
 
+import io.github.iweidujiang.industry.modbus.rtu.SerialLineConfig;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSession;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSessionManager;
 import io.github.iweidujiang.modbusmqtt.util.ModbusRTUUtils;
 import org.springframework.stereotype.Service;
 
@@ -21,9 +24,16 @@ public class ModbusService {
     // 波特率
     private final int BAUD_RATE = 9600;
 
+    // 串口长连接会话，与其他共用同一 RS-485 总线的组件串行访问
+    private final SerialSession serialSession;
+
+    public ModbusService(SerialSessionManager serialSessionManager) {
+        this.serialSession = serialSessionManager.getSession(SerialLineConfig.of(PORT_NAME, BAUD_RATE));
+    }
+
     public double readTemperature() {
         try {
-            return ModbusRTUUtils.readTemperature(PORT_NAME, BAUD_RATE);
+            return ModbusRTUUtils.readTemperature(serialSession);
         } catch (Exception e) {
             throw new RuntimeException("Modbus 读取失败: " + e.getMessage(), e);
         }
@@ -0,0 +1,88 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 内存中的假 Broker 连接：收到的消息按顺序记录；autoAck 为 false 时确认回调留给测试调用
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class FakeMqttBroker {
+
+    private final List<String> topics = new CopyOnWriteArrayList<>();
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final List<IMqttActionListener> unacked = new CopyOnWriteArrayList<>();
+    private final boolean autoAck;
+    private volatile boolean connected;
+
+    public FakeMqttBroker(boolean autoAck) {
+        this.autoAck = autoAck;
+    }
+
+    /**
+     * 收到的消息体（UTF-8）
+     */
+    public List<String> getReceived() {
+        return received;
+    }
+
+    /**
+     * 收到的消息主题，与 {@link #getReceived()} 一一对应
+     */
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    /**
+     * 尚未确认的消息的回调，按收到顺序
+     */
+    public List<IMqttActionListener> getUnacked() {
+        return unacked;
+    }
+
+    /**
+     * 连到本 Broker 的客户端（只实现发布器用到的方法）
+     */
+    public IMqttAsyncClient client() {
+        IMqttToken token = (IMqttToken) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{IMqttToken.class}, (proxy, method, args) -> null);
+        return (IMqttAsyncClient) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{IMqttAsyncClient.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isConnected":
+                            return connected;
+                        case "connect":
+                            connected = true;
+                            return token;
+                        case "disconnect":
+                            connected = false;
+                            return token;
+                        case "publish":
+                            MqttMessage message = (MqttMessage) args[1];
+                            topics.add((String) args[0]);
+                            received.add(new String(message.getPayload(), StandardCharsets.UTF_8));
+                            IMqttActionListener listener = (IMqttActionListener) args[3];
+                            if (autoAck) {
+                                listener.onSuccess(token);
+                            } else {
+                                unacked.add(listener);
+                            }
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在途窗口测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class InFlightWindowTest {
+
+    @Test
+    public void onlyContiguousAckedPrefixIsCommittable() {
+        InFlightWindow window = new InFlightWindow(3);
+        InFlightWindow.Entry first = window.add();
+        InFlightWindow.Entry second = window.add();
+        InFlightWindow.Entry third = window.add();
+        assertFalse(window.hasRoom());
+
+        // 乱序确认：第一条未确认前不能提交
+        window.complete(second);
+        window.complete(third);
+        assertEquals(0, window.pollCompleted());
+
+        window.complete(first);
+        assertEquals(3, window.pollCompleted());
+        assertEquals(0, window.size());
+        assertEquals(3, window.getAcked());
+        assertTrue(window.hasRoom());
+    }
+
+    @Test
+    public void resetIgnoresLateCallbacksFromPreviousGeneration() {
+        InFlightWindow window = new InFlightWindow(4);
+        InFlightWindow.Entry stale = window.add();
+        window.add();
+        window.fail(stale, "connection lost");
+        assertEquals("connection lost", window.checkFailure(Long.MAX_VALUE));
+
+        assertEquals(2, window.reset());
+        assertNull(window.checkFailure(Long.MAX_VALUE));
+
+        InFlightWindow.Entry fresh = window.add();
+        window.complete(stale);
+        window.fail(stale, "late");
+        assertNull(window.checkFailure(Long.MAX_VALUE));
+        assertEquals(0, window.pollCompleted());
+
+        window.complete(fresh);
+        assertEquals(1, window.pollCompleted());
+        assertEquals(1, window.getAcked());
+    }
+
+    @Test
+    public void oldestUnackedEntryTimesOut() throws InterruptedException {
+        InFlightWindow window = new InFlightWindow(2);
+        window.add();
+        assertNull(window.checkFailure(TimeUnit.SECONDS.toNanos(10)));
+        Thread.sleep(20);
+        assertNotNull(window.checkFailure(TimeUnit.MILLISECONDS.toNanos(5)));
+    }
+}
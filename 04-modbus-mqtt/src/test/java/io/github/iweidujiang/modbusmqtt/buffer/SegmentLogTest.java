@@ -0,0 +1,115 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 落盘缓冲分段日志测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SegmentLogTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] record(int i) {
+        return ("{\"seq\":" + i + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void peekDoesNotMoveCursorUntilCommit() throws IOException {
+        try (SegmentLog log = new SegmentLog(dir, 4096, 4)) {
+            for (int i = 0; i < 5; i++) {
+                log.append(record(i));
+            }
+            assertEquals(3, log.peek(3).size());
+            assertArrayEquals(record(0), log.peek(1).get(0));
+
+            log.commit(2);
+            List<byte[]> rest = log.peek(10);
+            assertEquals(3, rest.size());
+            assertArrayEquals(record(2), rest.get(0));
+            assertEquals(3, log.getPending());
+        }
+    }
+
+    @Test
+    public void reopenResumesFromCommittedCursorAndDropsTornTail() throws IOException {
+        try (SegmentLog log = new SegmentLog(dir, 4096, 4)) {
+            for (int i = 0; i < 4; i++) {
+                log.append(record(i));
+            }
+            log.commit(1);
+        }
+        // 模拟崩溃：第 5 条记录只写了长度，数据与 CRC 不完整
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(p -> p.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        int tail = 4 * SegmentLog.RECORD_HEADER + 4 * record(0).length;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 20), tail);
+        }
+
+        try (SegmentLog log = new SegmentLog(dir, 4096, 4)) {
+            assertEquals(3, log.getPending());
+            List<byte[]> records = log.peek(10);
+            assertArrayEquals(record(1), records.get(0));
+            assertArrayEquals(record(3), records.get(2));
+
+            // 截掉的尾部被新记录覆盖
+            log.append(record(4));
+            assertArrayEquals(record(4), log.peek(10).get(3));
+        }
+    }
+
+    @Test
+    public void consumedSegmentsAreDeletedAndOldestDroppedWhenFull() throws IOException {
+        byte[] data = new byte[1000];
+        try (SegmentLog log = new SegmentLog(dir, 2048, 3)) {
+            for (int i = 0; i < 6; i++) {
+                data[0] = (byte) i;
+                log.append(data); // 每个分段放 2 条
+            }
+            assertEquals(3, log.getSegmentCount());
+
+            log.commit(3);
+            assertEquals(2, log.getSegmentCount());
+            assertEquals(3, log.getPending());
+
+            // 分段数已达上限前可继续追加；超出时丢弃最旧分段中未发送的 1 条
+            for (int i = 6; i < 9; i++) {
+                data[0] = (byte) i;
+                log.append(data);
+            }
+            assertEquals(3, log.getSegmentCount());
+            assertEquals(1, log.getDropped());
+            assertEquals(5, log.getPending());
+            assertEquals(4, log.peek(10).get(0)[0]);
+
+            log.commit(5);
+            assertEquals(0, log.getPending());
+            assertEquals(1, log.getSegmentCount());
+        }
+        try (SegmentLog log = new SegmentLog(dir, 2048, 3)) {
+            assertEquals(0, log.getPending());
+        }
+    }
+}
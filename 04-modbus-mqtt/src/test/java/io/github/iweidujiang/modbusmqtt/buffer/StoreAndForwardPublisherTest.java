@@ -0,0 +1,99 @@
+package io.github.iweidujiang.modbusmqtt.buffer;
+
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 先落盘再转发测试：确认后提交、重启后补发未确认的消息、实时消息不限速
+ * <p>
+ * Broker 由 {@link FakeMqttBroker} 模拟，确认由测试控制。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class StoreAndForwardPublisherTest {
+
+    @TempDir
+    Path dir;
+
+    private StoreAndForwardPublisher publisher(FakeMqttBroker broker, int rate) {
+        ForwarderSettings settings = new ForwarderSettings(1, 4, 100, rate, 100, 60_000, 100, 1000);
+        return new StoreAndForwardPublisher("test", broker.client(), new MqttConnectOptions(), dir, settings);
+    }
+
+    @Test
+    public void unackedMessagesAreReplayedAfterRestart() throws Exception {
+        FakeMqttBroker first = new FakeMqttBroker(false);
+        StoreAndForwardPublisher publisher = publisher(first, 1000);
+        publisher.start();
+        for (int i = 1; i <= 5; i++) {
+            publisher.publish("t", 1, "m" + i);
+        }
+        waitFor(() -> first.getReceived().size() == 5);
+        assertEquals(5, publisher.getPending()); // 已发出、未确认的消息不提交
+
+        // 只确认前两条（乱序到达），读位置前移两条
+        first.getUnacked().get(1).onSuccess(null);
+        first.getUnacked().get(0).onSuccess(null);
+        waitFor(() -> publisher.getPending() == 3);
+        publisher.stop();
+
+        // 重启：未确认的 3 条按原顺序重发，确认后缓冲清空
+        FakeMqttBroker second = new FakeMqttBroker(true);
+        StoreAndForwardPublisher restarted = publisher(second, 1000);
+        restarted.start();
+        waitFor(() -> restarted.getPending() == 0);
+        assertEquals(List.of("m3", "m4", "m5"), second.getReceived());
+        restarted.stop();
+
+        FakeMqttBroker third = new FakeMqttBroker(true);
+        StoreAndForwardPublisher again = publisher(third, 1000);
+        again.start();
+        Thread.sleep(300);
+        again.stop();
+        assertTrue(third.getReceived().isEmpty(), "已确认的消息被重发: " + third.getReceived());
+    }
+
+    @Test
+    public void liveTrafficIsNotRateLimited() throws Exception {
+        FakeMqttBroker broker = new FakeMqttBroker(true);
+        // 限速每秒 1 条：若实时消息也限速，20 条需要约 20 秒
+        StoreAndForwardPublisher publisher = publisher(broker, 1);
+        publisher.start();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 20; i++) {
+            publisher.publish("t", 1, "m" + i);
+        }
+        waitFor(() -> broker.getReceived().size() == 20);
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        publisher.stop();
+    }
+
+    @Test
+    public void rejectsSegmentSizeThatOverflowsInt() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ForwarderSettings(2048, 4, 100, 100, 100, 1000, 100, 1000));
+        assertEquals(2047L * 1024 * 1024,
+                new ForwarderSettings(2047, 4, 100, 100, 100, 1000, 100, 1000).segmentSizeBytes());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("等待超时");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
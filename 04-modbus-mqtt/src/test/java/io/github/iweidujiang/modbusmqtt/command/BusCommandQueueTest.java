@@ -0,0 +1,91 @@
+package io.github.iweidujiang.modbusmqtt.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 总线命令队列测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class BusCommandQueueTest {
+
+    @Test
+    public void queuedWritesToSameRegisterAreCoalesced() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = new CopyOnWriteArrayList<>();
+        List<CommandResult> results = new CopyOnWriteArrayList<>();
+        try (BusCommandQueue queue = new BusCommandQueue("test", 8, (slaveId, address, value) -> {
+            busy.countDown();
+            release.await();
+            written.add(address + "=" + value);
+        }, results::add)) {
+            // 第一条占住总线，后续命令排队
+            queue.submit(write("c1", 1, 100));
+            assertTrue(busy.await(5, TimeUnit.SECONDS));
+            queue.submit(write("c2", 1, 200));
+            queue.submit(write("c3", 10, 1));
+            queue.submit(write("c4", 1, 300));
+            assertEquals(2, queue.size());
+            release.countDown();
+
+            awaitResults(results, 4);
+        }
+        // 被取代的 c2 不写入，c4 沿用 c2 的排队位置，在 c3 之前
+        assertEquals(List.of("1=100", "1=300", "10=1"), written);
+        assertEquals(CommandStatus.SUPERSEDED, find(results, "c2").status());
+        assertEquals(CommandStatus.OK, find(results, "c1").status());
+        assertEquals(CommandStatus.OK, find(results, "c3").status());
+        assertEquals(CommandStatus.OK, find(results, "c4").status());
+    }
+
+    @Test
+    public void rejectsWhenFullAndExpiresStaleCommands() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CommandResult> results = new CopyOnWriteArrayList<>();
+        try (BusCommandQueue queue = new BusCommandQueue("test", 1, (slaveId, address, value) -> {
+            busy.countDown();
+            release.await();
+        }, results::add)) {
+            queue.submit(write("c1", 1, 100));
+            assertTrue(busy.await(5, TimeUnit.SECONDS));
+            queue.submit(new RegisterWrite("c2", "thermostat", 1, 2, 5, System.currentTimeMillis() - 1));
+            queue.submit(write("c3", 3, 7));
+            assertEquals(CommandStatus.REJECTED, find(results, "c3").status());
+            release.countDown();
+
+            awaitResults(results, 3);
+        }
+        assertEquals(CommandStatus.OK, find(results, "c1").status());
+        assertEquals(CommandStatus.EXPIRED, find(results, "c2").status());
+    }
+
+    private static RegisterWrite write(String id, int address, int value) {
+        return new RegisterWrite(id, "thermostat", 1, address, value, System.currentTimeMillis() + 60_000);
+    }
+
+    private static void awaitResults(List<CommandResult> results, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (results.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, results.size());
+    }
+
+    private static CommandResult find(List<CommandResult> results, String id) {
+        return results.stream().filter(r -> id.equals(r.id())).findFirst()
+                .orElseThrow(() -> new AssertionError("没有命令 " + id + " 的结果"));
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.iweidujiang.modbusmqtt.command;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSessionManager;
+import io.github.iweidujiang.modbusmqtt.buffer.FakeMqttBroker;
+import io.github.iweidujiang.modbusmqtt.buffer.ForwarderSettings;
+import io.github.iweidujiang.modbusmqtt.buffer.StoreAndForwardPublisher;
+import io.github.iweidujiang.modbusmqtt.routing.MqttRoutingProperties;
+import io.github.iweidujiang.modbusmqtt.routing.TopicRouter;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.integration.mqtt.support.MqttHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 命令解析测试：主题中的设备名、命令到寄存器写请求的转换、非法命令的拒绝
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class CommandDispatcherTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FakeMqttBroker broker = new FakeMqttBroker(true);
+    private final SerialSessionManager sessions = new SerialSessionManager();
+    private StoreAndForwardPublisher responses;
+    private CommandDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        CommandProperties properties = new CommandProperties();
+        properties.setTopic("site/a/+/cmd");
+        CommandProperties.DeviceBinding binding = new CommandProperties.DeviceBinding();
+        binding.setPort("COM3");
+        binding.setSlaveId(7);
+        properties.getDevices().put("boiler-1", binding);
+
+        responses = new StoreAndForwardPublisher("response", broker.client(), new MqttConnectOptions(), dir,
+                new ForwarderSettings(1, 4, 100, 100, 100, 5000, 100, 1000));
+        responses.start();
+        dispatcher = new CommandDispatcher(properties, sessions, responses, new TopicRouter(new MqttRoutingProperties()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dispatcher.close();
+        responses.stop();
+        sessions.close();
+    }
+
+    private JsonNode json(String text) throws Exception {
+        return objectMapper.readTree(text);
+    }
+
+    @Test
+    public void convertsCommandsToRegisterWrites() throws Exception {
+        RegisterWrite setpoint = dispatcher.toWrite("c-1", "boiler-1", 7, json("{\"type\":\"setpoint\",\"value\":25.5}"));
+        assertEquals(CommandDispatcher.SETPOINT_REGISTER, setpoint.address());
+        assertEquals(255, setpoint.value());
+        assertEquals(7, setpoint.slaveId());
+
+        RegisterWrite pump = dispatcher.toWrite("c-2", "boiler-1", 7, json("{\"type\":\"pump\",\"start\":true}"));
+        assertEquals(CommandDispatcher.PUMP_REGISTER, pump.address());
+        assertEquals(1, pump.value());
+
+        RegisterWrite write = dispatcher.toWrite("c-3", "boiler-1", 7, json("{\"type\":\"write\",\"address\":20,\"value\":50}"));
+        assertEquals(20, write.address());
+        assertEquals(50, write.value());
+    }
+
+    @Test
+    public void rejectsInvalidCommands() {
+        String[] invalid = {
+                "{\"type\":\"write\",\"address\":20,\"value\":50.7}",   // 小数不截断
+                "{\"type\":\"write\",\"address\":20.0,\"value\":50}",
+                "{\"type\":\"write\",\"address\":20,\"value\":70000}",
+                "{\"type\":\"write\",\"address\":20,\"value\":\"50\"}",
+                "{\"type\":\"write\",\"address\":20,\"value\":4294967296}",
+                "{\"type\":\"setpoint\",\"value\":150}",
+                "{\"type\":\"pump\"}",
+                "{\"type\":\"reboot\"}"
+        };
+        for (String command : invalid) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> dispatcher.toWrite("c", "boiler-1", 7, json(command)), command);
+        }
+    }
+
+    @Test
+    public void unknownDeviceFromTopicIsRejected() throws Exception {
+        // 设备名取自订阅主题中 + 所在的层级（第 3 级）
+        dispatcher.handle(MessageBuilder
+                .withPayload("{\"id\":\"c-9\",\"type\":\"pump\",\"start\":true}".getBytes(StandardCharsets.UTF_8))
+                .setHeader(MqttHeaders.RECEIVED_TOPIC, "site/a/pump-9/cmd")
+                .build());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (broker.getReceived().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("devices/pump-9/commands/result", broker.getTopics().get(0));
+        JsonNode result = json(broker.getReceived().get(0));
+        assertEquals("c-9", result.get("id").asText());
+        assertEquals("pump-9", result.get("device").asText());
+        assertEquals(CommandStatus.REJECTED.name(), result.get("status").asText());
+        assertTrue(result.get("message").asText().contains("pump-9"));
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.iweidujiang.modbusmqtt.envelope;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量遥测信封编解码测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class TelemetryEnvelopeCodecTest {
+
+    private static TelemetryBatch sampleBatch() {
+        TelemetryBatch batch = new TelemetryBatch(4);
+        long t = 1_760_000_000_000L;
+        for (int i = 0; i < 300; i++) {
+            batch.add("temperature", t + i * 1000L, 20.0 + (i % 50) * 0.1);
+            batch.add("湿度", t + i * 1000L + 3, 45.5);
+            batch.add("pump.running", t + i * 1000L - 2, i % 2); // 时间戳可以回退
+        }
+        return batch;
+    }
+
+    @Test
+    public void roundTripsWithEveryCompression() {
+        TelemetryBatch batch = sampleBatch();
+        for (EnvelopeCompression compression : EnvelopeCompression.values()) {
+            TelemetryBatch decoded = TelemetryEnvelopeCodec.decode(TelemetryEnvelopeCodec.encode(batch, compression));
+            assertEquals(batch.size(), decoded.size(), compression.name());
+            for (int i = 0; i < batch.size(); i++) {
+                assertEquals(batch.getPoint(i), decoded.getPoint(i));
+                assertEquals(batch.getTimestamp(i), decoded.getTimestamp(i));
+                assertEquals(batch.getValue(i), decoded.getValue(i));
+            }
+        }
+    }
+
+    @Test
+    public void envelopeIsMuchSmallerThanPerSampleJson() {
+        TelemetryBatch batch = sampleBatch();
+        int jsonBytes = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            jsonBytes += ("{\"" + batch.getPoint(i) + "\":" + batch.getValue(i) + ",\"timestamp\":" + batch.getTimestamp(i) + "}")
+                    .getBytes(StandardCharsets.UTF_8).length;
+        }
+        int raw = TelemetryEnvelopeCodec.encode(batch, EnvelopeCompression.NONE).length;
+        int zstd = TelemetryEnvelopeCodec.encode(batch, EnvelopeCompression.ZSTD).length;
+        assertTrue(raw < jsonBytes / 2, "raw=" + raw + ", json=" + jsonBytes);
+        assertTrue(zstd < raw / 4, "zstd=" + zstd + ", raw=" + raw);
+    }
+
+    @Test
+    public void rejectsMalformedEnvelope() {
+        byte[] envelope = TelemetryEnvelopeCodec.encode(sampleBatch(), EnvelopeCompression.NONE);
+        byte[] badMagic = envelope.clone();
+        badMagic[0] = 'X';
+        assertThrows(IllegalArgumentException.class, () -> TelemetryEnvelopeCodec.decode(badMagic));
+
+        byte[] truncated = Arrays.copyOf(envelope, envelope.length - 10);
+        assertThrows(IllegalArgumentException.class, () -> TelemetryEnvelopeCodec.decode(truncated));
+    }
+
+    /**
+     * 用给定的消息体拼出不压缩的信封
+     */
+    private static byte[] envelope(int rawLength, int... body) {
+        ByteBuffer buffer = ByteBuffer.allocate(TelemetryEnvelopeCodec.HEADER_LENGTH + body.length)
+                .putShort((short) TelemetryEnvelopeCodec.MAGIC)
+                .put((byte) TelemetryEnvelopeCodec.VERSION)
+                .put((byte) EnvelopeCompression.NONE.getId())
+                .putInt(rawLength);
+        for (int b : body) {
+            buffer.put((byte) b);
+        }
+        return buffer.array();
+    }
+
+    private static void assertRejected(byte[] envelope, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> TelemetryEnvelopeCodec.decode(envelope));
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+
+    @Test
+    public void rejectsForgedLengthsAndIndexes() {
+        // 原始长度为负、超过上限、与不压缩的消息体不符
+        assertRejected(envelope(-1), "长度非法");
+        assertRejected(envelope(Integer.MAX_VALUE), "长度非法");
+        assertRejected(envelope(100, 0), "长度不符");
+
+        // 点位数 2^28，消息体只有几个字节
+        assertRejected(envelope(5, 0x80, 0x80, 0x80, 0x80, 0x01), "点位数");
+        // 点位名长度 100，之后只有 1 个字节
+        assertRejected(envelope(3, 1, 100, 'a'), "点位名长度");
+        // 采样数 1000，不足以容纳
+        assertRejected(envelope(14, 1, 1, 'a', 0xE8, 0x07, 0, 0, 0, 0, 0, 0, 0, 0, 0), "采样数");
+
+        // 采样引用了不存在的点位 5
+        int[] body = new int[3 + 1 + 8 + 1 + 1 + 8];
+        body[0] = 1;
+        body[1] = 1;
+        body[2] = 'a';
+        body[3] = 1;
+        body[12] = 5;
+        assertRejected(envelope(body.length, body), "点位索引越界");
+    }
+}
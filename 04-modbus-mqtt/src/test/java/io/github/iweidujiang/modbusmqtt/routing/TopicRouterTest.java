@@ -0,0 +1,50 @@
+package io.github.iweidujiang.modbusmqtt.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 主题路由测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class TopicRouterTest {
+
+    private static MqttRoutingProperties.Route route(String topic, Integer qos) {
+        MqttRoutingProperties.Route route = new MqttRoutingProperties.Route();
+        route.setTopic(topic);
+        route.setQos(qos);
+        return route;
+    }
+
+    @Test
+    public void deviceOverrideTakesPrecedenceOverClassDefaults() {
+        MqttRoutingProperties properties = new MqttRoutingProperties();
+        properties.getClasses().put("telemetry", route("plant/{device}/trend/{point}", null));
+        properties.getDevices().put("boiler-1", Map.of("alarm", route(null, 2)));
+        TopicRouter router = new TopicRouter(properties);
+
+        assertEquals(new TopicRoute("plant/pump-3/trend/flow", 0), router.route(MessageClass.TELEMETRY, "pump-3", "flow"));
+        assertEquals(new TopicRoute("devices/pump-3/alarms/flow", 1), router.route(MessageClass.ALARM, "pump-3", "flow"));
+        // 只覆盖 QoS，主题沿用内置默认模板
+        assertEquals(new TopicRoute("devices/boiler-1/alarms/pressure", 2), router.route(MessageClass.ALARM, "boiler-1", "pressure"));
+    }
+
+    @Test
+    public void rejectsWildcardTopicsAndInvalidQos() {
+        MqttRoutingProperties wildcard = new MqttRoutingProperties();
+        wildcard.getClasses().put("alarm", route("devices/+/alarms", 1));
+        assertThrows(IllegalArgumentException.class, () -> new TopicRouter(wildcard));
+
+        MqttRoutingProperties badQos = new MqttRoutingProperties();
+        badQos.getDevices().put("boiler-1", Map.of("telemetry", route(null, 3)));
+        assertThrows(IllegalArgumentException.class, () -> new TopicRouter(badQos));
+    }
+}
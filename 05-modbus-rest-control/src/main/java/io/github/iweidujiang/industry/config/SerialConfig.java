@@ -0,0 +1,23 @@
+package io.github.iweidujiang.industry.config;
+
+import io.github.iweidujiang.industry.modbus.rtu.SerialSessionManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 配置串口会话管理器（串口长连接，应用停止时统一关闭）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Configuration
+public class SerialConfig {
+
+    @Bean(destroyMethod = "close")
+    public SerialSessionManager serialSessionManager() {
+        return new SerialSessionManager();
+    }
+}
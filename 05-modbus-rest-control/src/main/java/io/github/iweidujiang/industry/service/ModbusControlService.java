@@ -1,6 +1,9 @@
 package io.github.iweidujiang.industry.service;
 
 import io.github.iweidujiang.industry.modbus.ModbusRtuWriter;
+import io.github.iweidujiang.industry.modbus.rtu.SerialLineConfig;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSession;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSessionManager;
 import org.springframework.stereotype.Service;
 
 /**
@@ -21,6 +24,13 @@ public class ModbusControlService {
     private final int BAUD_RATE = 9600;
     private final int DEVICE_ID = 1;
 
+    // 串口长连接会话：不再每次写入都打开/关闭串口，并发请求在会话内串行访问总线
+    private final SerialSession serialSession;
+
+    public ModbusControlService(SerialSessionManager serialSessionManager) {
+        this.serialSession = serialSessionManager.getSession(SerialLineConfig.of(SERIAL_PORT, BAUD_RATE));
+    }
+
     /**
      * 设置目标温度（单位：摄氏度，支持1位小数）
      * 对应设备寄存器地址：1
@@ -32,7 +42,7 @@ public class ModbusControlService {
         }
         int rawValue = (int) Math.round(temperature * 10); // 转换为整数（×10）
         try {
-            ModbusRtuWriter.writeRegister(SERIAL_PORT, BAUD_RATE, DEVICE_ID, 1, rawValue);
+            ModbusRtuWriter.writeRegister(serialSession, DEVICE_ID, 1, rawValue);
         } catch (Exception e) {
             throw new RuntimeException("设置目标温度失败：" + e.getMessage(), e);
         }
@@ -45,7 +55,7 @@ public class ModbusControlService {
      */
     public void controlPump(boolean start) {
         try {
-            ModbusRtuWriter.writeRegister(SERIAL_PORT, BAUD_RATE, DEVICE_ID, 10, start ? 1 : 0);
+            ModbusRtuWriter.writeRegister(serialSession, DEVICE_ID, 10, start ? 1 : 0);
         } catch (Exception e) {
             throw new RuntimeException("控制水泵失败：" + e.getMessage(), e);
         }
@@ -56,7 +66,7 @@ public class ModbusControlService {
      */
     public void writeRegister(int address, int value) {
         try {
-            ModbusRtuWriter.writeRegister(SERIAL_PORT, BAUD_RATE, DEVICE_ID, address, value);
+            ModbusRtuWriter.writeRegister(serialSession, DEVICE_ID, address, value);
         } catch (Exception e) {
             throw new RuntimeException("写入寄存器失败：" + e.getMessage(), e);
         }
@@ -0,0 +1,24 @@
+package io.github.iweidujiang.industry.plc.adapter;
+
+/**
+ * 协议适配器的能力声明，采集调度据此选择读取方式
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param maxBatchSize   单次请求最多读取的数据量，按协议自身的单位计（Modbus 为寄存器数，S7 为字节数）
+ * @param maxOutstanding 同一连接上可同时在途的请求数，大于 1 表示支持请求流水线
+ * @param subscription   值由适配器在后台采集或由设备主动推送，读取只是复制本地缓存，
+ *                       调度时每次都读取全部点位，不再按扫描等级拆分
+ */
+public record AdapterCapabilities(int maxBatchSize, int maxOutstanding, boolean subscription) {
+
+    /** 未声明能力的适配器：一次一个点位，不流水，不订阅 */
+    public static final AdapterCapabilities DEFAULT = new AdapterCapabilities(1, 1, false);
+
+    public boolean pipelining() {
+        return maxOutstanding > 1;
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.iweidujiang.industry.plc.adapter;
+
+import io.github.iweidujiang.industry.plc.adapter.mc.McAddress;
+import io.github.iweidujiang.industry.plc.adapter.mc.McCodec;
+import io.github.iweidujiang.industry.plc.adapter.mc.McRandomRead;
+import io.github.iweidujiang.industry.plc.adapter.mc.McReadBlock;
+import io.github.iweidujiang.industry.plc.adapter.mc.McReadPlan;
+import io.github.iweidujiang.industry.plc.adapter.mc.McReadPlanner;
+import io.github.iweidujiang.industry.plc.exception.PlcException;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 三菱 MC 协议适配器（3E 帧，二进制，TCP）
+ * <p>
+ * 点位地址预先编译为 {@link McReadPlan}：相邻点位合并为批量读（0401），
+ * 分散在各处的单字 / 双字打包为随机读（0403），大量零散的 D/M 点位一两个请求即可读回。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class MitsubishiMcAdapter implements PlcProtocolAdapter {
+
+    private static final int CONNECT_TIMEOUT_MS = 3000;
+    private static final int RESPONSE_TIMEOUT_MS = 3000;
+
+    private final String host;
+    private final int port;
+    private final McReadPlanner planner;
+
+    private Socket socket;
+    private DataInputStream in;
+    private OutputStream out;
+
+    // 收发缓冲区按实例复用
+    private final byte[] requestBuffer = new byte[McCodec.MAX_REQUEST_LENGTH];
+    private final byte[] responseBuffer = new byte[McCodec.MAX_RESPONSE_LENGTH];
+
+    // 读计划缓存：按点位列表各编译一次
+    private final ReadPlanCache<McReadPlan> readPlans = new ReadPlanCache<>();
+
+    public MitsubishiMcAdapter(String host, int port) {
+        this(host, port, McReadPlanner.DEFAULT_MAX_GAP, McCodec.MAX_BATCH_WORDS);
+    }
+
+    /**
+     * @param maxWordGap      合并块时允许的最大字空洞
+     * @param maxWordsPerRead 单次批量读的字数上限
+     */
+    public MitsubishiMcAdapter(String host, int port, int maxWordGap, int maxWordsPerRead) {
+        this.host = host;
+        this.port = port;
+        this.planner = new McReadPlanner(maxWordGap, maxWordsPerRead);
+    }
+
+    /**
+     * 读取一批数据点
+     *
+     * @param points 采集点列表
+     * @return 点名 -> 值 的映射
+     * @throws PlcException 通信失败
+     */
+    @Override
+    public Map<String, Object> readDataPoints(List<DataPoint> points) throws PlcException {
+        PointSnapshot snapshot = new PointSnapshot(points);
+        readDataPoints(points, snapshot);
+        return snapshot.toMap();
+    }
+
+    @Override
+    public void readDataPoints(List<DataPoint> points, PointSnapshot snapshot) throws PlcException {
+        if (socket == null || socket.isClosed()) {
+            throw new PlcException("三菱 MC 未连接：" + host + ":" + port);
+        }
+        McReadPlan plan = getReadPlan(points);
+        for (McReadBlock block : plan.batches()) {
+            int length = McCodec.encodeBatchRead(requestBuffer, 0, block.device(), block.headNumber(), block.words());
+            transact(length, 2 * block.words());
+            for (McAddress address : block.points()) {
+                address.decodeInto(responseBuffer,
+                        McCodec.RESPONSE_DATA_OFFSET + 2 * (address.slot() - block.startSlot()), snapshot);
+            }
+        }
+        for (McRandomRead read : plan.randomReads()) {
+            int length = McCodec.encodeRandomRead(requestBuffer, 0, read.wordBlocks(), read.dwordBlocks());
+            transact(length, 2 * read.wordBlocks().size() + 4 * read.dwordBlocks().size());
+            // 响应中先是各字的值，再是各双字的值，顺序与请求一致
+            int position = McCodec.RESPONSE_DATA_OFFSET;
+            for (McReadBlock block : read.wordBlocks()) {
+                decodeBlock(block, position, snapshot);
+                position += 2;
+            }
+            for (McReadBlock block : read.dwordBlocks()) {
+                decodeBlock(block, position, snapshot);
+                position += 4;
+            }
+        }
+    }
+
+    @Override
+    public AdapterCapabilities getCapabilities() {
+        return new AdapterCapabilities(planner.getMaxWords(), 1, false);
+    }
+
+    /**
+     * 建立连接
+     */
+    @Override
+    public void connect() throws PlcException {
+        try {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.setSoTimeout(RESPONSE_TIMEOUT_MS);
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            in = new DataInputStream(socket.getInputStream());
+            out = socket.getOutputStream();
+        } catch (IOException e) {
+            closeQuietly();
+            throw new PlcException("连接三菱 PLC 失败 " + host + ":" + port + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 断开连接
+     */
+    @Override
+    public void disconnect() {
+        closeQuietly();
+    }
+
+    private void decodeBlock(McReadBlock block, int position, PointSnapshot snapshot) {
+        for (McAddress address : block.points()) {
+            address.decodeInto(responseBuffer, position + 2 * (address.slot() - block.startSlot()), snapshot);
+        }
+    }
+
+    /**
+     * 发送请求并接收一帧完整响应
+     *
+     * @param expectedData 期望的响应数据字节数（不含结束代码）
+     */
+    private void transact(int requestLength, int expectedData) throws PlcException {
+        int endCode;
+        int length;
+        try {
+            out.write(requestBuffer, 0, requestLength);
+            out.flush();
+            in.readFully(responseBuffer, 0, McCodec.HEADER_LENGTH);
+            length = McCodec.responseLength(responseBuffer, 0);
+            in.readFully(responseBuffer, McCodec.HEADER_LENGTH, length - McCodec.HEADER_LENGTH);
+            endCode = McCodec.endCode(responseBuffer, 0);
+        } catch (IOException | IllegalArgumentException e) {
+            // 超时或报文错乱后字节流无法再对齐，断开后由连接管理器重连
+            closeQuietly();
+            throw new PlcException("三菱 MC 通信失败: " + e.getMessage(), e);
+        }
+        if (endCode != 0) {
+            throw new PlcException(String.format("三菱 PLC 返回异常结束代码：%04X", endCode));
+        }
+        if (length - McCodec.RESPONSE_DATA_OFFSET != expectedData) {
+            throw new PlcException("响应数据长度不符：期望 " + expectedData + "，实际 " + (length - McCodec.RESPONSE_DATA_OFFSET));
+        }
+    }
+
+    private McReadPlan getReadPlan(List<DataPoint> points) throws PlcException {
+        McReadPlan readPlan = readPlans.get(points);
+        if (readPlan == null) {
+            try {
+                readPlan = planner.plan(points);
+            } catch (IllegalArgumentException e) {
+                throw new PlcException("生成三菱 MC 读计划失败: " + e.getMessage(), e);
+            }
+            readPlans.put(points, readPlan);
+        }
+        return readPlan;
+    }
+
+    private void closeQuietly() {
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException ignored) {
+            // 关闭失败无需处理
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.iweidujiang.industry.plc.adapter;
+
+import io.github.iweidujiang.industry.plc.adapter.mc.McCodec;
+import io.github.iweidujiang.industry.plc.adapter.mc.McReadPlanner;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.spi.PlcProtocolProvider;
+import io.github.iweidujiang.industry.plc.spi.PlcProviderContext;
+
+import java.util.Set;
+
+/**
+ * 三菱 MC 适配器提供者（协议名 mitsubishi-mc）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class MitsubishiMcProvider implements PlcProtocolProvider {
+
+    @Override
+    public Set<String> getProtocols() {
+        return Set.of("mitsubishi-mc");
+    }
+
+    /**
+     * @throws IllegalArgumentException 未配置端口（MC 协议端口在 PLC 以太网参数中设定，没有通用默认值）
+     */
+    @Override
+    public PlcProtocolAdapter createAdapter(DeviceConfig config, PlcProviderContext context) {
+        if (config.getPort() == null) {
+            throw new IllegalArgumentException("三菱 MC 设备 [" + config.getName() + "] 需要配置 port");
+        }
+        return new MitsubishiMcAdapter(
+                config.getHost(),
+                config.getPort(),
+                config.getMaxRegisterGap() != null ? config.getMaxRegisterGap() : McReadPlanner.DEFAULT_MAX_GAP,
+                config.getMaxRegistersPerRead() != null ? config.getMaxRegistersPerRead() : McCodec.MAX_BATCH_WORDS
+        );
+    }
+}
@@ -1,17 +1,28 @@
 package io.github.iweidujiang.industry.plc.adapter;
 
-import com.fazecast.jSerialComm.SerialPort;
+import io.github.iweidujiang.industry.modbus.codec.ModbusException;
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSession;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusReadBlock;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusReadPlanner;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusRegisterPoint;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusWriteBlock;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusWritePlanner;
 import io.github.iweidujiang.industry.plc.exception.PlcException;
 import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Modbus RTU 协议适配器（功能码 03：读保持寄存器）
+ * Modbus RTU 协议适配器（功能码 03/04：读保持寄存器 / 输入寄存器；06/16：写保持寄存器）
+ * <p>
+ * 点位先经 {@link ModbusReadPlanner} 合并为连续块，每块只发一次请求，再把值切回各点位；
+ * 写入时首尾相接的点位经 {@link ModbusWritePlanner} 合并为一次 FC16 请求。
+ * 串口由 {@link SerialSession} 持有，同一 RS-485 总线上的多个从站共用一个会话，
+ * 本适配器只代表总线上的一个从站。
  * <p>
  * 作者: 苏渡苇
  * GitHub:  https://github.com/iweidujiang
@@ -21,15 +32,37 @@ import java.util.Map;
  */
 public class ModbusRtuAdapter implements PlcProtocolAdapter {
 
-    private SerialPort serialPort;
-    private final String serialPortName;
-    private final int baudRate;
+    private final SerialSession session;
     private final int deviceId;
+    private final ModbusReadPlanner planner;
+
+    // 收发缓冲区按实例复用，采集循环中不再逐次分配
+    private final byte[] requestBuffer = new byte[ModbusRtuCodec.MAX_FRAME_LENGTH];
+    private final byte[] responseBuffer = new byte[ModbusRtuCodec.MAX_FRAME_LENGTH];
+    // 写入使用单独的缓冲区，可与采集线程并发调用，串口由会话加锁独占
+    private final byte[] writeBuffer = new byte[ModbusRtuCodec.MAX_FRAME_LENGTH];
+    private final byte[] writeResponseBuffer = new byte[ModbusRtuCodec.MAX_FRAME_LENGTH];
+
+    // 读计划缓存：按点位列表（同一扫描组合始终是同一个列表对象）各规划一次
+    private final ReadPlanCache<List<ModbusReadBlock>> readPlans = new ReadPlanCache<>();
 
-    public ModbusRtuAdapter(String serialPortName, int baudRate, int deviceId) {
-        this.serialPortName = serialPortName;
-        this.baudRate = baudRate;
+    public ModbusRtuAdapter(SerialSession session, int deviceId) {
+        this(session, deviceId, ModbusReadPlanner.DEFAULT_MAX_GAP, ModbusRtuCodec.MAX_READ_REGISTERS);
+    }
+
+    /**
+     * @param maxRegisterGap      合并块时允许的最大地址空洞（寄存器数）
+     * @param maxRegistersPerRead 单次读取的寄存器上限（部分设备小于协议上限 125）
+     */
+    public ModbusRtuAdapter(SerialSession session, int deviceId,
+                            int maxRegisterGap, int maxRegistersPerRead) {
+        this.session = session;
         this.deviceId = deviceId;
+        this.planner = new ModbusReadPlanner(maxRegisterGap, maxRegistersPerRead);
+    }
+
+    public ModbusReadPlanner getPlanner() {
+        return planner;
     }
 
     /**
@@ -41,87 +74,129 @@ public class ModbusRtuAdapter implements PlcProtocolAdapter {
      */
     @Override
     public Map<String, Object> readDataPoints(List<DataPoint> points) throws PlcException {
-        Map<String, Object> result = new HashMap<>();
-        for (DataPoint point : points) {
-            try {
-                int address = Integer.parseInt(point.getAddress());
-                int value = readRegister(address);
-                // 简单类型转换（实际项目应根据 dataType 处理）
-                result.put(point.getName(), value);
-            } catch (Exception e) {
-                throw new PlcException("读取点 [" + point.getName() + "] 失败: " + e.getMessage(), e);
-            }
-        }
-        return result;
+        PointSnapshot snapshot = new PointSnapshot(points);
+        readDataPoints(points, snapshot);
+        return snapshot.toMap();
     }
 
-    /**
-     * 建立连接
-     */
     @Override
-    public void connect() throws PlcException {
-        serialPort = SerialPort.getCommPort(serialPortName);
-        serialPort.setComPortParameters(baudRate, 8, 1, SerialPort.NO_PARITY);
-        serialPort.setFlowControl(SerialPort.FLOW_CONTROL_DISABLED);
-        if (!serialPort.openPort()) {
-            throw new PlcException("无法打开串口：" + serialPortName);
+    public void readDataPoints(List<DataPoint> points, PointSnapshot snapshot) throws PlcException {
+        for (ModbusReadBlock block : getReadPlan(points)) {
+            readBlock(block, snapshot);
         }
     }
 
     /**
-     * 断开连接
+     * 执行一个块读请求，并把块内各点位的值写入快照
+     *
+     * @throws PlcException 通信失败或设备返回异常
      */
-    @Override
-    public void disconnect() {
-        if (serialPort != null && serialPort.isOpen()) {
-            serialPort.closePort();
+    public void readBlock(ModbusReadBlock block, PointSnapshot snapshot) throws PlcException {
+        int requestLength = ModbusRtuCodec.encodeReadRequest(requestBuffer, 0, deviceId,
+                block.functionCode(), block.startAddress(), block.quantity());
+        int expected = ModbusRtuCodec.readResponseLength(block.quantity());
+        int read;
+        try {
+            // 按帧接收：凑齐 字节数 + 5 字节即返回，不再固定等待
+            read = session.transact(requestBuffer, requestLength, responseBuffer);
+            ModbusRtuCodec.checkResponse(responseBuffer, 0, read, deviceId, block.functionCode());
+        } catch (IOException | ModbusException e) {
+            throw new PlcException("读取寄存器块 [" + block.startAddress() + "+" + block.quantity() + "] 失败: "
+                    + e.getMessage(), e);
         }
+        if (read != expected) {
+            throw new PlcException("响应长度不符：期望 " + expected + "，实际 " + read);
+        }
+        // 快照可能被其它线程复制，解码期间以快照为锁，保证读者看到完整的块
+        synchronized (snapshot) {
+            for (ModbusRegisterPoint point : block.points()) {
+                point.decodeInto(responseBuffer, 0, block.startAddress(), snapshot);
+            }
+        }
+    }
+
+    @Override
+    public AdapterCapabilities getCapabilities() {
+        return new AdapterCapabilities(planner.getMaxRegisters(), 1, false);
     }
 
-    private int readRegister(int regAddress) throws PlcException {
-        // 构造读请求帧（功能码 03）
-        ByteBuffer buffer = ByteBuffer.allocate(6).order(ByteOrder.BIG_ENDIAN);
-        buffer.put((byte) deviceId)
-                .put((byte) 0x03)
-                .putShort((short) regAddress)
-                .putShort((short) 1); // 读1个寄存器
-
-        byte[] frame = buffer.array();
-        int crc = calculateCRC16(frame, frame.length);
-        ByteBuffer fullFrame = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
-        fullFrame.put(frame).putShort((short) crc);
-        byte[] request = fullFrame.array();
-
-        serialPort.writeBytes(request, request.length);
+    @Override
+    public void writeDataPoints(List<DataPoint> points, PointSnapshot values) throws PlcException {
+        List<ModbusWriteBlock> blocks;
         try {
-            Thread.sleep(50);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new PlcException("读取中断");
+            blocks = ModbusWritePlanner.plan(points);
+        } catch (IllegalArgumentException e) {
+            throw new PlcException("生成 Modbus 写计划失败: " + e.getMessage(), e);
+        }
+        synchronized (writeBuffer) {
+            for (ModbusWriteBlock block : blocks) {
+                writeBlock(block, values);
+            }
         }
+    }
 
-        byte[] response = new byte[7];
-        int read = serialPort.readBytes(response, response.length);
-        if (read < 5) {
-            throw new PlcException("设备无响应或响应不完整");
+    /**
+     * 执行一个写请求：单个寄存器用 FC06，多个用 FC16
+     *
+     * @throws PlcException 值非法、通信失败或设备返回异常
+     */
+    private void writeBlock(ModbusWriteBlock block, PointSnapshot values) throws PlcException {
+        int dataOffset = ModbusRtuCodec.WRITE_MULTIPLE_DATA_OFFSET;
+        try {
+            for (ModbusRegisterPoint point : block.points()) {
+                point.encodeInto(writeBuffer, dataOffset + 2 * (point.address() - block.startAddress()), values);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new PlcException(e.getMessage(), e);
+        }
+        int functionCode;
+        int requestLength;
+        if (block.quantity() == 1) {
+            int value = ((writeBuffer[dataOffset] & 0xFF) << 8) | (writeBuffer[dataOffset + 1] & 0xFF);
+            functionCode = ModbusRtuCodec.FC_WRITE_SINGLE_REGISTER;
+            requestLength = ModbusRtuCodec.encodeWriteSingleRegister(writeBuffer, 0, deviceId, block.startAddress(), value);
+        } else {
+            functionCode = ModbusRtuCodec.FC_WRITE_MULTIPLE_REGISTERS;
+            requestLength = ModbusRtuCodec.encodeWriteMultipleRegisters(writeBuffer, 0, deviceId,
+                    block.startAddress(), block.quantity());
+        }
+        int read;
+        try {
+            read = session.transact(writeBuffer, requestLength, writeResponseBuffer);
+            ModbusRtuCodec.checkResponse(writeResponseBuffer, 0, read, deviceId, functionCode);
+        } catch (IOException | ModbusException e) {
+            throw new PlcException("写入寄存器块 [" + block.startAddress() + "+" + block.quantity() + "] 失败: "
+                    + e.getMessage(), e);
         }
+        if (read != ModbusRtuCodec.FIXED_REQUEST_LENGTH) {
+            throw new PlcException("写响应长度不符：期望 " + ModbusRtuCodec.FIXED_REQUEST_LENGTH + "，实际 " + read);
+        }
+    }
+
+    /**
+     * 建立连接：串口由会话在首次事务时打开，这里无需操作
+     */
+    @Override
+    public void connect() {
+    }
 
-        // 解析返回值（跳过设备ID、功能码、字节数）
-        return ((response[3] & 0xFF) << 8) | (response[4] & 0xFF);
+    /**
+     * 断开连接：串口为总线上所有从站共用，由会话管理器统一关闭
+     */
+    @Override
+    public void disconnect() {
     }
 
-    private int calculateCRC16(byte[] data, int length) {
-        int crc = 0xFFFF;
-        for (int i = 0; i < length; i++) {
-            crc ^= (data[i] & 0xFF);
-            for (int j = 0; j < 8; j++) {
-                if ((crc & 1) == 1) {
-                    crc = (crc >> 1) ^ 0xA001;
-                } else {
-                    crc >>= 1;
-                }
+    private List<ModbusReadBlock> getReadPlan(List<DataPoint> points) throws PlcException {
+        List<ModbusReadBlock> readPlan = readPlans.get(points);
+        if (readPlan == null) {
+            try {
+                readPlan = planner.plan(points);
+            } catch (IllegalArgumentException e) {
+                throw new PlcException("生成 Modbus 读计划失败: " + e.getMessage(), e);
             }
+            readPlans.put(points, readPlan);
         }
-        return crc;
+        return readPlan;
     }
 }
@@ -0,0 +1,441 @@
+package io.github.iweidujiang.industry.plc.adapter;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusException;
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.modbus.codec.ModbusTcpCodec;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusReadBlock;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusReadPlanner;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusRegisterPoint;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusWriteBlock;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusWritePlanner;
+import io.github.iweidujiang.industry.plc.exception.PlcException;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Modbus TCP 协议适配器（基于 NIO，支持请求流水线）
+ * <p>
+ * 点位同样先合并为块读请求；同一连接上最多同时发出 maxOutstanding 个请求，
+ * 响应按 MBAP 事务号匹配回对应的块，一个采集周期不必每块等一次完整往返。
+ * 事务号在周期之间持续递增，上个周期超时后迟到的响应会因事务号不在本周期范围内被丢弃。
+ * 写入时首尾相接的点位合并为一次 FC16 请求；读写共用连接，由 I/O 锁串行化。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusTcpAdapter implements PlcProtocolAdapter {
+
+    /** Modbus TCP 默认端口 */
+    public static final int DEFAULT_PORT = 502;
+    /** 默认同时在途的请求数 */
+    public static final int DEFAULT_MAX_OUTSTANDING = 4;
+
+    private static final int CONNECT_TIMEOUT_MS = 3000;
+    private static final int RESPONSE_TIMEOUT_MS = 3000;
+
+    private final String host;
+    private final int port;
+    private final int unitId;
+    private final int maxOutstanding;
+    private final ModbusReadPlanner planner;
+
+    private SocketChannel channel;
+    private Selector selector;
+
+    // 发送缓冲区容纳一个窗口的请求，接收缓冲区按流累积、按帧切分
+    private final ByteBuffer writeBuffer;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(ModbusTcpCodec.MAX_FRAME_LENGTH * 4);
+    private final byte[] writeFrame = new byte[ModbusTcpCodec.MAX_FRAME_LENGTH];
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private int nextTransactionId;
+    private boolean[] doneFlags = new boolean[0];
+
+    // 读计划缓存：按点位列表（同一扫描组合始终是同一个列表对象）各规划一次
+    private final ReadPlanCache<List<ModbusReadBlock>> readPlans = new ReadPlanCache<>();
+
+    public ModbusTcpAdapter(String host, int port, int unitId) {
+        this(host, port, unitId, ModbusReadPlanner.DEFAULT_MAX_GAP, ModbusRtuCodec.MAX_READ_REGISTERS,
+                DEFAULT_MAX_OUTSTANDING);
+    }
+
+    /**
+     * @param maxRegisterGap      合并块时允许的最大地址空洞（寄存器数）
+     * @param maxRegistersPerRead 单次读取的寄存器上限
+     * @param maxOutstanding      同一连接上同时在途的请求数，1 表示不流水
+     */
+    public ModbusTcpAdapter(String host, int port, int unitId,
+                            int maxRegisterGap, int maxRegistersPerRead, int maxOutstanding) {
+        if (maxOutstanding < 1) {
+            throw new IllegalArgumentException("maxOutstanding 必须大于 0");
+        }
+        this.host = host;
+        this.port = port;
+        this.unitId = unitId;
+        this.maxOutstanding = maxOutstanding;
+        this.planner = new ModbusReadPlanner(maxRegisterGap, maxRegistersPerRead);
+        this.writeBuffer = ByteBuffer.allocate(ModbusTcpCodec.READ_REQUEST_LENGTH * maxOutstanding);
+    }
+
+    /**
+     * 读取一批数据点
+     *
+     * @param points 采集点列表
+     * @return 点名 -> 值 的映射
+     * @throws PlcException 通信失败
+     */
+    @Override
+    public Map<String, Object> readDataPoints(List<DataPoint> points) throws PlcException {
+        PointSnapshot snapshot = new PointSnapshot(points);
+        readDataPoints(points, snapshot);
+        return snapshot.toMap();
+    }
+
+    @Override
+    public void readDataPoints(List<DataPoint> points, PointSnapshot snapshot) throws PlcException {
+        ioLock.lock();
+        try {
+            readPipelined(getReadPlan(points), snapshot);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    @Override
+    public void writeDataPoints(List<DataPoint> points, PointSnapshot values) throws PlcException {
+        List<ModbusWriteBlock> blocks;
+        try {
+            blocks = ModbusWritePlanner.plan(points);
+        } catch (IllegalArgumentException e) {
+            throw new PlcException("生成 Modbus 写计划失败: " + e.getMessage(), e);
+        }
+        ioLock.lock();
+        try {
+            for (ModbusWriteBlock block : blocks) {
+                writeBlock(block, values);
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void readPipelined(List<ModbusReadBlock> blocks, PointSnapshot snapshot) throws PlcException {
+        if (channel == null || !channel.isOpen()) {
+            throw new PlcException("Modbus TCP 未连接：" + host + ":" + port);
+        }
+        int total = blocks.size();
+
+        int firstTransactionId = nextTransactionId;
+        nextTransactionId = (nextTransactionId + total) & 0xFFFF;
+        boolean[] done = getDoneFlags(total);
+        int sent = 0;
+        int received = 0;
+        long deadline = System.nanoTime() + RESPONSE_TIMEOUT_MS * 1_000_000L;
+
+        try {
+            while (received < total) {
+                // 1. 窗口未满时继续发请求
+                while (canSend(sent, received, total)) {
+                    ModbusReadBlock block = blocks.get(sent);
+                    int length = ModbusTcpCodec.encodeReadRequest(writeBuffer.array(), writeBuffer.position(),
+                            (firstTransactionId + sent) & 0xFFFF, unitId,
+                            block.functionCode(), block.startAddress(), block.quantity());
+                    writeBuffer.position(writeBuffer.position() + length);
+                    sent++;
+                }
+                flushWrites();
+
+                // 2. 处理已到达的完整响应
+                received += drainResponses(blocks, firstTransactionId, done, snapshot);
+                if (received >= total) {
+                    break;
+                }
+                if (canSend(sent, received, total)) {
+                    continue; // 收到响应后窗口腾出空位，先补发请求再等待
+                }
+
+                // 3. 等待可读 / 可写
+                long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+                if (remainingMs <= 0) {
+                    throw new PlcException("Modbus TCP 响应超时：已收到 " + received + "/" + total + " 个块");
+                }
+                SelectionKey key = channel.keyFor(selector);
+                key.interestOps(SelectionKey.OP_READ | (writeBuffer.position() > 0 ? SelectionKey.OP_WRITE : 0));
+                selector.select(remainingMs);
+                selector.selectedKeys().clear();
+                if (channel.read(readBuffer) < 0) {
+                    closeQuietly();
+                    throw new PlcException("Modbus TCP 连接被对端关闭：" + host + ":" + port);
+                }
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new PlcException("Modbus TCP 通信失败: " + e.getMessage(), e);
+        } catch (ModbusException e) {
+            throw new PlcException(e.getMessage(), e);
+        } finally {
+            discardUnsentRequests();
+        }
+    }
+
+    /**
+     * 周期异常结束时丢弃还没写出的请求，不留给下个周期发送、占用下个周期的窗口。
+     * 若有请求只写出了一部分，对端的字节流已无法分帧，只能断开重连。
+     */
+    private void discardUnsentRequests() {
+        if (writeBuffer.position() == 0) {
+            return;
+        }
+        if (writeBuffer.position() % ModbusTcpCodec.READ_REQUEST_LENGTH != 0) {
+            closeQuietly();
+        }
+        writeBuffer.clear();
+    }
+
+    @Override
+    public AdapterCapabilities getCapabilities() {
+        return new AdapterCapabilities(planner.getMaxRegisters(), maxOutstanding, false);
+    }
+
+    /**
+     * 建立连接
+     */
+    @Override
+    public void connect() throws PlcException {
+        try {
+            selector = Selector.open();
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            channel.register(selector, SelectionKey.OP_CONNECT);
+            if (!channel.connect(new InetSocketAddress(host, port))) {
+                if (selector.select(CONNECT_TIMEOUT_MS) == 0) {
+                    throw new IOException("连接超时");
+                }
+                selector.selectedKeys().clear();
+                channel.finishConnect();
+            }
+            channel.keyFor(selector).interestOps(SelectionKey.OP_READ);
+            writeBuffer.clear();
+            readBuffer.clear();
+        } catch (IOException e) {
+            closeQuietly();
+            throw new PlcException("连接 Modbus TCP 设备失败 " + host + ":" + port + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 断开连接
+     */
+    @Override
+    public void disconnect() {
+        closeQuietly();
+    }
+
+    private List<ModbusReadBlock> getReadPlan(List<DataPoint> points) throws PlcException {
+        List<ModbusReadBlock> readPlan = readPlans.get(points);
+        if (readPlan == null) {
+            try {
+                readPlan = planner.plan(points);
+            } catch (IllegalArgumentException e) {
+                throw new PlcException("生成 Modbus 读计划失败: " + e.getMessage(), e);
+            }
+            readPlans.put(points, readPlan);
+        }
+        return readPlan;
+    }
+
+    /**
+     * 执行一个写请求并等待回显：单个寄存器用 FC06，多个用 FC16
+     */
+    private void writeBlock(ModbusWriteBlock block, PointSnapshot values) throws PlcException {
+        if (channel == null || !channel.isOpen()) {
+            throw new PlcException("Modbus TCP 未连接：" + host + ":" + port);
+        }
+        int dataOffset = ModbusTcpCodec.WRITE_MULTIPLE_DATA_OFFSET;
+        try {
+            for (ModbusRegisterPoint point : block.points()) {
+                point.encodeInto(writeFrame, dataOffset + 2 * (point.address() - block.startAddress()), values);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new PlcException(e.getMessage(), e);
+        }
+        int transactionId = nextTransactionId;
+        nextTransactionId = (nextTransactionId + 1) & 0xFFFF;
+        int functionCode;
+        int length;
+        if (block.quantity() == 1) {
+            int value = ((writeFrame[dataOffset] & 0xFF) << 8) | (writeFrame[dataOffset + 1] & 0xFF);
+            functionCode = ModbusRtuCodec.FC_WRITE_SINGLE_REGISTER;
+            length = ModbusTcpCodec.encodeWriteSingleRegister(writeFrame, 0, transactionId, unitId,
+                    block.startAddress(), value);
+        } else {
+            functionCode = ModbusRtuCodec.FC_WRITE_MULTIPLE_REGISTERS;
+            length = ModbusTcpCodec.encodeWriteMultipleRegisters(writeFrame, 0, transactionId, unitId,
+                    block.startAddress(), block.quantity());
+        }
+
+        ByteBuffer request = ByteBuffer.wrap(writeFrame, 0, length);
+        long deadline = System.nanoTime() + RESPONSE_TIMEOUT_MS * 1_000_000L;
+        try {
+            while (true) {
+                if (request.hasRemaining()) {
+                    channel.write(request);
+                }
+                if (drainWriteResponse(transactionId, functionCode)) {
+                    return;
+                }
+                long remainingMs = (deadline - System.nanoTime()) / 1_000_000L;
+                if (remainingMs <= 0) {
+                    if (request.position() > 0 && request.hasRemaining()) {
+                        closeQuietly(); // 请求只写出了一部分，字节流已无法分帧
+                    }
+                    throw new PlcException("Modbus TCP 写响应超时：寄存器块 [" + block.startAddress() + "+"
+                            + block.quantity() + "]");
+                }
+                SelectionKey key = channel.keyFor(selector);
+                key.interestOps(SelectionKey.OP_READ | (request.hasRemaining() ? SelectionKey.OP_WRITE : 0));
+                selector.select(remainingMs);
+                selector.selectedKeys().clear();
+                if (channel.read(readBuffer) < 0) {
+                    closeQuietly();
+                    throw new PlcException("Modbus TCP 连接被对端关闭：" + host + ":" + port);
+                }
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new PlcException("Modbus TCP 写入失败: " + e.getMessage(), e);
+        } catch (ModbusException e) {
+            throw new PlcException("写入寄存器块 [" + block.startAddress() + "+" + block.quantity() + "] 失败: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 在接收缓冲区中查找写请求的回显，之前超时的读请求迟到的响应直接丢弃
+     *
+     * @return 是否已收到回显
+     */
+    private boolean drainWriteResponse(int transactionId, int functionCode) throws IOException {
+        readBuffer.flip();
+        byte[] buffer = readBuffer.array();
+        try {
+            while (true) {
+                int offset = readBuffer.position();
+                int frameLength;
+                try {
+                    frameLength = ModbusTcpCodec.frameLength(buffer, offset, readBuffer.remaining());
+                } catch (ModbusException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+                if (frameLength == 0 || frameLength > readBuffer.remaining()) {
+                    return false;
+                }
+                readBuffer.position(offset + frameLength);
+                if (ModbusTcpCodec.transactionId(buffer, offset) == transactionId) {
+                    ModbusTcpCodec.checkWriteResponse(buffer, offset, frameLength, functionCode);
+                    return true;
+                }
+            }
+        } finally {
+            readBuffer.compact();
+        }
+    }
+
+    /**
+     * 复用的块完成标记，按块数扩容
+     */
+    private boolean[] getDoneFlags(int total) {
+        if (doneFlags.length < total) {
+            doneFlags = new boolean[total];
+        } else {
+            Arrays.fill(doneFlags, 0, total, false);
+        }
+        return doneFlags;
+    }
+
+    private boolean canSend(int sent, int received, int total) {
+        return sent < total && sent - received < maxOutstanding
+                && writeBuffer.remaining() >= ModbusTcpCodec.READ_REQUEST_LENGTH;
+    }
+
+    private void flushWrites() throws IOException {
+        if (writeBuffer.position() == 0) {
+            return;
+        }
+        writeBuffer.flip();
+        channel.write(writeBuffer);
+        writeBuffer.compact();
+    }
+
+    /**
+     * 从接收缓冲区中切出完整响应帧并解码
+     *
+     * @return 本次匹配到的块数
+     */
+    private int drainResponses(List<ModbusReadBlock> blocks, int firstTransactionId,
+                               boolean[] done, PointSnapshot snapshot) throws IOException {
+        readBuffer.flip();
+        byte[] buffer = readBuffer.array();
+        int matched = 0;
+        try {
+            while (true) {
+                int offset = readBuffer.position();
+                int frameLength;
+                try {
+                    frameLength = ModbusTcpCodec.frameLength(buffer, offset, readBuffer.remaining());
+                } catch (ModbusException e) {
+                    // 报文头错乱，字节流已无法分帧，只能断开重连
+                    throw new IOException(e.getMessage(), e);
+                }
+                if (frameLength == 0 || frameLength > readBuffer.remaining()) {
+                    break;
+                }
+                readBuffer.position(offset + frameLength);
+
+                int index = (ModbusTcpCodec.transactionId(buffer, offset) - firstTransactionId) & 0xFFFF;
+                if (index >= blocks.size() || done[index]) {
+                    continue; // 上个周期迟到的响应
+                }
+                ModbusReadBlock block = blocks.get(index);
+                ModbusTcpCodec.checkResponse(buffer, offset, frameLength, unitId, block.functionCode(), block.quantity());
+                for (ModbusRegisterPoint point : block.points()) {
+                    point.decodeInto(buffer, offset + ModbusTcpCodec.UNIT_ID_OFFSET, block.startAddress(), snapshot);
+                }
+                done[index] = true;
+                matched++;
+            }
+        } finally {
+            readBuffer.compact();
+        }
+        return matched;
+    }
+
+    private void closeQuietly() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+            if (selector != null) {
+                selector.close();
+            }
+        } catch (IOException ignored) {
+            // 关闭失败无需处理
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.iweidujiang.industry.plc.adapter;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusReadPlanner;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.spi.PlcProtocolProvider;
+import io.github.iweidujiang.industry.plc.spi.PlcProviderContext;
+
+import java.util.Set;
+
+/**
+ * Modbus TCP 适配器提供者（协议名 modbus-tcp）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusTcpProvider implements PlcProtocolProvider {
+
+    @Override
+    public Set<String> getProtocols() {
+        return Set.of("modbus-tcp");
+    }
+
+    @Override
+    public PlcProtocolAdapter createAdapter(DeviceConfig config, PlcProviderContext context) {
+        return new ModbusTcpAdapter(
+                config.getHost(),
+                config.getPort() != null ? config.getPort() : ModbusTcpAdapter.DEFAULT_PORT,
+                config.getDeviceId() != null ? config.getDeviceId() : 1,
+                config.getMaxRegisterGap() != null ? config.getMaxRegisterGap() : ModbusReadPlanner.DEFAULT_MAX_GAP,
+                config.getMaxRegistersPerRead() != null ? config.getMaxRegistersPerRead() : ModbusRtuCodec.MAX_READ_REGISTERS,
+                config.getMaxOutstandingRequests() != null ? config.getMaxOutstandingRequests() : ModbusTcpAdapter.DEFAULT_MAX_OUTSTANDING
+        );
+    }
+}
@@ -2,6 +2,7 @@ package io.github.iweidujiang.industry.plc.adapter;
 
 import io.github.iweidujiang.industry.plc.exception.PlcException;
 import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
 
 import java.util.List;
 import java.util.Map;
@@ -9,6 +10,8 @@ import java.util.Map;
 /**
  * PLC 协议适配器接口
  * <p>
+ * 新协议通过 {@link io.github.iweidujiang.industry.plc.spi.PlcProtocolProvider} 接入。
+ * <p>
  * 作者: 苏渡苇
  * GitHub:  https://github.com/iweidujiang
  * 公众号: 苏渡苇
@@ -24,6 +27,46 @@ public interface PlcProtocolAdapter {
      */
     Map<String, Object> readDataPoints(List<DataPoint> points) throws PlcException;
 
+    /**
+     * 读取一批数据点，并按点位索引写入预分配的快照
+     * <p>
+     * 默认实现经由 {@link #readDataPoints(List)} 转换，会装箱；
+     * 适配器应覆盖本方法，把解码结果直接写入快照。
+     *
+     * @param points   采集点列表
+     * @param snapshot 由同一点位列表创建的快照
+     * @throws PlcException 通信失败
+     */
+    default void readDataPoints(List<DataPoint> points, PointSnapshot snapshot) throws PlcException {
+        Map<String, Object> values = readDataPoints(points);
+        for (int i = 0; i < points.size(); i++) {
+            Object value = values.get(points.get(i).getName());
+            if (value != null) {
+                snapshot.setValue(i, value);
+            }
+        }
+    }
+
+    /**
+     * 写入一批数据点
+     * <p>
+     * 适配器应把地址相邻的点位合并为尽量少的写请求。写入不是原子的：中途失败时，之前的请求已经生效。
+     *
+     * @param points 要写入的点位
+     * @param values 由同一点位列表创建的快照，每个点位都须已赋值
+     * @throws PlcException 协议不支持写入、值非法或通信失败
+     */
+    default void writeDataPoints(List<DataPoint> points, PointSnapshot values) throws PlcException {
+        throw new PlcException("该协议适配器不支持写入");
+    }
+
+    /**
+     * 适配器能力，采集调度据此选择读取方式
+     */
+    default AdapterCapabilities getCapabilities() {
+        return AdapterCapabilities.DEFAULT;
+    }
+
     /**
      * 建立连接
      */
@@ -0,0 +1,43 @@
+package io.github.iweidujiang.industry.plc.adapter;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 适配器的读计划缓存：按点位列表对象（同一扫描组合始终是同一个列表对象）各规划一次
+ * <p>
+ * 以列表身份为键，查找不必逐个比较点位；但调用方每次传入新列表时缓存会无限增长，
+ * 因此条目数设上限，超出时整体清空，之后按需重新规划。
+ * 非线程安全，由适配器的 I/O 锁保护。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+final class ReadPlanCache<P> {
+
+    /** 一台设备的扫描组合数通常只有几个 */
+    static final int MAX_ENTRIES = 32;
+
+    private final Map<List<DataPoint>, P> plans = new IdentityHashMap<>();
+
+    P get(List<DataPoint> points) {
+        return plans.get(points);
+    }
+
+    void put(List<DataPoint> points, P plan) {
+        if (plans.size() >= MAX_ENTRIES && !plans.containsKey(points)) {
+            plans.clear();
+        }
+        plans.put(points, plan);
+    }
+
+    int size() {
+        return plans.size();
+    }
+}
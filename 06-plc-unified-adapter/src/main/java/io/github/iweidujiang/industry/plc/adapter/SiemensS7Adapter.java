@@ -2,18 +2,28 @@ package io.github.iweidujiang.industry.plc.adapter;
 
 import com.github.s7connector.api.S7Connector;
 import com.github.s7connector.api.factory.S7ConnectorFactory;
+import io.github.iweidujiang.industry.plc.adapter.s7.S7Address;
+import io.github.iweidujiang.industry.plc.adapter.s7.S7ReadBlock;
+import io.github.iweidujiang.industry.plc.adapter.s7.S7ReadPlan;
+import io.github.iweidujiang.industry.plc.adapter.s7.S7ReadPlanner;
+import io.github.iweidujiang.industry.plc.adapter.s7.S7WriteBlock;
+import io.github.iweidujiang.industry.plc.adapter.s7.S7WritePlanner;
 import io.github.iweidujiang.industry.plc.exception.PlcException;
 import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 西门子 S7 协议适配器（基于 s7connector）
  * <p>
+ * 点位地址预先编译为 {@link S7ReadPlan}，采集循环中不做任何字符串解析；
+ * 同一 DB 中相邻的点位合并为一次块读（如 DB1.DBW20 与 DB1.DBD24 合并读取 20~27 字节），
+ * 各点位的值再从块数据中按偏移、按配置的数据类型（大端序）解码。
+ * 写入时首尾相接的点位合并为一次块写，布尔量按字节读-改-写；读写共用连接，由 I/O 锁串行化。
+ * <p>
  * 作者: 苏渡苇
  * GitHub:  https://github.com/iweidujiang
  * 公众号: 苏渡苇
@@ -25,10 +35,30 @@ public class SiemensS7Adapter implements PlcProtocolAdapter {
     private S7Connector connector;
     private final String host;
     private final int port;
+    private final S7ReadPlanner planner;
+    private final ReentrantLock ioLock = new ReentrantLock();
+
+    // 读计划缓存：按点位列表（同一扫描组合始终是同一个列表对象）各规划一次，地址只解析一次
+    private final ReadPlanCache<S7ReadPlan> readPlans = new ReadPlanCache<>();
 
     public SiemensS7Adapter(String host, int port) {
         this.host = host;
         this.port = port;
+        this.planner = new S7ReadPlanner(S7ReadPlanner.DEFAULT_MAX_GAP, S7ReadPlanner.DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * 创建适配器并预先编译设备的读计划，地址配置错误在创建时即暴露
+     *
+     * @param maxByteGap      合并块时允许的最大字节空洞
+     * @param maxBytesPerRead 单次读取的字节上限
+     * @throws IllegalArgumentException 存在无法解析的地址
+     */
+    public SiemensS7Adapter(String host, int port, List<DataPoint> points, int maxByteGap, int maxBytesPerRead) {
+        this.host = host;
+        this.port = port;
+        this.planner = new S7ReadPlanner(maxByteGap, maxBytesPerRead);
+        this.readPlans.put(points, planner.plan(points));
     }
 
     /**
@@ -40,37 +70,72 @@ public class SiemensS7Adapter implements PlcProtocolAdapter {
      */
     @Override
     public Map<String, Object> readDataPoints(List<DataPoint> points) throws PlcException {
-        Map<String, Object> result = new HashMap<>();
-        for (DataPoint point : points) {
-            try {
-                point.parseSiemensAddress();
-
-                Object value;
-                if (point.isBool()) {
-                    byte[] bytes = connector.read(
-                            point.getDaveArea(),
-                            point.getDbNumber(),
-                            point.getByteOffset(),
-                    1
-                            );
-                    value = ((bytes[0] >> point.getBitOffset()) & 1) == 1;
-                } else {
-                    byte[] bytes = connector.read(
-                            point.getDaveArea(),
-                            point.getDbNumber(),
-                            point.getByteOffset(),
-                            point.getSize()
-                    );
-
-                    value = convertBytesToObject(bytes, point.getSize());
+        PointSnapshot snapshot = new PointSnapshot(points);
+        readDataPoints(points, snapshot);
+        return snapshot.toMap();
+    }
+
+    @Override
+    public void readDataPoints(List<DataPoint> points, PointSnapshot snapshot) throws PlcException {
+        S7ReadPlan readPlan = getReadPlan(points);
+        ioLock.lock();
+        try {
+            for (S7ReadBlock block : readPlan.blocks()) {
+                byte[] bytes;
+                try {
+                    bytes = connector.read(block.area(), block.dbNumber(), block.length(), block.startByte());
+                } catch (Exception e) {
+                    throw new PlcException("读取 " + block.area() + " " + block.dbNumber() + " 字节 ["
+                            + block.startByte() + "+" + block.length() + "] 失败: " + e.getMessage(), e);
+                }
+                for (S7Address address : block.points()) {
+                    address.decodeInto(bytes, block.startByte(), snapshot);
                 }
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
 
-                result.put(point.getName(), value);
-            } catch (Exception e) {
-                throw new PlcException("读取点 [" + point.getName() + "] 失败: " + e.getMessage(), e);
+    @Override
+    public void writeDataPoints(List<DataPoint> points, PointSnapshot values) throws PlcException {
+        List<S7WriteBlock> blocks;
+        try {
+            blocks = S7WritePlanner.plan(points, planner.getMaxBytes());
+        } catch (IllegalArgumentException e) {
+            throw new PlcException("生成 S7 写计划失败: " + e.getMessage(), e);
+        }
+        ioLock.lock();
+        try {
+            for (S7WriteBlock block : blocks) {
+                writeBlock(block, values);
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * 执行一个块写请求；布尔量所在的字节先读回当前值，只改动目标位
+     */
+    private void writeBlock(S7WriteBlock block, PointSnapshot values) throws PlcException {
+        String target = block.area() + " " + block.dbNumber() + " 字节 [" + block.startByte() + "+" + block.length() + "]";
+        try {
+            byte[] bytes = block.bits()
+                    ? connector.read(block.area(), block.dbNumber(), 1, block.startByte())
+                    : new byte[block.length()];
+            for (S7Address address : block.points()) {
+                address.encodeInto(bytes, block.startByte(), values);
             }
+            connector.write(block.area(), block.dbNumber(), block.startByte(), bytes);
+        } catch (Exception e) {
+            throw new PlcException("写入 " + target + " 失败: " + e.getMessage(), e);
         }
-        return result;
+    }
+
+    @Override
+    public AdapterCapabilities getCapabilities() {
+        return new AdapterCapabilities(planner.getMaxBytes(), 1, false);
     }
 
     /**
@@ -103,13 +168,16 @@ public class SiemensS7Adapter implements PlcProtocolAdapter {
         }
     }
 
-    private Object convertBytesToObject(byte[] bytes, int size) {
-        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
-        return switch (size) {
-            case 1 -> bytes[0] & 0xFF;
-            case 2 -> (int) buffer.getShort();
-            case 4 -> buffer.getFloat();
-            default -> bytes;
-        };
+    private S7ReadPlan getReadPlan(List<DataPoint> points) throws PlcException {
+        S7ReadPlan readPlan = readPlans.get(points);
+        if (readPlan == null) {
+            try {
+                readPlan = planner.plan(points);
+            } catch (IllegalArgumentException e) {
+                throw new PlcException("生成 S7 读计划失败: " + e.getMessage(), e);
+            }
+            readPlans.put(points, readPlan);
+        }
+        return readPlan;
     }
 }
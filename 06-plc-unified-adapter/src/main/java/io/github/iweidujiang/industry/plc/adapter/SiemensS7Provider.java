@@ -0,0 +1,36 @@
+package io.github.iweidujiang.industry.plc.adapter;
+
+import io.github.iweidujiang.industry.plc.adapter.s7.S7ReadPlanner;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.spi.PlcProtocolProvider;
+import io.github.iweidujiang.industry.plc.spi.PlcProviderContext;
+
+import java.util.Set;
+
+/**
+ * 西门子 S7 适配器提供者（协议名 siemens-s7）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SiemensS7Provider implements PlcProtocolProvider {
+
+    @Override
+    public Set<String> getProtocols() {
+        return Set.of("siemens-s7");
+    }
+
+    @Override
+    public PlcProtocolAdapter createAdapter(DeviceConfig config, PlcProviderContext context) {
+        return new SiemensS7Adapter(
+                config.getHost(),
+                config.getPort(),
+                config.getPoints(),
+                config.getMaxByteGap() != null ? config.getMaxByteGap() : S7ReadPlanner.DEFAULT_MAX_GAP,
+                config.getMaxBytesPerRead() != null ? config.getMaxBytesPerRead() : S7ReadPlanner.DEFAULT_MAX_BYTES
+        );
+    }
+}
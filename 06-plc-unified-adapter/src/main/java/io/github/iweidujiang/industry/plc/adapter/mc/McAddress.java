@@ -0,0 +1,93 @@
+package io.github.iweidujiang.industry.plc.adapter.mc;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.model.PointType;
+
+import java.util.Locale;
+
+/**
+ * 解析后的三菱 MC 点位地址
+ * <p>
+ * 地址格式为软元件前缀加编号，如 {@code D100}、{@code ZR2000}、{@code M10}、{@code X1F}（X/Y/B/W 编号为十六进制）。
+ * 所有点位都按字读取：字软元件的字位置即编号；位软元件的 16 个连续编号组成一个字，
+ * 字位置为 编号 / 16，位偏移为 编号 % 16。32 位类型占 2 个字，低字在前。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param name      点位名称
+ * @param index     点位在点位列表中的索引（即快照索引）
+ * @param device    软元件
+ * @param slot      字位置
+ * @param bitOffset 位软元件在字内的位偏移，字软元件为 -1
+ * @param words     占用字数
+ * @param type      数据类型
+ */
+public record McAddress(String name, int index, McDevice device, int slot, int bitOffset, int words,
+                        PointType type) {
+
+    /** 软元件编号上限（3 字节） */
+    public static final int MAX_DEVICE_NUMBER = 0xFFFFFF;
+
+    /**
+     * @throws IllegalArgumentException 地址无法解析，或数据类型与软元件不匹配
+     */
+    public static McAddress of(DataPoint point, int index) {
+        String addr = point.getAddress() == null ? "" : point.getAddress().trim().toUpperCase(Locale.ROOT);
+        McDevice device = McDevice.match(addr);
+        if (device == null) {
+            throw new IllegalArgumentException("无效的三菱 MC 地址：" + point.getAddress());
+        }
+        int number;
+        try {
+            number = Integer.parseInt(addr.substring(device.name().length()), device.radix());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的三菱 MC 地址：" + point.getAddress());
+        }
+        if (number < 0 || number > MAX_DEVICE_NUMBER) {
+            throw new IllegalArgumentException("三菱 MC 软元件编号超出范围：" + point.getAddress());
+        }
+
+        if (device.isBit()) {
+            PointType type = PointType.of(point.getDataType(), PointType.BOOL);
+            if (type != PointType.BOOL) {
+                throw new IllegalArgumentException("位软元件 " + point.getAddress() + " 只能是 BOOL 类型");
+            }
+            return new McAddress(point.getName(), index, device, number / 16, number % 16, 1, type);
+        }
+        PointType type = PointType.of(point.getDataType(), PointType.UINT16);
+        return new McAddress(point.getName(), index, device, number, -1, type.byteSize() > 2 ? 2 : 1, type);
+    }
+
+    /**
+     * 从响应数据中取出本点位的值，写入快照
+     *
+     * @param data     响应帧
+     * @param position 本点位第一个字在响应帧中的位置
+     */
+    public void decodeInto(byte[] data, int position, PointSnapshot snapshot) {
+        int low = McCodec.getWord(data, position);
+        if (bitOffset >= 0) {
+            snapshot.setBoolean(index, (low >> bitOffset & 1) != 0);
+            return;
+        }
+        if (words == 1) {
+            switch (type) {
+                case BOOL -> snapshot.setBoolean(index, low != 0);
+                case BYTE -> snapshot.setLong(index, low & 0xFF);
+                case INT16 -> snapshot.setLong(index, (short) low);
+                default -> snapshot.setLong(index, low);
+            }
+            return;
+        }
+        int raw = McCodec.getWord(data, position + 2) << 16 | low;
+        switch (type) {
+            case FLOAT32 -> snapshot.setDouble(index, Float.intBitsToFloat(raw));
+            case UINT32 -> snapshot.setLong(index, raw & 0xFFFFFFFFL);
+            default -> snapshot.setLong(index, raw);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.iweidujiang.industry.plc.adapter.mc;
+
+import java.util.List;
+
+/**
+ * 三菱 MC 协议 3E 帧（二进制）编解码
+ * <p>
+ * 请求帧：副头部 50 00 + 网络号(1) + PLC 号(1) + 目标模块 I/O 号(2) + 目标模块站号(1)
+ * + 请求数据长(2) + 监视定时器(2) + 指令(2) + 子指令(2) + 数据；
+ * 响应帧：副头部 D0 00 + 同样的 5 字节路径 + 响应数据长(2) + 结束代码(2) + 数据。
+ * 多字节字段均为小端。只访问本站 CPU（网络号 0，PLC 号 FF，I/O 号 03FF）。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class McCodec {
+
+    /** 批量读（字单位） */
+    public static final int CMD_BATCH_READ = 0x0401;
+    /** 随机读（字单位） */
+    public static final int CMD_RANDOM_READ = 0x0403;
+
+    /** 批量读一次最多的字数 */
+    public static final int MAX_BATCH_WORDS = 960;
+    /** 随机读一次最多的字 + 双字点数 */
+    public static final int MAX_RANDOM_POINTS = 192;
+
+    /** 副头部到数据长字段（含）的长度 */
+    public static final int HEADER_LENGTH = 9;
+    /** 响应数据（结束代码之后）的起始位置 */
+    public static final int RESPONSE_DATA_OFFSET = 11;
+    /** 请求帧中数据部分的起始位置 */
+    public static final int REQUEST_DATA_OFFSET = 15;
+
+    public static final int MAX_REQUEST_LENGTH = REQUEST_DATA_OFFSET + 2 + 4 * MAX_RANDOM_POINTS;
+    public static final int MAX_RESPONSE_LENGTH = RESPONSE_DATA_OFFSET + 2 * MAX_BATCH_WORDS;
+
+    // 监视定时器，单位 250 ms
+    private static final int MONITORING_TIMER = 16;
+
+    private McCodec() {
+    }
+
+    /**
+     * 编码批量读请求（字单位）
+     *
+     * @return 帧长度
+     */
+    public static int encodeBatchRead(byte[] dst, int offset, McDevice device, int headNumber, int words) {
+        if (words < 1 || words > MAX_BATCH_WORDS) {
+            throw new IllegalArgumentException("批量读字数必须在 1 到 " + MAX_BATCH_WORDS + " 之间：" + words);
+        }
+        int p = offset + REQUEST_DATA_OFFSET;
+        p = putDevice(dst, p, device, headNumber);
+        p = putWord(dst, p, words);
+        writeHeader(dst, offset, CMD_BATCH_READ, p - offset - REQUEST_DATA_OFFSET);
+        return p - offset;
+    }
+
+    /**
+     * 编码随机读请求（字单位）：先列出按字访问的软元件，再列出按双字访问的软元件
+     *
+     * @return 帧长度
+     */
+    public static int encodeRandomRead(byte[] dst, int offset, List<McReadBlock> wordBlocks,
+                                       List<McReadBlock> dwordBlocks) {
+        int count = wordBlocks.size() + dwordBlocks.size();
+        if (count < 1 || count > MAX_RANDOM_POINTS) {
+            throw new IllegalArgumentException("随机读点数必须在 1 到 " + MAX_RANDOM_POINTS + " 之间：" + count);
+        }
+        int p = offset + REQUEST_DATA_OFFSET;
+        dst[p++] = (byte) wordBlocks.size();
+        dst[p++] = (byte) dwordBlocks.size();
+        for (McReadBlock block : wordBlocks) {
+            p = putDevice(dst, p, block.device(), block.headNumber());
+        }
+        for (McReadBlock block : dwordBlocks) {
+            p = putDevice(dst, p, block.device(), block.headNumber());
+        }
+        writeHeader(dst, offset, CMD_RANDOM_READ, p - offset - REQUEST_DATA_OFFSET);
+        return p - offset;
+    }
+
+    /**
+     * 由响应头（至少 {@link #HEADER_LENGTH} 字节）推算完整帧长
+     *
+     * @throws IllegalArgumentException 副头部或数据长非法
+     */
+    public static int responseLength(byte[] frame, int offset) {
+        if ((frame[offset] & 0xFF) != 0xD0 || frame[offset + 1] != 0) {
+            throw new IllegalArgumentException(String.format("非法的 3E 响应副头部：%02X %02X",
+                    frame[offset] & 0xFF, frame[offset + 1] & 0xFF));
+        }
+        int dataLength = getWord(frame, offset + 7);
+        if (dataLength < 2 || HEADER_LENGTH + dataLength > MAX_RESPONSE_LENGTH) {
+            throw new IllegalArgumentException("非法的 3E 响应数据长：" + dataLength);
+        }
+        return HEADER_LENGTH + dataLength;
+    }
+
+    /**
+     * 结束代码，0 表示正常
+     */
+    public static int endCode(byte[] frame, int offset) {
+        return getWord(frame, offset + HEADER_LENGTH);
+    }
+
+    /**
+     * 读取小端 16 位无符号数
+     */
+    public static int getWord(byte[] data, int position) {
+        return (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8;
+    }
+
+    private static void writeHeader(byte[] dst, int offset, int command, int dataLength) {
+        dst[offset] = 0x50;
+        dst[offset + 1] = 0x00;
+        dst[offset + 2] = 0x00;         // 网络号
+        dst[offset + 3] = (byte) 0xFF;  // PLC 号
+        putWord(dst, offset + 4, 0x03FF); // 目标模块 I/O 号
+        dst[offset + 6] = 0x00;         // 目标模块站号
+        putWord(dst, offset + 7, 6 + dataLength); // 监视定时器 + 指令 + 子指令 + 数据
+        putWord(dst, offset + 9, MONITORING_TIMER);
+        putWord(dst, offset + 11, command);
+        putWord(dst, offset + 13, 0x0000);  // 子指令：字单位
+    }
+
+    private static int putDevice(byte[] dst, int p, McDevice device, int number) {
+        dst[p] = (byte) number;
+        dst[p + 1] = (byte) (number >> 8);
+        dst[p + 2] = (byte) (number >> 16);
+        dst[p + 3] = (byte) device.code();
+        return p + 4;
+    }
+
+    private static int putWord(byte[] dst, int p, int value) {
+        dst[p] = (byte) value;
+        dst[p + 1] = (byte) (value >> 8);
+        return p + 2;
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.iweidujiang.industry.plc.adapter.mc;
+
+/**
+ * 三菱 MC 协议软元件（Q/L 系列二进制代码）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public enum McDevice {
+
+    /** 特殊继电器 */
+    SM(0x91, 10, true),
+    /** 特殊寄存器 */
+    SD(0xA9, 10, false),
+    /** 文件寄存器（连续访问） */
+    ZR(0xB0, 10, false),
+    /** 定时器当前值 */
+    TN(0xC2, 10, false),
+    /** 计数器当前值 */
+    CN(0xC5, 10, false),
+    /** 输入 */
+    X(0x9C, 16, true),
+    /** 输出 */
+    Y(0x9D, 16, true),
+    /** 内部继电器 */
+    M(0x90, 10, true),
+    /** 锁存继电器 */
+    L(0x92, 10, true),
+    /** 链接继电器 */
+    B(0xA0, 16, true),
+    /** 数据寄存器 */
+    D(0xA8, 10, false),
+    /** 链接寄存器 */
+    W(0xB4, 16, false),
+    /** 文件寄存器 */
+    R(0xAF, 10, false);
+
+    private final int code;
+    private final int radix;
+    private final boolean bit;
+
+    McDevice(int code, int radix, boolean bit) {
+        this.code = code;
+        this.radix = radix;
+        this.bit = bit;
+    }
+
+    /**
+     * 二进制报文中的软元件代码
+     */
+    public int code() {
+        return code;
+    }
+
+    /**
+     * 软元件编号的进制（X/Y/B/W 为十六进制）
+     */
+    public int radix() {
+        return radix;
+    }
+
+    /**
+     * 是否位软元件；位软元件按字读取时一个字包含 16 个连续编号
+     */
+    public boolean isBit() {
+        return bit;
+    }
+
+    /**
+     * 匹配地址前缀，两字母的软元件优先；无法识别时返回 null
+     */
+    public static McDevice match(String address) {
+        // 枚举按前缀长度从长到短声明，先匹配到的即为最长前缀
+        for (McDevice device : values()) {
+            if (address.startsWith(device.name())) {
+                return device;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按软元件代码查找，无法识别时返回 null
+     */
+    public static McDevice ofCode(int code) {
+        for (McDevice device : values()) {
+            if (device.code == code) {
+                return device;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.iweidujiang.industry.plc.adapter.mc;
+
+import java.util.List;
+
+/**
+ * 一次随机读请求（命令 0403）：零散的单字 / 双字在一个请求中读回
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param wordBlocks  按字访问的块（各 1 个字）
+ * @param dwordBlocks 按双字访问的块（各 2 个字）
+ */
+public record McRandomRead(List<McReadBlock> wordBlocks, List<McReadBlock> dwordBlocks) {
+
+    public McRandomRead {
+        wordBlocks = List.copyOf(wordBlocks);
+        dwordBlocks = List.copyOf(dwordBlocks);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.iweidujiang.industry.plc.adapter.mc;
+
+import java.util.List;
+
+/**
+ * 同一软元件上连续的一段字及其覆盖的点位
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param device    软元件
+ * @param startSlot 起始字位置
+ * @param words     字数
+ * @param points    块内点位
+ */
+public record McReadBlock(McDevice device, int startSlot, int words, List<McAddress> points) {
+
+    /**
+     * 报文中的起始软元件编号：位软元件按字读取时为 字位置 × 16
+     */
+    public int headNumber() {
+        return device.isBit() ? startSlot * 16 : startSlot;
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.iweidujiang.industry.plc.adapter.mc;
+
+import java.util.List;
+
+/**
+ * 三菱 MC 读计划：相邻的点位合并为批量读，剩下零散的单字 / 双字打包成随机读
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param batches     批量读请求（命令 0401）
+ * @param randomReads 随机读请求（命令 0403）
+ */
+public record McReadPlan(List<McReadBlock> batches, List<McRandomRead> randomReads) {
+
+    public McReadPlan {
+        batches = List.copyOf(batches);
+        randomReads = List.copyOf(randomReads);
+    }
+
+    /**
+     * 执行一次计划需要的请求数
+     */
+    public int requestCount() {
+        return batches.size() + randomReads.size();
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.iweidujiang.industry.plc.adapter.mc;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 三菱 MC 读计划生成器
+ * <p>
+ * 同一软元件上字位置相近（空洞不超过 maxGap）的点位合并为一个批量读块，块长不超过 maxWords；
+ * 合并后只剩一个字或一个双字的零散块超过一个时，打包为随机读，每个请求最多 {@link McCodec#MAX_RANDOM_POINTS} 个。
+ * 这样分散在 D/M 区各处的点位通常只需一两个请求。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class McReadPlanner {
+
+    /** 默认允许的字空洞 */
+    public static final int DEFAULT_MAX_GAP = 10;
+
+    private final int maxGap;
+    private final int maxWords;
+
+    public McReadPlanner(int maxGap, int maxWords) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap 不能为负数");
+        }
+        if (maxWords < 2 || maxWords > McCodec.MAX_BATCH_WORDS) {
+            throw new IllegalArgumentException("maxWords 必须在 2 到 " + McCodec.MAX_BATCH_WORDS + " 之间");
+        }
+        this.maxGap = maxGap;
+        this.maxWords = maxWords;
+    }
+
+    /**
+     * 单个批量读块最多包含的字数
+     */
+    public int getMaxWords() {
+        return maxWords;
+    }
+
+    /**
+     * 编译点位列表
+     *
+     * @throws IllegalArgumentException 存在无法解析的地址
+     */
+    public McReadPlan plan(List<DataPoint> points) {
+        List<McAddress> addresses = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            DataPoint point = points.get(i);
+            try {
+                addresses.add(McAddress.of(point, i));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("点位 [" + point.getName() + "] " + e.getMessage(), e);
+            }
+        }
+        addresses.sort(Comparator.comparing(McAddress::device).thenComparingInt(McAddress::slot));
+
+        List<McReadBlock> blocks = new ArrayList<>();
+        List<McAddress> current = new ArrayList<>();
+        McDevice device = null;
+        int start = 0;
+        int end = 0; // 当前块的结束字位置（不含）
+
+        for (McAddress address : addresses) {
+            int addressEnd = address.slot() + address.words();
+            boolean sameBlock = !current.isEmpty()
+                    && address.device() == device
+                    && address.slot() - end <= maxGap
+                    && Math.max(end, addressEnd) - start <= maxWords;
+            if (!sameBlock) {
+                if (!current.isEmpty()) {
+                    blocks.add(new McReadBlock(device, start, end - start, List.copyOf(current)));
+                    current.clear();
+                }
+                device = address.device();
+                start = address.slot();
+                end = addressEnd;
+            } else {
+                end = Math.max(end, addressEnd);
+            }
+            current.add(address);
+        }
+        if (!current.isEmpty()) {
+            blocks.add(new McReadBlock(device, start, end - start, List.copyOf(current)));
+        }
+        return split(blocks);
+    }
+
+    /**
+     * 把零散的单字 / 双字块分出来打包为随机读；只有一个时仍用批量读，请求数相同
+     */
+    private McReadPlan split(List<McReadBlock> blocks) {
+        List<McReadBlock> scattered = new ArrayList<>();
+        for (McReadBlock block : blocks) {
+            if (block.words() <= 2) {
+                scattered.add(block);
+            }
+        }
+        if (scattered.size() < 2) {
+            return new McReadPlan(blocks, List.of());
+        }
+
+        List<McReadBlock> batches = new ArrayList<>(blocks);
+        batches.removeAll(scattered);
+        List<McRandomRead> randomReads = new ArrayList<>();
+        List<McReadBlock> words = new ArrayList<>();
+        List<McReadBlock> dwords = new ArrayList<>();
+        for (McReadBlock block : scattered) {
+            (block.words() == 1 ? words : dwords).add(block);
+            if (words.size() + dwords.size() == McCodec.MAX_RANDOM_POINTS) {
+                randomReads.add(new McRandomRead(words, dwords));
+                words.clear();
+                dwords.clear();
+            }
+        }
+        if (!words.isEmpty() || !dwords.isEmpty()) {
+            randomReads.add(new McRandomRead(words, dwords));
+        }
+        return new McReadPlan(batches, randomReads);
+    }
+}
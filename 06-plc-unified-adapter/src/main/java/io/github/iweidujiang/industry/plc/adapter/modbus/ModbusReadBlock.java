@@ -0,0 +1,15 @@
+package io.github.iweidujiang.industry.plc.adapter.modbus;
+
+import java.util.List;
+
+/**
+ * 一次 FC03/FC04 块读请求：连续的寄存器区间及其覆盖的点位
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public record ModbusReadBlock(int functionCode, int startAddress, int quantity, List<ModbusRegisterPoint> points) {
+}
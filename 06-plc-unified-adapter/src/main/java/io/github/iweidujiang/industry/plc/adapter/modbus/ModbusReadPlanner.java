@@ -0,0 +1,101 @@
+package io.github.iweidujiang.industry.plc.adapter.modbus;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Modbus 读计划：把零散点位合并为连续的块读请求
+ * <p>
+ * 按功能码、地址排序后顺序合并，满足以下条件时开启新块：
+ * <ul>
+ *     <li>功能码不同（保持寄存器与输入寄存器不能合并）</li>
+ *     <li>与上一块末尾的空洞超过 maxGap 个寄存器（多读几个无用寄存器通常比多一次往返便宜）</li>
+ *     <li>合并后超过单次读取上限 maxRegisters（协议上限 125）</li>
+ * </ul>
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusReadPlanner {
+
+    /** 默认允许的地址空洞 */
+    public static final int DEFAULT_MAX_GAP = 10;
+
+    private final int maxGap;
+    private final int maxRegisters;
+
+    public ModbusReadPlanner(int maxGap, int maxRegisters) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap 不能为负数");
+        }
+        if (maxRegisters < 2 || maxRegisters > ModbusRtuCodec.MAX_READ_REGISTERS) {
+            throw new IllegalArgumentException("maxRegisters 必须在 2 到 " + ModbusRtuCodec.MAX_READ_REGISTERS + " 之间");
+        }
+        this.maxGap = maxGap;
+        this.maxRegisters = maxRegisters;
+    }
+
+    /**
+     * 单个块最多包含的寄存器数
+     */
+    public int getMaxRegisters() {
+        return maxRegisters;
+    }
+
+    /**
+     * 规划设备的全部点位，点位索引即其在列表中的位置
+     */
+    public List<ModbusReadBlock> plan(List<DataPoint> points) {
+        List<ModbusRegisterPoint> registers = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            registers.add(ModbusRegisterPoint.of(points.get(i), i));
+        }
+        return planRegisters(registers);
+    }
+
+    /**
+     * 规划已解析的寄存器点位（可以是设备点位的子集，如同一扫描周期的点位）
+     */
+    public List<ModbusReadBlock> planRegisters(List<ModbusRegisterPoint> points) {
+        List<ModbusRegisterPoint> registers = new ArrayList<>(points);
+        registers.sort(Comparator.comparingInt(ModbusRegisterPoint::functionCode)
+                .thenComparingInt(ModbusRegisterPoint::address));
+
+        List<ModbusReadBlock> blocks = new ArrayList<>();
+        List<ModbusRegisterPoint> current = new ArrayList<>();
+        int functionCode = -1;
+        int start = 0;
+        int end = 0; // 当前块的结束地址（不含）
+
+        for (ModbusRegisterPoint register : registers) {
+            int registerEnd = register.address() + register.registerCount();
+            boolean sameBlock = !current.isEmpty()
+                    && register.functionCode() == functionCode
+                    && register.address() - end <= maxGap
+                    && Math.max(end, registerEnd) - start <= maxRegisters;
+            if (!sameBlock) {
+                if (!current.isEmpty()) {
+                    blocks.add(new ModbusReadBlock(functionCode, start, end - start, List.copyOf(current)));
+                    current.clear();
+                }
+                functionCode = register.functionCode();
+                start = register.address();
+                end = registerEnd;
+            } else {
+                end = Math.max(end, registerEnd);
+            }
+            current.add(register);
+        }
+        if (!current.isEmpty()) {
+            blocks.add(new ModbusReadBlock(functionCode, start, end - start, List.copyOf(current)));
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.iweidujiang.industry.plc.adapter.modbus;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.model.PointType;
+
+import java.util.Locale;
+
+/**
+ * 解析后的 Modbus 寄存器点位
+ * <p>
+ * 地址格式：
+ * <ul>
+ *     <li>{@code 100} 或 {@code HR100}：保持寄存器，功能码 03</li>
+ *     <li>{@code IR100}：输入寄存器，功能码 04</li>
+ * </ul>
+ * 32 位类型（REAL/FLOAT/DINT/INT32/UINT32）占用 2 个寄存器，高字在前；BOOL 取寄存器是否非 0。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param name          点位名称
+ * @param index         点位在设备点位列表中的索引（即快照索引）
+ * @param functionCode  读功能码
+ * @param address       起始寄存器地址
+ * @param registerCount 占用寄存器数
+ * @param type          数据类型
+ */
+public record ModbusRegisterPoint(String name, int index, int functionCode, int address, int registerCount,
+                                  PointType type) {
+
+    /**
+     * @param index 点位在设备点位列表中的索引
+     */
+    public static ModbusRegisterPoint of(DataPoint point, int index) {
+        String addr = point.getAddress() == null ? "" : point.getAddress().trim().toUpperCase(Locale.ROOT);
+        int functionCode = ModbusRtuCodec.FC_READ_HOLDING_REGISTERS;
+        if (addr.startsWith("IR")) {
+            functionCode = ModbusRtuCodec.FC_READ_INPUT_REGISTERS;
+            addr = addr.substring(2);
+        } else if (addr.startsWith("HR")) {
+            addr = addr.substring(2);
+        }
+
+        int address;
+        try {
+            address = Integer.parseInt(addr);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的 Modbus 地址：" + point.getAddress());
+        }
+        if (address < 0 || address > 0xFFFF) {
+            throw new IllegalArgumentException("Modbus 地址超出范围：" + point.getAddress());
+        }
+
+        PointType type = PointType.of(point.getDataType(), PointType.UINT16);
+        return new ModbusRegisterPoint(point.getName(), index, functionCode, address,
+                type.byteSize() > 2 ? 2 : 1, type);
+    }
+
+    /**
+     * 从块读响应中取出本点位的值，写入快照
+     *
+     * @param frame      响应帧
+     * @param offset     响应帧起始位置
+     * @param blockStart 所属块的起始寄存器地址
+     */
+    public void decodeInto(byte[] frame, int offset, int blockStart, PointSnapshot snapshot) {
+        int registerIndex = address - blockStart;
+        int hi = ModbusRtuCodec.getRegister(frame, offset, registerIndex);
+        if (registerCount == 1) {
+            switch (type) {
+                case BOOL -> snapshot.setBoolean(index, hi != 0);
+                case BYTE -> snapshot.setLong(index, hi & 0xFF);
+                case INT16 -> snapshot.setLong(index, (short) hi);
+                default -> snapshot.setLong(index, hi);
+            }
+            return;
+        }
+        int raw = (hi << 16) | ModbusRtuCodec.getRegister(frame, offset, registerIndex + 1);
+        switch (type) {
+            case FLOAT32 -> snapshot.setDouble(index, Float.intBitsToFloat(raw));
+            case UINT32 -> snapshot.setLong(index, raw & 0xFFFFFFFFL);
+            default -> snapshot.setLong(index, raw);
+        }
+    }
+
+    /**
+     * 把快照中本点位的值编码为寄存器数据（大端，32 位类型高字在前）
+     *
+     * @param dst      写请求帧
+     * @param position 本点位第一个寄存器在帧中的位置
+     * @param values   由写入点位列表创建的快照
+     * @throws IllegalArgumentException 值未赋值或超出类型范围
+     */
+    public void encodeInto(byte[] dst, int position, PointSnapshot values) {
+        int raw = values.getRawBits(index);
+        if (registerCount == 2) {
+            dst[position++] = (byte) (raw >> 24);
+            dst[position++] = (byte) (raw >> 16);
+        }
+        dst[position] = (byte) (raw >> 8);
+        dst[position + 1] = (byte) raw;
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.iweidujiang.industry.plc.adapter.modbus;
+
+import java.util.List;
+
+/**
+ * 一次写请求：连续的保持寄存器区间及其覆盖的点位，单个寄存器用 FC06，其余用 FC16
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public record ModbusWriteBlock(int startAddress, int quantity, List<ModbusRegisterPoint> points) {
+}
@@ -0,0 +1,71 @@
+package io.github.iweidujiang.industry.plc.adapter.modbus;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Modbus 写计划生成器
+ * <p>
+ * 与读不同，写入不能跨越空洞（会覆盖中间未指定的寄存器），只有首尾相接的点位才合并为一个块，
+ * 每块不超过协议上限 123 个寄存器。下发 50 个连续寄存器的配方只需一次 FC16 请求。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class ModbusWritePlanner {
+
+    private ModbusWritePlanner() {
+    }
+
+    /**
+     * 规划写入，点位索引即其在列表中的位置
+     *
+     * @throws IllegalArgumentException 地址非法、写输入寄存器，或两个点位的寄存器重叠
+     */
+    public static List<ModbusWriteBlock> plan(List<DataPoint> points) {
+        List<ModbusRegisterPoint> registers = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            ModbusRegisterPoint register = ModbusRegisterPoint.of(points.get(i), i);
+            if (register.functionCode() != ModbusRtuCodec.FC_READ_HOLDING_REGISTERS) {
+                throw new IllegalArgumentException("输入寄存器只读，不能写入：" + points.get(i).getAddress());
+            }
+            registers.add(register);
+        }
+        registers.sort(Comparator.comparingInt(ModbusRegisterPoint::address));
+
+        List<ModbusWriteBlock> blocks = new ArrayList<>();
+        List<ModbusRegisterPoint> current = new ArrayList<>();
+        int start = 0;
+        int end = 0; // 当前块的结束地址（不含）
+        for (ModbusRegisterPoint register : registers) {
+            if (!current.isEmpty() && register.address() < end) {
+                throw new IllegalArgumentException("点位 [" + register.name() + "] 与 ["
+                        + current.get(current.size() - 1).name() + "] 的寄存器重叠");
+            }
+            int registerEnd = register.address() + register.registerCount();
+            boolean sameBlock = !current.isEmpty()
+                    && register.address() == end
+                    && registerEnd - start <= ModbusRtuCodec.MAX_WRITE_REGISTERS;
+            if (!sameBlock) {
+                if (!current.isEmpty()) {
+                    blocks.add(new ModbusWriteBlock(start, end - start, List.copyOf(current)));
+                    current.clear();
+                }
+                start = register.address();
+            }
+            end = registerEnd;
+            current.add(register);
+        }
+        if (!current.isEmpty()) {
+            blocks.add(new ModbusWriteBlock(start, end - start, List.copyOf(current)));
+        }
+        return blocks;
+    }
+}
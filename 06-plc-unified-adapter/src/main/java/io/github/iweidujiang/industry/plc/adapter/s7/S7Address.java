@@ -0,0 +1,163 @@
+package io.github.iweidujiang.industry.plc.adapter.s7;
+
+import com.github.s7connector.api.DaveArea;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.model.PointType;
+
+import java.util.Locale;
+
+/**
+ * 解析后的西门子 S7 点位地址（不可变，配置加载时解析一次）
+ * <p>
+ * 地址格式：
+ * <ul>
+ *     <li>{@code I1.0} / {@code Q1.0} / {@code M1.0}：输入 / 输出 / 位存储区的布尔量</li>
+ *     <li>{@code DB1.DBB0} / {@code DB1.DBW0} / {@code DB1.DBD0}：数据块中的字节 / 字 / 双字</li>
+ * </ul>
+ * 数据类型未配置时按地址长度推断：字节 → BYTE，字 → INT，双字 → REAL。S7 数据按大端序解码。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param name       点位名称
+ * @param index      点位在设备点位列表中的索引（即快照索引）
+ * @param area       存储区
+ * @param dbNumber   DB 编号，I/Q/M 区为 0
+ * @param byteOffset 字节偏移
+ * @param bitOffset  位偏移（仅布尔量）
+ * @param size       读取字节数
+ * @param bool       是否为布尔量
+ * @param type       数据类型
+ */
+public record S7Address(String name, int index, DaveArea area, int dbNumber, int byteOffset, int bitOffset,
+                        int size, boolean bool, PointType type) {
+
+    /**
+     * @param index 点位在设备点位列表中的索引
+     * @throws IllegalArgumentException 地址格式错误，或数据类型与地址长度不符
+     */
+    public static S7Address of(DataPoint point, int index) {
+        String address = point.getAddress();
+        if (address == null || address.isBlank()) {
+            throw new IllegalArgumentException("地址不能为空");
+        }
+        String addr = address.trim().toUpperCase(Locale.ROOT);
+        int dot = addr.indexOf('.');
+
+        // 处理 DB1.DBW0, DB1.DBD4 等
+        if (addr.startsWith("DB")) {
+            if (dot < 0) {
+                throw new IllegalArgumentException("DB 地址格式错误：" + addr);
+            }
+            int dbNumber = parseNumber(addr, 2, dot, "无效的 DB 编号：");
+            int from = addr.startsWith("DB", dot + 1) ? dot + 3 : dot + 1; // DBW0 → W0
+            if (from >= addr.length()) {
+                throw new IllegalArgumentException("DB 地址格式错误：" + addr);
+            }
+            int size = switch (addr.charAt(from)) {
+                case 'B' -> 1;
+                case 'W' -> 2;
+                case 'D' -> 4;
+                default -> throw new IllegalArgumentException("不支持的数据标识：" + addr.substring(from));
+            };
+            int byteOffset = parseNumber(addr, from + 1, addr.length(), "无效的字节偏移：");
+            PointType type = PointType.of(point.getDataType(), switch (size) {
+                case 1 -> PointType.BYTE;
+                case 2 -> PointType.INT16;
+                default -> PointType.FLOAT32;
+            });
+            if (type == PointType.BOOL || type.byteSize() != size) {
+                throw new IllegalArgumentException("数据类型 " + type + " 与地址长度不符：" + addr);
+            }
+            return new S7Address(point.getName(), index, DaveArea.DB, dbNumber, byteOffset, 0, size, false, type);
+        }
+
+        // 处理 I1.0, Q1.0, M1.0 这类布尔地址
+        DaveArea area = switch (addr.charAt(0)) {
+            case 'I' -> DaveArea.INPUTS;
+            case 'Q' -> DaveArea.OUTPUTS;
+            case 'M' -> DaveArea.FLAGS;
+            default -> null;
+        };
+        if (area == null || dot < 0) {
+            throw new IllegalArgumentException("不支持的地址格式：" + addr);
+        }
+        int byteOffset = parseNumber(addr, 1, dot, "无效的字节偏移：");
+        int bitOffset = parseNumber(addr, dot + 1, addr.length(), "无效的位偏移：");
+        if (bitOffset > 7) {
+            throw new IllegalArgumentException("无效的位偏移：" + addr);
+        }
+        if (PointType.of(point.getDataType(), PointType.BOOL) != PointType.BOOL) {
+            throw new IllegalArgumentException("位地址只能配置为 BOOL：" + addr);
+        }
+        return new S7Address(point.getName(), index, area, 0, byteOffset, bitOffset, 1, true, PointType.BOOL);
+    }
+
+    /**
+     * 从块读数据中取出本点位的值，写入快照
+     *
+     * @param data      块读返回的数据
+     * @param blockStart 所属块的起始字节
+     */
+    public void decodeInto(byte[] data, int blockStart, PointSnapshot snapshot) {
+        int offset = byteOffset - blockStart;
+        switch (type) {
+            case BOOL -> snapshot.setBoolean(index, ((data[offset] >> bitOffset) & 1) == 1);
+            case BYTE -> snapshot.setLong(index, data[offset] & 0xFF);
+            case INT16 -> snapshot.setLong(index, (short) getUnsignedShort(data, offset));
+            case UINT16 -> snapshot.setLong(index, getUnsignedShort(data, offset));
+            case INT32 -> snapshot.setLong(index, getInt(data, offset));
+            case UINT32 -> snapshot.setLong(index, getInt(data, offset) & 0xFFFFFFFFL);
+            case FLOAT32 -> snapshot.setDouble(index, Float.intBitsToFloat(getInt(data, offset)));
+        }
+    }
+
+    /**
+     * 把本点位在快照中的值按大端序写入块数据；布尔量只改动对应的位，同字节的其它位保持原样
+     *
+     * @param data       块写数据
+     * @param blockStart 所属块的起始字节
+     * @throws IllegalArgumentException 点位未赋值或值超出数据类型范围
+     */
+    public void encodeInto(byte[] data, int blockStart, PointSnapshot values) {
+        int offset = byteOffset - blockStart;
+        int raw = values.getRawBits(index);
+        if (bool) {
+            data[offset] = (byte) (raw != 0 ? data[offset] | (1 << bitOffset) : data[offset] & ~(1 << bitOffset));
+            return;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            data[offset + i] = (byte) raw;
+            raw >>= 8;
+        }
+    }
+
+    private static int getUnsignedShort(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+
+    private static int getInt(byte[] data, int offset) {
+        return (getUnsignedShort(data, offset) << 16) | getUnsignedShort(data, offset + 2);
+    }
+
+    /**
+     * 解析 [from, to) 区间内的十进制数字
+     */
+    private static int parseNumber(String addr, int from, int to, String message) {
+        if (from >= to || to - from > 9) {
+            throw new IllegalArgumentException(message + addr);
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = addr.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException(message + addr);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
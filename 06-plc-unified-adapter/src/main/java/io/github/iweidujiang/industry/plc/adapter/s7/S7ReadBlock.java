@@ -0,0 +1,17 @@
+package io.github.iweidujiang.industry.plc.adapter.s7;
+
+import com.github.s7connector.api.DaveArea;
+
+import java.util.List;
+
+/**
+ * 一次 S7 块读请求：同一存储区（同一 DB）中连续的字节区间及其覆盖的点位
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public record S7ReadBlock(DaveArea area, int dbNumber, int startByte, int length, List<S7Address> points) {
+}
@@ -0,0 +1,20 @@
+package io.github.iweidujiang.industry.plc.adapter.s7;
+
+import java.util.List;
+
+/**
+ * 西门子 S7 读计划：点位地址预先解析并合并为块读请求，采集循环中只按计划读取，不再解析字符串
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param blocks 按存储区、DB 编号、起始字节排序的块读请求
+ */
+public record S7ReadPlan(List<S7ReadBlock> blocks) {
+
+    public S7ReadPlan {
+        blocks = List.copyOf(blocks);
+    }
+}
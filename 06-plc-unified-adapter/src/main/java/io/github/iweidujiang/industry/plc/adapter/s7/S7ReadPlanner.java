@@ -0,0 +1,108 @@
+package io.github.iweidujiang.industry.plc.adapter.s7;
+
+import com.github.s7connector.api.DaveArea;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * S7 读计划：把零散点位合并为连续的块读请求
+ * <p>
+ * 按存储区、DB 编号、字节偏移排序后顺序合并，满足以下条件时开启新块：
+ * <ul>
+ *     <li>存储区或 DB 编号不同</li>
+ *     <li>与上一块末尾的空洞超过 maxGap 字节</li>
+ *     <li>合并后超过单次读取上限 maxBytes</li>
+ * </ul>
+ * 默认上限 96 字节：这是 s7connector 单个请求的数据长度上限（可装入最小协商 PDU 240 字节），
+ * 超过时库内部会拆成多次请求，合并也就失去意义。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class S7ReadPlanner {
+
+    /** 默认允许的字节空洞 */
+    public static final int DEFAULT_MAX_GAP = 16;
+    /** 默认单次读取字节上限 */
+    public static final int DEFAULT_MAX_BYTES = 96;
+
+    private final int maxGap;
+    private final int maxBytes;
+
+    public S7ReadPlanner(int maxGap, int maxBytes) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap 不能为负数");
+        }
+        if (maxBytes < 4) {
+            throw new IllegalArgumentException("maxBytes 不能小于 4");
+        }
+        this.maxGap = maxGap;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 单个块最多包含的字节数
+     */
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 编译点位列表
+     *
+     * @throws IllegalArgumentException 存在无法解析的地址
+     */
+    public S7ReadPlan plan(List<DataPoint> points) {
+        List<S7Address> addresses = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            DataPoint point = points.get(i);
+            try {
+                addresses.add(S7Address.of(point, i));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("点位 [" + point.getName() + "] " + e.getMessage(), e);
+            }
+        }
+        addresses.sort(Comparator.comparing(S7Address::area)
+                .thenComparingInt(S7Address::dbNumber)
+                .thenComparingInt(S7Address::byteOffset));
+
+        List<S7ReadBlock> blocks = new ArrayList<>();
+        List<S7Address> current = new ArrayList<>();
+        DaveArea area = null;
+        int dbNumber = 0;
+        int start = 0;
+        int end = 0; // 当前块的结束字节（不含）
+
+        for (S7Address address : addresses) {
+            int addressEnd = address.byteOffset() + address.size();
+            boolean sameBlock = !current.isEmpty()
+                    && address.area() == area
+                    && address.dbNumber() == dbNumber
+                    && address.byteOffset() - end <= maxGap
+                    && Math.max(end, addressEnd) - start <= maxBytes;
+            if (!sameBlock) {
+                if (!current.isEmpty()) {
+                    blocks.add(new S7ReadBlock(area, dbNumber, start, end - start, List.copyOf(current)));
+                    current.clear();
+                }
+                area = address.area();
+                dbNumber = address.dbNumber();
+                start = address.byteOffset();
+                end = addressEnd;
+            } else {
+                end = Math.max(end, addressEnd);
+            }
+            current.add(address);
+        }
+        if (!current.isEmpty()) {
+            blocks.add(new S7ReadBlock(area, dbNumber, start, end - start, List.copyOf(current)));
+        }
+        return new S7ReadPlan(blocks);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.iweidujiang.industry.plc.adapter.s7;
+
+import com.github.s7connector.api.DaveArea;
+
+import java.util.List;
+
+/**
+ * 一次 S7 块写请求：同一存储区（同一 DB）中首尾相接的字节区间及其覆盖的点位
+ * <p>
+ * 布尔量所在的字节需要先读后写（{@code bits} 为 true），块长固定为 1 字节。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public record S7WriteBlock(DaveArea area, int dbNumber, int startByte, int length, boolean bits,
+                           List<S7Address> points) {
+}
@@ -0,0 +1,91 @@
+package io.github.iweidujiang.industry.plc.adapter.s7;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * S7 写计划：把零散点位合并为块写请求
+ * <p>
+ * 与读不同，写入不能跨越空洞（会覆盖中间未指定的字节），只有首尾相接的字节、字、双字点位才合并，
+ * 每块不超过 maxBytes。布尔量按所在字节分组，同一字节的多个位只做一次读-改-写；
+ * 读与写之间 PLC 程序可能改动同字节的其它位，这一步不是原子的。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class S7WritePlanner {
+
+    private S7WritePlanner() {
+    }
+
+    /**
+     * 规划写入，点位索引即其在列表中的位置
+     *
+     * @param maxBytes 单次写入的字节上限
+     * @throws IllegalArgumentException 地址非法，或两个点位的地址重叠
+     */
+    public static List<S7WriteBlock> plan(List<DataPoint> points, int maxBytes) {
+        List<S7Address> addresses = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            DataPoint point = points.get(i);
+            try {
+                addresses.add(S7Address.of(point, i));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("点位 [" + point.getName() + "] " + e.getMessage(), e);
+            }
+        }
+        addresses.sort(Comparator.comparing(S7Address::area)
+                .thenComparingInt(S7Address::dbNumber)
+                .thenComparingInt(S7Address::byteOffset)
+                .thenComparingInt(S7Address::bitOffset));
+
+        List<S7WriteBlock> blocks = new ArrayList<>();
+        List<S7Address> current = new ArrayList<>();
+        S7Address last = null;
+        int start = 0;
+        int end = 0; // 当前块的结束字节（不含）
+
+        for (S7Address address : addresses) {
+            boolean sameArea = last != null && address.area() == last.area() && address.dbNumber() == last.dbNumber();
+            if (sameArea && overlaps(last, address, end)) {
+                throw new IllegalArgumentException("点位 [" + address.name() + "] 与 [" + last.name() + "] 的地址重叠");
+            }
+            int addressEnd = address.byteOffset() + address.size();
+            boolean sameBlock = sameArea && address.bool() == last.bool() && (address.bool()
+                    ? address.byteOffset() == start
+                    : address.byteOffset() == end && addressEnd - start <= maxBytes);
+            if (!sameBlock) {
+                if (!current.isEmpty()) {
+                    blocks.add(toBlock(current, start, end));
+                    current.clear();
+                }
+                start = address.byteOffset();
+            }
+            end = addressEnd;
+            current.add(address);
+            last = address;
+        }
+        if (!current.isEmpty()) {
+            blocks.add(toBlock(current, start, end));
+        }
+        return blocks;
+    }
+
+    private static boolean overlaps(S7Address last, S7Address address, int end) {
+        if (last.bool() && address.bool()) {
+            return address.byteOffset() == last.byteOffset() && address.bitOffset() == last.bitOffset();
+        }
+        return address.byteOffset() < end;
+    }
+
+    private static S7WriteBlock toBlock(List<S7Address> points, int start, int end) {
+        S7Address first = points.get(0);
+        return new S7WriteBlock(first.area(), first.dbNumber(), start, end - start, first.bool(), List.copyOf(points));
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.iweidujiang.industry.plc.bus;
+
+import io.github.iweidujiang.industry.plc.adapter.ModbusRtuAdapter;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+
+/**
+ * 挂在总线上的一个从站及其最新采集值
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+class BusDevice {
+
+    final String name;
+    final ModbusRtuAdapter adapter;
+    final PointSnapshot values;
+    /** 多久没有成功采集视为数据过期 */
+    final long staleAfterNanos;
+    /** 最近一次成功采集的时刻，挂载时以挂载时刻为起点 */
+    volatile long lastSuccessNanos = System.nanoTime();
+    /** 最近一次执行失败的扫描任务数，只由总线调度线程修改 */
+    volatile int failingTasks;
+    volatile String lastError;
+
+    BusDevice(String name, ModbusRtuAdapter adapter, PointSnapshot values, long staleAfterNanos) {
+        this.name = name;
+        this.adapter = adapter;
+        this.values = values;
+        this.staleAfterNanos = staleAfterNanos;
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.iweidujiang.industry.plc.bus;
+
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusReadBlock;
+
+/**
+ * 总线上的一个周期扫描任务：某个从站的一个块读请求
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+class BusPollTask {
+
+    final BusDevice device;
+    final ModbusReadBlock block;
+    final long periodNanos;
+    final int priority;
+    long nextDueNanos;
+    /** 最近一次执行是否失败 */
+    boolean failing;
+
+    BusPollTask(BusDevice device, ModbusReadBlock block, long periodNanos, int priority, long nextDueNanos) {
+        this.device = device;
+        this.block = block;
+        this.periodNanos = periodNanos;
+        this.priority = priority;
+        this.nextDueNanos = nextDueNanos;
+    }
+}
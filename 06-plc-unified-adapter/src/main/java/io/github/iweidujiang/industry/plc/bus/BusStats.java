@@ -0,0 +1,21 @@
+package io.github.iweidujiang.industry.plc.bus;
+
+/**
+ * RS-485 总线运行统计
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param portName     串口名
+ * @param devices      挂载的从站数
+ * @param tasks        周期扫描任务数（块读请求数）
+ * @param utilization  最近一个统计窗口内总线占用率（0~1），接近 1 表示线路已饱和
+ * @param transactions 累计事务数
+ * @param errors       累计失败事务数
+ * @param missedScans  因总线繁忙错过的扫描次数
+ */
+public record BusStats(String portName, int devices, int tasks, double utilization,
+                       long transactions, long errors, long missedScans) {
+}
@@ -0,0 +1,325 @@
+package io.github.iweidujiang.industry.plc.bus;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSession;
+import io.github.iweidujiang.industry.plc.adapter.ModbusRtuAdapter;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusReadBlock;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusReadPlanner;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusRegisterPoint;
+import io.github.iweidujiang.industry.plc.connection.PlcConnectionManager;
+import io.github.iweidujiang.industry.plc.exception.PlcException;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.service.PlcDataCollector;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * RS-485 多从站总线调度器
+ * <p>
+ * 一条总线（一个串口）只由一个调度线程访问，挂在上面的所有从站的块读请求交错执行：
+ * <ul>
+ *     <li>点位按扫描周期分组后各自规划块读，每个块是一个周期任务</li>
+ *     <li>到期任务中优先级高的先执行，同优先级按到期时间先后</li>
+ *     <li>总线忙不过来时跳过错过的周期（不补扫），并计入 missedScans</li>
+ *     <li>按 10 秒窗口统计总线占用率，超过 80% 告警</li>
+ * </ul>
+ * 采集值写入各从站的最新值缓存，由 {@link RtuBusAdapter} 提供给采集服务。
+ * 从站有块读最近一次失败，或超过 {@value PlcConnectionManager#STALE_SCAN_PERIODS} 个（最慢的）扫描周期没有成功采集时，
+ * 读取缓存直接报错，不把掉线从站的旧值当作当前值交出去。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Slf4j
+public class RtuBus {
+
+    private static final long STATS_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final double SATURATION_WARN_THRESHOLD = 0.8;
+
+    private final SerialSession session;
+    private final Map<String, BusDevice> devices = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // 未到期任务按到期时间排序；已到期任务按优先级排序
+    private final PriorityQueue<BusPollTask> waiting =
+            new PriorityQueue<>(Comparator.comparingLong((BusPollTask t) -> t.nextDueNanos));
+    private final PriorityQueue<BusPollTask> ready =
+            new PriorityQueue<>(Comparator.comparingInt((BusPollTask t) -> -t.priority)
+                    .thenComparingLong(t -> t.nextDueNanos));
+
+    private Thread worker;
+    private volatile boolean running;
+
+    // 统计
+    private long windowStartNanos = System.nanoTime();
+    private long windowBusyNanos;
+    private volatile double utilization;
+    private volatile long transactions;
+    private volatile long errors;
+    private volatile long missedScans;
+
+    public RtuBus(SerialSession session) {
+        this.session = session;
+    }
+
+    public String getPortName() {
+        return session.getConfig().getPortName();
+    }
+
+    /**
+     * 挂载（或重新挂载）一个从站：按扫描周期分组规划块读，替换该从站原有任务
+     */
+    public void attach(DeviceConfig config) throws PlcException {
+        int deviceId = config.getDeviceId() != null ? config.getDeviceId() : 1;
+        ModbusRtuAdapter adapter = createSlaveAdapter(config);
+        List<DataPoint> points = config.getPoints();
+        BusDevice device;
+        // 点位按扫描周期分组；寄存器点位的索引始终是其在设备点位列表中的位置
+        TreeMap<Integer, List<ModbusRegisterPoint>> byRate = new TreeMap<>();
+        int[] priorities = new int[points.size()];
+        try {
+            int defaultRate = config.getScanRate() != null ? config.getScanRate() : PlcDataCollector.DEFAULT_SCAN_RATE_MS;
+            for (int i = 0; i < points.size(); i++) {
+                DataPoint point = points.get(i);
+                int rate = point.getScanRate() != null ? point.getScanRate() : defaultRate;
+                if (rate <= 0) {
+                    throw new PlcException("点位 [" + point.getName() + "] 的扫描周期必须大于 0");
+                }
+                byRate.computeIfAbsent(rate, r -> new ArrayList<>()).add(ModbusRegisterPoint.of(point, i));
+                priorities[i] = point.getPriority() != null ? point.getPriority() : 0;
+            }
+            int slowestRate = byRate.isEmpty() ? defaultRate : byRate.lastKey();
+            device = new BusDevice(config.getName(), adapter, new PointSnapshot(points),
+                    TimeUnit.MILLISECONDS.toNanos((long) slowestRate * PlcConnectionManager.STALE_SCAN_PERIODS));
+        } catch (IllegalArgumentException e) {
+            throw new PlcException("生成 Modbus 读计划失败: " + e.getMessage(), e);
+        }
+
+        List<BusPollTask> tasks = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Map.Entry<Integer, List<ModbusRegisterPoint>> entry : byRate.entrySet()) {
+            for (ModbusReadBlock block : adapter.getPlanner().planRegisters(entry.getValue())) {
+                int priority = 0;
+                for (ModbusRegisterPoint point : block.points()) {
+                    priority = Math.max(priority, priorities[point.index()]);
+                }
+                tasks.add(new BusPollTask(device, block, TimeUnit.MILLISECONDS.toNanos(entry.getKey()), priority, now));
+            }
+        }
+
+        lock.lock();
+        try {
+            removeTasks(config.getName());
+            devices.put(config.getName(), device);
+            waiting.addAll(tasks);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        log.info("🔌 总线 [{}] 挂载从站 [{}]（地址 {}），扫描任务 {} 个", getPortName(), config.getName(), deviceId, tasks.size());
+    }
+
+    /**
+     * 创建访问总线上某个从站的适配器（共用本总线的串口会话）
+     */
+    ModbusRtuAdapter createSlaveAdapter(DeviceConfig config) {
+        return new ModbusRtuAdapter(session, config.getDeviceId() != null ? config.getDeviceId() : 1,
+                config.getMaxRegisterGap() != null ? config.getMaxRegisterGap() : ModbusReadPlanner.DEFAULT_MAX_GAP,
+                config.getMaxRegistersPerRead() != null ? config.getMaxRegistersPerRead() : ModbusRtuCodec.MAX_READ_REGISTERS);
+    }
+
+    /**
+     * 卸载从站
+     */
+    public void detach(String deviceName) {
+        lock.lock();
+        try {
+            removeTasks(deviceName);
+            devices.remove(deviceName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return devices.isEmpty();
+    }
+
+    /**
+     * 把从站的最新采集值复制到调用方的快照
+     *
+     * @param target 由该从站的点位列表创建的快照
+     * @throws PlcException 从站未挂载，有块读最近一次失败，或数据已过期
+     */
+    public void copyLatestValues(String deviceName, PointSnapshot target) throws PlcException {
+        BusDevice device = devices.get(deviceName);
+        if (device == null) {
+            throw new PlcException("从站 [" + deviceName + "] 未挂载到总线 " + getPortName());
+        }
+        String lastError = device.lastError;
+        if (device.failingTasks > 0 && lastError != null) {
+            throw new PlcException(lastError);
+        }
+        long ageNanos = System.nanoTime() - device.lastSuccessNanos;
+        if (ageNanos > device.staleAfterNanos) {
+            throw new PlcException("从站 [" + deviceName + "] 已 " + TimeUnit.NANOSECONDS.toMillis(ageNanos)
+                    + " ms 没有成功采集，超过 " + PlcConnectionManager.STALE_SCAN_PERIODS + " 个扫描周期");
+        }
+        synchronized (device.values) {
+            device.values.copyTo(target);
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "rtu-bus-" + getPortName());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    public BusStats getStats() {
+        lock.lock();
+        try {
+            return new BusStats(getPortName(), devices.size(), waiting.size() + ready.size(),
+                    utilization, transactions, errors, missedScans);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeTasks(String deviceName) {
+        waiting.removeIf(t -> t.device.name.equals(deviceName));
+        ready.removeIf(t -> t.device.name.equals(deviceName));
+    }
+
+    private void runLoop() {
+        while (running) {
+            BusPollTask task;
+            try {
+                task = takeNextTask();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                return;
+            }
+            execute(task);
+            reschedule(task);
+        }
+    }
+
+    /**
+     * 取下一个要执行的任务：先把到期任务移入就绪队列，再按优先级取出
+     */
+    private BusPollTask takeNextTask() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                while (!waiting.isEmpty() && waiting.peek().nextDueNanos - now <= 0) {
+                    ready.add(waiting.poll());
+                }
+                if (!ready.isEmpty()) {
+                    return ready.poll();
+                }
+                if (waiting.isEmpty()) {
+                    changed.await();
+                } else {
+                    changed.awaitNanos(waiting.peek().nextDueNanos - now);
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void execute(BusPollTask task) {
+        long start = System.nanoTime();
+        BusDevice device = task.device;
+        try {
+            device.adapter.readBlock(task.block, device.values);
+            device.lastSuccessNanos = System.nanoTime();
+            if (task.failing) {
+                task.failing = false;
+                device.failingTasks--;
+            }
+            if (device.failingTasks == 0) {
+                device.lastError = null;
+            }
+        } catch (PlcException e) {
+            errors++;
+            device.lastError = e.getMessage();
+            if (!task.failing) {
+                task.failing = true;
+                device.failingTasks++;
+            }
+            log.warn("⚠️ 总线 [{}] 从站 [{}] 读取失败: {}", getPortName(), device.name, e.getMessage());
+        }
+        long end = System.nanoTime();
+        transactions++;
+        recordBusy(end - start, end);
+    }
+
+    private void reschedule(BusPollTask task) {
+        lock.lock();
+        try {
+            if (devices.get(task.device.name) != task.device) {
+                return; // 从站已卸载或被重新挂载
+            }
+            long now = System.nanoTime();
+            task.nextDueNanos += task.periodNanos;
+            if (task.nextDueNanos - now <= 0) {
+                // 总线跟不上扫描周期：跳过错过的周期，从当前时间重新对齐
+                long missed = (now - task.nextDueNanos) / task.periodNanos + 1;
+                missedScans += missed;
+                task.nextDueNanos += missed * task.periodNanos;
+            }
+            waiting.add(task);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordBusy(long busyNanos, long now) {
+        windowBusyNanos += busyNanos;
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= STATS_WINDOW_NANOS) {
+            utilization = Math.min(1.0, (double) windowBusyNanos / elapsed);
+            windowBusyNanos = 0;
+            windowStartNanos = now;
+            if (utilization >= SATURATION_WARN_THRESHOLD) {
+                log.warn("🚨 总线 [{}] 占用率 {}%，已接近饱和，请降低扫描频率或拆分线路",
+                        getPortName(), Math.round(utilization * 100));
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.iweidujiang.industry.plc.bus;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.plc.adapter.AdapterCapabilities;
+import io.github.iweidujiang.industry.plc.adapter.ModbusRtuAdapter;
+import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
+import io.github.iweidujiang.industry.plc.exception.PlcException;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 挂在 RS-485 总线上的 Modbus RTU 设备
+ * <p>
+ * 串口由总线调度线程独占，采集按各点位的扫描周期在后台进行；
+ * 读取时不直接访问串口，只返回最近一次扫描得到的值；
+ * 写入不经过扫描队列，在调用线程上直接执行，与扫描事务按串口锁交错。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class RtuBusAdapter implements PlcProtocolAdapter {
+
+    private final RtuBus bus;
+    private final DeviceConfig config;
+    // 只读取部分点位时，先把全部最新值复制到这里再挑出所需点位
+    private final PointSnapshot latest;
+    private final ModbusRtuAdapter writer;
+
+    RtuBusAdapter(RtuBus bus, DeviceConfig config) {
+        this.bus = bus;
+        this.config = config;
+        this.latest = new PointSnapshot(config.getPoints());
+        this.writer = bus.createSlaveAdapter(config);
+    }
+
+    @Override
+    public Map<String, Object> readDataPoints(List<DataPoint> points) throws PlcException {
+        PointSnapshot snapshot = new PointSnapshot(points);
+        readDataPoints(points, snapshot);
+        return snapshot.toMap();
+    }
+
+    @Override
+    public void readDataPoints(List<DataPoint> points, PointSnapshot snapshot) throws PlcException {
+        if (points == config.getPoints()) {
+            bus.copyLatestValues(config.getName(), snapshot);
+            return;
+        }
+        bus.copyLatestValues(config.getName(), latest);
+        for (int i = 0; i < points.size(); i++) {
+            int index = latest.indexOf(points.get(i).getName());
+            if (index < 0) {
+                throw new PlcException("点位 [" + points.get(i).getName() + "] 不属于从站 [" + config.getName() + "]");
+            }
+            latest.copyPoint(index, snapshot, i);
+        }
+    }
+
+    @Override
+    public void writeDataPoints(List<DataPoint> points, PointSnapshot values) throws PlcException {
+        writer.writeDataPoints(points, values);
+    }
+
+    /**
+     * 值由总线调度线程在后台按点位周期采集，读取只复制缓存
+     */
+    @Override
+    public AdapterCapabilities getCapabilities() {
+        return new AdapterCapabilities(config.getMaxRegistersPerRead() != null
+                ? config.getMaxRegistersPerRead() : ModbusRtuCodec.MAX_READ_REGISTERS, 1, true);
+    }
+
+    /**
+     * 挂载到总线并启动调度
+     */
+    @Override
+    public void connect() throws PlcException {
+        bus.attach(config);
+        bus.start();
+    }
+
+    /**
+     * 从总线卸载；串口由会话管理器统一关闭
+     */
+    @Override
+    public void disconnect() {
+        bus.detach(config.getName());
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.iweidujiang.industry.plc.bus;
+
+import io.github.iweidujiang.industry.modbus.rtu.SerialLineConfig;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSession;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSessionManager;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RS-485 总线管理器：每个串口一条 {@link RtuBus}，配置了相同串口的 Modbus RTU 设备挂到同一条总线上
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Component
+public class RtuBusManager {
+
+    private final SerialSessionManager sessionManager;
+    private final Map<String, RtuBus> buses = new ConcurrentHashMap<>();
+
+    public RtuBusManager(SerialSessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+    }
+
+    /**
+     * 为设备创建总线适配器，连接时才真正挂载到总线
+     *
+     * @throws IllegalStateException 同一串口上配置了不同的波特率
+     */
+    public RtuBusAdapter createAdapter(DeviceConfig config) {
+        SerialLineConfig line = SerialLineConfig.of(config.getSerialPort(), config.getBaudRate());
+        SerialSession session = sessionManager.getSession(line);
+        RtuBus bus = buses.computeIfAbsent(line.getPortName(), port -> new RtuBus(session));
+        return new RtuBusAdapter(bus, config);
+    }
+
+    /**
+     * 各总线的运行统计
+     */
+    public List<BusStats> getStats() {
+        List<BusStats> stats = new ArrayList<>();
+        for (RtuBus bus : buses.values()) {
+            stats.add(bus.getStats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        buses.values().forEach(RtuBus::stop);
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.iweidujiang.industry.plc.bus;
+
+import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.spi.PlcProtocolProvider;
+import io.github.iweidujiang.industry.plc.spi.PlcProviderContext;
+
+import java.util.Set;
+
+/**
+ * Modbus RTU 适配器提供者（协议名 modbus）
+ * <p>
+ * 同一串口上的从站挂到同一条总线，由 {@link RtuBusManager} 的总线调度线程统一轮询。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class RtuBusProvider implements PlcProtocolProvider {
+
+    @Override
+    public Set<String> getProtocols() {
+        return Set.of("modbus");
+    }
+
+    @Override
+    public PlcProtocolAdapter createAdapter(DeviceConfig config, PlcProviderContext context) {
+        return context.getComponent(RtuBusManager.class).createAdapter(config);
+    }
+}
@@ -4,11 +4,15 @@ import io.github.iweidujiang.industry.plc.model.DeviceConfig;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
  * 手动加载 plc-config.yml
  * <p>
+ * 配置文件优先从文件系统读取（支持热加载，见 {@link PlcConfigWatcher}），文件不存在时回退到 classpath。
+ * <p>
  * 作者: 苏渡苇
  * GitHub:  https://github.com/iweidujiang
  * 公众号: 苏渡苇
@@ -17,22 +21,57 @@ import java.util.List;
  */
 public class PlcConfigLoader {
     public static List<DeviceConfig> loadDevices() {
-        Yaml yaml = new Yaml();
+        return loadDevices("plc-config.yml");
+    }
+
+    /**
+     * 加载配置：configFile 是存在的文件路径时从文件系统读取，否则作为 classpath 资源读取
+     */
+    public static List<DeviceConfig> loadDevices(String configFile) {
+        Path file = resolveFile(configFile);
+        if (file != null) {
+            return loadDevices(file);
+        }
         try (InputStream in = PlcConfigLoader.class
                 .getClassLoader()
-                .getResourceAsStream("plc-config.yml")) {
+                .getResourceAsStream(configFile)) {
 
             if (in == null) {
-                throw new RuntimeException("未找到配置文件：plc-config.yml");
+                throw new RuntimeException("未找到配置文件：" + configFile);
             }
+            return parse(in);
 
-            // 使用 ConfigWrapper 包装结构
-            PlcConfigWrapper wrapper = yaml.loadAs(in, PlcConfigWrapper.class);
-            return wrapper.getDevices();
+        } catch (Exception e) {
+            throw new RuntimeException("加载 " + configFile + " 失败", e);
+        }
+    }
 
+    /**
+     * 从文件系统加载配置
+     */
+    public static List<DeviceConfig> loadDevices(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return parse(in);
         } catch (Exception e) {
-            throw new RuntimeException("加载 plc-config.yml 失败", e);
+            throw new RuntimeException("加载 " + file + " 失败", e);
+        }
+    }
+
+    /**
+     * 配置文件在文件系统中的绝对路径，不是文件系统中的文件时返回 null
+     */
+    public static Path resolveFile(String configFile) {
+        Path path = Path.of(configFile);
+        return Files.isRegularFile(path) ? path.toAbsolutePath() : null;
+    }
+
+    private static List<DeviceConfig> parse(InputStream in) {
+        // 使用 ConfigWrapper 包装结构
+        PlcConfigWrapper wrapper = new Yaml().loadAs(in, PlcConfigWrapper.class);
+        if (wrapper == null || wrapper.getDevices() == null) {
+            return List.of();
         }
+        return wrapper.getDevices();
     }
 
 }
@@ -0,0 +1,112 @@
+package io.github.iweidujiang.industry.plc.config;
+
+import io.github.iweidujiang.industry.plc.service.PlcDataCollector;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * plc-config.yml 热加载
+ * <p>
+ * 监听配置文件所在目录，文件被修改（或被编辑器以重命名方式替换）后，等待 500 ms 无新事件再重新加载，
+ * 交给 {@link PlcDataCollector#applyConfig} 按设备比对差异。新配置解析失败时保留当前配置。
+ * 配置来自 classpath 时无法监听，不启用热加载。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Slf4j
+@Component
+public class PlcConfigWatcher {
+
+    private static final long DEBOUNCE_MS = 500;
+
+    private final String configFile;
+    private final PlcDataCollector collector;
+    private WatchService watchService;
+
+    public PlcConfigWatcher(@Value("${plc.config-file:plc-config.yml}") String configFile,
+                            PlcDataCollector collector) {
+        this.configFile = configFile;
+        this.collector = collector;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Path file = PlcConfigLoader.resolveFile(configFile);
+        if (file == null) {
+            log.info("📄 配置 {} 来自 classpath，不启用热加载（用 plc.config-file 指定文件路径即可启用）", configFile);
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(() -> watchLoop(file), "plc-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("📄 监听配置文件 {}，修改后自动生效", file);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watchLoop(Path file) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = isConfigEvent(key, file);
+                if (!changed) {
+                    continue;
+                }
+                // 编辑器保存时通常连续产生多个事件，等到安静下来再加载
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    isConfigEvent(next, file);
+                }
+                reload(file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 应用关闭
+        }
+    }
+
+    private boolean isConfigEvent(WatchKey key, Path file) {
+        boolean matched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (file.getFileName().equals(event.context())) {
+                matched = true;
+            }
+        }
+        key.reset();
+        return matched;
+    }
+
+    private void reload(Path file) {
+        try {
+            collector.applyConfig(PlcConfigLoader.loadDevices(file));
+        } catch (Exception e) {
+            log.error("❌ 重新加载 {} 失败，继续使用当前配置: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.iweidujiang.industry.plc.connection;
+
+/**
+ * 单个设备连接的运行状态
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param device              设备名称
+ * @param protocol            协议类型
+ * @param status              连接状态
+ * @param consecutiveFailures 连续失败次数
+ * @param reconnectAttempts   自上次成功读取以来的重连次数（决定退避时长）
+ * @param lastSuccessTime     上次成功读取时间（毫秒时间戳），从未成功为 0
+ * @param nextRetryTime       退避结束时间（毫秒时间戳），之前不会发起重连
+ * @param lastError           最近一次错误信息
+ */
+public record ConnectionState(String device, String protocol, Status status, int consecutiveFailures,
+                              int reconnectAttempts, long lastSuccessTime, long nextRetryTime, String lastError) {
+
+    public enum Status {
+        /** 尚未连接 */
+        DISCONNECTED,
+        /** 连接正常 */
+        CONNECTED,
+        /** 已连接但最近读取失败，未达到重连阈值 */
+        DEGRADED,
+        /** 连接不可用，等待退避结束后重连 */
+        BACKOFF
+    }
+}
@@ -1,17 +1,28 @@
 package io.github.iweidujiang.industry.plc.connection;
 
 import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
+import io.github.iweidujiang.industry.plc.exception.PlcException;
 import io.github.iweidujiang.industry.plc.factory.PlcConnectionFactory;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
 import io.github.iweidujiang.industry.plc.model.DeviceConfig;
-import lombok.Getter;
+import io.github.iweidujiang.industry.plc.service.PlcDataCollector;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * PLC 连接管理器（带缓存和健康检查）
  * <p>
+ * 连接的健康状况由采集结果决定：连续失败达到阈值，或长时间没有成功读取，即判定为不可用并重建连接。
+ * “长时间”按设备最慢的扫描周期计算（{@value #STALE_SCAN_PERIODS} 个周期，不少于 60 秒），
+ * 扫描周期本身就很长的设备不会在每次扫描时被误判为失联。
+ * 重连按指数退避（1 秒起，每次翻倍，最长 60 秒），退避期间直接失败，不再阻塞采集周期；
+ * 成功读取一次后退避清零。被替换的旧适配器会先断开再丢弃；设备配置变化时连接也会重建。
+ * <p>
  * 作者: 苏渡苇
  * GitHub:  https://github.com/iweidujiang
  * 公众号: 苏渡苇
@@ -21,6 +32,17 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 @Service
 public class PlcConnectionManager {
+
+    /** 连续失败达到该次数即重建连接 */
+    public static final int MAX_CONSECUTIVE_FAILURES = 3;
+    /** 超过最慢扫描周期的该倍数没有成功读取即重建连接 */
+    public static final int STALE_SCAN_PERIODS = 3;
+    /** 失联判定时长的下限 */
+    public static final long MIN_STALE_TIMEOUT_MS = 60_000;
+
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
     private final ConcurrentHashMap<String, PlcConnection> connections = new ConcurrentHashMap<>();
 
     private final PlcConnectionFactory plcConnectionFactory;
@@ -29,35 +51,186 @@ public class PlcConnectionManager {
         this.plcConnectionFactory = plcConnectionFactory;
     }
 
+    /**
+     * 获取设备的适配器，连接不可用时重建
+     *
+     * @throws RuntimeException 连接失败，或处于重连退避中
+     */
     public PlcProtocolAdapter getConnection(DeviceConfig config) {
-        String key = config.getName();
-        PlcConnection conn = connections.get(key);
+        PlcConnection[] replaced = new PlcConnection[1];
+        PlcConnection connection = connections.compute(config.getName(), (name, conn) -> {
+            if (conn != null && conn.config.equals(config)) {
+                return conn;
+            }
+            // 配置热加载后设备参数变化，按新配置重建
+            replaced[0] = conn;
+            return new PlcConnection(config);
+        });
+        // 断开旧连接可能阻塞在网络 I/O 上，不能在 compute 内（持有哈希桶锁）执行
+        if (replaced[0] != null) {
+            replaced[0].dispose();
+        }
+        return connection.acquire(plcConnectionFactory);
+    }
+
+    /**
+     * 断开并移除设备的连接（设备从配置中删除或配置变化时调用）
+     */
+    public void remove(String deviceName) {
+        PlcConnection conn = connections.remove(deviceName);
+        if (conn != null) {
+            conn.dispose();
+        }
+    }
+
+    /**
+     * 记录一次成功读取
+     */
+    public void markSuccess(DeviceConfig config) {
+        PlcConnection conn = connections.get(config.getName());
+        if (conn != null) {
+            conn.markSuccess();
+        }
+    }
+
+    /**
+     * 记录一次读取失败（含超时）
+     */
+    public void markFailure(DeviceConfig config, String error) {
+        PlcConnection conn = connections.get(config.getName());
+        if (conn != null) {
+            conn.markFailure(error);
+        }
+    }
+
+    /**
+     * 各设备连接的状态
+     */
+    public List<ConnectionState> getStates() {
+        List<ConnectionState> states = new ArrayList<>();
+        for (PlcConnection conn : connections.values()) {
+            states.add(conn.getState());
+        }
+        return states;
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        connections.values().forEach(PlcConnection::dispose);
+    }
+
+    /**
+     * 多久没有成功读取视为失联：最慢扫描周期的 {@value #STALE_SCAN_PERIODS} 倍，不少于 {@value #MIN_STALE_TIMEOUT_MS} ms
+     */
+    static long staleTimeoutMs(DeviceConfig config) {
+        long slowestRate = config.getScanRate() != null ? config.getScanRate() : PlcDataCollector.DEFAULT_SCAN_RATE_MS;
+        if (config.getPoints() != null) {
+            for (DataPoint point : config.getPoints()) {
+                if (point.getScanRate() != null) {
+                    slowestRate = Math.max(slowestRate, point.getScanRate());
+                }
+            }
+        }
+        return Math.max(MIN_STALE_TIMEOUT_MS, slowestRate * STALE_SCAN_PERIODS);
+    }
+
+    private static class PlcConnection {
+        private final DeviceConfig config;
+        private final long staleTimeoutMs;
+
+        private PlcProtocolAdapter adapter;
+        private long connectedTime;
+        private int consecutiveFailures;
+        private int reconnectAttempts;
+        private long lastSuccessTime;
+        private long nextRetryTime;
+        private String lastError;
+
+        PlcConnection(DeviceConfig config) {
+            this.config = config;
+            this.staleTimeoutMs = staleTimeoutMs(config);
+        }
+
+        synchronized PlcProtocolAdapter acquire(PlcConnectionFactory factory) {
+            long now = System.currentTimeMillis();
+            if (adapter != null && isHealthy(now)) {
+                return adapter;
+            }
+            if (now < nextRetryTime) {
+                throw new RuntimeException("连接不可用，" + (nextRetryTime - now) + " ms 后重试；上次错误: " + lastError);
+            }
 
-        if (conn == null || !conn.isHealthy()) {
+            if (adapter != null) {
+                log.warn("🔄 设备 [{}] 连接不可用（连续失败 {} 次），重建连接", config.getName(), consecutiveFailures);
+                dispose();
+            }
+            // 无论本次连接成败，下次重连都要等待退避时长
+            nextRetryTime = now + backoff(reconnectAttempts);
+            reconnectAttempts++;
             try {
-                PlcProtocolAdapter adapter = plcConnectionFactory.createAdapter(config);
-                adapter.connect();
-                conn = new PlcConnection(adapter, config);
-                connections.put(key, conn);
+                PlcProtocolAdapter created = factory.createAdapter(config);
+                created.connect();
+                adapter = created;
+                connectedTime = now;
+                consecutiveFailures = 0;
+                return adapter;
             } catch (Exception e) {
+                consecutiveFailures++;
+                lastError = e.getMessage();
                 throw new RuntimeException("创建连接失败: " + e.getMessage(), e);
             }
         }
 
-        return conn.getAdapter();
-    }
+        synchronized void markSuccess() {
+            consecutiveFailures = 0;
+            reconnectAttempts = 0;
+            nextRetryTime = 0;
+            lastSuccessTime = System.currentTimeMillis();
+        }
 
-    private static class PlcConnection {
-        @Getter
-        private final PlcProtocolAdapter adapter;
-        private final long createTime = System.currentTimeMillis();
+        synchronized void markFailure(String error) {
+            consecutiveFailures++;
+            lastError = error;
+        }
+
+        /**
+         * 断开并丢弃当前适配器
+         */
+        synchronized void dispose() {
+            if (adapter == null) {
+                return;
+            }
+            try {
+                adapter.disconnect();
+            } catch (PlcException e) {
+                log.warn("⚠️ 设备 [{}] 断开旧连接失败: {}", config.getName(), e.getMessage());
+            }
+            adapter = null;
+        }
+
+        synchronized ConnectionState getState() {
+            long now = System.currentTimeMillis();
+            ConnectionState.Status status;
+            if (adapter == null) {
+                status = nextRetryTime > now ? ConnectionState.Status.BACKOFF : ConnectionState.Status.DISCONNECTED;
+            } else if (!isHealthy(now)) {
+                status = ConnectionState.Status.BACKOFF;
+            } else if (consecutiveFailures > 0) {
+                status = ConnectionState.Status.DEGRADED;
+            } else {
+                status = ConnectionState.Status.CONNECTED;
+            }
+            return new ConnectionState(config.getName(), config.getProtocol(), status, consecutiveFailures,
+                    reconnectAttempts, lastSuccessTime, nextRetryTime, lastError);
+        }
 
-        public PlcConnection(PlcProtocolAdapter adapter, DeviceConfig config) {
-            this.adapter = adapter;
+        private boolean isHealthy(long now) {
+            return consecutiveFailures < MAX_CONSECUTIVE_FAILURES
+                    && now - Math.max(lastSuccessTime, connectedTime) < staleTimeoutMs;
         }
 
-        public boolean isHealthy() {
-            return System.currentTimeMillis() - createTime < 300_000; // 5分钟超时
+        private static long backoff(int attempts) {
+            return Math.min(INITIAL_BACKOFF_MS << Math.min(attempts, 16), MAX_BACKOFF_MS);
         }
     }
 }
@@ -0,0 +1,74 @@
+package io.github.iweidujiang.industry.plc.controller;
+
+import io.github.iweidujiang.industry.plc.bus.BusStats;
+import io.github.iweidujiang.industry.plc.bus.RtuBusManager;
+import io.github.iweidujiang.industry.plc.connection.ConnectionState;
+import io.github.iweidujiang.industry.plc.connection.PlcConnectionManager;
+import io.github.iweidujiang.industry.plc.service.PlcDataCollector;
+import io.github.iweidujiang.industry.plc.service.ScanClassStats;
+import io.github.iweidujiang.industry.plc.sink.SinkPipeline;
+import io.github.iweidujiang.industry.plc.sink.SinkStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 采集网关运行状态查询
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@RestController
+@RequestMapping("/api/plc")
+public class PlcStatusController {
+
+    private final RtuBusManager busManager;
+    private final PlcDataCollector dataCollector;
+    private final PlcConnectionManager connectionManager;
+    private final SinkPipeline sinkPipeline;
+
+    public PlcStatusController(RtuBusManager busManager, PlcDataCollector dataCollector,
+                               PlcConnectionManager connectionManager, SinkPipeline sinkPipeline) {
+        this.busManager = busManager;
+        this.dataCollector = dataCollector;
+        this.connectionManager = connectionManager;
+        this.sinkPipeline = sinkPipeline;
+    }
+
+    /**
+     * 各 sink 的积压、写出、丢弃统计
+     */
+    @GetMapping("/sinks")
+    public List<SinkStats> sinks() {
+        return sinkPipeline.getStats();
+    }
+
+    /**
+     * 各设备连接状态：连续失败次数、重连退避、上次成功读取时间
+     */
+    @GetMapping("/connections")
+    public List<ConnectionState> connections() {
+        return connectionManager.getStates();
+    }
+
+    /**
+     * 各设备各扫描等级的抖动、耗时、超限与漏扫统计
+     */
+    @GetMapping("/scans")
+    public List<ScanClassStats> scans() {
+        return dataCollector.getScanStats();
+    }
+
+    /**
+     * RS-485 总线统计：挂载从站数、扫描任务数、占用率、事务/错误/漏扫次数
+     */
+    @GetMapping("/buses")
+    public List<BusStats> buses() {
+        return busManager.getStats();
+    }
+}
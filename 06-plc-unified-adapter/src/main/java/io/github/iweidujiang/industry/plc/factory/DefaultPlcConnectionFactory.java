@@ -1,36 +1,74 @@
 package io.github.iweidujiang.industry.plc.factory;
 
-import io.github.iweidujiang.industry.plc.adapter.ModbusRtuAdapter;
 import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
-import io.github.iweidujiang.industry.plc.adapter.SiemensS7Adapter;
 import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.spi.PlcProtocolProvider;
+import io.github.iweidujiang.industry.plc.spi.PlcProviderContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeMap;
+
 /**
  * 默认的PLC连接工厂
  * <p>
+ * 协议适配器通过 {@link ServiceLoader} 发现 {@link PlcProtocolProvider} 实现，按设备配置的 protocol 分派；
+ * 提供者需要的共享组件（如串口总线管理器）从 Spring 容器中获取。
+ * <p>
  * 作者: 苏渡苇
  * GitHub:  https://github.com/iweidujiang
  * 公众号: 苏渡苇
  *
  * @date 2026/2/1
  */
+@Slf4j
 @Component
 public class DefaultPlcConnectionFactory implements PlcConnectionFactory {
 
+    private final Map<String, PlcProtocolProvider> providers = new TreeMap<>();
+    private final PlcProviderContext context;
+
+    public DefaultPlcConnectionFactory(BeanFactory beanFactory) {
+        this.context = new PlcProviderContext() {
+            @Override
+            public <T> T getComponent(Class<T> type) {
+                try {
+                    return beanFactory.getBean(type);
+                } catch (BeansException e) {
+                    throw new IllegalStateException("组件不存在：" + type.getName(), e);
+                }
+            }
+        };
+        for (PlcProtocolProvider provider : ServiceLoader.load(PlcProtocolProvider.class)) {
+            for (String protocol : provider.getProtocols()) {
+                PlcProtocolProvider existing = providers.putIfAbsent(protocol, provider);
+                if (existing != null) {
+                    throw new IllegalStateException("协议 [" + protocol + "] 重复注册：" + existing.getClass().getName()
+                            + "，" + provider.getClass().getName());
+                }
+            }
+        }
+        log.info("🔌 已加载协议适配器: {}", providers.keySet());
+    }
+
     @Override
     public PlcProtocolAdapter createAdapter(DeviceConfig config) {
-        switch (config.getProtocol()) {
-            case "modbus":
-                return new ModbusRtuAdapter(
-                        config.getSerialPort(),
-                        config.getBaudRate(),
-                        config.getDeviceId()
-                );
-            case "siemens-s7":
-                return new SiemensS7Adapter(config.getHost(), config.getPort());
-            default:
-                throw new IllegalArgumentException("不支持的协议: " + config.getProtocol());
+        PlcProtocolProvider provider = providers.get(config.getProtocol());
+        if (provider == null) {
+            throw new IllegalArgumentException("不支持的协议: " + config.getProtocol());
         }
+        return provider.createAdapter(config, context);
+    }
+
+    /**
+     * 已加载的协议名
+     */
+    public Set<String> getProtocols() {
+        return providers.keySet();
     }
 }
@@ -17,11 +17,19 @@ import java.util.List;
 public class DeviceConfig {
 
     private String name;                // 设备名称
-    private String protocol;            // 协议类型：modbus, siemens-s7
+    private String protocol;            // 协议类型：modbus, modbus-tcp, siemens-s7, mitsubishi-mc
     private String host;                // TCP 主机地址
     private Integer port;               // TCP 端口
     private String serialPort;          // 串口名称（Modbus RTU 用）
     private Integer baudRate;           // 波特率
-    private Integer deviceId;           // Modbus 设备ID
+    private Integer deviceId;           // Modbus 设备ID（Modbus TCP 为单元标识）
+    private Integer maxRegisterGap;     // Modbus / 三菱 MC 块读允许的最大地址空洞（寄存器 / 字），默认 10
+    private Integer maxRegistersPerRead;// 单次读取寄存器上限，Modbus 默认 125，三菱 MC 默认 960（字）
+    private Integer maxOutstandingRequests; // Modbus TCP 同时在途请求数，默认 4
+    private Integer maxByteGap;         // S7 块读允许的最大字节空洞，默认 16
+    private Integer maxBytesPerRead;    // S7 单次读取字节上限，默认 96
+    private Integer scanRate;           // 点位默认扫描周期（毫秒），采集默认 10000，RS-485 总线轮询默认 1000
+    private Integer pollTimeout;        // 单台设备一次采集的超时（毫秒），默认 5000
+    private Integer heartbeat;          // 未变化点位的重发间隔（毫秒），默认 60000，0 表示不重发
     private List<DataPoint> points;     // 采集点列表
 }
@@ -0,0 +1,260 @@
+package io.github.iweidujiang.industry.plc.model;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一台设备全部点位的最新值（预分配的原始类型数组，按点位在配置中的顺序索引）
+ * <p>
+ * 适配器把解码结果直接写入数组，稳态采集不为每个点位分配对象；
+ * 使用方先用 {@link #indexOf(String)} 取得索引，再用 {@link #getDouble(int)} 等方法按索引读取。
+ * <p>
+ * 快照由采集线程写入，不做同步：读者可能看到正在更新中的一个周期。
+ * 需要一致视图时，在写入方同步的前提下用 {@link #copyTo(PointSnapshot)} 复制一份。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class PointSnapshot {
+
+    private final String[] names;
+    private final PointType[] types;
+    private final Map<String, Integer> indexByName;
+
+    private final long[] longValues;
+    private final double[] doubleValues;
+    private final boolean[] valid;
+
+    /**
+     * 按点位列表创建快照，未配置数据类型的点位按 UINT16 处理
+     *
+     * @throws IllegalArgumentException 存在不支持的数据类型
+     */
+    public PointSnapshot(List<DataPoint> points) {
+        int size = points.size();
+        this.names = new String[size];
+        this.types = new PointType[size];
+        this.indexByName = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            DataPoint point = points.get(i);
+            names[i] = point.getName();
+            types[i] = PointType.of(point.getDataType(), PointType.UINT16);
+            indexByName.put(point.getName(), i);
+        }
+        this.longValues = new long[size];
+        this.doubleValues = new double[size];
+        this.valid = new boolean[size];
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * 点位索引，不存在时返回 -1
+     */
+    public int indexOf(String name) {
+        Integer index = indexByName.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public PointType getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * 该点位是否已采集到值
+     */
+    public boolean isValid(int index) {
+        return valid[index];
+    }
+
+    public long getLong(int index) {
+        return types[index].isFloating() ? (long) doubleValues[index] : longValues[index];
+    }
+
+    public double getDouble(int index) {
+        return types[index].isFloating() ? doubleValues[index] : longValues[index];
+    }
+
+    public boolean getBoolean(int index) {
+        return getLong(index) != 0;
+    }
+
+    public void setLong(int index, long value) {
+        if (types[index].isFloating()) {
+            doubleValues[index] = value;
+        } else {
+            longValues[index] = value;
+        }
+        valid[index] = true;
+    }
+
+    /**
+     * 写入浮点值：整数类型的点位只接受整数值，不做截断
+     *
+     * @throws IllegalArgumentException 整数类型的点位收到小数、NaN 或无穷大
+     */
+    public void setDouble(int index, double value) {
+        if (types[index].isFloating()) {
+            doubleValues[index] = value;
+        } else {
+            if (value != Math.rint(value) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException("点位 [" + names[index] + "] 的值 " + value + " 不是 "
+                        + types[index] + " 可表示的整数");
+            }
+            longValues[index] = (long) value;
+        }
+        valid[index] = true;
+    }
+
+    public void setBoolean(int index, boolean value) {
+        setLong(index, value ? 1 : 0);
+    }
+
+    /**
+     * 按对象写入（兼容只实现了 Map 接口的适配器，以及按点名下发的写入）
+     *
+     * @throws IllegalArgumentException 值类型不支持，或整数类型的点位收到非整数值
+     */
+    public void setValue(int index, Object value) {
+        if (value instanceof Boolean b) {
+            setBoolean(index, b);
+        } else if (value instanceof Float || value instanceof Double) {
+            setDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            setExact(index, (Number) value);
+        } else if (value instanceof Number n) {
+            setLong(index, n.longValue());
+        } else {
+            throw new IllegalArgumentException("点位 [" + names[index] + "] 的值类型不支持：" + value);
+        }
+    }
+
+    private void setExact(int index, Number value) {
+        if (types[index].isFloating()) {
+            setDouble(index, value.doubleValue());
+            return;
+        }
+        try {
+            setLong(index, value instanceof BigDecimal d ? d.longValueExact() : ((BigInteger) value).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("点位 [" + names[index] + "] 的值 " + value + " 不是 "
+                    + types[index] + " 可表示的整数");
+        }
+    }
+
+    /**
+     * 按点位类型编码后的原始位模式（写入设备用）：整数类型校验取值范围，FLOAT32 为 IEEE 754 单精度位模式
+     *
+     * @throws IllegalArgumentException 点位未赋值，或值超出类型范围
+     */
+    public int getRawBits(int index) {
+        if (!valid[index]) {
+            throw new IllegalArgumentException("点位 [" + names[index] + "] 未赋值");
+        }
+        PointType type = types[index];
+        if (type == PointType.FLOAT32) {
+            return Float.floatToIntBits((float) doubleValues[index]);
+        }
+        long value = longValues[index];
+        long min = switch (type) {
+            case INT16 -> Short.MIN_VALUE;
+            case INT32 -> Integer.MIN_VALUE;
+            default -> 0;
+        };
+        long max = switch (type) {
+            case BOOL -> 1;
+            case BYTE -> 0xFF;
+            case INT16 -> Short.MAX_VALUE;
+            case UINT16 -> 0xFFFF;
+            case INT32 -> Integer.MAX_VALUE;
+            default -> 0xFFFFFFFFL;
+        };
+        if (type == PointType.BOOL) {
+            value = value != 0 ? 1 : 0;
+        }
+        if (value < min || value > max) {
+            throw new IllegalArgumentException("点位 [" + names[index] + "] 的值 " + value + " 超出 " + type + " 的范围");
+        }
+        return (int) value;
+    }
+
+    /**
+     * 按点位类型装箱后的值：BOOL → Boolean，UINT32 → Long，FLOAT32 → Float，其余 → Integer；未采集时为 null
+     */
+    public Object getValue(int index) {
+        if (!valid[index]) {
+            return null;
+        }
+        return switch (types[index]) {
+            case BOOL -> longValues[index] != 0;
+            case UINT32 -> longValues[index];
+            case FLOAT32 -> (float) doubleValues[index];
+            default -> (int) longValues[index];
+        };
+    }
+
+    /**
+     * 清除全部值
+     */
+    public void clear() {
+        Arrays.fill(valid, false);
+    }
+
+    /**
+     * 复制全部值到另一份由同一点位列表创建的快照
+     */
+    public void copyTo(PointSnapshot target) {
+        if (target.size() != size()) {
+            throw new IllegalArgumentException("快照点位数不一致");
+        }
+        System.arraycopy(longValues, 0, target.longValues, 0, longValues.length);
+        System.arraycopy(doubleValues, 0, target.doubleValues, 0, doubleValues.length);
+        System.arraycopy(valid, 0, target.valid, 0, valid.length);
+    }
+
+    /**
+     * 复制单个点位的值到另一份快照的指定位置（两份快照由不同的点位列表创建时使用），未采集的点位不复制
+     */
+    public void copyPoint(int index, PointSnapshot target, int targetIndex) {
+        if (!valid[index]) {
+            return;
+        }
+        if (types[index] != target.types[targetIndex]) {
+            throw new IllegalArgumentException("点位 [" + names[index] + "] 类型不一致");
+        }
+        target.longValues[targetIndex] = longValues[index];
+        target.doubleValues[targetIndex] = doubleValues[index];
+        target.valid[targetIndex] = true;
+    }
+
+    /**
+     * 转为 点名 -> 值 的映射（会装箱，仅用于兼容旧接口和日志）
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            if (valid[i]) {
+                result.put(names[i], getValue(i));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.iweidujiang.industry.plc.model;
+
+import java.util.Locale;
+
+/**
+ * 点位数据类型
+ * <p>
+ * 配置中的 dataType 在加载时解析为本枚举，解码时按类型直接写入 {@link PointSnapshot} 的原始类型数组。
+ * 浮点类型存放在 double 数组，其余（含布尔）存放在 long 数组。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public enum PointType {
+
+    BOOL(1),
+    BYTE(1),
+    INT16(2),
+    UINT16(2),
+    INT32(4),
+    UINT32(4),
+    FLOAT32(4);
+
+    private final int byteSize;
+
+    PointType(int byteSize) {
+        this.byteSize = byteSize;
+    }
+
+    /**
+     * 占用字节数（BOOL 按所在字节计）
+     */
+    public int byteSize() {
+        return byteSize;
+    }
+
+    public boolean isFloating() {
+        return this == FLOAT32;
+    }
+
+    /**
+     * 解析配置中的数据类型
+     *
+     * @param dataType    配置值，如 REAL、DINT、UINT16，为空时取默认类型
+     * @param defaultType 默认类型
+     * @throws IllegalArgumentException 不支持的数据类型
+     */
+    public static PointType of(String dataType, PointType defaultType) {
+        if (dataType == null || dataType.isBlank()) {
+            return defaultType;
+        }
+        return switch (dataType.trim().toUpperCase(Locale.ROOT)) {
+            case "BOOL" -> BOOL;
+            case "BYTE", "UINT8" -> BYTE;
+            case "INT", "INT16" -> INT16;
+            case "UINT16", "WORD" -> UINT16;
+            case "DINT", "INT32" -> INT32;
+            case "UINT32", "DWORD" -> UINT32;
+            case "REAL", "FLOAT" -> FLOAT32;
+            default -> throw new IllegalArgumentException("不支持的数据类型：" + dataType);
+        };
+    }
+}
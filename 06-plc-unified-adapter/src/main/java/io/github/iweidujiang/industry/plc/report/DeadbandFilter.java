@@ -0,0 +1,128 @@
+package io.github.iweidujiang.industry.plc.report;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 变化上报（Report by Exception）过滤器：按死区判断一台设备的哪些点位需要上报
+ * <p>
+ * 每个点位与<b>上次上报的值</b>比较（而不是上次采集的值，避免缓慢漂移永远不上报），满足任一条件即上报：
+ * <ul>
+ *     <li>首次采集到值</li>
+ *     <li>变化量超过死区：max(绝对死区, 百分比死区 × |上次上报值|)；两者都未配置时任何变化都上报</li>
+ *     <li>在 NaN 与数值之间切换（NaN 与任何值比较都不成立，不能按差值判断）</li>
+ *     <li>距上次上报超过心跳间隔（心跳为 0 时不重发）</li>
+ * </ul>
+ * 状态保存在预分配数组中，与 {@link PointSnapshot} 按同一索引对应，过滤过程不分配对象。
+ * 同一设备的采集是串行的，本类不做同步。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class DeadbandFilter {
+
+    /** 默认心跳间隔（毫秒） */
+    public static final long DEFAULT_HEARTBEAT_MS = 60_000;
+
+    private final double[] absoluteDeadband;
+    private final double[] percentDeadband;
+    private final long heartbeatMs;
+
+    private final double[] lastValue;
+    private final long[] lastReportTime;
+    private final boolean[] hasLast;
+    private final boolean[] reported;
+    private int reportedCount;
+
+    /**
+     * @param heartbeatMs 未变化点位的重发间隔，0 表示不重发
+     */
+    public DeadbandFilter(List<DataPoint> points, long heartbeatMs) {
+        if (heartbeatMs < 0) {
+            throw new IllegalArgumentException("heartbeat 不能为负数");
+        }
+        int size = points.size();
+        this.absoluteDeadband = new double[size];
+        this.percentDeadband = new double[size];
+        for (int i = 0; i < size; i++) {
+            DataPoint point = points.get(i);
+            absoluteDeadband[i] = point.getDeadband() != null ? point.getDeadband() : 0;
+            percentDeadband[i] = point.getDeadbandPercent() != null ? point.getDeadbandPercent() / 100.0 : 0;
+            if (absoluteDeadband[i] < 0 || percentDeadband[i] < 0) {
+                throw new IllegalArgumentException("点位 [" + point.getName() + "] 的死区不能为负数");
+            }
+        }
+        this.heartbeatMs = heartbeatMs;
+        this.lastValue = new double[size];
+        this.lastReportTime = new long[size];
+        this.hasLast = new boolean[size];
+        this.reported = new boolean[size];
+    }
+
+    /**
+     * 对本周期的快照做变化判断，需要上报的点位通过 {@link #isReported(int)} 查询
+     *
+     * @param nowMillis 本周期时间戳
+     * @return 需要上报的点位数
+     */
+    public int apply(PointSnapshot snapshot, long nowMillis) {
+        int count = 0;
+        for (int i = 0; i < reported.length; i++) {
+            boolean report = false;
+            if (snapshot.isValid(i)) {
+                double value = snapshot.getDouble(i);
+                if (!hasLast[i]) {
+                    report = true;
+                } else {
+                    double last = lastValue[i];
+                    if (Double.isNaN(value) || Double.isNaN(last)) {
+                        report = Double.isNaN(value) != Double.isNaN(last);
+                    } else {
+                        double delta = Math.abs(value - last);
+                        double threshold = Math.max(absoluteDeadband[i], percentDeadband[i] * Math.abs(last));
+                        report = threshold == 0 ? delta > 0 : delta > threshold;
+                    }
+                    if (!report && heartbeatMs > 0 && nowMillis - lastReportTime[i] >= heartbeatMs) {
+                        report = true;
+                    }
+                }
+                if (report) {
+                    lastValue[i] = value;
+                    lastReportTime[i] = nowMillis;
+                    hasLast[i] = true;
+                    count++;
+                }
+            }
+            reported[i] = report;
+        }
+        reportedCount = count;
+        return count;
+    }
+
+    /**
+     * 本周期该点位是否需要上报
+     */
+    public boolean isReported(int index) {
+        return reported[index];
+    }
+
+    /**
+     * 本周期需要上报的点位数
+     */
+    public int getReportedCount() {
+        return reportedCount;
+    }
+
+    /**
+     * 清除上报记录，下个周期全部点位重新上报（如读取失败恢复后、本周期的上报被下游丢弃）
+     */
+    public void reset() {
+        Arrays.fill(hasLast, false);
+    }
+}
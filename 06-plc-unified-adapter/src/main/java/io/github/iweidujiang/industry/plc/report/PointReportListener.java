@@ -0,0 +1,26 @@
+package io.github.iweidujiang.industry.plc.report;
+
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+
+/**
+ * 变化上报的下游：采集周期结束后，只有存在需要上报的点位时才会被调用
+ * <p>
+ * 回调在采集线程中执行，快照和过滤结果只在回调期间有效，需要异步处理时应自行复制。
+ * 未能送达本周期的变化时，可调用 {@link DeadbandFilter#reset()} 让下个周期全部点位重新上报。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public interface PointReportListener {
+
+    /**
+     * @param deviceName 设备名称
+     * @param timestamp  采集时间（毫秒时间戳）
+     * @param snapshot   设备的最新值
+     * @param changes    本周期的上报判断，{@link DeadbandFilter#isReported(int)} 为 true 的点位需要上报
+     */
+    void onReport(String deviceName, long timestamp, PointSnapshot snapshot, DeadbandFilter changes);
+}
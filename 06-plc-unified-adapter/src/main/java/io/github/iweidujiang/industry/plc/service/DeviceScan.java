@@ -0,0 +1,153 @@
+package io.github.iweidujiang.industry.plc.service;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.report.DeadbandFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一台设备的采集状态
+ * <p>
+ * 包括配置、预分配的快照（采集结果按点位索引直接写入）、变化上报过滤器，
+ * 以及按扫描周期划分的扫描等级。同一时刻到期的多个等级合并为一个扫描组，
+ * 每种组合只创建一次点位子列表和缓冲快照，稳态采集不再分配。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+final class DeviceScan {
+
+    /** 扫描等级数上限（组合用 int 位掩码表示） */
+    static final int MAX_SCAN_CLASSES = 31;
+
+    final DeviceConfig config;
+    final PointSnapshot snapshot;
+    final DeadbandFilter filter;
+    final ScanClass[] classes;
+
+    private final Map<Integer, ScanGroup> groups = new ConcurrentHashMap<>();
+
+    // 由调度锁保护
+    long nextDueNanos;
+    /** 有读取正在进行 */
+    boolean busy;
+
+    /** 已被热加载替换或删除，进行中的读取结束后不再取连接、不再上报 */
+    volatile boolean retired;
+
+    // 只由读取线程访问（同一设备的读取经调度锁串行）：上次读取失败，恢复后全部点位重新上报
+    boolean resync;
+
+    /**
+     * 同时扫描的一组点位
+     *
+     * @param points  点位子列表；覆盖全部点位时就是设备的点位列表
+     * @param indexes 子列表中各点位在设备点位列表中的索引
+     * @param buffer  子列表对应的快照，读取后按索引复制到设备快照；覆盖全部点位时为 null，直接写入设备快照
+     */
+    record ScanGroup(List<DataPoint> points, int[] indexes, PointSnapshot buffer) {
+    }
+
+    private DeviceScan(DeviceConfig config, ScanClass[] classes) {
+        this.config = config;
+        this.snapshot = new PointSnapshot(config.getPoints());
+        this.filter = new DeadbandFilter(config.getPoints(),
+                config.getHeartbeat() != null ? config.getHeartbeat() : DeadbandFilter.DEFAULT_HEARTBEAT_MS);
+        this.classes = classes;
+    }
+
+    /**
+     * 按点位的扫描周期（未配置时取设备的 scanRate，再取默认值）划分扫描等级
+     *
+     * @throws IllegalArgumentException 扫描周期非法、等级过多或点位配置非法
+     */
+    static DeviceScan of(DeviceConfig config, int defaultRateMs) {
+        List<DataPoint> points = config.getPoints();
+        int deviceRate = config.getScanRate() != null ? config.getScanRate() : defaultRateMs;
+        Map<Integer, List<Integer>> byRate = new TreeMap<>();
+        for (int i = 0; i < points.size(); i++) {
+            DataPoint point = points.get(i);
+            int rate = point.getScanRate() != null ? point.getScanRate() : deviceRate;
+            if (rate <= 0) {
+                throw new IllegalArgumentException("点位 [" + point.getName() + "] 的扫描周期必须大于 0");
+            }
+            byRate.computeIfAbsent(rate, r -> new ArrayList<>()).add(i);
+        }
+        if (byRate.size() > MAX_SCAN_CLASSES) {
+            throw new IllegalArgumentException("设备 [" + config.getName() + "] 的扫描周期种类超过 " + MAX_SCAN_CLASSES);
+        }
+        ScanClass[] classes = new ScanClass[byRate.size()];
+        int c = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : byRate.entrySet()) {
+            classes[c++] = new ScanClass(entry.getKey(),
+                    entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        return new DeviceScan(config, classes);
+    }
+
+    String name() {
+        return config.getName();
+    }
+
+    /**
+     * 所有等级从同一时刻开始计时
+     */
+    void schedule(long startNanos) {
+        for (ScanClass scanClass : classes) {
+            scanClass.nextDueNanos = startNanos;
+        }
+        nextDueNanos = startNanos;
+    }
+
+    void updateNextDue() {
+        long next = classes.length > 0 ? classes[0].nextDueNanos : Long.MAX_VALUE;
+        for (ScanClass scanClass : classes) {
+            if (scanClass.nextDueNanos - next < 0) {
+                next = scanClass.nextDueNanos;
+            }
+        }
+        nextDueNanos = next;
+    }
+
+    /**
+     * 取（或创建）位掩码对应的扫描组
+     */
+    ScanGroup group(int mask) {
+        return groups.computeIfAbsent(mask, this::createGroup);
+    }
+
+    private ScanGroup createGroup(int mask) {
+        List<DataPoint> all = config.getPoints();
+        boolean[] selected = new boolean[all.size()];
+        int count = 0;
+        for (int c = 0; c < classes.length; c++) {
+            if ((mask & (1 << c)) != 0) {
+                for (int index : classes[c].pointIndexes) {
+                    selected[index] = true;
+                    count++;
+                }
+            }
+        }
+        if (count == all.size()) {
+            return new ScanGroup(all, null, null);
+        }
+        List<DataPoint> points = new ArrayList<>(count);
+        int[] indexes = new int[count];
+        for (int i = 0; i < selected.length; i++) {
+            if (selected[i]) {
+                indexes[points.size()] = i;
+                points.add(all.get(i));
+            }
+        }
+        return new ScanGroup(points, indexes, new PointSnapshot(points));
+    }
+}
@@ -4,20 +4,50 @@ import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
 import io.github.iweidujiang.industry.plc.config.PlcConfigLoader;
 import io.github.iweidujiang.industry.plc.connection.PlcConnectionManager;
 import io.github.iweidujiang.industry.plc.exception.PlcException;
-import io.github.iweidujiang.industry.plc.factory.PlcConnectionFactory;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
 import io.github.iweidujiang.industry.plc.model.DeviceConfig;
-import io.github.iweidujiang.industry.plc.model.PlcConfig;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.report.DeadbandFilter;
+import io.github.iweidujiang.industry.plc.report.PointReportListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * PLC 数据采集调度服务
  * <p>
+ * 点位按扫描周期（点位的 scanRate，未配置时取设备的 scanRate）分为扫描等级，
+ * 调度线程用按到期时间排序的优先队列驱动各设备：同一设备上同时到期的等级合并为一次读取，
+ * 读取在独立的虚拟线程中执行，一台 PLC 无响应不会拖慢其它设备。
+ * 读取方式按适配器声明的 {@link io.github.iweidujiang.industry.plc.adapter.AdapterCapabilities} 选择：
+ * 订阅式适配器（值在本地缓存中）每次读取全部点位，其余适配器只读取到期的扫描组。
+ * 每台设备同一时刻只有一个读取在进行，设备忙时到期的等级顺延到读取结束后立即执行，
+ * 整周期错过的扫描跳过不补；各等级的抖动、耗时和超限统计见 {@link #getScanStats()}。
+ * 每次读取的结果回报给 {@link PlcConnectionManager}，作为连接健康判断的依据；
+ * 采集值经死区过滤后，只把变化的点位（以及到达心跳的点位）交给 {@link PointReportListener}；
+ * 读取失败后恢复的第一个周期全部点位重新上报。
+ * 配置文件热加载时按设备比对（见 {@link #applyConfig}），只有新增、删除或参数变化的设备重建状态和连接，
+ * 其余设备的快照、死区状态、扫描节拍和连接原样保留，采集不受影响。
+ * <p>
  * 作者: 苏渡苇
  * GitHub:  https://github.com/iweidujiang
  * 公众号: 苏渡苇
@@ -27,22 +57,377 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 @Service
 public class PlcDataCollector {
-    private final List<DeviceConfig> devices = PlcConfigLoader.loadDevices();
+
+    /** 设备和点位都未配置扫描周期时的默认值（毫秒） */
+    public static final int DEFAULT_SCAN_RATE_MS = 10_000;
+    /** 设备未配置超时时的默认值（毫秒） */
+    public static final int DEFAULT_POLL_TIMEOUT_MS = 5000;
+
+    // 到期时间相差不超过该值的扫描等级合并为一次读取
+    private static final long GROUP_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
     private final PlcConnectionManager connectionManager;
+    private final List<PointReportListener> reportListeners;
+    private final ExecutorService pollExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // 当前生效的设备，热加载时在调度锁内整体替换
+    private volatile Map<String, DeviceScan> devices = Map.of();
 
-    public PlcDataCollector(PlcConnectionManager plcConnectionManager) {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // 设备读取结束时通知，热加载据此等待被替换设备的读取结束
+    private final Condition idle = lock.newCondition();
+    // 空闲设备按最近的到期时间排序；正在读取的设备不在队列中，读取结束后重新入队
+    private final PriorityQueue<DeviceScan> queue =
+            new PriorityQueue<>(Comparator.comparingLong((DeviceScan d) -> d.nextDueNanos));
+    private Thread scheduler;
+    private volatile boolean running;
+
+    public PlcDataCollector(PlcConnectionManager plcConnectionManager,
+                            ObjectProvider<PointReportListener> reportListeners,
+                            @Value("${plc.config-file:plc-config.yml}") String configFile) {
         this.connectionManager = plcConnectionManager;
+        this.reportListeners = reportListeners.orderedStream().toList();
+        applyConfig(PlcConfigLoader.loadDevices(configFile));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        scheduler = new Thread(this::runLoop, "plc-scan-scheduler");
+        scheduler.setDaemon(true);
+        scheduler.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.interrupt();
+        }
+        pollExecutor.shutdownNow();
+    }
+
+    /**
+     * 应用一份新的设备配置
+     * <p>
+     * 按设备名称与当前配置比对：配置完全相同的设备沿用原有快照、死区过滤器、扫描节拍和连接；
+     * 新增设备创建新状态；参数变化的设备重建状态并断开旧连接，下次采集按新配置重连（S7 / Modbus 读计划随之重新规划）；
+     * 已删除的设备断开连接。新配置校验失败时抛出异常，当前配置保持不变。
+     * <p>
+     * 被替换或删除的设备若有读取正在进行，先等它结束（最长为该设备的采集超时再加 1 秒）再断开连接、
+     * 开始按新配置扫描：新旧两份配置不会同时访问同一台 PLC，旧读取也不会再按旧配置重建连接。
+     *
+     * @throws IllegalArgumentException 设备名称重复，或点位配置非法
+     */
+    public synchronized void applyConfig(List<DeviceConfig> newDevices) {
+        Map<String, DeviceScan> current = devices;
+        Map<String, DeviceScan> next = new LinkedHashMap<>();
+        List<String> added = new ArrayList<>();
+        List<String> changedDevices = new ArrayList<>();
+        for (DeviceConfig device : newDevices) {
+            String name = device.getName();
+            if (name == null || next.containsKey(name)) {
+                throw new IllegalArgumentException("设备名称为空或重复：" + name);
+            }
+            DeviceScan old = current.get(name);
+            if (old != null && old.config.equals(device)) {
+                next.put(name, old);
+                continue;
+            }
+            next.put(name, DeviceScan.of(device, DEFAULT_SCAN_RATE_MS));
+            (old == null ? added : changedDevices).add(name);
+        }
+        List<String> removed = new ArrayList<>();
+        for (String name : current.keySet()) {
+            if (!next.containsKey(name)) {
+                removed.add(name);
+            }
+        }
+
+        List<DeviceScan> retired = new ArrayList<>();
+        for (DeviceScan old : current.values()) {
+            if (next.get(old.name()) != old) {
+                retired.add(old);
+            }
+        }
+
+        lock.lock();
+        try {
+            queue.removeIf(d -> next.get(d.name()) != d);
+            for (DeviceScan old : retired) {
+                old.retired = true;
+            }
+            devices = Collections.unmodifiableMap(next);
+            awaitIdle(retired);
+        } finally {
+            lock.unlock();
+        }
+        changedDevices.forEach(connectionManager::remove);
+        removed.forEach(connectionManager::remove);
+
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            for (DeviceScan scan : next.values()) {
+                if (current.get(scan.name()) != scan && scan.classes.length > 0) {
+                    scan.schedule(now);
+                    queue.add(scan);
+                }
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (current.isEmpty()) {
+            log.info("✅ 已加载 {} 台设备", next.size());
+        } else {
+            log.info("🔄 配置已重新加载：新增 {}，删除 {}，变更 {}，未变 {}", added, removed, changedDevices,
+                    next.size() - added.size() - changedDevices.size());
+        }
+    }
+
+    /**
+     * 等待被替换设备进行中的读取结束。调用方持有调度锁
+     */
+    private void awaitIdle(List<DeviceScan> retired) {
+        long waitMs = 0;
+        for (DeviceScan scan : retired) {
+            waitMs = Math.max(waitMs, pollTimeoutMs(scan.config) + 1000);
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(waitMs);
+        try {
+            for (DeviceScan scan : retired) {
+                while (scan.busy && remaining > 0) {
+                    remaining = idle.awaitNanos(remaining);
+                }
+                if (scan.busy) {
+                    log.warn("⚠️ 设备 [{}] 的读取在 {} ms 内未结束，直接断开旧连接", scan.name(), waitMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 设备的最新采集值，设备不存在时为 null
+     * <p>
+     * 设备配置不变时快照对象不变，使用方可以缓存快照和点位索引，按索引读取原始类型值；
+     * 配置热加载后该设备的快照会被替换，需要重新获取。
+     */
+    public PointSnapshot getSnapshot(String deviceName) {
+        DeviceScan scan = devices.get(deviceName);
+        return scan != null ? scan.snapshot : null;
+    }
+
+    /**
+     * 向设备写入一组点位值（如配方下发），由适配器合并为尽量少的写请求
+     * <p>
+     * 多个写请求之间不是原子的：中途失败时之前的块已经写入设备。
+     *
+     * @param values 点名 -> 值，点名须为该设备已配置的点位
+     * @throws PlcException 设备或点位不存在、值非法、适配器不支持写入或通信失败
+     */
+    public void writeDataPoints(String deviceName, Map<String, Object> values) throws PlcException {
+        DeviceScan scan = devices.get(deviceName);
+        if (scan == null) {
+            throw new PlcException("设备 [" + deviceName + "] 不存在");
+        }
+        List<DataPoint> points = new ArrayList<>(values.size());
+        for (String name : values.keySet()) {
+            int index = scan.snapshot.indexOf(name);
+            if (index < 0) {
+                throw new PlcException("设备 [" + deviceName + "] 没有点位 [" + name + "]");
+            }
+            points.add(scan.config.getPoints().get(index));
+        }
+        PointSnapshot snapshot = new PointSnapshot(points);
+        try {
+            int i = 0;
+            for (Object value : values.values()) {
+                snapshot.setValue(i++, value);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new PlcException(e.getMessage(), e);
+        }
+        PlcProtocolAdapter adapter;
+        try {
+            adapter = connectionManager.getConnection(scan.config);
+        } catch (RuntimeException e) {
+            throw new PlcException(e.getMessage(), e);
+        }
+        adapter.writeDataPoints(points, snapshot);
+        log.info("✅ 设备 [{}] 写入 {} 个点位", deviceName, points.size());
+    }
+
+    /**
+     * 当前生效的设备配置
+     */
+    public List<DeviceConfig> getDevices() {
+        return devices.values().stream().map(d -> d.config).toList();
+    }
+
+    /**
+     * 各设备各扫描等级的抖动、耗时与超限统计
+     */
+    public List<ScanClassStats> getScanStats() {
+        List<ScanClassStats> stats = new ArrayList<>();
+        for (DeviceScan scan : devices.values()) {
+            for (ScanClass scanClass : scan.classes) {
+                stats.add(scanClass.getStats(scan.name()));
+            }
+        }
+        return stats;
+    }
+
+    private static long pollTimeoutMs(DeviceConfig device) {
+        return device.getPollTimeout() != null ? device.getPollTimeout() : DEFAULT_POLL_TIMEOUT_MS;
+    }
+
+    private void runLoop() {
+        lock.lock();
+        try {
+            while (running) {
+                DeviceScan scan = queue.peek();
+                long now = System.nanoTime();
+                if (scan == null) {
+                    changed.await();
+                } else if (scan.nextDueNanos - now > 0) {
+                    changed.awaitNanos(scan.nextDueNanos - now);
+                } else {
+                    queue.poll();
+                    dispatch(scan, now);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 发起一台设备的扫描：把所有已到期（含窗口内即将到期）的等级合并为一次读取。调用方持有调度锁
+     */
+    private void dispatch(DeviceScan scan, long now) {
+        int mask = 0;
+        for (int c = 0; c < scan.classes.length; c++) {
+            ScanClass scanClass = scan.classes[c];
+            if (scanClass.nextDueNanos - now <= GROUP_WINDOW_NANOS) {
+                mask |= 1 << c;
+                scanClass.dispatched(now);
+            }
+        }
+        int groupMask = mask;
+        scan.busy = true;
+        pollExecutor.submit(() -> runScan(scan, groupMask));
     }
 
-    @Scheduled(fixedDelay = 10_000)
-    public void collectAll() {
-        for (DeviceConfig device : devices) {
+    /**
+     * 执行一次扫描并等待其结果，超时则中断读取
+     * <p>
+     * 读取在单独的虚拟线程中进行，设备在该线程真正结束时才释放，超时被中断但仍未返回的读取不会与下一次扫描并发。
+     */
+    private void runScan(DeviceScan scan, int mask) {
+        DeviceConfig device = scan.config;
+        long timeoutMs = pollTimeoutMs(device);
+        long start = System.nanoTime();
+        CompletableFuture<Void> read = new CompletableFuture<>();
+        Thread reader = Thread.ofVirtual().name("plc-read-" + device.getName()).start(() -> {
+            try {
+                readGroup(scan, scan.group(mask));
+                read.complete(null);
+            } catch (Throwable e) {
+                scan.resync = true;
+                read.completeExceptionally(e);
+            } finally {
+                release(scan);
+            }
+        });
+        try {
+            read.get(timeoutMs, TimeUnit.MILLISECONDS);
+            connectionManager.markSuccess(device);
+        } catch (TimeoutException e) {
+            reader.interrupt();
+            connectionManager.markFailure(device, "采集超时");
+            log.error("❌ 设备 [{}] 采集超时（{} ms）", device.getName(), timeoutMs);
+        } catch (ExecutionException e) {
+            connectionManager.markFailure(device, e.getCause().getMessage());
+            log.error("❌ 设备 [{}] 采集失败: {}", device.getName(), e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            reader.interrupt();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long duration = System.nanoTime() - start;
+        for (int c = 0; c < scan.classes.length; c++) {
+            if ((mask & (1 << c)) != 0) {
+                scan.classes[c].completed(duration);
+            }
+        }
+    }
+
+    private void readGroup(DeviceScan scan, DeviceScan.ScanGroup group) throws PlcException {
+        if (scan.retired) {
+            throw new PlcException("设备 [" + scan.name() + "] 的配置已更新，放弃按旧配置采集");
+        }
+        PlcProtocolAdapter adapter = connectionManager.getConnection(scan.config);
+        // 订阅式适配器读的是本地缓存，整台设备复制一次比按扫描组拆分更快
+        if (group.buffer() == null || adapter.getCapabilities().subscription()) {
+            adapter.readDataPoints(scan.config.getPoints(), scan.snapshot);
+        } else {
+            adapter.readDataPoints(group.points(), group.buffer());
+            int[] indexes = group.indexes();
+            for (int i = 0; i < indexes.length; i++) {
+                group.buffer().copyPoint(i, scan.snapshot, indexes[i]);
+            }
+        }
+        report(scan);
+    }
+
+    /**
+     * 读取结束（无论成败、是否已超时）：设备仍在当前配置中则重新入队，顺延的到期等级会立即执行
+     */
+    private void release(DeviceScan scan) {
+        lock.lock();
+        try {
+            scan.busy = false;
+            idle.signalAll();
+            if (running && devices.get(scan.name()) == scan) {
+                scan.updateNextDue();
+                queue.add(scan);
+                changed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 变化上报：只有存在越过死区或到达心跳的点位时才通知下游
+     */
+    private void report(DeviceScan scan) {
+        // 已被替换的设备不再上报，避免旧配置的值覆盖新配置
+        if (scan.retired) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String name = scan.name();
+        DeadbandFilter filter = scan.filter;
+        if (scan.resync) {
+            // 断线期间下游可能已把该设备的值标记为失效，恢复后全量上报一次
+            filter.reset();
+            scan.resync = false;
+        }
+        if (filter.apply(scan.snapshot, now) == 0) {
+            return;
+        }
+        for (PointReportListener listener : reportListeners) {
             try {
-                PlcProtocolAdapter adapter = connectionManager.getConnection(device);
-                Map<String, Object> data = adapter.readDataPoints(device.getPoints());
-                log.info("✅ 设备 [{}] 采集成功: {}", device.getName(), data);
+                listener.onReport(name, now, scan.snapshot, filter);
             } catch (Exception e) {
-                log.error("❌ 设备 [{}] 采集失败: {}", device.getName(), e.getMessage());
+                log.error("❌ 设备 [{}] 上报处理失败: {}", name, e.getMessage(), e);
             }
         }
     }
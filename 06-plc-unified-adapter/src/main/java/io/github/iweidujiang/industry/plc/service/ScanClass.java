@@ -0,0 +1,76 @@
+package io.github.iweidujiang.industry.plc.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 扫描等级：一台设备上扫描周期相同的一组点位
+ * <p>
+ * 到期时间按周期累加（不从实际执行时间重新计算），同一设备上周期成倍数关系的等级始终在同一时刻到期，
+ * 可以合并为一次请求。到期时间只由调度线程在持有调度锁时修改。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+final class ScanClass {
+
+    final int rateMs;
+    final long periodNanos;
+    /** 本等级点位在设备点位列表中的索引（升序） */
+    final int[] pointIndexes;
+
+    long nextDueNanos;
+
+    // 统计
+    private long dispatches;
+    private long scans;
+    private long overruns;
+    private long missedScans;
+    private long jitterTotalNanos;
+    private long maxJitterNanos;
+    private long lastDurationNanos;
+    private long maxDurationNanos;
+
+    ScanClass(int rateMs, int[] pointIndexes) {
+        this.rateMs = rateMs;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(rateMs);
+        this.pointIndexes = pointIndexes;
+    }
+
+    /**
+     * 本次到期已发起扫描：记录抖动并推进到下一个周期，错过的周期直接跳过
+     */
+    synchronized void dispatched(long now) {
+        long jitter = Math.max(now - nextDueNanos, 0);
+        dispatches++;
+        jitterTotalNanos += jitter;
+        maxJitterNanos = Math.max(maxJitterNanos, jitter);
+        nextDueNanos += periodNanos;
+        if (nextDueNanos - now <= 0) {
+            long missed = (now - nextDueNanos) / periodNanos + 1;
+            missedScans += missed;
+            nextDueNanos += missed * periodNanos;
+        }
+    }
+
+    synchronized void completed(long durationNanos) {
+        scans++;
+        lastDurationNanos = durationNanos;
+        maxDurationNanos = Math.max(maxDurationNanos, durationNanos);
+        if (durationNanos > periodNanos) {
+            overruns++;
+        }
+    }
+
+    synchronized ScanClassStats getStats(String device) {
+        return new ScanClassStats(device, rateMs, pointIndexes.length, scans, overruns, missedScans,
+                toMillis(jitterTotalNanos / Math.max(dispatches, 1)), toMillis(maxJitterNanos),
+                toMillis(lastDurationNanos), toMillis(maxDurationNanos));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.iweidujiang.industry.plc.service;
+
+/**
+ * 一个扫描等级（同一设备上扫描周期相同的点位）的调度统计
+ * <p>
+ * 抖动是实际发起扫描的时间与计划时间之差；扫描耗时超过周期计为一次超限（overrun），
+ * 因设备仍在采集或调度跟不上而整周期错过的扫描计入 missedScans。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param device         设备名称
+ * @param scanRateMs     扫描周期（毫秒）
+ * @param points         点位数
+ * @param scans          已完成的扫描次数
+ * @param overruns       耗时超过扫描周期的次数
+ * @param missedScans    错过的扫描周期数
+ * @param avgJitterMs    平均抖动（毫秒）
+ * @param maxJitterMs    最大抖动（毫秒）
+ * @param lastDurationMs 最近一次扫描耗时（毫秒）
+ * @param maxDurationMs  最长扫描耗时（毫秒）
+ */
+public record ScanClassStats(String device, int scanRateMs, int points, long scans, long overruns, long missedScans,
+                             double avgJitterMs, double maxJitterMs, double lastDurationMs, double maxDurationMs) {
+}
@@ -0,0 +1,42 @@
+package io.github.iweidujiang.industry.plc.sink;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 把上报的点位写入日志（只记录变化值，不再每个周期打印全部点位）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Slf4j
+@Component
+public class LoggingSink implements PointSink {
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void write(SinkBatch batch) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) {
+            PointEvent event = batch.get(i);
+            sb.setLength(0);
+            for (int j = 0; j < event.size(); j++) {
+                if (j > 0) {
+                    sb.append(", ");
+                }
+                sb.append(event.getName(j)).append('=').append(event.getValue(j));
+            }
+            log.info("✅ 设备 [{}] 上报 {} 个点位: {}", event.getDeviceName(), event.size(), sb);
+        }
+    }
+}
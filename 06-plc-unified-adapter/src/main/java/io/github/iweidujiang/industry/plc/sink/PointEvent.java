@@ -0,0 +1,110 @@
+package io.github.iweidujiang.industry.plc.sink;
+
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.model.PointType;
+import io.github.iweidujiang.industry.plc.report.DeadbandFilter;
+
+/**
+ * 一次设备上报：某台设备在某个采集周期内需要上报的点位值
+ * <p>
+ * 事件对象是环形缓冲区中预分配的槽位，发布时把值复制进来，数组只在点位数超过容量时扩容，
+ * 稳态发布不分配对象。槽位会被复用，sink 只能在 {@link PointSink#write(SinkBatch)} 期间读取，
+ * 需要保留时应自行复制。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class PointEvent {
+
+    private String deviceName;
+    private long timestamp;
+    private int size;
+    private String[] names = new String[16];
+    private PointType[] types = new PointType[16];
+    private long[] longValues = new long[16];
+    private double[] doubleValues = new double[16];
+
+    /**
+     * 复制快照中需要上报的点位
+     */
+    void copyFrom(String deviceName, long timestamp, PointSnapshot snapshot, DeadbandFilter changes) {
+        ensureCapacity(changes.getReportedCount());
+        this.deviceName = deviceName;
+        this.timestamp = timestamp;
+        int n = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (!changes.isReported(i)) {
+                continue;
+            }
+            names[n] = snapshot.getName(i);
+            types[n] = snapshot.getType(i);
+            if (types[n].isFloating()) {
+                doubleValues[n] = snapshot.getDouble(i);
+            } else {
+                longValues[n] = snapshot.getLong(i);
+            }
+            n++;
+        }
+        this.size = n;
+    }
+
+    public String getDeviceName() {
+        return deviceName;
+    }
+
+    /**
+     * 采集时间（毫秒时间戳）
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * 本次上报的点位数
+     */
+    public int size() {
+        return size;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public PointType getType(int index) {
+        return types[index];
+    }
+
+    public long getLong(int index) {
+        return types[index].isFloating() ? (long) doubleValues[index] : longValues[index];
+    }
+
+    public double getDouble(int index) {
+        return types[index].isFloating() ? doubleValues[index] : longValues[index];
+    }
+
+    /**
+     * 按点位类型装箱后的值，与 {@link PointSnapshot#getValue(int)} 一致
+     */
+    public Object getValue(int index) {
+        return switch (types[index]) {
+            case BOOL -> longValues[index] != 0;
+            case UINT32 -> longValues[index];
+            case FLOAT32 -> (float) doubleValues[index];
+            default -> (int) longValues[index];
+        };
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (names.length >= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, names.length * 2);
+        names = new String[newCapacity];
+        types = new PointType[newCapacity];
+        longValues = new long[newCapacity];
+        doubleValues = new double[newCapacity];
+    }
+}
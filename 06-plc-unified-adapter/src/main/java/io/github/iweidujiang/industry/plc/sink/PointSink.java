@@ -0,0 +1,28 @@
+package io.github.iweidujiang.industry.plc.sink;
+
+/**
+ * 采集数据的下游（Redis 缓存、MQTT、数据库等）
+ * <p>
+ * 实现为 Spring Bean 即自动接入 {@link SinkPipeline}。每个 sink 有独立的有界缓冲区和写出线程，
+ * 按批调用 {@link #write(SinkBatch)}；写得慢的 sink 只会让自己的缓冲区积压，不会拖慢采集和其它 sink。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public interface PointSink {
+
+    /**
+     * sink 名称，用于线程名、日志和统计
+     */
+    String getName();
+
+    /**
+     * 写出一批事件
+     * <p>
+     * 抛出异常时该批次计为失败并丢弃，不会重试；需要可靠投递的 sink 应自行落盘重发。
+     */
+    void write(SinkBatch batch) throws Exception;
+}
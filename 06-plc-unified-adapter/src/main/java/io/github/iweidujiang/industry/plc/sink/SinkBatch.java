@@ -0,0 +1,17 @@
+package io.github.iweidujiang.industry.plc.sink;
+
+/**
+ * 一批待写出的上报事件（环形缓冲区中连续的一段槽位，只在写出期间有效）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public interface SinkBatch {
+
+    int size();
+
+    PointEvent get(int index);
+}
@@ -0,0 +1,180 @@
+package io.github.iweidujiang.industry.plc.sink;
+
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.report.DeadbandFilter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 单个 sink 的有界环形缓冲区及其写出线程
+ * <p>
+ * 槽位预分配，生产者把值复制进 tail 处的槽位；写出线程一次取出 [head, head + n) 的一段连续槽位
+ * 直接交给 sink，写完后才推进 head，期间这些槽位不会被覆盖。
+ * 缓冲区满时生产者最多等待 maxBlock，仍然满则丢弃本次事件并计数，采集线程不会被无限期阻塞。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Slf4j
+class SinkChannel implements SinkBatch {
+
+    private final PointSink sink;
+    private final PointEvent[] ring;
+    private final int mask;
+    private final int batchSize;
+    private final long maxBlockNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private long head; // 下一个待写出的序号
+    private long tail; // 下一个待发布的序号
+
+    // 当前批次，只由写出线程访问
+    private long batchStart;
+    private int batchLength;
+
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private long published;
+    private long dropped;
+    private volatile long written;
+    private volatile long failedBatches;
+
+    /**
+     * @param capacity 缓冲区容量，向上取整为 2 的幂
+     */
+    SinkChannel(PointSink sink, int capacity, int batchSize, long maxBlockMs) {
+        if (capacity < 1 || batchSize < 1 || maxBlockMs < 0) {
+            throw new IllegalArgumentException("sink 缓冲区参数非法");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.sink = sink;
+        this.ring = new PointEvent[Math.max(size, 1)];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new PointEvent();
+        }
+        this.mask = ring.length - 1;
+        this.batchSize = batchSize;
+        this.maxBlockNanos = TimeUnit.MILLISECONDS.toNanos(maxBlockMs);
+        this.worker = new Thread(this::drainLoop, "plc-sink-" + sink.getName());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 发布一次上报
+     *
+     * @return 缓冲区满且等待超时被丢弃时返回 false
+     */
+    boolean publish(String deviceName, long timestamp, PointSnapshot snapshot, DeadbandFilter changes) {
+        lock.lock();
+        try {
+            long nanos = maxBlockNanos;
+            while (tail - head == ring.length) {
+                if (nanos <= 0 || !running) {
+                    dropped++;
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            ring[(int) (tail & mask)].copyFrom(deviceName, timestamp, snapshot, changes);
+            tail++;
+            published++;
+            notEmpty.signal();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped++;
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return batchLength;
+    }
+
+    @Override
+    public PointEvent get(int index) {
+        if (index < 0 || index >= batchLength) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return ring[(int) ((batchStart + index) & mask)];
+    }
+
+    /**
+     * 停止接收新事件，写出已积压的事件后退出
+     */
+    void close(long timeoutMs) {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    SinkStats getStats() {
+        lock.lock();
+        try {
+            return new SinkStats(sink.getName(), ring.length, (int) (tail - head), published, written,
+                    dropped, failedBatches);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drainLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (tail == head) {
+                    if (!running) {
+                        return;
+                    }
+                    notEmpty.await();
+                }
+                batchStart = head;
+                batchLength = (int) Math.min(tail - head, batchSize);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                sink.write(this);
+                written += batchLength;
+            } catch (Exception e) {
+                failedBatches++;
+                log.error("❌ sink [{}] 写出 {} 条事件失败: {}", sink.getName(), batchLength, e.getMessage(), e);
+            }
+
+            lock.lock();
+            try {
+                head += batchLength;
+                batchLength = 0;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
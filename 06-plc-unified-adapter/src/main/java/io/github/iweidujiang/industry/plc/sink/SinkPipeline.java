@@ -0,0 +1,82 @@
+package io.github.iweidujiang.industry.plc.sink;
+
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.report.DeadbandFilter;
+import io.github.iweidujiang.industry.plc.report.PointReportListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 采集数据分发管道：把变化上报扇出到所有 {@link PointSink}
+ * <p>
+ * 每个 sink 一个有界环形缓冲区和一个写出线程，按批写出；缓冲区满时短暂阻塞采集线程（背压），
+ * 超过 max-block-ms 仍然满则丢弃该 sink 的本次事件，慢 sink 不会拖住采集和其它 sink。
+ * 死区过滤器在上报时已把本周期的值记为“上次上报值”，事件被丢弃后该 sink 会漏掉这次变化，
+ * 因此有 sink 丢弃时重置该设备的过滤器，下个周期全部点位重新上报（其它 sink 会收到一次重复的当前值）。
+ * <p>
+ * 配置项：
+ * <ul>
+ *     <li>{@code plc.sink.capacity}：每个 sink 的缓冲区容量（事件数），默认 1024</li>
+ *     <li>{@code plc.sink.batch-size}：单批最多写出的事件数，默认 256</li>
+ *     <li>{@code plc.sink.max-block-ms}：缓冲区满时采集线程最多等待的毫秒数，默认 100</li>
+ * </ul>
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Slf4j
+@Component
+public class SinkPipeline implements PointReportListener {
+
+    private static final long CLOSE_TIMEOUT_MS = 5_000;
+
+    private final List<SinkChannel> channels = new ArrayList<>();
+
+    public SinkPipeline(ObjectProvider<PointSink> sinks,
+                        @Value("${plc.sink.capacity:1024}") int capacity,
+                        @Value("${plc.sink.batch-size:256}") int batchSize,
+                        @Value("${plc.sink.max-block-ms:100}") long maxBlockMs) {
+        sinks.orderedStream().forEach(sink -> {
+            channels.add(new SinkChannel(sink, capacity, batchSize, maxBlockMs));
+            log.info("🔗 已接入 sink [{}]", sink.getName());
+        });
+    }
+
+    @Override
+    public void onReport(String deviceName, long timestamp, PointSnapshot snapshot, DeadbandFilter changes) {
+        boolean dropped = false;
+        for (SinkChannel channel : channels) {
+            if (!channel.publish(deviceName, timestamp, snapshot, changes)) {
+                dropped = true;
+            }
+        }
+        if (dropped) {
+            changes.reset();
+        }
+    }
+
+    /**
+     * 各 sink 的缓冲与写出统计
+     */
+    public List<SinkStats> getStats() {
+        List<SinkStats> stats = new ArrayList<>(channels.size());
+        for (SinkChannel channel : channels) {
+            stats.add(channel.getStats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        channels.forEach(channel -> channel.close(CLOSE_TIMEOUT_MS));
+    }
+}
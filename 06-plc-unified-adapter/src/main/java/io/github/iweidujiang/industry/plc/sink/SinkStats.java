@@ -0,0 +1,21 @@
+package io.github.iweidujiang.industry.plc.sink;
+
+/**
+ * 单个 sink 的运行统计
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param name          sink 名称
+ * @param capacity      缓冲区容量（事件数）
+ * @param queued        当前积压的事件数
+ * @param published     累计发布的事件数
+ * @param written       累计写出成功的事件数
+ * @param dropped       因缓冲区满被丢弃的事件数
+ * @param failedBatches 写出失败的批次数
+ */
+public record SinkStats(String name, int capacity, int queued, long published, long written,
+                        long dropped, long failedBatches) {
+}
@@ -0,0 +1,35 @@
+package io.github.iweidujiang.industry.plc.spi;
+
+import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+
+import java.util.Set;
+
+/**
+ * 协议适配器 SPI
+ * <p>
+ * 实现类通过 {@link java.util.ServiceLoader} 发现：在
+ * {@code META-INF/services/io.github.iweidujiang.industry.plc.spi.PlcProtocolProvider} 中登记全限定类名，
+ * 放到 classpath 上即可支持新协议，无需修改网关代码。实现类必须有公共无参构造器。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public interface PlcProtocolProvider {
+
+    /**
+     * 支持的协议名，对应设备配置中的 protocol
+     */
+    Set<String> getProtocols();
+
+    /**
+     * 为设备创建适配器（尚未连接）
+     *
+     * @param context 网关提供的共享组件，如串口总线管理器
+     * @throws IllegalArgumentException 设备配置不完整或非法
+     */
+    PlcProtocolAdapter createAdapter(DeviceConfig config, PlcProviderContext context);
+}
@@ -0,0 +1,20 @@
+package io.github.iweidujiang.industry.plc.spi;
+
+/**
+ * 提供给 {@link PlcProtocolProvider} 的运行环境，用于获取网关中的共享组件
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public interface PlcProviderContext {
+
+    /**
+     * 按类型获取共享组件
+     *
+     * @throws IllegalStateException 组件不存在
+     */
+    <T> T getComponent(Class<T> type);
+}
@@ -0,0 +1,33 @@
+package io.github.iweidujiang.industry.plc;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+
+/**
+ * 测试用点位工厂：只填名称、地址和数据类型，死区、扫描周期等由各测试在返回的点位上再设置
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class TestPoints {
+
+    private TestPoints() {
+    }
+
+    /**
+     * 数据类型由地址推断（如 S7 的 DBW / DBD），不单独配置
+     */
+    public static DataPoint point(String name, String address) {
+        return point(name, address, null);
+    }
+
+    public static DataPoint point(String name, String address, String dataType) {
+        DataPoint point = new DataPoint();
+        point.setName(name);
+        point.setAddress(address);
+        point.setDataType(dataType);
+        return point;
+    }
+}
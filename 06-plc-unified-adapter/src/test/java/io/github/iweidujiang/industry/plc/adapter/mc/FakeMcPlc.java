@@ -0,0 +1,150 @@
+package io.github.iweidujiang.industry.plc.adapter.mc;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JVM 内的三菱 PLC 模拟器：应答 3E 二进制帧的批量读（0401）和随机读（0403），字单位
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class FakeMcPlc implements AutoCloseable {
+
+    /** 不支持的指令返回的结束代码 */
+    public static final int END_CODE_UNSUPPORTED = 0xC059;
+
+    private final ServerSocket server;
+    // 每种软元件一块字存储；位软元件按 16 个编号一个字存放
+    private final Map<McDevice, short[]> memory = new EnumMap<>(McDevice.class);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Thread acceptor;
+
+    public FakeMcPlc() throws IOException {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "fake-mc-plc");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * 已处理的请求数
+     */
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    public void setWord(McDevice device, int number, int value) {
+        words(device)[number] = (short) value;
+    }
+
+    public void setDword(McDevice device, int number, int value) {
+        setWord(device, number, value);
+        setWord(device, number + 1, value >>> 16);
+    }
+
+    public void setBit(McDevice device, int number, boolean value) {
+        short[] words = words(device);
+        int mask = 1 << (number % 16);
+        words[number / 16] = (short) (value ? words[number / 16] | mask : words[number / 16] & ~mask);
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private synchronized short[] words(McDevice device) {
+        return memory.computeIfAbsent(device, d -> new short[0x10000]);
+    }
+
+    private int readWord(McDevice device, int number) {
+        // 位软元件按字访问时编号是 16 的倍数
+        int slot = device.isBit() ? number / 16 : number;
+        return words(device)[slot] & 0xFFFF;
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                serve(socket);
+            } catch (IOException e) {
+                // 客户端断开或模拟器关闭
+            }
+        }
+    }
+
+    private void serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        OutputStream out = socket.getOutputStream();
+        byte[] request = new byte[McCodec.MAX_REQUEST_LENGTH];
+        byte[] response = new byte[McCodec.MAX_RESPONSE_LENGTH];
+        while (true) {
+            in.readFully(request, 0, McCodec.HEADER_LENGTH);
+            int length = McCodec.getWord(request, 7);
+            in.readFully(request, McCodec.HEADER_LENGTH, length);
+            requests.incrementAndGet();
+
+            int command = McCodec.getWord(request, 11);
+            int p = McCodec.REQUEST_DATA_OFFSET;
+            int r = McCodec.RESPONSE_DATA_OFFSET;
+            int endCode = 0;
+            if (command == McCodec.CMD_BATCH_READ) {
+                McDevice device = McDevice.ofCode(request[p + 3] & 0xFF);
+                int head = number(request, p);
+                int count = McCodec.getWord(request, p + 4);
+                int slot = device.isBit() ? head / 16 : head;
+                for (int i = 0; i < count; i++) {
+                    r = putWord(response, r, words(device)[slot + i]);
+                }
+            } else if (command == McCodec.CMD_RANDOM_READ) {
+                int wordCount = request[p] & 0xFF;
+                int dwordCount = request[p + 1] & 0xFF;
+                p += 2;
+                for (int i = 0; i < wordCount; i++, p += 4) {
+                    r = putWord(response, r, readWord(McDevice.ofCode(request[p + 3] & 0xFF), number(request, p)));
+                }
+                for (int i = 0; i < dwordCount; i++, p += 4) {
+                    McDevice device = McDevice.ofCode(request[p + 3] & 0xFF);
+                    int number = number(request, p);
+                    r = putWord(response, r, readWord(device, number));
+                    r = putWord(response, r, readWord(device, number + (device.isBit() ? 16 : 1)));
+                }
+            } else {
+                endCode = END_CODE_UNSUPPORTED;
+            }
+
+            response[0] = (byte) 0xD0;
+            response[1] = 0x00;
+            System.arraycopy(request, 2, response, 2, 5);
+            putWord(response, 7, r - McCodec.HEADER_LENGTH);
+            putWord(response, 9, endCode);
+            out.write(response, 0, r);
+            out.flush();
+        }
+    }
+
+    private static int number(byte[] frame, int p) {
+        return (frame[p] & 0xFF) | (frame[p + 1] & 0xFF) << 8 | (frame[p + 2] & 0xFF) << 16;
+    }
+
+    private static int putWord(byte[] dst, int p, int value) {
+        dst[p] = (byte) value;
+        dst[p + 1] = (byte) (value >> 8);
+        return p + 2;
+    }
+}
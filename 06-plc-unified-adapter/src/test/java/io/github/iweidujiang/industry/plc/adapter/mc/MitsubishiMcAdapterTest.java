@@ -0,0 +1,92 @@
+package io.github.iweidujiang.industry.plc.adapter.mc;
+
+import io.github.iweidujiang.industry.plc.adapter.MitsubishiMcAdapter;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 三菱 MC 3E 读计划与适配器测试（使用 JVM 内的模拟 PLC）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class MitsubishiMcAdapterTest {
+
+    private FakeMcPlc plc;
+    private MitsubishiMcAdapter adapter;
+
+    private static final List<DataPoint> POINTS = List.of(
+            point("产量", "D100", "UINT16"),
+            point("节拍", "D102", "REAL"),
+            point("温度", "D104", "INT"),
+            point("故障代码", "D5000", "UINT16"),
+            point("累计", "D8000", "DINT"),
+            point("急停", "M200", "BOOL"),
+            point("输入", "X1F", "BOOL"));
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        plc = new FakeMcPlc();
+        adapter = new MitsubishiMcAdapter("127.0.0.1", plc.getPort());
+        adapter.connect();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        adapter.disconnect();
+        plc.close();
+    }
+
+    @Test
+    public void plansBatchAndRandomReads() {
+        McReadPlan plan = new McReadPlanner(McReadPlanner.DEFAULT_MAX_GAP, McCodec.MAX_BATCH_WORDS).plan(POINTS);
+
+        // D100~D104 合并为一次批量读；D5000、D8000、M200、X1F 打包为一次随机读
+        assertEquals(1, plan.batches().size());
+        assertEquals(5, plan.batches().get(0).words());
+        assertEquals(1, plan.randomReads().size());
+        assertEquals(3, plan.randomReads().get(0).wordBlocks().size());
+        assertEquals(1, plan.randomReads().get(0).dwordBlocks().size());
+        assertEquals(2, plan.requestCount());
+    }
+
+    @Test
+    public void readsScatteredPointsInTwoRequests() throws Exception {
+        plc.setWord(McDevice.D, 100, 1234);
+        plc.setDword(McDevice.D, 102, Float.floatToIntBits(12.5f));
+        plc.setWord(McDevice.D, 104, -20);
+        plc.setWord(McDevice.D, 5000, 0xBEEF);
+        plc.setDword(McDevice.D, 8000, -100_000);
+        plc.setBit(McDevice.M, 200, true);
+        plc.setBit(McDevice.X, 0x1F, true);
+
+        PointSnapshot snapshot = new PointSnapshot(POINTS);
+        adapter.readDataPoints(POINTS, snapshot);
+
+        assertEquals(2, plc.getRequestCount());
+        assertEquals(1234, snapshot.getLong(0));
+        assertEquals(12.5, snapshot.getDouble(1), 1e-6);
+        assertEquals(-20, snapshot.getLong(2));
+        assertEquals(0xBEEF, snapshot.getLong(3));
+        assertEquals(-100_000, snapshot.getLong(4));
+        assertTrue(snapshot.getBoolean(5));
+        assertTrue(snapshot.getBoolean(6));
+    }
+
+    @Test
+    public void rejectsBitDeviceWithWordType() {
+        assertThrows(IllegalArgumentException.class, () -> McAddress.of(point("错误", "M10", "INT"), 0));
+        assertThrows(IllegalArgumentException.class, () -> McAddress.of(point("错误", "Q10", "INT"), 0));
+    }
+}
@@ -0,0 +1,214 @@
+package io.github.iweidujiang.industry.plc.adapter.modbus;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JVM 内的 Modbus TCP 从站：应答读寄存器（03/04）、写单个寄存器（06）、写多个寄存器（16）
+ * <p>
+ * 可选三种异常行为：
+ * <ul>
+ *     <li>乱序：同一批到达的请求按相反顺序应答，检验按事务号匹配</li>
+ *     <li>扣留：响应暂不发出，{@link #releaseHeld()} 时一次性发出，模拟超时后迟到的响应</li>
+ *     <li>短响应：读响应少带一个寄存器，长度字段与字节数自洽，检验按请求数量校验字节数</li>
+ * </ul>
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class FakeModbusTcpSlave implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final short[] registers = new short[0x10000];
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<byte[]> lastWriteRequests = new ArrayList<>();
+    private final List<byte[]> held = new ArrayList<>();
+    private volatile boolean reorder;
+    private volatile boolean holding;
+    private volatile boolean shortReplies;
+    private volatile int maxBurst;
+    private OutputStream out;
+
+    public FakeModbusTcpSlave() throws IOException {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "fake-modbus-tcp-slave");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public synchronized void setRegister(int address, int value) {
+        registers[address] = (short) value;
+    }
+
+    public synchronized int getRegister(int address) {
+        return registers[address] & 0xFFFF;
+    }
+
+    public void setReorder(boolean reorder) {
+        this.reorder = reorder;
+    }
+
+    public void setHolding(boolean holding) {
+        this.holding = holding;
+    }
+
+    public void setShortReplies(boolean shortReplies) {
+        this.shortReplies = shortReplies;
+    }
+
+    /**
+     * 已收到的请求数
+     */
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * 一批连续到达（未等应答即发出）的最多请求数，即客户端实际的流水深度
+     */
+    public int getMaxBurst() {
+        return maxBurst;
+    }
+
+    /**
+     * 收到的写请求原始帧
+     */
+    public synchronized List<byte[]> getWriteRequests() {
+        return new ArrayList<>(lastWriteRequests);
+    }
+
+    /**
+     * 发出所有被扣留的响应
+     */
+    public synchronized void releaseHeld() throws IOException {
+        for (byte[] response : held) {
+            out.write(response);
+        }
+        out.flush();
+        held.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                serve(socket);
+            } catch (IOException e) {
+                // 连接断开后等待下一个连接
+            }
+        }
+    }
+
+    private void serve(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        synchronized (this) {
+            out = socket.getOutputStream();
+        }
+        List<byte[]> burst = new ArrayList<>();
+        while (true) {
+            byte[] header = new byte[7];
+            in.readFully(header);
+            int length = ((header[4] & 0xFF) << 8) | (header[5] & 0xFF);
+            byte[] frame = new byte[6 + length];
+            System.arraycopy(header, 0, frame, 0, 7);
+            in.readFully(frame, 7, length - 1);
+            requests.incrementAndGet();
+            burst.add(respond(frame));
+
+            if (in.available() == 0 && reorder) {
+                sleep(20); // 等同一批的其余请求
+            }
+            if (in.available() == 0) {
+                maxBurst = Math.max(maxBurst, burst.size());
+                synchronized (this) {
+                    for (int i = 0; i < burst.size(); i++) {
+                        byte[] response = burst.get(reorder ? burst.size() - 1 - i : i);
+                        if (holding) {
+                            held.add(response);
+                        } else {
+                            out.write(response);
+                        }
+                    }
+                    out.flush();
+                }
+                burst.clear();
+            }
+        }
+    }
+
+    private synchronized byte[] respond(byte[] request) {
+        int fc = request[7] & 0xFF;
+        int address = ((request[8] & 0xFF) << 8) | (request[9] & 0xFF);
+        int quantity = ((request[10] & 0xFF) << 8) | (request[11] & 0xFF);
+        switch (fc) {
+            case 0x03, 0x04 -> {
+                if (shortReplies) {
+                    quantity--;
+                }
+                byte[] response = new byte[9 + quantity * 2];
+                System.arraycopy(request, 0, response, 0, 8);
+                writeLength(response, 3 + quantity * 2);
+                response[8] = (byte) (quantity * 2);
+                for (int i = 0; i < quantity; i++) {
+                    response[9 + 2 * i] = (byte) (registers[address + i] >> 8);
+                    response[10 + 2 * i] = (byte) registers[address + i];
+                }
+                return response;
+            }
+            case 0x06 -> {
+                lastWriteRequests.add(request.clone());
+                registers[address] = (short) quantity;
+                return request.clone();
+            }
+            case 0x10 -> {
+                lastWriteRequests.add(request.clone());
+                for (int i = 0; i < quantity; i++) {
+                    registers[address + i] = (short) (((request[13 + 2 * i] & 0xFF) << 8) | (request[14 + 2 * i] & 0xFF));
+                }
+                byte[] response = new byte[12];
+                System.arraycopy(request, 0, response, 0, 12);
+                writeLength(response, 6);
+                return response;
+            }
+            default -> {
+                byte[] response = new byte[9];
+                System.arraycopy(request, 0, response, 0, 8);
+                writeLength(response, 3);
+                response[7] = (byte) (fc | 0x80);
+                response[8] = 0x01;
+                return response;
+            }
+        }
+    }
+
+    private static void writeLength(byte[] frame, int length) {
+        frame[4] = (byte) (length >> 8);
+        frame[5] = (byte) length;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.iweidujiang.industry.plc.adapter.modbus;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Modbus 读计划测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusReadPlannerTest {
+
+    @Test
+    public void mergesNearbyRegistersAndSplitsByFunctionCode() {
+        List<DataPoint> points = List.of(
+                point("a", "100", "UINT16"),
+                point("b", "102", "REAL"),     // 102~103
+                point("c", "110", "UINT16"),   // 空洞 6，合并
+                point("d", "200", "UINT16"),   // 空洞过大，新块
+                point("e", "IR5", "UINT16"));  // 输入寄存器，单独成块
+
+        List<ModbusReadBlock> blocks = new ModbusReadPlanner(10, 125).plan(points);
+
+        assertEquals(3, blocks.size());
+        assertEquals(new ModbusReadBlock(3, 100, 11, blocks.get(0).points()), blocks.get(0));
+        assertEquals(3, blocks.get(0).points().size());
+        assertEquals(200, blocks.get(1).startAddress());
+        assertEquals(4, blocks.get(2).functionCode());
+    }
+
+    @Test
+    public void respectsMaxRegistersPerRead() {
+        List<DataPoint> points = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            points.add(point("p" + i, String.valueOf(i), "UINT16"));
+        }
+
+        List<ModbusReadBlock> blocks = new ModbusReadPlanner(0, 125).plan(points);
+
+        assertEquals(3, blocks.size());
+        assertEquals(125, blocks.get(0).quantity());
+        assertEquals(125, blocks.get(1).quantity());
+        assertEquals(50, blocks.get(2).quantity());
+    }
+}
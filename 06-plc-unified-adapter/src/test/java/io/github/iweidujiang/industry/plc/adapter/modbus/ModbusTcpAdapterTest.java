@@ -0,0 +1,161 @@
+package io.github.iweidujiang.industry.plc.adapter.modbus;
+
+import io.github.iweidujiang.industry.plc.adapter.ModbusTcpAdapter;
+import io.github.iweidujiang.industry.plc.exception.PlcException;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Modbus TCP 流水线读与块写测试（使用 JVM 内的模拟从站）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusTcpAdapterTest {
+
+    private static final int BLOCKS = 6;
+    private static final int WINDOW = 4;
+
+    private FakeModbusTcpSlave slave;
+    private ModbusTcpAdapter adapter;
+    private List<DataPoint> points;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        slave = new FakeModbusTcpSlave();
+        // 不允许空洞合并：每 10 个寄存器一个点，6 个点即 6 个块
+        adapter = new ModbusTcpAdapter("127.0.0.1", slave.getPort(), 1, 0, 125, WINDOW);
+        adapter.connect();
+        points = new ArrayList<>();
+        for (int i = 0; i < BLOCKS; i++) {
+            points.add(point("p" + i, String.valueOf(i * 10), "UINT16"));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        adapter.disconnect();
+        slave.close();
+    }
+
+    private void setValues(int base) {
+        for (int i = 0; i < BLOCKS; i++) {
+            slave.setRegister(i * 10, base + i);
+        }
+    }
+
+    private void assertValues(PointSnapshot snapshot, int base) {
+        for (int i = 0; i < BLOCKS; i++) {
+            assertEquals(base + i, snapshot.getLong(i), "p" + i);
+        }
+    }
+
+    @Test
+    public void pipelinedResponsesAreMatchedByTransactionId() throws Exception {
+        setValues(100);
+        slave.setReorder(true);
+
+        PointSnapshot snapshot = new PointSnapshot(points);
+        adapter.readDataPoints(points, snapshot);
+
+        assertValues(snapshot, 100);
+        assertEquals(BLOCKS, slave.getRequestCount());
+        // 请求确实是流水发出的，应答是倒序到达的
+        assertTrue(slave.getMaxBurst() > 1, "max burst " + slave.getMaxBurst());
+        assertTrue(slave.getMaxBurst() <= WINDOW, "max burst " + slave.getMaxBurst());
+    }
+
+    @Test
+    public void lateResponsesFromTimedOutCycleAreDiscarded() throws Exception {
+        setValues(100);
+        slave.setHolding(true);
+        PointSnapshot snapshot = new PointSnapshot(points);
+        assertThrows(PlcException.class, () -> adapter.readDataPoints(points, snapshot));
+        // 超时前只发出一个窗口的请求
+        assertEquals(WINDOW, slave.getRequestCount());
+
+        // 上个周期的响应（旧值）在本周期的响应之前到达
+        setValues(200);
+        slave.releaseHeld();
+        slave.setHolding(false);
+        slave.setReorder(true);
+
+        PointSnapshot next = new PointSnapshot(points);
+        adapter.readDataPoints(points, next);
+        assertValues(next, 200);
+        // 超时周期未发出的请求没有留到本周期
+        assertEquals(WINDOW + BLOCKS, slave.getRequestCount());
+    }
+
+    @Test
+    public void shortByteCountIsRejected() throws Exception {
+        setValues(100);
+        slave.setShortReplies(true);
+        PointSnapshot snapshot = new PointSnapshot(points);
+        PlcException e = assertThrows(PlcException.class, () -> adapter.readDataPoints(points, snapshot));
+        assertTrue(e.getMessage().contains("字节数"), e.getMessage());
+
+        // 从站恢复正常后，下个周期照常读取
+        slave.setShortReplies(false);
+        PointSnapshot next = new PointSnapshot(points);
+        adapter.readDataPoints(points, next);
+        assertValues(next, 100);
+    }
+
+    @Test
+    public void contiguousPointsAreWrittenWithOneFc16Request() throws Exception {
+        List<DataPoint> recipe = List.of(
+                point("设定值", "100", "INT16"),
+                point("速度", "101", "REAL"),       // 101~102，与设定值相接
+                point("模式", "200", "UINT16"));    // 单个寄存器，用 FC06
+        PointSnapshot values = new PointSnapshot(recipe);
+        values.setLong(0, -2);
+        values.setDouble(1, 1.5);
+        values.setLong(2, 7);
+
+        adapter.writeDataPoints(recipe, values);
+
+        List<byte[]> requests = slave.getWriteRequests();
+        assertEquals(2, requests.size());
+        byte[] fc16 = requests.get(0);
+        assertEquals(1, fc16[6]);             // 单元标识
+        assertEquals(0x10, fc16[7]);
+        assertEquals(100, ((fc16[8] & 0xFF) << 8) | (fc16[9] & 0xFF));
+        assertEquals(3, ((fc16[10] & 0xFF) << 8) | (fc16[11] & 0xFF));
+        assertEquals(6, fc16[12]);
+        assertArrayEquals(new byte[]{(byte) 0xFF, (byte) 0xFE, 0x3F, (byte) 0xC0, 0, 0},
+                Arrays.copyOfRange(fc16, 13, 19));
+        // MBAP 长度 = 单元标识 1 + 功能码 1 + 地址 2 + 数量 2 + 字节数 1 + 数据 6
+        assertEquals(13, ((fc16[4] & 0xFF) << 8) | (fc16[5] & 0xFF));
+        assertEquals(6 + 13, fc16.length);
+
+        byte[] fc06 = requests.get(1);
+        assertEquals(0x06, fc06[7]);
+        assertEquals(200, ((fc06[8] & 0xFF) << 8) | (fc06[9] & 0xFF));
+
+        assertEquals(0xFFFE, slave.getRegister(100));
+        assertEquals(0x3FC0, slave.getRegister(101));
+        assertEquals(0, slave.getRegister(102));
+        assertEquals(7, slave.getRegister(200));
+
+        // 写后读回：连接上的事务号与读流水线不冲突
+        PointSnapshot readBack = new PointSnapshot(recipe);
+        adapter.readDataPoints(recipe, readBack);
+        assertEquals(-2, readBack.getLong(0));
+        assertEquals(1.5, readBack.getDouble(1));
+        assertEquals(7, readBack.getLong(2));
+    }
+}
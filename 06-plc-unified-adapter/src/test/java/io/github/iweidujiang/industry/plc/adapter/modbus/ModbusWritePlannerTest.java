@@ -0,0 +1,69 @@
+package io.github.iweidujiang.industry.plc.adapter.modbus;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Modbus 写计划测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusWritePlannerTest {
+
+    @Test
+    public void recipeOfContiguousRegistersIsOneRequest() {
+        List<DataPoint> points = new ArrayList<>();
+        for (int i = 49; i >= 0; i--) {
+            points.add(point("r" + i, String.valueOf(1000 + i), "UINT16"));
+        }
+
+        List<ModbusWriteBlock> blocks = ModbusWritePlanner.plan(points);
+
+        assertEquals(1, blocks.size());
+        assertEquals(1000, blocks.get(0).startAddress());
+        assertEquals(50, blocks.get(0).quantity());
+    }
+
+    @Test
+    public void splitsOnGapsAndEncodesBigEndian() {
+        List<DataPoint> points = List.of(
+                point("a", "10", "INT16"),
+                point("b", "11", "REAL"),      // 11~12，与 a 相接
+                point("c", "14", "UINT16"));   // 空洞 1，不能跨越
+
+        List<ModbusWriteBlock> blocks = ModbusWritePlanner.plan(points);
+        assertEquals(2, blocks.size());
+        assertEquals(3, blocks.get(0).quantity());
+        assertEquals(14, blocks.get(1).startAddress());
+
+        PointSnapshot values = new PointSnapshot(points);
+        values.setLong(0, -2);
+        values.setDouble(1, 1.5);
+        byte[] data = new byte[6];
+        for (ModbusRegisterPoint register : blocks.get(0).points()) {
+            register.encodeInto(data, 2 * (register.address() - 10), values);
+        }
+        assertArrayEquals(new byte[]{(byte) 0xFF, (byte) 0xFE, 0x3F, (byte) 0xC0, 0, 0}, data);
+    }
+
+    @Test
+    public void rejectsOverlapsAndInputRegisters() {
+        assertThrows(IllegalArgumentException.class, () -> ModbusWritePlanner.plan(List.of(
+                point("a", "10", "REAL"), point("b", "11", "UINT16"))));
+        assertThrows(IllegalArgumentException.class, () -> ModbusWritePlanner.plan(List.of(
+                point("a", "IR10", "UINT16"))));
+    }
+}
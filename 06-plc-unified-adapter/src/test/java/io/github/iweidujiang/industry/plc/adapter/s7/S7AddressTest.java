@@ -0,0 +1,75 @@
+package io.github.iweidujiang.industry.plc.adapter.s7;
+
+import com.github.s7connector.api.DaveArea;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.model.PointType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * S7 地址解析测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class S7AddressTest {
+
+    private static S7Address parse(String address) {
+        return S7Address.of(point("p", address, null), 0);
+    }
+
+    @Test
+    public void parsesDataBlockAddresses() {
+        assertEquals(new S7Address("p", 0, DaveArea.DB, 1, 20, 0, 2, false, PointType.INT16), parse("DB1.DBW20"));
+        assertEquals(new S7Address("p", 0, DaveArea.DB, 12, 24, 0, 4, false, PointType.FLOAT32), parse(" db12.dbd24 "));
+        assertEquals(new S7Address("p", 0, DaveArea.DB, 3, 7, 0, 1, false, PointType.BYTE), parse("DB3.B7"));
+    }
+
+    @Test
+    public void parsesBitAddresses() {
+        assertEquals(new S7Address("p", 0, DaveArea.FLAGS, 0, 10, 3, 1, true, PointType.BOOL), parse("M10.3"));
+        // I 是输入过程映像区，不是背景数据块（DI）
+        assertEquals(new S7Address("p", 0, DaveArea.INPUTS, 0, 1, 0, 1, true, PointType.BOOL), parse("I1.0"));
+        assertEquals(new S7Address("p", 0, DaveArea.OUTPUTS, 0, 4, 7, 1, true, PointType.BOOL), parse("Q4.7"));
+    }
+
+    @Test
+    public void rejectsMalformedAddresses() {
+        for (String address : new String[]{"", "DB1", "DBX.DBW0", "DB1.DBX0", "DB1.DBW", "M10", "M10.8", "X1.0", "I1.a"}) {
+            assertThrows(IllegalArgumentException.class, () -> parse(address), address);
+        }
+    }
+
+    @Test
+    public void rejectsTypeThatDoesNotFitAddress() {
+        assertThrows(IllegalArgumentException.class, () -> S7Address.of(point("p", "DB1.DBW20", "REAL"), 0));
+        assertThrows(IllegalArgumentException.class, () -> S7Address.of(point("p", "M1.0", "INT"), 0));
+    }
+
+    @Test
+    public void decodesBigEndianIntoSnapshot() {
+        List<DataPoint> points = List.of(
+                point("温度", "DB1.DBD20", "REAL"),
+                point("次数", "DB1.DBD24", "DINT"),
+                point("状态", "DB1.DBW28", "UINT16"));
+        PointSnapshot snapshot = new PointSnapshot(points);
+        byte[] block = {0x42, (byte) 0xC8, 0, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFE, (byte) 0x80, 0x01};
+
+        for (int i = 0; i < points.size(); i++) {
+            S7Address.of(points.get(i), i).decodeInto(block, 20, snapshot);
+        }
+
+        assertEquals(100.0, snapshot.getDouble(0));
+        assertEquals(-2, snapshot.getLong(1));
+        assertEquals(0x8001, snapshot.getLong(2));
+        assertEquals(100.0f, snapshot.getValue(snapshot.indexOf("温度")));
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.iweidujiang.industry.plc.adapter.s7;
+
+import com.github.s7connector.api.DaveArea;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * S7 读计划合并测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class S7ReadPlannerTest {
+
+    @Test
+    public void mergesAdjacentRangesOfSameDataBlock() {
+        S7ReadPlan plan = new S7ReadPlanner(S7ReadPlanner.DEFAULT_MAX_GAP, S7ReadPlanner.DEFAULT_MAX_BYTES).plan(List.of(
+                point("循环次数", "DB1.DBD24"),
+                point("料筒温度", "DB1.DBW20"),
+                point("报警字", "DB2.DBW0"),
+                point("急停", "M10.3"),
+                point("运行", "M11.0")
+        ));
+
+        assertEquals(3, plan.blocks().size());
+        S7ReadBlock db1 = plan.blocks().stream().filter(b -> b.area() == DaveArea.DB && b.dbNumber() == 1)
+                .findFirst().orElseThrow();
+        assertEquals(20, db1.startByte());
+        assertEquals(8, db1.length());
+        assertEquals(2, db1.points().size());
+        S7ReadBlock flags = plan.blocks().stream().filter(b -> b.area() == DaveArea.FLAGS)
+                .findFirst().orElseThrow();
+        assertEquals(10, flags.startByte());
+        assertEquals(2, flags.length());
+    }
+
+    @Test
+    public void splitsOnGapAndSizeLimit() {
+        S7ReadPlanner planner = new S7ReadPlanner(4, 16);
+
+        assertEquals(2, planner.plan(List.of(point("a", "DB1.DBW0"), point("b", "DB1.DBW10"))).blocks().size());
+        assertEquals(2, planner.plan(List.of(point("a", "DB1.DBD0"), point("b", "DB1.DBD4"),
+                point("c", "DB1.DBD8"), point("d", "DB1.DBD12"), point("e", "DB1.DBD16"))).blocks().size());
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.iweidujiang.industry.plc.adapter.s7;
+
+import com.github.s7connector.api.DaveArea;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * S7 写计划合并测试：只合并首尾相接的点位，布尔量按字节分组
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class S7WritePlannerTest {
+
+    @Test
+    public void mergesOnlyContiguousRanges() {
+        List<S7WriteBlock> blocks = S7WritePlanner.plan(List.of(
+                point("速度", "DB1.DBD4"),
+                point("温度", "DB1.DBW0"),
+                point("压力", "DB1.DBW2"),
+                point("配方号", "DB1.DBW10"),   // 与前面相隔 2 字节，不能跨越空洞
+                point("报警字", "DB2.DBW8")), 200);
+
+        assertEquals(3, blocks.size());
+        S7WriteBlock recipe = blocks.get(0);
+        assertEquals(DaveArea.DB, recipe.area());
+        assertEquals(1, recipe.dbNumber());
+        assertEquals(0, recipe.startByte());
+        assertEquals(8, recipe.length());
+        assertEquals(List.of("温度", "压力", "速度"), recipe.points().stream().map(S7Address::name).toList());
+        // 点位索引保持为其在原列表中的位置
+        assertEquals(List.of(1, 2, 0), recipe.points().stream().map(S7Address::index).toList());
+
+        assertEquals(10, blocks.get(1).startByte());
+        assertEquals(2, blocks.get(2).dbNumber());
+    }
+
+    @Test
+    public void splitsAtSizeLimit() {
+        List<S7WriteBlock> blocks = S7WritePlanner.plan(List.of(
+                point("a", "DB1.DBD0"), point("b", "DB1.DBD4"), point("c", "DB1.DBD8")), 8);
+
+        assertEquals(2, blocks.size());
+        assertEquals(8, blocks.get(0).length());
+        assertEquals(8, blocks.get(1).startByte());
+        assertEquals(4, blocks.get(1).length());
+    }
+
+    @Test
+    public void groupsBitsByByte() {
+        List<S7WriteBlock> blocks = S7WritePlanner.plan(List.of(
+                point("急停", "M10.3"),
+                point("运行", "M10.0"),
+                point("故障复位", "M11.1")), 200);
+
+        assertEquals(2, blocks.size());
+        S7WriteBlock first = blocks.get(0);
+        assertTrue(first.bits());
+        assertEquals(10, first.startByte());
+        assertEquals(1, first.length());
+        assertEquals(List.of("运行", "急停"), first.points().stream().map(S7Address::name).toList());
+        assertEquals(11, blocks.get(1).startByte());
+    }
+
+    @Test
+    public void rejectsOverlappingAddresses() {
+        assertThrows(IllegalArgumentException.class, () -> S7WritePlanner.plan(List.of(
+                point("a", "DB1.DBD0"), point("b", "DB1.DBW2")), 200));
+        assertThrows(IllegalArgumentException.class, () -> S7WritePlanner.plan(List.of(
+                point("a", "M10.3"), point("b", "M10.3")), 200));
+        assertThrows(IllegalArgumentException.class, () -> S7WritePlanner.plan(List.of(
+                point("a", "DB1.XYZ")), 200));
+    }
+}
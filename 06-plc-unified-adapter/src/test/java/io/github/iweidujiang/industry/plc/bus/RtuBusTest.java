@@ -0,0 +1,172 @@
+package io.github.iweidujiang.industry.plc.bus;
+
+import io.github.iweidujiang.industry.modbus.rtu.SerialLineConfig;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSession;
+import io.github.iweidujiang.industry.plc.adapter.ModbusRtuAdapter;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusReadBlock;
+import io.github.iweidujiang.industry.plc.adapter.modbus.ModbusRegisterPoint;
+import io.github.iweidujiang.industry.plc.connection.PlcConnectionManager;
+import io.github.iweidujiang.industry.plc.exception.PlcException;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RS-485 总线调度测试：优先级、错过周期的统计、掉线从站的旧值
+ * <p>
+ * 从站读取由内存中的假适配器完成，不打开串口。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class RtuBusTest {
+
+    /** 每次块读执行的记录：从站名 */
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+    /** 从站名 → 读取耗时（毫秒） */
+    private final Map<String, Long> readDelays = new ConcurrentHashMap<>();
+    /** 处于离线状态的从站 */
+    private final Map<String, Boolean> offline = new ConcurrentHashMap<>();
+
+    private final SerialSession session = new SerialSession(SerialLineConfig.of("FAKE", 9600));
+    private final RtuBus bus = new RtuBus(session) {
+        @Override
+        ModbusRtuAdapter createSlaveAdapter(DeviceConfig config) {
+            return new FakeSlave(session, config.getName());
+        }
+    };
+
+    private class FakeSlave extends ModbusRtuAdapter {
+        private final String name;
+
+        FakeSlave(SerialSession session, String name) {
+            super(session, 1);
+            this.name = name;
+        }
+
+        @Override
+        public void readBlock(ModbusReadBlock block, PointSnapshot snapshot) throws PlcException {
+            executed.add(name);
+            sleep(readDelays.getOrDefault(name, 0L));
+            if (offline.getOrDefault(name, false)) {
+                throw new PlcException("从站 [" + name + "] 无响应");
+            }
+            synchronized (snapshot) {
+                for (ModbusRegisterPoint point : block.points()) {
+                    snapshot.setLong(point.index(), point.address());
+                }
+            }
+        }
+    }
+
+    private static DeviceConfig device(String name, int scanRate, int priority) {
+        DataPoint point = point(name + "-value", "100", "UINT16");
+        point.setPriority(priority);
+        DeviceConfig config = new DeviceConfig();
+        config.setName(name);
+        config.setScanRate(scanRate);
+        config.setPoints(List.of(point));
+        return config;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bus.stop();
+    }
+
+    @Test
+    public void dueTasksRunByPriority() throws Exception {
+        // 低优先级先挂载、先到期，但同时就绪时高优先级先执行
+        bus.attach(device("low", 60_000, 0));
+        bus.attach(device("high", 60_000, 5));
+        bus.start();
+        long deadline = System.currentTimeMillis() + 2000;
+        while (executed.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(List.of("high", "low"), executed);
+    }
+
+    @Test
+    public void overrunScansAreSkippedAndCounted() throws Exception {
+        // 每次读取 40 ms，扫描周期 10 ms：总线跟不上，错过的周期跳过而不是补扫
+        readDelays.put("slow", 40L);
+        bus.attach(device("slow", 10, 0));
+        long start = System.nanoTime();
+        bus.start();
+        Thread.sleep(400);
+        bus.stop();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        BusStats stats = bus.getStats();
+        assertTrue(stats.missedScans() > 0, "missed " + stats.missedScans());
+        assertTrue(stats.transactions() <= elapsedMs / 40 + 1,
+                "transactions " + stats.transactions() + " in " + elapsedMs + " ms");
+        assertEquals(0, stats.errors());
+    }
+
+    @Test
+    public void offlineSlaveDoesNotServeOldValues() throws Exception {
+        DeviceConfig config = device("meter", 20, 0);
+        bus.attach(config);
+        bus.start();
+        PointSnapshot snapshot = new PointSnapshot(config.getPoints());
+        waitForSuccess(config, snapshot);
+        assertEquals(100, snapshot.getLong(0));
+
+        // 掉线：下一次扫描失败后立即报错，而不是继续返回上次的值
+        offline.put("meter", true);
+        int before = executed.size();
+        while (executed.size() < before + 2) {
+            Thread.sleep(5);
+        }
+        PlcException e = assertThrows(PlcException.class, () -> bus.copyLatestValues("meter", snapshot));
+        assertTrue(e.getMessage().contains("无响应"), e.getMessage());
+
+        offline.put("meter", false);
+        waitForSuccess(config, snapshot);
+
+        // 调度线程停止后，超过 3 个扫描周期视为数据过期
+        bus.stop();
+        Thread.sleep(20L * PlcConnectionManager.STALE_SCAN_PERIODS + 50);
+        e = assertThrows(PlcException.class, () -> bus.copyLatestValues("meter", snapshot));
+        assertTrue(e.getMessage().contains("没有成功采集"), e.getMessage());
+    }
+
+    private void waitForSuccess(DeviceConfig config, PointSnapshot snapshot) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                bus.copyLatestValues(config.getName(), snapshot);
+                if (snapshot.isValid(0)) {
+                    return;
+                }
+            } catch (PlcException ignored) {
+                // 还未恢复
+            }
+            Thread.sleep(5);
+        }
+        fail("从站 [" + config.getName() + "] 未采集到数据");
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.iweidujiang.industry.plc.config;
+
+import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
+import io.github.iweidujiang.industry.plc.connection.PlcConnectionManager;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.report.PointReportListener;
+import io.github.iweidujiang.industry.plc.service.PlcDataCollector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 配置文件热加载测试：修改文件后新增、变更、删除的设备自动生效，非法配置不影响当前配置
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class PlcConfigWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    private PlcDataCollector collector;
+    private PlcConfigWatcher watcher;
+
+    private static String device(String name, String host) {
+        return """
+                  - name: "%s"
+                    protocol: "fake"
+                    host: "%s"
+                    scanRate: 60000
+                    points:
+                      - name: "value"
+                        address: "0"
+                        dataType: "UINT16"
+                """.formatted(name, host);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (watcher != null) {
+            watcher.stop();
+        }
+        if (collector != null) {
+            collector.shutdown();
+        }
+    }
+
+    @Test
+    public void reloadsDevicesWhenFileChanges() throws Exception {
+        Path file = dir.resolve("plc-config.yml");
+        Files.writeString(file, "devices:\n" + device("A", "10.0.0.1") + device("B", "10.0.0.2"));
+        PlcConnectionManager manager = new PlcConnectionManager(config -> new PlcProtocolAdapter() {
+            @Override
+            public Map<String, Object> readDataPoints(List<DataPoint> points) {
+                return Map.of();
+            }
+
+            @Override
+            public void connect() {
+            }
+
+            @Override
+            public void disconnect() {
+            }
+        });
+        collector = new PlcDataCollector(manager,
+                new DefaultListableBeanFactory().getBeanProvider(PointReportListener.class), file.toString());
+        watcher = new PlcConfigWatcher(file.toString(), collector);
+        watcher.start();
+        assertEquals(List.of("A@10.0.0.1", "B@10.0.0.2"), devices());
+
+        // 变更 A，删除 B，新增 C
+        Files.writeString(file, "devices:\n" + device("A", "10.0.0.9") + device("C", "10.0.0.3"));
+        waitForDevices(List.of("A@10.0.0.9", "C@10.0.0.3"));
+
+        // 解析失败的配置被忽略，当前配置保持不变
+        Files.writeString(file, "devices:\n  - name: [\n");
+        Thread.sleep(1500);
+        assertEquals(List.of("A@10.0.0.9", "C@10.0.0.3"), devices());
+    }
+
+    private List<String> devices() {
+        return collector.getDevices().stream().map(d -> d.getName() + "@" + d.getHost()).toList();
+    }
+
+    private void waitForDevices(List<String> expected) throws InterruptedException {
+        // WatchService 在部分平台上轮询间隔较长
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!devices().equals(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("配置未重新加载，当前设备: " + devices());
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.iweidujiang.industry.plc.connection;
+
+import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
+import io.github.iweidujiang.industry.plc.exception.PlcException;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 连接健康检查与重连退避测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class PlcConnectionManagerTest {
+
+    private static class FakeAdapter implements PlcProtocolAdapter {
+        final boolean failConnect;
+        boolean disconnected;
+
+        FakeAdapter(boolean failConnect) {
+            this.failConnect = failConnect;
+        }
+
+        @Override
+        public Map<String, Object> readDataPoints(List<DataPoint> points) {
+            return Map.of();
+        }
+
+        @Override
+        public void connect() throws PlcException {
+            if (failConnect) {
+                throw new PlcException("连接被拒绝");
+            }
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+        }
+    }
+
+    private static DeviceConfig device() {
+        DeviceConfig config = new DeviceConfig();
+        config.setName("测试设备");
+        config.setProtocol("fake");
+        return config;
+    }
+
+    @Test
+    public void backsOffAfterFailedConnect() {
+        List<FakeAdapter> created = new ArrayList<>();
+        PlcConnectionManager manager = new PlcConnectionManager(config -> {
+            FakeAdapter adapter = new FakeAdapter(true);
+            created.add(adapter);
+            return adapter;
+        });
+        DeviceConfig device = device();
+
+        assertThrows(RuntimeException.class, () -> manager.getConnection(device));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> manager.getConnection(device));
+
+        assertEquals(1, created.size()); // 退避期间不再发起连接
+        assertTrue(e.getMessage().contains("后重试"));
+        assertEquals(ConnectionState.Status.BACKOFF, manager.getStates().get(0).status());
+    }
+
+    @Test
+    public void keepsHealthyConnectionAndDisposesReplacedOne() throws Exception {
+        List<FakeAdapter> created = new ArrayList<>();
+        PlcConnectionManager manager = new PlcConnectionManager(config -> {
+            FakeAdapter adapter = new FakeAdapter(false);
+            created.add(adapter);
+            return adapter;
+        });
+        DeviceConfig device = device();
+
+        PlcProtocolAdapter first = manager.getConnection(device);
+        manager.markSuccess(device);
+        assertSame(first, manager.getConnection(device));
+
+        for (int i = 0; i < PlcConnectionManager.MAX_CONSECUTIVE_FAILURES; i++) {
+            manager.markFailure(device, "超时");
+        }
+        // 成功读取后退避已清零，可立即重连
+        PlcProtocolAdapter second = manager.getConnection(device);
+
+        assertNotSame(first, second);
+        assertTrue(created.get(0).disconnected);
+        assertFalse(created.get(1).disconnected);
+    }
+
+    @Test
+    public void reconnectsWhenDeviceConfigChanges() {
+        List<FakeAdapter> created = new ArrayList<>();
+        PlcConnectionManager manager = new PlcConnectionManager(config -> {
+            FakeAdapter adapter = new FakeAdapter(false);
+            created.add(adapter);
+            return adapter;
+        });
+        DeviceConfig device = device();
+        PlcProtocolAdapter first = manager.getConnection(device);
+
+        // 内容相同的新配置对象沿用原连接
+        assertSame(first, manager.getConnection(device()));
+
+        DeviceConfig changed = device();
+        changed.setHost("192.168.0.20");
+        assertNotSame(first, manager.getConnection(changed));
+        assertTrue(created.get(0).disconnected);
+
+        manager.remove(changed.getName());
+        assertTrue(created.get(1).disconnected);
+        assertTrue(manager.getStates().isEmpty());
+    }
+
+    @Test
+    public void staleTimeoutFollowsSlowestScanPeriod() {
+        DeviceConfig fast = device();
+        fast.setScanRate(1_000);
+        assertEquals(PlcConnectionManager.MIN_STALE_TIMEOUT_MS, PlcConnectionManager.staleTimeoutMs(fast));
+
+        // 设备默认 1 秒，但有点位每 2 分钟才扫描一次：不能按 60 秒判定失联
+        DataPoint slow = point("累计电量", "0");
+        slow.setScanRate(120_000);
+        fast.setPoints(List.of(slow));
+        assertEquals(120_000L * PlcConnectionManager.STALE_SCAN_PERIODS, PlcConnectionManager.staleTimeoutMs(fast));
+    }
+}
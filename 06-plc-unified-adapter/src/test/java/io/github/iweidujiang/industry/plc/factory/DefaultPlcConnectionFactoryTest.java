@@ -0,0 +1,49 @@
+package io.github.iweidujiang.industry.plc.factory;
+
+import io.github.iweidujiang.industry.plc.adapter.ModbusTcpAdapter;
+import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 协议适配器 SPI 发现测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class DefaultPlcConnectionFactoryTest {
+
+    private final DefaultPlcConnectionFactory factory = new DefaultPlcConnectionFactory(new StaticListableBeanFactory());
+
+    @Test
+    public void discoversBuiltInProviders() {
+        assertTrue(factory.getProtocols().containsAll(Set.of("modbus", "modbus-tcp", "siemens-s7")));
+
+        DeviceConfig config = new DeviceConfig();
+        config.setName("网关");
+        config.setProtocol("modbus-tcp");
+        config.setHost("127.0.0.1");
+        config.setMaxOutstandingRequests(8);
+        PlcProtocolAdapter adapter = factory.createAdapter(config);
+
+        assertInstanceOf(ModbusTcpAdapter.class, adapter);
+        assertTrue(adapter.getCapabilities().pipelining());
+        assertEquals(8, adapter.getCapabilities().maxOutstanding());
+    }
+
+    @Test
+    public void rejectsUnknownProtocol() {
+        DeviceConfig config = new DeviceConfig();
+        config.setProtocol("unknown");
+
+        assertThrows(IllegalArgumentException.class, () -> factory.createAdapter(config));
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.iweidujiang.industry.plc.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 快照写入测试：整数类型的点位不截断小数、NaN 与无穷大，浮点类型照常写入
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class PointSnapshotTest {
+
+    private final PointSnapshot snapshot = new PointSnapshot(List.of(
+            point("设定值", "0", "INT16"),
+            point("速度", "1", "REAL")));
+
+    @Test
+    public void integralValuesAreAcceptedForIntegerPoints() {
+        snapshot.setValue(0, 25.0);
+        assertEquals(25, snapshot.getRawBits(0));
+        snapshot.setValue(0, new BigDecimal("-3.00"));
+        assertEquals(-3, snapshot.getLong(0));
+        snapshot.setValue(0, BigInteger.valueOf(7));
+        assertEquals(7, snapshot.getLong(0));
+        snapshot.setDouble(0, 12);
+        assertEquals(12, snapshot.getLong(0));
+    }
+
+    @Test
+    public void nonIntegralValuesAreRejectedForIntegerPoints() {
+        assertThrows(IllegalArgumentException.class, () -> snapshot.setValue(0, 25.7));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.setValue(0, 0.5f));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.setValue(0, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.setDouble(0, Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.setValue(0, new BigDecimal("25.7")));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.setValue(0, BigInteger.TWO.pow(70)));
+        // 被拒绝的值不留在快照里
+        assertFalse(snapshot.isValid(0));
+    }
+
+    @Test
+    public void floatingPointsKeepFractions() {
+        snapshot.setValue(1, 25.7);
+        assertEquals(25.7, snapshot.getDouble(1), 1e-9);
+        snapshot.setValue(1, new BigDecimal("1.5"));
+        assertEquals(1.5, snapshot.getDouble(1));
+        snapshot.setValue(1, 3);
+        assertEquals(3.0, snapshot.getDouble(1));
+    }
+}
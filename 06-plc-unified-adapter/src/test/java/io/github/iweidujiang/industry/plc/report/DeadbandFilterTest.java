@@ -0,0 +1,95 @@
+package io.github.iweidujiang.industry.plc.report;
+
+import io.github.iweidujiang.industry.plc.TestPoints;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 死区与心跳测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class DeadbandFilterTest {
+
+    private static DataPoint point(String name, String dataType, Double deadband, Double deadbandPercent) {
+        DataPoint point = TestPoints.point(name, "0", dataType);
+        point.setDeadband(deadband);
+        point.setDeadbandPercent(deadbandPercent);
+        return point;
+    }
+
+    @Test
+    public void reportsOnlyChangesBeyondDeadband() {
+        List<DataPoint> points = List.of(
+                point("温度", "REAL", 0.5, null),
+                point("压力", "REAL", null, 10.0),
+                point("状态", "UINT16", null, null));
+        PointSnapshot snapshot = new PointSnapshot(points);
+        DeadbandFilter filter = new DeadbandFilter(points, 0);
+
+        snapshot.setDouble(0, 20.0);
+        snapshot.setDouble(1, 100.0);
+        snapshot.setLong(2, 1);
+        assertEquals(3, filter.apply(snapshot, 0)); // 首次全部上报
+
+        snapshot.setDouble(0, 20.4);
+        snapshot.setDouble(1, 109.0);
+        assertEquals(0, filter.apply(snapshot, 1000));
+
+        // 与上次上报值（20.0）比较，缓慢漂移累计超过死区后上报
+        snapshot.setDouble(0, 20.6);
+        snapshot.setDouble(1, 111.0);
+        snapshot.setLong(2, 2);
+        assertEquals(3, filter.apply(snapshot, 2000));
+        assertTrue(filter.isReported(0) && filter.isReported(1) && filter.isReported(2));
+    }
+
+    @Test
+    public void heartbeatResendsUnchangedValues() {
+        List<DataPoint> points = List.of(point("状态", "UINT16", null, null));
+        PointSnapshot snapshot = new PointSnapshot(points);
+        DeadbandFilter filter = new DeadbandFilter(points, 60_000);
+        snapshot.setLong(0, 1);
+
+        assertEquals(1, filter.apply(snapshot, 0));
+        assertEquals(0, filter.apply(snapshot, 59_999));
+        assertEquals(1, filter.apply(snapshot, 60_000));
+    }
+
+    @Test
+    public void nanTransitionsAreReported() {
+        List<DataPoint> points = List.of(point("流量", "REAL", 0.5, null));
+        PointSnapshot snapshot = new PointSnapshot(points);
+        DeadbandFilter filter = new DeadbandFilter(points, 0);
+
+        snapshot.setDouble(0, 10.0);
+        assertEquals(1, filter.apply(snapshot, 0));
+        snapshot.setDouble(0, Double.NaN);
+        assertEquals(1, filter.apply(snapshot, 1000)); // 数值 -> NaN
+        assertEquals(0, filter.apply(snapshot, 2000)); // 持续为 NaN 不重复上报
+        snapshot.setDouble(0, 10.0);
+        assertEquals(1, filter.apply(snapshot, 3000)); // NaN -> 数值，即使与 NaN 之前的值相同
+    }
+
+    @Test
+    public void resetReportsAllPointsAgain() {
+        List<DataPoint> points = List.of(point("状态", "UINT16", null, null));
+        PointSnapshot snapshot = new PointSnapshot(points);
+        DeadbandFilter filter = new DeadbandFilter(points, 0);
+        snapshot.setLong(0, 1);
+
+        assertEquals(1, filter.apply(snapshot, 0));
+        assertEquals(0, filter.apply(snapshot, 1000));
+        filter.reset();
+        assertEquals(1, filter.apply(snapshot, 2000));
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.iweidujiang.industry.plc.service;
+
+import io.github.iweidujiang.industry.plc.TestPoints;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 扫描等级划分与合并测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class DeviceScanTest {
+
+    private static DataPoint point(String name, String address, Integer scanRate) {
+        DataPoint point = TestPoints.point(name, address, "UINT16");
+        point.setScanRate(scanRate);
+        return point;
+    }
+
+    private static DeviceConfig device() {
+        DeviceConfig config = new DeviceConfig();
+        config.setName("测试设备");
+        config.setScanRate(1000);
+        config.setPoints(List.of(
+                point("电流", "0", 100),
+                point("液位", "1", null),
+                point("电压", "2", 100)));
+        return config;
+    }
+
+    @Test
+    public void groupsPointsByScanRate() {
+        DeviceScan scan = DeviceScan.of(device(), PlcDataCollector.DEFAULT_SCAN_RATE_MS);
+
+        assertEquals(2, scan.classes.length);
+        assertEquals(100, scan.classes[0].rateMs);
+        assertArrayEquals(new int[]{0, 2}, scan.classes[0].pointIndexes);
+        assertEquals(1000, scan.classes[1].rateMs);
+
+        DeviceScan.ScanGroup fast = scan.group(0b01);
+        assertEquals(List.of("电流", "电压"), fast.points().stream().map(DataPoint::getName).toList());
+        assertArrayEquals(new int[]{0, 2}, fast.indexes());
+        assertSame(fast, scan.group(0b01)); // 同一组合只创建一次
+
+        // 两个等级同时到期时合并为一次读取，直接写入设备快照
+        DeviceScan.ScanGroup all = scan.group(0b11);
+        assertSame(scan.config.getPoints(), all.points());
+        assertNull(all.buffer());
+    }
+
+    @Test
+    public void skipsMissedPeriodsAndStaysAligned() {
+        ScanClass scanClass = new ScanClass(100, new int[]{0});
+        long period = TimeUnit.MILLISECONDS.toNanos(100);
+        scanClass.nextDueNanos = 0;
+
+        // 晚了 3.5 个周期才执行：跳过 3 个周期，下次到期仍在周期边界上
+        scanClass.dispatched(period * 7 / 2);
+
+        assertEquals(period * 4, scanClass.nextDueNanos);
+        ScanClassStats stats = scanClass.getStats("测试设备");
+        assertEquals(3, stats.missedScans());
+        assertEquals(350.0, stats.maxJitterMs(), 1e-6);
+    }
+}
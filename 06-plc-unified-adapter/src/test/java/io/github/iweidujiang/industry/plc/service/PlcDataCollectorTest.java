@@ -0,0 +1,250 @@
+package io.github.iweidujiang.industry.plc.service;
+
+import io.github.iweidujiang.industry.plc.adapter.PlcProtocolAdapter;
+import io.github.iweidujiang.industry.plc.connection.ConnectionState;
+import io.github.iweidujiang.industry.plc.connection.PlcConnectionManager;
+import io.github.iweidujiang.industry.plc.exception.PlcException;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.DeviceConfig;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.report.PointReportListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 采集调度测试：配置热加载时新增、变更、删除设备，变更时对进行中读取的隔离，
+ * 单台设备超时不影响其它设备，读取恢复后的全量上报，以及写入值的校验
+ * <p>
+ * 设备由内存中的假适配器模拟，记录连接的建立、读取和断开顺序。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class PlcDataCollectorTest {
+
+    @TempDir
+    Path dir;
+
+    /** 按发生顺序记录：create / read / disconnect + 设备名@主机 */
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    /** 不为 null 时，读取阻塞到该闩锁打开 */
+    private volatile CountDownLatch readGate;
+    private final CountDownLatch readStarted = new CountDownLatch(1);
+    /** 为 true 时读取失败 */
+    private volatile boolean failReads;
+    private final AtomicInteger failedReads = new AtomicInteger();
+    /** 该设备的读取一直挂起，直到被超时中断 */
+    private volatile String hungDevice;
+    private final AtomicInteger interruptedReads = new AtomicInteger();
+    /** 每次上报的点位数 */
+    private final List<Integer> reports = new CopyOnWriteArrayList<>();
+
+    private PlcConnectionManager manager;
+    private PlcDataCollector collector;
+
+    private class FakeAdapter implements PlcProtocolAdapter {
+        private final String id;
+
+        FakeAdapter(DeviceConfig config) {
+            this.id = config.getName() + "@" + config.getHost();
+            events.add("create " + id);
+        }
+
+        @Override
+        public Map<String, Object> readDataPoints(List<DataPoint> points) {
+            return Map.of();
+        }
+
+        @Override
+        public void readDataPoints(List<DataPoint> points, PointSnapshot snapshot) throws PlcException {
+            readStarted.countDown();
+            if (failReads) {
+                failedReads.incrementAndGet();
+                throw new PlcException("设备无响应");
+            }
+            if (hungDevice != null && id.startsWith(hungDevice + "@")) {
+                try {
+                    Thread.sleep(Long.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    interruptedReads.incrementAndGet();
+                    throw new PlcException("读取被中断");
+                }
+            }
+            CountDownLatch gate = readGate;
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    throw new PlcException("读取被中断");
+                }
+            }
+            synchronized (snapshot) {
+                for (int i = 0; i < points.size(); i++) {
+                    snapshot.setLong(i, 1);
+                }
+            }
+            events.add("read " + id);
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public void disconnect() {
+            events.add("disconnect " + id);
+        }
+    }
+
+    private static DeviceConfig device(String name, String host) {
+        DeviceConfig config = new DeviceConfig();
+        config.setName(name);
+        config.setProtocol("fake");
+        config.setHost(host);
+        config.setScanRate(20);
+        config.setPollTimeout(3000);
+        config.setPoints(List.of(point(name + "-value", "0", "UINT16")));
+        return config;
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Path file = Files.writeString(dir.resolve("plc-config.yml"), "devices: []\n");
+        manager = new PlcConnectionManager(FakeAdapter::new);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("listener",
+                (PointReportListener) (deviceName, timestamp, snapshot, changes) -> reports.add(changes.getReportedCount()));
+        collector = new PlcDataCollector(manager, beans.getBeanProvider(PointReportListener.class), file.toString());
+        collector.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (readGate != null) {
+            readGate.countDown();
+        }
+        collector.shutdown();
+    }
+
+    @Test
+    public void addsChangesAndRemovesDevices() throws Exception {
+        collector.applyConfig(List.of(device("A", "10.0.0.1"), device("B", "10.0.0.2")));
+        waitFor(() -> events.contains("read A@10.0.0.1") && events.contains("read B@10.0.0.2"));
+        PointSnapshot snapshotA = collector.getSnapshot("A");
+        PointSnapshot snapshotB = collector.getSnapshot("B");
+
+        // A 改了地址，B 不变，新增 C
+        collector.applyConfig(List.of(device("A", "10.0.0.9"), device("B", "10.0.0.2"), device("C", "10.0.0.3")));
+        assertTrue(events.contains("disconnect A@10.0.0.1"));
+        assertSame(snapshotB, collector.getSnapshot("B"));
+        assertNotSame(snapshotA, collector.getSnapshot("A"));
+        waitFor(() -> events.contains("read A@10.0.0.9") && events.contains("read C@10.0.0.3"));
+        assertFalse(events.contains("disconnect B@10.0.0.2"));
+        assertEquals(1, events.stream().filter("create B@10.0.0.2"::equals).count());
+
+        // 删除 B
+        collector.applyConfig(List.of(device("A", "10.0.0.9"), device("C", "10.0.0.3")));
+        assertTrue(events.contains("disconnect B@10.0.0.2"));
+        assertNull(collector.getSnapshot("B"));
+        assertEquals(List.of("A", "C"), collector.getDevices().stream().map(DeviceConfig::getName).toList());
+    }
+
+    @Test
+    public void changedDeviceWaitsForInFlightRead() throws Exception {
+        readGate = new CountDownLatch(1);
+        collector.applyConfig(List.of(device("A", "10.0.0.1")));
+        assertTrue(readStarted.await(2, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> reload = CompletableFuture.runAsync(
+                () -> collector.applyConfig(List.of(device("A", "10.0.0.9"))));
+        Thread.sleep(200);
+        // 旧读取仍在进行：不断开旧连接，也不按新配置连接
+        assertFalse(reload.isDone());
+        assertFalse(events.contains("disconnect A@10.0.0.1"));
+        assertFalse(events.contains("create A@10.0.0.9"));
+
+        readGate.countDown();
+        reload.get(2, TimeUnit.SECONDS);
+        waitFor(() -> events.contains("read A@10.0.0.9"));
+
+        List<String> expected = List.of("create A@10.0.0.1", "read A@10.0.0.1", "disconnect A@10.0.0.1",
+                "create A@10.0.0.9", "read A@10.0.0.9");
+        assertEquals(expected, events.subList(0, expected.size()));
+        // 旧配置的连接只建立过一次，没有被结束中的旧读取重建
+        assertEquals(1, events.stream().filter("create A@10.0.0.1"::equals).count());
+    }
+
+    @Test
+    public void hungDeviceTimesOutWithoutBlockingOthers() throws Exception {
+        hungDevice = "A";
+        DeviceConfig hung = device("A", "10.0.0.1");
+        hung.setPollTimeout(100);
+        collector.applyConfig(List.of(hung, device("B", "10.0.0.2")));
+
+        // A 的读取每次都挂起到超时（100 ms），期间 B 按 20 ms 周期照常采集
+        waitFor(() -> interruptedReads.get() >= 2);
+        long readsOfB = events.stream().filter("read B@10.0.0.2"::equals).count();
+        assertTrue(readsOfB >= 5, "B 只读取了 " + readsOfB + " 次");
+
+        ConnectionState state = manager.getStates().stream()
+                .filter(s -> s.device().equals("A")).findFirst().orElseThrow();
+        assertTrue(state.consecutiveFailures() > 0);
+        assertEquals("采集超时", state.lastError());
+    }
+
+    @Test
+    public void reportsAllPointsAgainAfterReadRecovers() throws Exception {
+        collector.applyConfig(List.of(device("A", "10.0.0.1")));
+        waitFor(() -> reports.size() == 1);
+        // 值不变：死区过滤后不再上报
+        Thread.sleep(100);
+        assertEquals(1, reports.size());
+
+        failReads = true;
+        waitFor(() -> failedReads.get() > 0);
+        failReads = false;
+        // 恢复后即使值没有变化也全量上报一次，之后回到按变化上报
+        waitFor(() -> reports.size() == 2);
+        Thread.sleep(100);
+        assertEquals(List.of(1, 1), reports);
+    }
+
+    @Test
+    public void writeRejectsFractionalValueForIntegerPoint() throws Exception {
+        collector.applyConfig(List.of(device("A", "10.0.0.1")));
+        // UINT16 点位：25.7 不截断为 25，在交给适配器之前就被拒绝
+        PlcException e = assertThrows(PlcException.class,
+                () -> collector.writeDataPoints("A", Map.of("A-value", 25.7)));
+        assertTrue(e.getMessage().contains("25.7"), e.getMessage());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("等待超时");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.iweidujiang.industry.plc.sink;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.report.DeadbandFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * sink 缓冲区测试：批量写出、慢 sink 丢弃而不阻塞采集
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SinkChannelTest {
+
+    private final List<DataPoint> points = List.of(point("温度", "0", "REAL"), point("压力", "0", "REAL"));
+    private final PointSnapshot snapshot = new PointSnapshot(points);
+    private final DeadbandFilter filter = new DeadbandFilter(points, 0);
+
+    private void publish(SinkChannel channel, int i) {
+        snapshot.setDouble(0, i);
+        snapshot.setDouble(1, i * 10);
+        filter.apply(snapshot, i);
+        channel.publish("设备", i, snapshot, filter);
+    }
+
+    @Test
+    public void deliversEventsInOrderInBatches() {
+        List<Double> received = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        SinkChannel channel = new SinkChannel(new PointSink() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public void write(SinkBatch batch) {
+                batchSizes.add(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    received.add(batch.get(i).getDouble(0));
+                }
+            }
+        }, 64, 8, 1000);
+
+        for (int i = 1; i <= 50; i++) {
+            publish(channel, i);
+        }
+        channel.close(5000);
+
+        assertEquals(50, received.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i + 1, received.get(i));
+        }
+        assertTrue(batchSizes.stream().allMatch(n -> n <= 8));
+        assertEquals(50, channel.getStats().written());
+    }
+
+    @Test
+    public void slowSinkDropsInsteadOfBlockingProducer() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SinkChannel channel = new SinkChannel(new PointSink() {
+            @Override
+            public String getName() {
+                return "slow";
+            }
+
+            @Override
+            public void write(SinkBatch batch) throws InterruptedException {
+                release.await();
+            }
+        }, 4, 1, 10);
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= 20; i++) {
+            publish(channel, i);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+        channel.close(5000);
+
+        SinkStats stats = channel.getStats();
+        assertEquals(4, stats.capacity());
+        assertEquals(20, stats.published() + stats.dropped());
+        assertTrue(stats.dropped() >= 15);
+        assertTrue(elapsedMs < 2000, "生产者被阻塞 " + elapsedMs + " ms");
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.iweidujiang.industry.plc.sink;
+
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import io.github.iweidujiang.industry.plc.report.DeadbandFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static io.github.iweidujiang.industry.plc.TestPoints.point;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分发管道测试：sink 丢弃事件后，下个周期重发，变化不会因死区而丢失
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SinkPipelineTest {
+
+    @Test
+    public void droppedChangeIsResentNextCycle() throws Exception {
+        List<DataPoint> points = List.of(point("温度", "0", "REAL"));
+        PointSnapshot snapshot = new PointSnapshot(points);
+        DeadbandFilter filter = new DeadbandFilter(points, 0);
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<Double> received = new CopyOnWriteArrayList<>();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("slow", new PointSink() {
+            @Override
+            public String getName() {
+                return "slow";
+            }
+
+            @Override
+            public void write(SinkBatch batch) throws InterruptedException {
+                release.await();
+                for (int i = 0; i < batch.size(); i++) {
+                    received.add(batch.get(i).getDouble(0));
+                }
+            }
+        });
+        // 容量 1、不等待：写出线程阻塞时第二个事件必然被丢弃
+        SinkPipeline pipeline = new SinkPipeline(beans.getBeanProvider(PointSink.class), 1, 1, 0);
+
+        cycle(pipeline, snapshot, filter, 1.0, 1);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (pipeline.getStats().get(0).published() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(cycle(pipeline, snapshot, filter, 2.0, 2));
+        assertEquals(1, pipeline.getStats().get(0).dropped());
+
+        release.countDown();
+        while (pipeline.getStats().get(0).written() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        // 值不再变化，但上个周期的变化被丢弃过，本周期仍然上报
+        assertTrue(cycle(pipeline, snapshot, filter, 2.0, 3));
+        assertFalse(cycle(pipeline, snapshot, filter, 2.0, 4));
+        pipeline.close();
+
+        assertEquals(List.of(1.0, 2.0), received);
+    }
+
+    /**
+     * 模拟一个采集周期：只有存在需要上报的点位时才通知管道
+     */
+    private static boolean cycle(SinkPipeline pipeline, PointSnapshot snapshot, DeadbandFilter filter,
+                                 double value, long now) {
+        snapshot.setDouble(0, value);
+        if (filter.apply(snapshot, now) == 0) {
+            return false;
+        }
+        pipeline.onReport("设备", now, snapshot, filter);
+        return true;
+    }
+}
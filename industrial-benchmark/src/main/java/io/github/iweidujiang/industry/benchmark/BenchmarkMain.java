@@ -0,0 +1,31 @@
+package io.github.iweidujiang.industry.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * 基准测试入口：参数原样交给 JMH，未指定 -prof 时默认附加 GC 分析器，
+ * 报告中的 gc.alloc.rate.norm（每次调用分配的字节数）用于发现编解码路径上新增的对象分配
+ * <p>
+ * 用法：{@code java -jar benchmarks.jar [JMH 参数，如 S7DecodeBenchmark]}
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] jmhArgs = args;
+        if (!Arrays.asList(args).contains("-prof")) {
+            jmhArgs = Arrays.copyOf(args, args.length + 2);
+            jmhArgs[args.length] = "-prof";
+            jmhArgs[args.length + 1] = "gc";
+        }
+        org.openjdk.jmh.Main.main(jmhArgs);
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.iweidujiang.industry.benchmark;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusCrc16;
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CRC16 查表法 vs 逐位循环，以及请求帧编码（复用缓冲区 vs 每次分配）
+ * <p>
+ * 帧长取 8（读请求）、64（中等响应）、256（RTU 最大帧）。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Crc16Benchmark {
+
+    @Param({"8", "64", "256"})
+    private int frameSize;
+
+    private byte[] frame;
+    private final byte[] requestBuffer = new byte[ModbusRtuCodec.MAX_FRAME_LENGTH];
+
+    @Setup
+    public void setup() {
+        frame = new byte[frameSize];
+        new Random(42).nextBytes(frame);
+    }
+
+    @Benchmark
+    public int crcTable() {
+        return ModbusCrc16.calculate(frame, 0, frameSize);
+    }
+
+    @Benchmark
+    public int crcBitwiseLoop() {
+        return LegacyModbusCodec.calculateCRC16(frame, 0, frameSize);
+    }
+
+    @Benchmark
+    public int encodeReadRequestIntoBuffer() {
+        return ModbusRtuCodec.encodeReadHoldingRegisters(requestBuffer, 0, 1, 100, 10);
+    }
+
+    @Benchmark
+    public byte[] encodeReadRequestAllocating() {
+        return LegacyModbusCodec.buildReadFrame(1, 100, 10);
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.iweidujiang.industry.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * 改造前的 Modbus 编码实现（逐位 CRC + 每次分配 ByteBuffer），仅作为基准对照
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+final class LegacyModbusCodec {
+
+    private LegacyModbusCodec() {
+    }
+
+    static int calculateCRC16(byte[] data, int offset, int length) {
+        int crc = 0xFFFF;
+        for (int i = offset; i < offset + length; i++) {
+            crc ^= (data[i] & 0xFF);
+            for (int j = 0; j < 8; j++) {
+                if ((crc & 1) == 1) {
+                    crc = (crc >> 1) ^ 0xA001;
+                } else {
+                    crc >>= 1;
+                }
+            }
+        }
+        return crc;
+    }
+
+    /**
+     * 03 模块原 ModbusRTUUtils.buildReadHoldingRegistersFrame：先建 PDU 数组，再 copyOf 出整帧
+     */
+    static byte[] buildReadHoldingRegistersFrame(int slaveId, int startAddress, int quantity) {
+        byte[] pdu = new byte[6];
+        pdu[0] = (byte) slaveId;
+        pdu[1] = 0x03;
+        pdu[2] = (byte) (startAddress >> 8);
+        pdu[3] = (byte) (startAddress & 0xFF);
+        pdu[4] = (byte) (quantity >> 8);
+        pdu[5] = (byte) (quantity & 0xFF);
+
+        int crc = calculateCRC16(pdu, 0, 6);
+        byte[] frame = Arrays.copyOf(pdu, 8);
+        frame[6] = (byte) (crc & 0xFF);
+        frame[7] = (byte) ((crc >> 8) & 0xFF);
+        return frame;
+    }
+
+    /**
+     * 03 模块原 ModbusRTUUtils.extractRegisterValue：只查功能码，不校验 CRC
+     */
+    static int extractRegisterValue(byte[] response) {
+        if (response.length < 7) {
+            throw new RuntimeException("响应长度不足");
+        }
+        if ((response[1] & 0xFF) != 0x03) {
+            if ((response[1] & 0x80) == 0x80) {
+                throw new RuntimeException("设备返回异常码: " + (response[2] & 0xFF));
+            }
+            throw new RuntimeException("非预期的功能码: " + (response[1] & 0xFF));
+        }
+        return ((response[3] & 0xFF) << 8) | (response[4] & 0xFF);
+    }
+
+    static byte[] buildReadFrame(int deviceId, int regAddress, int quantity) {
+        ByteBuffer buffer = ByteBuffer.allocate(6).order(ByteOrder.BIG_ENDIAN);
+        buffer.put((byte) deviceId)
+                .put((byte) 0x03)
+                .putShort((short) regAddress)
+                .putShort((short) quantity);
+
+        byte[] frame = buffer.array();
+        int crc = calculateCRC16(frame, 0, frame.length);
+        ByteBuffer fullFrame = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        fullFrame.put(frame).putShort((short) crc);
+        return fullFrame.array();
+    }
+}
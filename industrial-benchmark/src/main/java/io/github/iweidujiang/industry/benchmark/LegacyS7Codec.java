@@ -0,0 +1,109 @@
+package io.github.iweidujiang.industry.benchmark;
+
+import com.github.s7connector.api.DaveArea;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 改造前的 S7 地址解析（DataPoint.parseSiemensAddress，正则 + split）与取值（convertBytesToObject，装箱），
+ * 按原样保留（包括小端序解码），仅作为基准对照
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+final class LegacyS7Codec {
+
+    /** 原实现把解析结果写回 DataPoint 的字段，这里用一个可复用的对象代替 */
+    static final class ParsedAddress {
+        DaveArea daveArea;
+        int dbNumber;
+        int byteOffset;
+        int bitOffset;
+        int size;
+        boolean isBool;
+    }
+
+    private LegacyS7Codec() {
+    }
+
+    static void parseSiemensAddress(String address, ParsedAddress target) {
+        if (address == null || address.isEmpty()) {
+            throw new IllegalArgumentException("地址不能为空");
+        }
+
+        String addr = address.trim().toUpperCase();
+
+        if (addr.matches("[IMQ]\\d+\\.\\d+")) {
+            char areaChar = addr.charAt(0);
+            String[] parts = addr.split("\\.");
+            int byteOff = Integer.parseInt(parts[0].substring(1));
+            int bitOff = Integer.parseInt(parts[1]);
+
+            switch (areaChar) {
+                case 'I':
+                    target.daveArea = DaveArea.DI;
+                    break;
+                case 'Q':
+                    target.daveArea = DaveArea.OUTPUTS;
+                    break;
+                case 'M':
+                    target.daveArea = DaveArea.FLAGS;
+                    break;
+                default:
+                    throw new IllegalArgumentException("不支持的区域：" + areaChar);
+            }
+            target.dbNumber = 0;
+            target.byteOffset = byteOff;
+            target.bitOffset = bitOff;
+            target.size = 1;
+            target.isBool = true;
+            return;
+        }
+
+        if (addr.startsWith("DB")) {
+            target.daveArea = DaveArea.DB;
+            String[] parts = addr.split("\\.");
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("DB 地址格式错误：" + addr);
+            }
+            try {
+                target.dbNumber = Integer.parseInt(parts[0].substring(2));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("无效的 DB 编号：" + parts[0]);
+            }
+
+            String dataPart = parts[1];
+            if (dataPart.startsWith("DB")) {
+                dataPart = dataPart.substring(2);
+            }
+            if (dataPart.startsWith("B")) {
+                target.byteOffset = Integer.parseInt(dataPart.substring(1));
+                target.size = 1;
+            } else if (dataPart.startsWith("W")) {
+                target.byteOffset = Integer.parseInt(dataPart.substring(1));
+                target.size = 2;
+            } else if (dataPart.startsWith("D")) {
+                target.byteOffset = Integer.parseInt(dataPart.substring(1));
+                target.size = 4;
+            } else {
+                throw new IllegalArgumentException("不支持的数据标识：" + dataPart);
+            }
+        } else {
+            throw new IllegalArgumentException("不支持的地址格式：" + addr);
+        }
+    }
+
+    static Object convertBytesToObject(byte[] bytes, int size) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        return switch (size) {
+            case 1 -> bytes[0] & 0xFF;
+            case 2 -> (int) buffer.getShort();
+            case 4 -> buffer.getFloat();
+            default -> bytes;
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.iweidujiang.industry.benchmark;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusCrc16;
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RTU 请求组帧与响应解析：03 模块 ModbusRTUUtils 的原实现 vs 现实现
+ * <p>
+ * 现实现与 ModbusRTUUtils 一致：组帧为 new byte[8] + {@link ModbusRtuCodec#encodeReadHoldingRegisters}，
+ * 解析为 {@link ModbusRtuCodec#checkResponse}（含 CRC 校验）+ {@link ModbusRtuCodec#getRegister}。
+ * 原实现解析时不校验 CRC，两者的差值即 CRC 校验的代价。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RtuFrameBenchmark {
+
+    /** 读响应中的寄存器数量 */
+    @Param({"1", "60", "125"})
+    private int quantity;
+
+    private byte[] response;
+
+    @Setup
+    public void setup() {
+        response = new byte[ModbusRtuCodec.readResponseLength(quantity)];
+        response[0] = 1;
+        response[1] = (byte) ModbusRtuCodec.FC_READ_HOLDING_REGISTERS;
+        response[2] = (byte) (quantity * 2);
+        for (int i = 0; i < quantity * 2; i++) {
+            response[3 + i] = (byte) (i * 31);
+        }
+        ModbusCrc16.append(response, 0, response.length - 2);
+    }
+
+    @Benchmark
+    public byte[] buildReadHoldingRegistersFrameLegacy() {
+        return LegacyModbusCodec.buildReadHoldingRegistersFrame(1, 100, quantity);
+    }
+
+    @Benchmark
+    public byte[] buildReadHoldingRegistersFrame() {
+        byte[] frame = new byte[ModbusRtuCodec.FIXED_REQUEST_LENGTH];
+        ModbusRtuCodec.encodeReadHoldingRegisters(frame, 0, 1, 100, quantity);
+        return frame;
+    }
+
+    @Benchmark
+    public int extractRegisterValueLegacy() {
+        return LegacyModbusCodec.extractRegisterValue(response);
+    }
+
+    @Benchmark
+    public int extractRegisterValue() {
+        ModbusRtuCodec.checkResponse(response, 0, response.length, 1, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS);
+        return ModbusRtuCodec.getRegister(response, 0, 0);
+    }
+
+    /**
+     * 取出块读响应中的全部寄存器（块读合并后的常见用法）
+     */
+    @Benchmark
+    public long extractAllRegisters() {
+        ModbusRtuCodec.checkResponse(response, 0, response.length, 1, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS);
+        long sum = 0;
+        for (int i = 0; i < quantity; i++) {
+            sum += ModbusRtuCodec.getRegister(response, 0, i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.iweidujiang.industry.benchmark;
+
+import io.github.iweidujiang.industry.plc.adapter.s7.S7Address;
+import io.github.iweidujiang.industry.plc.model.DataPoint;
+import io.github.iweidujiang.industry.plc.model.PointSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * S7 地址解析与取值：改造前每个周期对每个点位 parseSiemensAddress + convertBytesToObject，
+ * 现在地址在配置加载时编译为 {@link S7Address}，取值直接解码进 {@link PointSnapshot}
+ * <p>
+ * 每次调用处理 16 个点位（字节 / 字 / 双字 / 位混合），相当于一台设备的一个采集周期。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class S7DecodeBenchmark {
+
+    private static final String[] ADDRESSES = {
+            "DB1.DBW0", "DB1.DBW2", "DB1.DBD4", "DB1.DBD8", "DB1.DBB12", "DB1.DBB13", "DB1.DBW14", "DB1.DBD16",
+            "DB1.DBD20", "DB1.DBW24", "DB1.DBW26", "DB1.DBD28", "M0.0", "M0.3", "M1.7", "DB1.DBB32"
+    };
+
+    private List<DataPoint> points;
+    private S7Address[] addresses;
+    private PointSnapshot snapshot;
+    private byte[] block;
+    private byte[][] slices;
+    private final LegacyS7Codec.ParsedAddress parsed = new LegacyS7Codec.ParsedAddress();
+
+    @Setup
+    public void setup() {
+        points = new ArrayList<>(ADDRESSES.length);
+        for (String address : ADDRESSES) {
+            DataPoint point = new DataPoint();
+            point.setName(address);
+            point.setAddress(address);
+            points.add(point);
+        }
+        addresses = new S7Address[ADDRESSES.length];
+        for (int i = 0; i < ADDRESSES.length; i++) {
+            addresses[i] = S7Address.of(points.get(i), i);
+        }
+        snapshot = new PointSnapshot(points);
+
+        // 一次块读返回的数据；原实现逐点读取，每个点位拿到各自的字节数组
+        block = new byte[64];
+        new Random(42).nextBytes(block);
+        slices = new byte[ADDRESSES.length][];
+        for (int i = 0; i < ADDRESSES.length; i++) {
+            S7Address address = addresses[i];
+            slices[i] = Arrays.copyOfRange(block, address.byteOffset(), address.byteOffset() + address.size());
+        }
+    }
+
+    @Benchmark
+    public void parseSiemensAddressLegacy(Blackhole bh) {
+        for (String address : ADDRESSES) {
+            LegacyS7Codec.parseSiemensAddress(address, parsed);
+            bh.consume(parsed.byteOffset);
+        }
+    }
+
+    @Benchmark
+    public void parseS7Address(Blackhole bh) {
+        for (int i = 0; i < ADDRESSES.length; i++) {
+            bh.consume(S7Address.of(points.get(i), i));
+        }
+    }
+
+    /**
+     * 原实现的一个周期：逐点解析地址、装箱取值、放入 HashMap
+     */
+    @Benchmark
+    public Map<String, Object> convertBytesToObjectLegacy() {
+        Map<String, Object> result = new HashMap<>();
+        for (int i = 0; i < ADDRESSES.length; i++) {
+            LegacyS7Codec.parseSiemensAddress(ADDRESSES[i], parsed);
+            Object value = parsed.isBool
+                    ? ((slices[i][0] >> parsed.bitOffset) & 1) == 1
+                    : LegacyS7Codec.convertBytesToObject(slices[i], parsed.size);
+            result.put(ADDRESSES[i], value);
+        }
+        return result;
+    }
+
+    /**
+     * 现实现的一个周期：按预编译地址从块数据解码进快照
+     */
+    @Benchmark
+    public PointSnapshot decodeIntoSnapshot() {
+        for (S7Address address : addresses) {
+            address.decodeInto(block, 0, snapshot);
+        }
+        return snapshot;
+    }
+}
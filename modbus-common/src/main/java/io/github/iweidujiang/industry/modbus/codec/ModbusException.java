@@ -0,0 +1,34 @@
+package io.github.iweidujiang.industry.modbus.codec;
+
+/**
+ * Modbus 协议层异常（响应不完整、CRC 错误、设备返回异常码等）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusException extends RuntimeException {
+
+    /** 非设备异常响应时的取值 */
+    public static final int NO_EXCEPTION_CODE = -1;
+
+    private final int exceptionCode;
+
+    public ModbusException(String message) {
+        this(message, NO_EXCEPTION_CODE);
+    }
+
+    public ModbusException(String message, int exceptionCode) {
+        super(message);
+        this.exceptionCode = exceptionCode;
+    }
+
+    /**
+     * 设备返回的 Modbus 异常码（01 非法功能、02 非法地址……），非设备异常时为 -1
+     */
+    public int getExceptionCode() {
+        return exceptionCode;
+    }
+}
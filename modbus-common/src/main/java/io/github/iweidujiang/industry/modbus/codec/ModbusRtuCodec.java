@@ -0,0 +1,165 @@
+package io.github.iweidujiang.industry.modbus.codec;
+
+/**
+ * Modbus RTU 帧编解码
+ * <p>
+ * 所有编码方法都写入调用方提供的缓冲区并返回帧长度，解码方法直接在接收缓冲区上取值，
+ * 采集循环中可复用同一组收发缓冲区，不再为每次请求分配 ByteBuffer / byte[]。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class ModbusRtuCodec {
+
+    /** 功能码 03：读保持寄存器 */
+    public static final int FC_READ_HOLDING_REGISTERS = 0x03;
+    /** 功能码 04：读输入寄存器 */
+    public static final int FC_READ_INPUT_REGISTERS = 0x04;
+    /** 功能码 06：写单个保持寄存器 */
+    public static final int FC_WRITE_SINGLE_REGISTER = 0x06;
+    /** 功能码 16：写多个保持寄存器 */
+    public static final int FC_WRITE_MULTIPLE_REGISTERS = 0x10;
+
+    /** 单次读寄存器数量上限（协议规定） */
+    public static final int MAX_READ_REGISTERS = 125;
+    /** 单次写寄存器数量上限（协议规定） */
+    public static final int MAX_WRITE_REGISTERS = 123;
+
+    /** 写多个寄存器请求中寄存器数据的起始位置：从站 + 功能码 + 地址 + 数量 + 字节数 */
+    public static final int WRITE_MULTIPLE_DATA_OFFSET = 7;
+
+    /** 读请求 / 写单寄存器请求及其响应的固定帧长 */
+    public static final int FIXED_REQUEST_LENGTH = 8;
+
+    /** 异常响应帧长：从站 + 功能码|0x80 + 异常码 + CRC */
+    public static final int EXCEPTION_RESPONSE_LENGTH = 5;
+
+    /** RTU 帧最大长度 */
+    public static final int MAX_FRAME_LENGTH = 256;
+
+    private ModbusRtuCodec() {
+    }
+
+    /**
+     * 编码“读保持寄存器”请求（功能码 03）
+     *
+     * @return 帧长度（固定 8）
+     */
+    public static int encodeReadHoldingRegisters(byte[] dst, int offset, int slaveId, int startAddress, int quantity) {
+        return encodeReadRequest(dst, offset, slaveId, FC_READ_HOLDING_REGISTERS, startAddress, quantity);
+    }
+
+    /**
+     * 编码“读输入寄存器”请求（功能码 04）
+     *
+     * @return 帧长度（固定 8）
+     */
+    public static int encodeReadInputRegisters(byte[] dst, int offset, int slaveId, int startAddress, int quantity) {
+        return encodeReadRequest(dst, offset, slaveId, FC_READ_INPUT_REGISTERS, startAddress, quantity);
+    }
+
+    /**
+     * 编码读寄存器请求（功能码 03 / 04）
+     *
+     * @return 帧长度（固定 8）
+     */
+    public static int encodeReadRequest(byte[] dst, int offset, int slaveId, int functionCode,
+                                        int startAddress, int quantity) {
+        if (quantity < 1 || quantity > MAX_READ_REGISTERS) {
+            throw new IllegalArgumentException("读寄存器数量必须在 1 到 " + MAX_READ_REGISTERS + " 之间：" + quantity);
+        }
+        return encodeFixed(dst, offset, slaveId, functionCode, startAddress, quantity);
+    }
+
+    /**
+     * 编码“写单个保持寄存器”请求（功能码 06）
+     *
+     * @return 帧长度（固定 8）
+     */
+    public static int encodeWriteSingleRegister(byte[] dst, int offset, int slaveId, int address, int value) {
+        if (value < 0 || value > 0xFFFF) {
+            throw new IllegalArgumentException("寄存器值必须在 0 到 65535 之间");
+        }
+        return encodeFixed(dst, offset, slaveId, FC_WRITE_SINGLE_REGISTER, address, value);
+    }
+
+    /**
+     * 编码“写多个保持寄存器”请求（功能码 16）
+     * <p>
+     * 寄存器数据（每个 2 字节，大端）须已由调用方写入 {@code dst[offset + WRITE_MULTIPLE_DATA_OFFSET]} 起的位置，
+     * 本方法只补齐报文头和 CRC，避免为数据另建数组。正常响应为 8 字节的地址 + 数量回显。
+     *
+     * @return 帧长度
+     */
+    public static int encodeWriteMultipleRegisters(byte[] dst, int offset, int slaveId, int startAddress, int quantity) {
+        if (quantity < 1 || quantity > MAX_WRITE_REGISTERS) {
+            throw new IllegalArgumentException("写寄存器数量必须在 1 到 " + MAX_WRITE_REGISTERS + " 之间：" + quantity);
+        }
+        dst[offset] = (byte) slaveId;
+        dst[offset + 1] = (byte) FC_WRITE_MULTIPLE_REGISTERS;
+        dst[offset + 2] = (byte) (startAddress >> 8);
+        dst[offset + 3] = (byte) startAddress;
+        dst[offset + 4] = (byte) (quantity >> 8);
+        dst[offset + 5] = (byte) quantity;
+        dst[offset + 6] = (byte) (quantity * 2);
+        return ModbusCrc16.append(dst, offset, WRITE_MULTIPLE_DATA_OFFSET + quantity * 2);
+    }
+
+    /**
+     * 读寄存器正常响应的帧长：从站 + 功能码 + 字节数 + 2N 数据 + CRC
+     */
+    public static int readResponseLength(int quantity) {
+        return 5 + quantity * 2;
+    }
+
+    /**
+     * 校验响应帧：长度、CRC、从站地址、功能码，设备异常响应转换为 {@link ModbusException}
+     *
+     * @param frame        接收缓冲区
+     * @param offset       帧起始位置
+     * @param length       帧长度（含 CRC）
+     * @param slaveId      期望的从站地址
+     * @param functionCode 期望的功能码
+     */
+    public static void checkResponse(byte[] frame, int offset, int length, int slaveId, int functionCode) {
+        if (length < EXCEPTION_RESPONSE_LENGTH) {
+            throw new ModbusException("响应长度不足：" + length);
+        }
+        if (!ModbusCrc16.verify(frame, offset, length)) {
+            throw new ModbusException("响应 CRC 校验失败");
+        }
+        int fc = frame[offset + 1] & 0xFF;
+        if (fc != functionCode) {
+            // 可能是异常响应（功能码 | 0x80）
+            if (fc == (functionCode | 0x80)) {
+                int exceptionCode = frame[offset + 2] & 0xFF;
+                throw new ModbusException("设备返回异常码: " + exceptionCode, exceptionCode);
+            }
+            throw new ModbusException("非预期的功能码: " + fc);
+        }
+        if ((frame[offset] & 0xFF) != slaveId) {
+            throw new ModbusException("非预期的从站地址: " + (frame[offset] & 0xFF));
+        }
+    }
+
+    /**
+     * 从读寄存器响应中取第 index 个寄存器的无符号值（0~65535）
+     */
+    public static int getRegister(byte[] frame, int offset, int index) {
+        int p = offset + 3 + index * 2;
+        return ((frame[p] & 0xFF) << 8) | (frame[p + 1] & 0xFF);
+    }
+
+    private static int encodeFixed(byte[] dst, int offset, int slaveId, int functionCode, int word1, int word2) {
+        dst[offset] = (byte) slaveId;
+        dst[offset + 1] = (byte) functionCode;
+        dst[offset + 2] = (byte) (word1 >> 8);
+        dst[offset + 3] = (byte) word1;
+        dst[offset + 4] = (byte) (word2 >> 8);
+        dst[offset + 5] = (byte) word2;
+        return ModbusCrc16.append(dst, offset, 6);
+    }
+}
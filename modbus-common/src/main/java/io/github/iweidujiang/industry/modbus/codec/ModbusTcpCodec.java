@@ -0,0 +1,186 @@
+package io.github.iweidujiang.industry.modbus.codec;
+
+/**
+ * Modbus TCP（MBAP 报文头）编解码
+ * <p>
+ * 帧结构：事务号(2) + 协议标识(2，固定 0) + 长度(2) + 单元标识(1) + PDU。
+ * 单元标识之后的布局与 RTU 帧的“从站 + PDU”一致，因此响应数据可直接用
+ * {@link ModbusRtuCodec#getRegister(byte[], int, int)} 以 {@code frameOffset + 6} 为起点读取。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class ModbusTcpCodec {
+
+    /** MBAP 报文头长度（含单元标识） */
+    public static final int MBAP_HEADER_LENGTH = 7;
+
+    /** 读请求帧长：MBAP(7) + 功能码 + 起始地址 + 数量 */
+    public static final int READ_REQUEST_LENGTH = 12;
+
+    /** 写单个寄存器请求、写寄存器正常响应的帧长：MBAP(7) + 功能码 + 地址 + 值 / 数量 */
+    public static final int WRITE_RESPONSE_LENGTH = 12;
+
+    /** 写多个寄存器请求中寄存器数据的起始位置：MBAP(7) + 功能码 + 地址 + 数量 + 字节数 */
+    public static final int WRITE_MULTIPLE_DATA_OFFSET = 13;
+
+    /** TCP 帧最大长度：MBAP(7) + PDU(253) */
+    public static final int MAX_FRAME_LENGTH = 260;
+
+    /** 单元标识之前的字节数，RTU 风格解码时的偏移 */
+    public static final int UNIT_ID_OFFSET = 6;
+
+    private ModbusTcpCodec() {
+    }
+
+    /**
+     * 编码读寄存器请求（功能码 03 / 04）
+     *
+     * @return 帧长度（固定 12）
+     */
+    public static int encodeReadRequest(byte[] dst, int offset, int transactionId, int unitId,
+                                        int functionCode, int startAddress, int quantity) {
+        if (quantity < 1 || quantity > ModbusRtuCodec.MAX_READ_REGISTERS) {
+            throw new IllegalArgumentException("读寄存器数量必须在 1 到 " + ModbusRtuCodec.MAX_READ_REGISTERS + " 之间：" + quantity);
+        }
+        writeHeader(dst, offset, transactionId, 5, unitId);
+        dst[offset + 7] = (byte) functionCode;
+        dst[offset + 8] = (byte) (startAddress >> 8);
+        dst[offset + 9] = (byte) startAddress;
+        dst[offset + 10] = (byte) (quantity >> 8);
+        dst[offset + 11] = (byte) quantity;
+        return READ_REQUEST_LENGTH;
+    }
+
+    /**
+     * 编码写单个寄存器请求（功能码 06）
+     *
+     * @return 帧长度（固定 12）
+     */
+    public static int encodeWriteSingleRegister(byte[] dst, int offset, int transactionId, int unitId,
+                                                int address, int value) {
+        if (value < 0 || value > 0xFFFF) {
+            throw new IllegalArgumentException("寄存器值必须在 0 到 65535 之间");
+        }
+        writeHeader(dst, offset, transactionId, 5, unitId);
+        dst[offset + 7] = (byte) ModbusRtuCodec.FC_WRITE_SINGLE_REGISTER;
+        dst[offset + 8] = (byte) (address >> 8);
+        dst[offset + 9] = (byte) address;
+        dst[offset + 10] = (byte) (value >> 8);
+        dst[offset + 11] = (byte) value;
+        return WRITE_RESPONSE_LENGTH;
+    }
+
+    /**
+     * 编码写多个寄存器请求（功能码 16）
+     * <p>
+     * 寄存器数据（每个 2 字节，大端）须已由调用方写入 {@code dst[offset + WRITE_MULTIPLE_DATA_OFFSET]} 起的位置。
+     *
+     * @return 帧长度
+     */
+    public static int encodeWriteMultipleRegisters(byte[] dst, int offset, int transactionId, int unitId,
+                                                   int startAddress, int quantity) {
+        if (quantity < 1 || quantity > ModbusRtuCodec.MAX_WRITE_REGISTERS) {
+            throw new IllegalArgumentException("写寄存器数量必须在 1 到 " + ModbusRtuCodec.MAX_WRITE_REGISTERS + " 之间：" + quantity);
+        }
+        writeHeader(dst, offset, transactionId, 6 + quantity * 2, unitId);
+        dst[offset + 7] = (byte) ModbusRtuCodec.FC_WRITE_MULTIPLE_REGISTERS;
+        dst[offset + 8] = (byte) (startAddress >> 8);
+        dst[offset + 9] = (byte) startAddress;
+        dst[offset + 10] = (byte) (quantity >> 8);
+        dst[offset + 11] = (byte) quantity;
+        dst[offset + 12] = (byte) (quantity * 2);
+        return WRITE_MULTIPLE_DATA_OFFSET + quantity * 2;
+    }
+
+    /**
+     * 写 MBAP 报文头
+     *
+     * @param pduLength 单元标识之后的 PDU 长度
+     */
+    public static void writeHeader(byte[] dst, int offset, int transactionId, int pduLength, int unitId) {
+        int length = pduLength + 1;
+        dst[offset] = (byte) (transactionId >> 8);
+        dst[offset + 1] = (byte) transactionId;
+        dst[offset + 2] = 0;
+        dst[offset + 3] = 0;
+        dst[offset + 4] = (byte) (length >> 8);
+        dst[offset + 5] = (byte) length;
+        dst[offset + 6] = (byte) unitId;
+    }
+
+    /**
+     * 由缓冲区中已收到的字节推算完整帧长
+     *
+     * @return 帧长；不足一个报文头时返回 0
+     * @throws ModbusException 协议标识或长度字段非法
+     */
+    public static int frameLength(byte[] buffer, int offset, int available) {
+        if (available < MBAP_HEADER_LENGTH) {
+            return 0;
+        }
+        int protocolId = ((buffer[offset + 2] & 0xFF) << 8) | (buffer[offset + 3] & 0xFF);
+        int length = ((buffer[offset + 4] & 0xFF) << 8) | (buffer[offset + 5] & 0xFF);
+        if (protocolId != 0 || length < 2 || length > MAX_FRAME_LENGTH - UNIT_ID_OFFSET) {
+            throw new ModbusException("非法的 MBAP 报文头：协议标识=" + protocolId + "，长度=" + length);
+        }
+        return UNIT_ID_OFFSET + length;
+    }
+
+    /**
+     * 事务号
+     */
+    public static int transactionId(byte[] frame, int offset) {
+        return ((frame[offset] & 0xFF) << 8) | (frame[offset + 1] & 0xFF);
+    }
+
+    /**
+     * 校验读响应帧：功能码、单元标识、字节数与帧长，设备异常响应转换为 {@link ModbusException}
+     * <p>
+     * 流水线模式下响应只按事务号配对，字节数必须与请求的寄存器数一致，
+     * 否则解码会越过帧尾读到下一帧的数据。
+     *
+     * @param frame        接收缓冲区
+     * @param offset       帧起始位置
+     * @param length       帧长度（含 MBAP 报文头）
+     * @param unitId       期望的单元标识
+     * @param functionCode 期望的功能码
+     * @param quantity     请求的寄存器数量
+     */
+    public static void checkResponse(byte[] frame, int offset, int length, int unitId, int functionCode, int quantity) {
+        checkFunctionCode(frame, offset, functionCode);
+        if ((frame[offset + 6] & 0xFF) != unitId) {
+            throw new ModbusException("非预期的单元标识: " + (frame[offset + 6] & 0xFF));
+        }
+        if (length < MBAP_HEADER_LENGTH + 2 || length != MBAP_HEADER_LENGTH + 2 + (frame[offset + 8] & 0xFF)) {
+            throw new ModbusException("响应长度与字节数字段不符：" + length);
+        }
+        if ((frame[offset + 8] & 0xFF) != quantity * 2) {
+            throw new ModbusException("响应字节数不符：期望 " + quantity * 2 + "，实际 " + (frame[offset + 8] & 0xFF));
+        }
+    }
+
+    /**
+     * 校验写响应帧（功能码 06 / 16 的回显），设备异常响应转换为 {@link ModbusException}
+     */
+    public static void checkWriteResponse(byte[] frame, int offset, int length, int functionCode) {
+        checkFunctionCode(frame, offset, functionCode);
+        if (length != WRITE_RESPONSE_LENGTH) {
+            throw new ModbusException("写响应长度不符：" + length);
+        }
+    }
+
+    private static void checkFunctionCode(byte[] frame, int offset, int functionCode) {
+        int fc = frame[offset + 7] & 0xFF;
+        if (fc != functionCode) {
+            if (fc == (functionCode | 0x80)) {
+                int exceptionCode = frame[offset + 8] & 0xFF;
+                throw new ModbusException("设备返回异常码: " + exceptionCode, exceptionCode);
+            }
+            throw new ModbusException("非预期的功能码: " + fc);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.io.IOException;
+
+/**
+ * 基于 jSerialComm 的 RTU 通道
+ * <p>
+ * 串口工作在半阻塞读模式（有数据即返回），只在超时时间变化时才重新设置，避免每次读取都下发系统调用。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class JSerialCommChannel implements RtuChannel {
+
+    private final SerialPort serialPort;
+    private int currentTimeoutMs = -1;
+
+    public JSerialCommChannel(SerialPort serialPort) {
+        this.serialPort = serialPort;
+    }
+
+    public SerialPort getSerialPort() {
+        return serialPort;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        int written = serialPort.writeBytes(buffer, length, offset);
+        if (written != length) {
+            throw new IOException("串口写入不完整：" + serialPort.getSystemPortName());
+        }
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length, int timeoutMs) throws IOException {
+        if (timeoutMs != currentTimeoutMs) {
+            serialPort.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, timeoutMs, 0);
+            currentTimeoutMs = timeoutMs;
+        }
+        int read = serialPort.readBytes(buffer, length, offset);
+        if (read < 0) {
+            throw new IOException("串口读取失败：" + serialPort.getSystemPortName());
+        }
+        return read;
+    }
+
+    @Override
+    public void discardInput() {
+        int available = serialPort.bytesAvailable();
+        if (available > 0) {
+            serialPort.flushIOBuffers();
+        }
+    }
+
+    @Override
+    public int getBaudRate() {
+        return serialPort.getBaudRate();
+    }
+
+    @Override
+    public void close() {
+        serialPort.closePort();
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import java.io.IOException;
+
+/**
+ * RTU 字节通道：对串口（或测试用的虚拟串口）的最小抽象
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public interface RtuChannel {
+
+    /**
+     * 写出全部字节
+     */
+    void write(byte[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * 读取字节：有数据即返回，最长等待 timeoutMs
+     *
+     * @return 实际读到的字节数，超时返回 0
+     */
+    int read(byte[] buffer, int offset, int length, int timeoutMs) throws IOException;
+
+    /**
+     * 丢弃输入缓冲中残留的字节（上一帧的迟到响应、线路噪声）
+     */
+    void discardInput() throws IOException;
+
+    /**
+     * 线路波特率，用于计算字符时间与 3.5 字符帧间隔
+     */
+    int getBaudRate();
+
+    /**
+     * 释放底层端口（会话出错重开或关闭时调用）
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 按帧接收 Modbus RTU 响应
+ * <p>
+ * 取代“发送后固定 sleep 再 read 一次”的做法：
+ * <ul>
+ *     <li>首字节最多等待 responseTimeout（设备处理时间）</li>
+ *     <li>收到帧头后由功能码 / 字节数字段推算帧长，凑齐即返回，不多等一毫秒</li>
+ *     <li>功能码未知时以 3.5 字符静默作为帧结束</li>
+ *     <li>帧内字符间隔超过 3.5 字符视为帧不完整</li>
+ * </ul>
+ * 另外在两次请求之间保证总线静默 3.5 字符，满足多从站总线的帧间隔要求。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class RtuFrameReceiver {
+
+    /** 默认响应超时（毫秒） */
+    public static final int DEFAULT_RESPONSE_TIMEOUT_MS = 1000;
+
+    /**
+     * 默认附加延迟（毫秒）：USB 转串口芯片存在数毫秒的缓冲延迟，
+     * 纯按 3.5 字符计算的静默时间在 PC 上容易误判帧结束
+     */
+    public static final int DEFAULT_LATENCY_ALLOWANCE_MS = 10;
+
+    /** 每个 RTU 字符 11 位：起始位 + 8 数据位 + 校验位/停止位 */
+    private static final int BITS_PER_CHAR = 11;
+
+    private final int responseTimeoutMs;
+    private final int silenceMs;
+    private final long silenceNanos;
+    private long lastFrameEndNanos;
+
+    public RtuFrameReceiver(int baudRate) {
+        this(baudRate, DEFAULT_RESPONSE_TIMEOUT_MS, DEFAULT_LATENCY_ALLOWANCE_MS);
+    }
+
+    public RtuFrameReceiver(int baudRate, int responseTimeoutMs, int latencyAllowanceMs) {
+        this.responseTimeoutMs = responseTimeoutMs;
+        this.silenceNanos = interFrameSilenceNanos(baudRate);
+        this.silenceMs = (int) TimeUnit.NANOSECONDS.toMillis(silenceNanos + 999_999) + latencyAllowanceMs;
+    }
+
+    /**
+     * 3.5 字符静默时间（纳秒）；波特率高于 19200 时按协议固定为 1.75ms
+     */
+    public static long interFrameSilenceNanos(int baudRate) {
+        if (baudRate > 19200) {
+            return 1_750_000L;
+        }
+        // 3.5 × 11 位 / 波特率（秒）
+        return 35L * BITS_PER_CHAR * 100_000_000L / baudRate;
+    }
+
+    /**
+     * 由已收到的帧头推算完整帧长
+     *
+     * @param frame    接收缓冲区
+     * @param offset   帧起始位置
+     * @param received 已收到的字节数
+     * @return 帧长；信息不足返回 0；功能码未知返回 -1
+     */
+    public static int frameLength(byte[] frame, int offset, int received) {
+        if (received < 2) {
+            return 0;
+        }
+        int fc = frame[offset + 1] & 0xFF;
+        if ((fc & 0x80) != 0) {
+            return 5; // 异常响应：从站 + 功能码 + 异常码 + CRC
+        }
+        switch (fc) {
+            case 0x01:
+            case 0x02:
+            case 0x03:
+            case 0x04:
+                // 从站 + 功能码 + 字节数 + 数据 + CRC
+                return received < 3 ? 0 : 5 + (frame[offset + 2] & 0xFF);
+            case 0x05:
+            case 0x06:
+            case 0x0F:
+            case 0x10:
+                return 8;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * 发送请求并接收一帧响应
+     *
+     * @return 响应帧长度
+     */
+    public int transact(RtuChannel channel, byte[] request, int requestLength, byte[] response) throws IOException {
+        awaitBusIdle();
+        channel.discardInput();
+        channel.write(request, 0, requestLength);
+        return receive(channel, response);
+    }
+
+    /**
+     * 接收一帧响应（帧从 buffer[0] 开始）
+     *
+     * @return 帧长度
+     * @throws ModbusException 超时无响应或帧不完整
+     */
+    public int receive(RtuChannel channel, byte[] buffer) throws IOException {
+        int received = channel.read(buffer, 0, buffer.length, responseTimeoutMs);
+        if (received == 0) {
+            throw new ModbusException("设备无响应（超时 " + responseTimeoutMs + "ms），请检查接线、波特率或设备地址");
+        }
+
+        while (true) {
+            int expected = frameLength(buffer, 0, received);
+            if (expected > 0 && received >= expected) {
+                markFrameEnd();
+                return expected;
+            }
+            int want = expected > 0 ? Math.min(expected, buffer.length) - received : buffer.length - received;
+            if (want <= 0) {
+                markFrameEnd();
+                return received;
+            }
+
+            int n = channel.read(buffer, received, want, silenceMs);
+            if (n == 0) {
+                markFrameEnd();
+                if (expected < 0) {
+                    // 未知功能码：以静默作为帧结束
+                    return received;
+                }
+                throw new ModbusException("响应帧不完整：已收到 " + received + " 字节"
+                        + (expected > 0 ? "，期望 " + expected + " 字节" : ""));
+            }
+            received += n;
+        }
+    }
+
+    private void markFrameEnd() {
+        lastFrameEndNanos = System.nanoTime();
+    }
+
+    /**
+     * 距上一帧结束不足 3.5 字符时间时补足静默
+     */
+    private void awaitBusIdle() {
+        if (lastFrameEndNanos == 0) {
+            return;
+        }
+        long remaining = silenceNanos - (System.nanoTime() - lastFrameEndNanos);
+        if (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
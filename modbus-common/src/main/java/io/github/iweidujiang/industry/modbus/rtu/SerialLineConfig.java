@@ -0,0 +1,81 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.util.Objects;
+
+/**
+ * 串口线路参数（端口名 + 波特率 + 数据位 + 停止位 + 校验），作为会话的唯一键
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class SerialLineConfig {
+
+    private final String portName;
+    private final int baudRate;
+    private final int dataBits;
+    private final int stopBits;
+    private final int parity;
+
+    public SerialLineConfig(String portName, int baudRate, int dataBits, int stopBits, int parity) {
+        this.portName = Objects.requireNonNull(portName, "portName");
+        this.baudRate = baudRate;
+        this.dataBits = dataBits;
+        this.stopBits = stopBits;
+        this.parity = parity;
+    }
+
+    /**
+     * 最常见的 8N1 配置
+     */
+    public static SerialLineConfig of(String portName, int baudRate) {
+        return new SerialLineConfig(portName, baudRate, 8, SerialPort.ONE_STOP_BIT, SerialPort.NO_PARITY);
+    }
+
+    public String getPortName() {
+        return portName;
+    }
+
+    public int getBaudRate() {
+        return baudRate;
+    }
+
+    public int getDataBits() {
+        return dataBits;
+    }
+
+    public int getStopBits() {
+        return stopBits;
+    }
+
+    public int getParity() {
+        return parity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SerialLineConfig)) {
+            return false;
+        }
+        SerialLineConfig that = (SerialLineConfig) o;
+        return baudRate == that.baudRate && dataBits == that.dataBits && stopBits == that.stopBits
+                && parity == that.parity && portName.equals(that.portName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(portName, baudRate, dataBits, stopBits, parity);
+    }
+
+    @Override
+    public String toString() {
+        return portName + "@" + baudRate + "," + dataBits + "," + stopBits + "," + parity;
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.io.IOException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 长连接串口会话
+ * <p>
+ * 串口只在首次使用（或出错后）打开，之后一直保持，避免每次收发都 open/close 带来的数十毫秒开销和线路复位。
+ * RS-485 总线半双工，同一时刻只能有一个事务，因此所有事务在公平锁下串行执行。
+ * 串口读写出错（如 USB 转串口被拔出）时关闭端口，重新打开后重试一次。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SerialSession implements AutoCloseable {
+
+    private final SerialLineConfig config;
+    private final int responseTimeoutMs;
+    private final ReentrantLock busLock = new ReentrantLock(true);
+    private final RtuFrameReceiver receiver;
+
+    // 外部提供的通道（如仿真器的虚拟串口），不为 null 时不打开系统串口
+    private final RtuChannel externalChannel;
+    private final ChannelOpener opener;
+
+    private RtuChannel channel;
+    private volatile boolean closed;
+
+    /**
+     * 打开串口通道
+     */
+    @FunctionalInterface
+    interface ChannelOpener {
+        RtuChannel open(SerialLineConfig config, int responseTimeoutMs) throws IOException;
+    }
+
+    public SerialSession(SerialLineConfig config) {
+        this(config, RtuFrameReceiver.DEFAULT_RESPONSE_TIMEOUT_MS);
+    }
+
+    public SerialSession(SerialLineConfig config, int responseTimeoutMs) {
+        this(config, responseTimeoutMs, SerialSession::openSystemPort);
+    }
+
+    /**
+     * 由 opener 打开通道（测试用假串口），出错时关闭并重新打开
+     */
+    SerialSession(SerialLineConfig config, int responseTimeoutMs, ChannelOpener opener) {
+        this(config, null, opener, responseTimeoutMs);
+    }
+
+    /**
+     * 在已有通道上建立会话（如仿真器的虚拟串口对），通道的打开与关闭由调用方负责
+     */
+    public SerialSession(SerialLineConfig config, RtuChannel channel, int responseTimeoutMs) {
+        this(config, channel, null, responseTimeoutMs);
+    }
+
+    private SerialSession(SerialLineConfig config, RtuChannel externalChannel, ChannelOpener opener,
+                          int responseTimeoutMs) {
+        this.config = config;
+        this.externalChannel = externalChannel;
+        this.opener = opener;
+        this.responseTimeoutMs = responseTimeoutMs;
+        this.receiver = new RtuFrameReceiver(config.getBaudRate(), responseTimeoutMs,
+                RtuFrameReceiver.DEFAULT_LATENCY_ALLOWANCE_MS);
+    }
+
+    public SerialLineConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 独占总线执行一次请求 / 响应事务
+     *
+     * @return 响应帧长度
+     * @throws IOException 串口打开失败或重连后仍读写失败
+     */
+    public int transact(byte[] request, int requestLength, byte[] response) throws IOException {
+        busLock.lock();
+        try {
+            try {
+                return receiver.transact(ensureOpen(), request, requestLength, response);
+            } catch (IOException e) {
+                // 端口异常：关闭后重开并重试一次
+                closePort();
+                return receiver.transact(ensureOpen(), request, requestLength, response);
+            }
+        } finally {
+            busLock.unlock();
+        }
+    }
+
+    public boolean isOpen() {
+        if (externalChannel != null) {
+            return !closed;
+        }
+        return channel != null;
+    }
+
+    @Override
+    public void close() {
+        busLock.lock();
+        try {
+            closed = true;
+            closePort();
+        } finally {
+            busLock.unlock();
+        }
+    }
+
+    private RtuChannel ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("串口会话已关闭：" + config.getPortName());
+        }
+        if (externalChannel != null) {
+            return externalChannel;
+        }
+        if (channel == null) {
+            channel = opener.open(config, responseTimeoutMs);
+        }
+        return channel;
+    }
+
+    private void closePort() {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static RtuChannel openSystemPort(SerialLineConfig config, int responseTimeoutMs) throws IOException {
+        SerialPort port = SerialPort.getCommPort(config.getPortName());
+        port.setComPortParameters(config.getBaudRate(), config.getDataBits(), config.getStopBits(), config.getParity());
+        port.setFlowControl(SerialPort.FLOW_CONTROL_DISABLED);
+        port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, responseTimeoutMs, 0);
+        if (!port.openPort()) {
+            throw new IOException("无法打开串口：" + config.getPortName());
+        }
+        return new JSerialCommChannel(port);
+    }
+}
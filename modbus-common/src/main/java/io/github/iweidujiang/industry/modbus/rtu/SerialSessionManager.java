@@ -0,0 +1,46 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 串口会话管理器：按端口名 + 线路参数复用长连接会话
+ * <p>
+ * 同一物理端口只允许一种线路参数，参数冲突时直接报错，避免两个会话争抢同一个端口。
+ * 会话不做引用计数，创建后一直保留到管理器关闭，使用方不需要（也不应该）自行关闭会话。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SerialSessionManager implements AutoCloseable {
+
+    private final ConcurrentMap<String, SerialSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 获取（或创建）会话，串口在首次事务时才真正打开
+     *
+     * @throws IllegalStateException 同一端口已按不同参数打开
+     */
+    public SerialSession getSession(SerialLineConfig config) {
+        SerialSession session = sessions.computeIfAbsent(config.getPortName(), name -> new SerialSession(config));
+        if (!session.getConfig().equals(config)) {
+            throw new IllegalStateException("串口 " + config.getPortName() + " 已按 " + session.getConfig()
+                    + " 打开，不能再以 " + config + " 使用");
+        }
+        return session;
+    }
+
+    /**
+     * 关闭全部会话（应用停止时调用）
+     */
+    @Override
+    public void close() {
+        for (SerialSession session : sessions.values()) {
+            session.close();
+        }
+        sessions.clear();
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.iweidujiang.industry.modbus.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CRC16 与 RTU 帧编解码测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusRtuCodecTest {
+
+    // 原逐位计算实现，作为查表法的对照
+    private static int bitwiseCrc(byte[] data, int offset, int length) {
+        int crc = 0xFFFF;
+        for (int i = offset; i < offset + length; i++) {
+            crc ^= (data[i] & 0xFF);
+            for (int j = 0; j < 8; j++) {
+                if ((crc & 1) == 1) {
+                    crc = (crc >> 1) ^ 0xA001;
+                } else {
+                    crc >>= 1;
+                }
+            }
+        }
+        return crc;
+    }
+
+    @Test
+    public void tableCrcMatchesBitwiseLoop() {
+        Random random = new Random(42);
+        byte[] data = new byte[256];
+        random.nextBytes(data);
+        for (int len = 0; len <= data.length; len++) {
+            assertEquals(bitwiseCrc(data, 0, len), ModbusCrc16.calculate(data, 0, len));
+        }
+        assertEquals(bitwiseCrc(data, 17, 100), ModbusCrc16.calculate(data, 17, 100));
+    }
+
+    @Test
+    public void encodeReadHoldingRegisters() {
+        byte[] frame = new byte[16];
+        int len = ModbusRtuCodec.encodeReadHoldingRegisters(frame, 4, 1, 0, 1);
+        assertEquals(8, len);
+        // 经典报文：01 03 00 00 00 01 84 0A
+        assertArrayEquals(new byte[]{0x01, 0x03, 0x00, 0x00, 0x00, 0x01, (byte) 0x84, 0x0A},
+                Arrays.copyOfRange(frame, 4, 12));
+        assertTrue(ModbusCrc16.verify(frame, 4, len));
+    }
+
+    @Test
+    public void encodeWriteMultipleRegisters() {
+        byte[] frame = new byte[32];
+        frame[ModbusRtuCodec.WRITE_MULTIPLE_DATA_OFFSET] = 0x00;
+        frame[ModbusRtuCodec.WRITE_MULTIPLE_DATA_OFFSET + 1] = 0x0A;
+        frame[ModbusRtuCodec.WRITE_MULTIPLE_DATA_OFFSET + 2] = 0x01;
+        frame[ModbusRtuCodec.WRITE_MULTIPLE_DATA_OFFSET + 3] = 0x02;
+        int len = ModbusRtuCodec.encodeWriteMultipleRegisters(frame, 0, 0x11, 1, 2);
+        // 协议规范示例：11 10 00 01 00 02 04 00 0A 01 02 C6 F0
+        assertArrayEquals(new byte[]{0x11, 0x10, 0x00, 0x01, 0x00, 0x02, 0x04, 0x00, 0x0A, 0x01, 0x02,
+                (byte) 0xC6, (byte) 0xF0}, Arrays.copyOf(frame, len));
+    }
+
+    @Test
+    public void decodeResponseAndException() {
+        byte[] ok = {0x01, 0x03, 0x04, 0x00, (byte) 0xFA, 0x12, 0x34, 0, 0};
+        ModbusCrc16.append(ok, 0, 7);
+        ModbusRtuCodec.checkResponse(ok, 0, ok.length, 1, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS);
+        assertEquals(250, ModbusRtuCodec.getRegister(ok, 0, 0));
+        assertEquals(0x1234, ModbusRtuCodec.getRegister(ok, 0, 1));
+
+        byte[] error = {0x01, (byte) 0x83, 0x02, 0, 0};
+        ModbusCrc16.append(error, 0, 3);
+        ModbusException e = assertThrows(ModbusException.class, () ->
+                ModbusRtuCodec.checkResponse(error, 0, error.length, 1, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS));
+        assertEquals(2, e.getExceptionCode());
+
+        ok[3] ^= 1;
+        assertThrows(ModbusException.class, () ->
+                ModbusRtuCodec.checkResponse(ok, 0, ok.length, 1, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS));
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.iweidujiang.industry.modbus.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MBAP 报文编解码测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusTcpCodecTest {
+
+    private static int mbapLength(byte[] frame) {
+        return ((frame[4] & 0xFF) << 8) | (frame[5] & 0xFF);
+    }
+
+    @Test
+    public void encodeReadRequest() {
+        byte[] frame = new byte[ModbusTcpCodec.READ_REQUEST_LENGTH];
+        int length = ModbusTcpCodec.encodeReadRequest(frame, 0, 0x1234, 1, 0x03, 0x006B, 3);
+
+        assertEquals(12, length);
+        // 长度字段 = 单元标识 + 功能码 + 地址 + 数量 = 6
+        assertArrayEquals(new byte[]{0x12, 0x34, 0, 0, 0, 6, 1, 0x03, 0x00, 0x6B, 0x00, 0x03}, frame);
+        assertEquals(length, ModbusTcpCodec.frameLength(frame, 0, length));
+    }
+
+    @Test
+    public void encodeWriteRequests() {
+        byte[] single = new byte[ModbusTcpCodec.WRITE_RESPONSE_LENGTH];
+        assertEquals(12, ModbusTcpCodec.encodeWriteSingleRegister(single, 0, 7, 2, 0x0001, 0xABCD));
+        assertArrayEquals(new byte[]{0, 7, 0, 0, 0, 6, 2, 0x06, 0x00, 0x01, (byte) 0xAB, (byte) 0xCD}, single);
+
+        byte[] multiple = new byte[ModbusTcpCodec.MAX_FRAME_LENGTH];
+        int length = ModbusTcpCodec.encodeWriteMultipleRegisters(multiple, 0, 8, 2, 0x0010, 3);
+        // MBAP(7) + 功能码 + 地址 + 数量 + 字节数 + 3 个寄存器
+        assertEquals(13 + 6, length);
+        assertEquals(length - ModbusTcpCodec.UNIT_ID_OFFSET, mbapLength(multiple));
+        assertEquals(0x10, multiple[7]);
+        assertEquals(6, multiple[12]);
+        assertEquals(length, ModbusTcpCodec.frameLength(multiple, 0, length));
+    }
+
+    @Test
+    public void frameLengthAndResponseChecks() {
+        // 读响应：2 个寄存器
+        byte[] response = {0, 1, 0, 0, 0, 7, 1, 0x03, 4, 0x00, 0x0A, 0x00, 0x0B};
+        assertEquals(0, ModbusTcpCodec.frameLength(response, 0, 6));
+        assertEquals(response.length, ModbusTcpCodec.frameLength(response, 0, response.length));
+        ModbusTcpCodec.checkResponse(response, 0, response.length, 1, 0x03, 2);
+        assertEquals(0x000B, ModbusRtuCodec.getRegister(response, ModbusTcpCodec.UNIT_ID_OFFSET, 1));
+
+        // 写回显与请求相同
+        byte[] echo = new byte[ModbusTcpCodec.WRITE_RESPONSE_LENGTH];
+        ModbusTcpCodec.encodeWriteSingleRegister(echo, 0, 9, 1, 5, 100);
+        ModbusTcpCodec.checkWriteResponse(echo, 0, echo.length, ModbusRtuCodec.FC_WRITE_SINGLE_REGISTER);
+
+        byte[] exception = {0, 2, 0, 0, 0, 3, 1, (byte) 0x83, 0x02};
+        ModbusException e = assertThrows(ModbusException.class,
+                () -> ModbusTcpCodec.checkResponse(exception, 0, exception.length, 1, 0x03, 2));
+        assertEquals(2, e.getExceptionCode());
+
+        // 字节数少于请求的寄存器数、单元标识不符：均不能交给解码
+        assertThrows(ModbusException.class,
+                () -> ModbusTcpCodec.checkResponse(response, 0, response.length, 1, 0x03, 3));
+        assertThrows(ModbusException.class,
+                () -> ModbusTcpCodec.checkResponse(response, 0, response.length, 2, 0x03, 2));
+
+        byte[] badProtocol = Arrays.copyOf(response, response.length);
+        badProtocol[2] = 1;
+        assertThrows(ModbusException.class, () -> ModbusTcpCodec.frameLength(badProtocol, 0, badProtocol.length));
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusCrc16;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 假串口：每个请求都应答一帧读 1 个寄存器的响应
+ * <p>
+ * 可设置写入耗时（检验事务是否串行）和写入失败（模拟 USB 转串口被拔出）。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+class FakeSerialPort implements RtuChannel {
+
+    private static final byte[] RESPONSE = response();
+
+    /** 同时进行中的事务数的最大值 */
+    final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    volatile long writeDelayMs;
+    volatile boolean broken;
+    volatile boolean closed;
+    int transactions;
+    private boolean responding;
+
+    private static byte[] response() {
+        byte[] frame = {1, 3, 2, 0x12, 0x34, 0, 0};
+        ModbusCrc16.append(frame, 0, frame.length - 2);
+        return frame;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        if (broken) {
+            throw new IOException("端口已断开");
+        }
+        maxConcurrent.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(writeDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        active.decrementAndGet();
+        transactions++;
+        responding = true;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length, int timeoutMs) {
+        if (!responding) {
+            return 0;
+        }
+        responding = false;
+        System.arraycopy(RESPONSE, 0, buffer, offset, RESPONSE.length);
+        return RESPONSE.length;
+    }
+
+    @Override
+    public void discardInput() {
+    }
+
+    @Override
+    public int getBaudRate() {
+        return 115200;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
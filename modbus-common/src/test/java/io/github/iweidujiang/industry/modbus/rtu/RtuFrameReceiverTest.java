@@ -0,0 +1,111 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusCrc16;
+import io.github.iweidujiang.industry.modbus.codec.ModbusException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 按帧接收测试：响应分片到达、异常响应、帧不完整
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class RtuFrameReceiverTest {
+
+    /** 按预设分片逐次返回数据的通道，分片用完即视为超时 */
+    private static class ScriptedChannel implements RtuChannel {
+        private final Deque<byte[]> chunks = new ArrayDeque<>();
+        private int reads;
+
+        ScriptedChannel(byte[] frame, int... splits) {
+            int from = 0;
+            for (int split : splits) {
+                chunks.add(Arrays.copyOfRange(frame, from, split));
+                from = split;
+            }
+            chunks.add(Arrays.copyOfRange(frame, from, frame.length));
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length, int timeoutMs) {
+            reads++;
+            byte[] chunk = chunks.poll();
+            if (chunk == null) {
+                return 0;
+            }
+            int n = Math.min(length, chunk.length);
+            System.arraycopy(chunk, 0, buffer, offset, n);
+            if (n < chunk.length) {
+                chunks.addFirst(Arrays.copyOfRange(chunk, n, chunk.length));
+            }
+            return n;
+        }
+
+        @Override
+        public void discardInput() {
+        }
+
+        @Override
+        public int getBaudRate() {
+            return 9600;
+        }
+    }
+
+    private static byte[] readResponse(int registers) {
+        byte[] frame = new byte[5 + registers * 2];
+        frame[0] = 1;
+        frame[1] = 3;
+        frame[2] = (byte) (registers * 2);
+        ModbusCrc16.append(frame, 0, frame.length - 2);
+        return frame;
+    }
+
+    @Test
+    public void returnsAsSoonAsFrameIsComplete() throws Exception {
+        byte[] frame = readResponse(60);
+        ScriptedChannel channel = new ScriptedChannel(frame, 2, 40, 100);
+        byte[] buffer = new byte[256];
+
+        int len = new RtuFrameReceiver(9600).receive(channel, buffer);
+
+        assertEquals(frame.length, len);
+        assertArrayEquals(frame, Arrays.copyOf(buffer, len));
+        assertEquals(4, channel.reads); // 不会在帧收齐后再多等一次静默
+    }
+
+    @Test
+    public void exceptionResponseEndsAfterFiveBytes() throws Exception {
+        byte[] frame = {1, (byte) 0x83, 2, 0, 0};
+        ModbusCrc16.append(frame, 0, 3);
+
+        int len = new RtuFrameReceiver(9600).receive(new ScriptedChannel(frame, 1), new byte[256]);
+
+        assertEquals(5, len);
+    }
+
+    @Test
+    public void truncatedFrameFails() {
+        byte[] frame = Arrays.copyOf(readResponse(10), 12);
+        assertThrows(ModbusException.class,
+                () -> new RtuFrameReceiver(9600).receive(new ScriptedChannel(frame), new byte[256]));
+    }
+
+    @Test
+    public void silenceFollowsBaudRate() {
+        assertEquals(4_010_416L, RtuFrameReceiver.interFrameSilenceNanos(9600));
+        assertEquals(1_750_000L, RtuFrameReceiver.interFrameSilenceNanos(115200));
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 串口会话复用测试
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SerialSessionManagerTest {
+
+    @Test
+    public void samePortSharesOneSession() {
+        try (SerialSessionManager manager = new SerialSessionManager()) {
+            SerialSession first = manager.getSession(SerialLineConfig.of("COM3", 9600));
+            assertSame(first, manager.getSession(SerialLineConfig.of("COM3", 9600)));
+            assertNotSame(first, manager.getSession(SerialLineConfig.of("COM4", 9600)));
+        }
+    }
+
+    @Test
+    public void rejectsConflictingLineSettings() {
+        try (SerialSessionManager manager = new SerialSessionManager()) {
+            manager.getSession(SerialLineConfig.of("COM3", 9600));
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> manager.getSession(SerialLineConfig.of("COM3", 19200)));
+            assertTrue(e.getMessage().contains("COM3"), e.getMessage());
+        }
+    }
+}
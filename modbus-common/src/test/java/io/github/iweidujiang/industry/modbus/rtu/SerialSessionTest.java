@@ -0,0 +1,85 @@
+package io.github.iweidujiang.industry.modbus.rtu;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 串口会话测试：事务串行、出错后重开端口
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SerialSessionTest {
+
+    private static final SerialLineConfig LINE = SerialLineConfig.of("FAKE", 115200);
+    private static final byte[] REQUEST = {1, 3, 0, 0, 0, 1, (byte) 0x84, 0x0A};
+
+    @Test
+    public void transactionsFromManyThreadsAreSerialized() throws Exception {
+        FakeSerialPort port = new FakeSerialPort();
+        port.writeDelayMs = 5;
+        SerialSession session = new SerialSession(LINE, 1000, (config, timeout) -> port);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> session.transact(REQUEST, REQUEST.length, new byte[256])));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(7, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(32, port.transactions);
+        assertEquals(1, port.maxConcurrent.get());
+    }
+
+    @Test
+    public void portIsKeptOpenAndReopenedAfterError() throws Exception {
+        List<FakeSerialPort> opened = new ArrayList<>();
+        SerialSession session = new SerialSession(LINE, 1000, (config, timeout) -> {
+            FakeSerialPort port = new FakeSerialPort();
+            opened.add(port);
+            return port;
+        });
+        assertFalse(session.isOpen()); // 首次事务时才打开
+
+        session.transact(REQUEST, REQUEST.length, new byte[256]);
+        session.transact(REQUEST, REQUEST.length, new byte[256]);
+        assertEquals(1, opened.size()); // 长连接，不每次重开
+        assertTrue(session.isOpen());
+
+        // 端口出错：关闭后重开，本次事务在新端口上重试成功
+        opened.get(0).broken = true;
+        assertEquals(7, session.transact(REQUEST, REQUEST.length, new byte[256]));
+        assertEquals(2, opened.size());
+        assertTrue(opened.get(0).closed);
+        assertEquals(1, opened.get(1).transactions);
+
+        // 重开后仍然失败时抛出异常，不无限重试
+        SerialSession alwaysBroken = new SerialSession(LINE, 1000, (config, timeout) -> {
+            FakeSerialPort port = new FakeSerialPort();
+            port.broken = true;
+            return port;
+        });
+        assertThrows(IOException.class, () -> alwaysBroken.transact(REQUEST, REQUEST.length, new byte[256]));
+
+        session.close();
+        assertFalse(session.isOpen());
+        assertTrue(opened.get(1).closed);
+        assertThrows(IOException.class, () -> session.transact(REQUEST, REQUEST.length, new byte[256]));
+    }
+}
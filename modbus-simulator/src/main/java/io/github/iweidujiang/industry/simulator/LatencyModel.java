@@ -0,0 +1,42 @@
+package io.github.iweidujiang.industry.simulator;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从站处理时间模型：每个请求在 [minMs, maxMs] 内均匀随机取一个处理时间
+ * <p>
+ * 实际 PLC 的响应时间取决于扫描周期，通常是几毫秒到几十毫秒且有抖动；
+ * 两端都为 0 时立即响应，用于测量主站自身的极限吞吐。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ * @param minMs 最短处理时间（毫秒）
+ * @param maxMs 最长处理时间（毫秒）
+ */
+public record LatencyModel(int minMs, int maxMs) {
+
+    /** 立即响应 */
+    public static final LatencyModel NONE = new LatencyModel(0, 0);
+
+    public LatencyModel {
+        if (minMs < 0 || maxMs < minMs) {
+            throw new IllegalArgumentException("处理时间范围非法：" + minMs + "~" + maxMs + "ms");
+        }
+    }
+
+    /**
+     * 本次请求的处理时间（纳秒）
+     */
+    public long nextDelayNanos() {
+        if (maxMs == 0) {
+            return 0;
+        }
+        long min = TimeUnit.MILLISECONDS.toNanos(minMs);
+        long max = TimeUnit.MILLISECONDS.toNanos(maxMs);
+        return min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1);
+    }
+}
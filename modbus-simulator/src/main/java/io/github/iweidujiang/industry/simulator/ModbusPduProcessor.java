@@ -0,0 +1,130 @@
+package io.github.iweidujiang.industry.simulator;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+
+/**
+ * 从站侧的 PDU 处理：功能码 03/04 读寄存器，06/16 写保持寄存器
+ * <p>
+ * RTU 与 TCP 只有报文头不同，PDU（功能码 + 数据）的处理在这里共用。
+ * 非法请求按协议返回异常响应：01 不支持的功能码，02 地址越界，03 数量或字节数非法。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public final class ModbusPduProcessor {
+
+    /** 异常码：不支持的功能码 */
+    public static final int ILLEGAL_FUNCTION = 0x01;
+    /** 异常码：地址越界 */
+    public static final int ILLEGAL_DATA_ADDRESS = 0x02;
+    /** 异常码：数据值非法 */
+    public static final int ILLEGAL_DATA_VALUE = 0x03;
+
+    /** PDU 最大长度（RTU 帧 256 字节去掉从站地址和 CRC） */
+    public static final int MAX_PDU_LENGTH = 253;
+
+    private ModbusPduProcessor() {
+    }
+
+    /**
+     * 处理一个请求 PDU，把响应 PDU 写入 response
+     *
+     * @param request        请求缓冲区
+     * @param offset         PDU 起始位置（功能码）
+     * @param length         PDU 长度
+     * @param response       响应缓冲区
+     * @param responseOffset 响应 PDU 的写入位置
+     * @return 响应 PDU 长度
+     */
+    public static int process(RegisterMap registers, byte[] request, int offset, int length,
+                              byte[] response, int responseOffset) {
+        int fc = request[offset] & 0xFF;
+        switch (fc) {
+            case ModbusRtuCodec.FC_READ_HOLDING_REGISTERS, ModbusRtuCodec.FC_READ_INPUT_REGISTERS -> {
+                if (length != 5) {
+                    return exception(response, responseOffset, fc, ILLEGAL_DATA_VALUE);
+                }
+                int start = getWord(request, offset + 1);
+                int quantity = getWord(request, offset + 3);
+                if (quantity < 1 || quantity > ModbusRtuCodec.MAX_READ_REGISTERS) {
+                    return exception(response, responseOffset, fc, ILLEGAL_DATA_VALUE);
+                }
+                boolean inputRegisters = fc == ModbusRtuCodec.FC_READ_INPUT_REGISTERS;
+                if (!registers.read(inputRegisters, start, quantity, response, responseOffset + 2)) {
+                    return exception(response, responseOffset, fc, ILLEGAL_DATA_ADDRESS);
+                }
+                response[responseOffset] = (byte) fc;
+                response[responseOffset + 1] = (byte) (quantity * 2);
+                return 2 + quantity * 2;
+            }
+            case ModbusRtuCodec.FC_WRITE_SINGLE_REGISTER -> {
+                if (length != 5) {
+                    return exception(response, responseOffset, fc, ILLEGAL_DATA_VALUE);
+                }
+                if (!registers.write(getWord(request, offset + 1), 1, request, offset + 3)) {
+                    return exception(response, responseOffset, fc, ILLEGAL_DATA_ADDRESS);
+                }
+                System.arraycopy(request, offset, response, responseOffset, 5); // 原样回显
+                return 5;
+            }
+            case ModbusRtuCodec.FC_WRITE_MULTIPLE_REGISTERS -> {
+                if (length < 6) {
+                    return exception(response, responseOffset, fc, ILLEGAL_DATA_VALUE);
+                }
+                int start = getWord(request, offset + 1);
+                int quantity = getWord(request, offset + 3);
+                int byteCount = request[offset + 5] & 0xFF;
+                if (quantity < 1 || quantity > ModbusRtuCodec.MAX_WRITE_REGISTERS
+                        || byteCount != quantity * 2 || length != 6 + byteCount) {
+                    return exception(response, responseOffset, fc, ILLEGAL_DATA_VALUE);
+                }
+                if (!registers.write(start, quantity, request, offset + 6)) {
+                    return exception(response, responseOffset, fc, ILLEGAL_DATA_ADDRESS);
+                }
+                System.arraycopy(request, offset, response, responseOffset, 5); // 回显起始地址和数量
+                return 5;
+            }
+            default -> {
+                return exception(response, responseOffset, fc, ILLEGAL_FUNCTION);
+            }
+        }
+    }
+
+    /**
+     * 请求 PDU 的长度，由功能码和字节数字段推算（RTU 收帧用）
+     *
+     * @param available PDU 中已收到的字节数
+     * @return PDU 长度；信息不足返回 0；功能码不支持返回 -1
+     */
+    public static int requestLength(byte[] request, int offset, int available) {
+        if (available < 1) {
+            return 0;
+        }
+        return switch (request[offset] & 0xFF) {
+            case ModbusRtuCodec.FC_READ_HOLDING_REGISTERS, ModbusRtuCodec.FC_READ_INPUT_REGISTERS,
+                 ModbusRtuCodec.FC_WRITE_SINGLE_REGISTER -> 5;
+            case ModbusRtuCodec.FC_WRITE_MULTIPLE_REGISTERS -> available < 6 ? 0 : 6 + (request[offset + 5] & 0xFF);
+            default -> -1;
+        };
+    }
+
+    /**
+     * 响应 PDU 是否为异常响应
+     */
+    public static boolean isException(byte[] response, int offset) {
+        return (response[offset] & 0x80) != 0;
+    }
+
+    private static int exception(byte[] response, int offset, int fc, int code) {
+        response[offset] = (byte) (fc | 0x80);
+        response[offset + 1] = (byte) code;
+        return 2;
+    }
+
+    private static int getWord(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+}
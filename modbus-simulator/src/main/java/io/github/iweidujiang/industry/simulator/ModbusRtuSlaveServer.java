@@ -0,0 +1,189 @@
+package io.github.iweidujiang.industry.simulator;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusCrc16;
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.modbus.rtu.RtuChannel;
+import io.github.iweidujiang.industry.modbus.rtu.RtuFrameReceiver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Modbus RTU 从站仿真服务：一条 RS-485 线路上挂多个从站
+ * <p>
+ * 线路可以是 {@link VirtualSerialPair} 的从站端，也可以是真实串口或伪终端
+ * （如 {@code socat -d -d pty,raw,echo=0 pty,raw,echo=0} 创建的一对，仿真器打开一端，采集程序打开另一端）。
+ * <ul>
+ *     <li>按功能码推算请求帧长，收齐即处理；功能码未知时以 3.5 字符静默作为帧结束</li>
+ *     <li>CRC 错误的帧直接丢弃，地址不属于本线路任何从站的帧保持沉默，与真实总线一致</li>
+ *     <li>广播地址 0 的写请求在所有从站上执行，不应答</li>
+ *     <li>响应按 {@link LatencyModel} 延迟；伪终端没有波特率限制，可开启 emulateWireTime 把请求与响应的线路传输时间计入延迟</li>
+ * </ul>
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Slf4j
+public class ModbusRtuSlaveServer implements AutoCloseable {
+
+    /** RTU 从站地址上限 */
+    public static final int MAX_SLAVE_ID = 247;
+
+    private static final int POLL_TIMEOUT_MS = 100;
+    private static final int BITS_PER_CHAR = 11;
+
+    private final String name;
+    private final RtuChannel channel;
+    private final RegisterMap[] slaves;
+    private final LatencyModel latency;
+    private final boolean emulateWireTime;
+    private final SimulatorStats stats;
+    private final long charNanos;
+    private final int silenceMs;
+
+    private Thread worker;
+    private volatile boolean running;
+
+    /**
+     * @param slaves          按从站地址（1~247）索引的寄存器表，没有从站的位置为 null
+     * @param emulateWireTime 是否按波特率把线路传输时间计入响应延迟（线路本身不限速时开启）
+     */
+    public ModbusRtuSlaveServer(String name, RtuChannel channel, RegisterMap[] slaves, LatencyModel latency,
+                                boolean emulateWireTime, SimulatorStats stats) {
+        if (slaves.length > MAX_SLAVE_ID + 1) {
+            throw new IllegalArgumentException("RTU 从站地址不能超过 " + MAX_SLAVE_ID);
+        }
+        this.name = name;
+        this.channel = channel;
+        this.slaves = slaves;
+        this.latency = latency;
+        this.emulateWireTime = emulateWireTime;
+        this.stats = stats;
+        int baudRate = channel.getBaudRate();
+        this.charNanos = TimeUnit.SECONDS.toNanos(BITS_PER_CHAR) / baudRate;
+        long silenceNanos = RtuFrameReceiver.interFrameSilenceNanos(baudRate);
+        this.silenceMs = (int) TimeUnit.NANOSECONDS.toMillis(silenceNanos + 999_999)
+                + RtuFrameReceiver.DEFAULT_LATENCY_ALLOWANCE_MS;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "modbus-rtu-simulator-" + name);
+        worker.setDaemon(true);
+        worker.start();
+        log.info("🔌 Modbus RTU 仿真线路 [{}] 已启动，波特率 {}", name, channel.getBaudRate());
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runLoop() {
+        byte[] request = new byte[ModbusRtuCodec.MAX_FRAME_LENGTH];
+        byte[] response = new byte[ModbusRtuCodec.MAX_FRAME_LENGTH];
+        while (running) {
+            try {
+                int received = channel.read(request, 0, request.length, POLL_TIMEOUT_MS);
+                if (received == 0) {
+                    continue;
+                }
+                int frameLength = receiveFrame(request, received);
+                long frameEndNanos = System.nanoTime();
+                handle(request, frameLength, response, frameEndNanos);
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("⚠️ Modbus RTU 仿真线路 [{}] 读写失败: {}", name, e.getMessage());
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(POLL_TIMEOUT_MS));
+                }
+            }
+        }
+    }
+
+    /**
+     * 收齐一帧请求
+     *
+     * @param received 已收到的字节数
+     * @return 帧长；帧不完整时返回实际收到的字节数，由 CRC 校验淘汰
+     */
+    private int receiveFrame(byte[] request, int received) throws IOException {
+        while (true) {
+            int pduLength = received < 2 ? 0 : ModbusPduProcessor.requestLength(request, 1, received - 1);
+            int expected = pduLength > 0 ? 1 + pduLength + ModbusCrc16.CRC_LENGTH : 0;
+            if (expected > 0 && received >= expected) {
+                return expected;
+            }
+            int want = expected > 0 ? Math.min(expected, request.length) - received : request.length - received;
+            if (want <= 0) {
+                return received;
+            }
+            int n = channel.read(request, received, want, silenceMs);
+            if (n == 0) {
+                return received;
+            }
+            received += n;
+        }
+    }
+
+    private void handle(byte[] request, int frameLength, byte[] response, long frameEndNanos) throws IOException {
+        if (frameLength < 4 || !ModbusCrc16.verify(request, 0, frameLength)) {
+            stats.recordDropped();
+            return;
+        }
+        int slaveId = request[0] & 0xFF;
+        int pduLength = frameLength - 1 - ModbusCrc16.CRC_LENGTH;
+        if (slaveId == 0) {
+            broadcast(request, pduLength, response);
+            return;
+        }
+        RegisterMap registers = slaveId < slaves.length ? slaves[slaveId] : null;
+        if (registers == null) {
+            return; // 总线上的其它设备
+        }
+        int responsePduLength = ModbusPduProcessor.process(registers, request, 1, pduLength, response, 1);
+        stats.recordRequest(ModbusPduProcessor.isException(response, 1));
+        response[0] = (byte) slaveId;
+        int responseLength = ModbusCrc16.append(response, 0, 1 + responsePduLength);
+
+        long delay = latency.nextDelayNanos();
+        if (emulateWireTime) {
+            delay += (frameLength + responseLength) * charNanos;
+        }
+        long remaining = frameEndNanos + delay - System.nanoTime();
+        if (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+        channel.write(response, 0, responseLength);
+    }
+
+    private void broadcast(byte[] request, int pduLength, byte[] scratch) {
+        int fc = request[1] & 0xFF;
+        if (fc != ModbusRtuCodec.FC_WRITE_SINGLE_REGISTER && fc != ModbusRtuCodec.FC_WRITE_MULTIPLE_REGISTERS) {
+            stats.recordDropped(); // 广播只允许写
+            return;
+        }
+        for (RegisterMap registers : slaves) {
+            if (registers != null) {
+                ModbusPduProcessor.process(registers, request, 1, pduLength, scratch, 1);
+            }
+        }
+        stats.recordRequest(false);
+    }
+}
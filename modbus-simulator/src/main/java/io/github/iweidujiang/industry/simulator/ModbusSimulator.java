@@ -0,0 +1,138 @@
+package io.github.iweidujiang.industry.simulator;
+
+import com.fazecast.jSerialComm.SerialPort;
+import io.github.iweidujiang.industry.modbus.rtu.JSerialCommChannel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modbus 从站仿真器：按配置启动 TCP 与 RTU 仿真从站，供采集程序做吞吐压测和回归测试
+ * <p>
+ * 用法：{@code java -jar modbus-simulator.jar [simulator.properties]}，不指定配置文件时使用内置默认配置。
+ * 在 Linux 上没有串口硬件时，可用 socat 创建一对伪终端：
+ * <pre>
+ * socat -d -d pty,raw,echo=0,link=/tmp/ttyV0 pty,raw,echo=0,link=/tmp/ttyV1
+ * </pre>
+ * 仿真器配置 {@code rtu.ports=/tmp/ttyV0}，采集程序的串口配置为 /tmp/ttyV1。
+ * 同一 JVM 内的测试不需要伪终端，直接使用 {@link VirtualSerialPair}。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Slf4j
+public class ModbusSimulator implements AutoCloseable {
+
+    private final SimulatorConfig config;
+    private final SimulatorStats stats = new SimulatorStats();
+    private final List<RegisterMap> registerMaps = new ArrayList<>();
+    private final List<SerialPort> serialPorts = new ArrayList<>();
+    private final List<ModbusRtuSlaveServer> rtuServers = new ArrayList<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "modbus-simulator-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ModbusTcpSlaveServer tcpServer;
+
+    public ModbusSimulator(SimulatorConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimulatorConfig config = args.length > 0 ? SimulatorConfig.load(Path.of(args[0])) : SimulatorConfig.loadDefault();
+        ModbusSimulator simulator = new ModbusSimulator(config);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            simulator.close();
+            stopped.countDown();
+        }, "modbus-simulator-shutdown"));
+        simulator.start();
+        stopped.await();
+    }
+
+    public void start() throws IOException {
+        if (config.isTcpEnabled()) {
+            Map<Integer, RegisterMap[]> unitsByPort = new LinkedHashMap<>();
+            for (int i = 0; i < config.getTcpPortCount(); i++) {
+                RegisterMap[] units = new RegisterMap[256];
+                for (int unitId = 1; unitId <= config.getTcpUnitsPerPort(); unitId++) {
+                    units[unitId] = newRegisterMap(unitId);
+                }
+                unitsByPort.put(config.getTcpBasePort() == 0 ? 0 : config.getTcpBasePort() + i, units);
+            }
+            tcpServer = new ModbusTcpSlaveServer(config.getTcpBindAddress(), unitsByPort, config.getLatency(), stats);
+            tcpServer.start();
+        }
+
+        for (String portName : config.getRtuPorts()) {
+            SerialPort port = SerialPort.getCommPort(portName);
+            port.setComPortParameters(config.getRtuBaudRate(), 8, SerialPort.ONE_STOP_BIT, SerialPort.NO_PARITY);
+            port.setFlowControl(SerialPort.FLOW_CONTROL_DISABLED);
+            if (!port.openPort()) {
+                close();
+                throw new IOException("无法打开串口：" + portName);
+            }
+            serialPorts.add(port);
+            RegisterMap[] slaves = new RegisterMap[config.getRtuSlavesPerPort() + 1];
+            for (int slaveId = 1; slaveId < slaves.length; slaveId++) {
+                slaves[slaveId] = newRegisterMap(slaveId);
+            }
+            ModbusRtuSlaveServer server = new ModbusRtuSlaveServer(portName, new JSerialCommChannel(port), slaves,
+                    config.getLatency(), config.isRtuEmulateWireTime(), stats);
+            rtuServers.add(server);
+            server.start();
+        }
+
+        if (config.getDriftIntervalMs() > 0) {
+            timer.scheduleAtFixedRate(() -> registerMaps.forEach(RegisterMap::drift),
+                    config.getDriftIntervalMs(), config.getDriftIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+        if (config.getStatsIntervalSeconds() > 0) {
+            timer.scheduleAtFixedRate(() -> log.info("📊 仿真从站统计：{}", stats),
+                    config.getStatsIntervalSeconds(), config.getStatsIntervalSeconds(), TimeUnit.SECONDS);
+        }
+        log.info("✅ Modbus 仿真器已启动：{} 个从站，处理时间 {}~{}ms", registerMaps.size(),
+                config.getLatency().minMs(), config.getLatency().maxMs());
+    }
+
+    public SimulatorStats getStats() {
+        return stats;
+    }
+
+    /**
+     * TCP 服务实际监听的端口，未启用 TCP 时为空
+     */
+    public List<Integer> getTcpPorts() {
+        return tcpServer != null ? tcpServer.getLocalPorts() : List.of();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        if (tcpServer != null) {
+            tcpServer.close();
+        }
+        rtuServers.forEach(ModbusRtuSlaveServer::close);
+        serialPorts.forEach(SerialPort::closePort);
+        log.info("🔌 Modbus 仿真器已停止：{}", stats);
+    }
+
+    private RegisterMap newRegisterMap(int slaveId) {
+        RegisterMap map = RegisterMap.withPattern(config.getHoldingRegisters(), config.getInputRegisters(), slaveId);
+        registerMaps.add(map);
+        return map;
+    }
+}
@@ -0,0 +1,298 @@
+package io.github.iweidujiang.industry.simulator;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusException;
+import io.github.iweidujiang.industry.modbus.codec.ModbusTcpCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modbus TCP 从站仿真服务
+ * <p>
+ * 一个选择器线程同时监听多个端口、服务所有连接，数千个从站也不需要数千个线程：
+ * <ul>
+ *     <li>每个端口挂一组从站，按 MBAP 报文头中的单元标识区分（与网关后挂多台设备一致）</li>
+ *     <li>请求按 {@link LatencyModel} 延迟响应；同一连接上的请求依次处理，流水线请求的响应保持顺序</li>
+ *     <li>单元标识没有对应从站时返回异常码 0B（网关目标设备无响应）</li>
+ * </ul>
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Slf4j
+public class ModbusTcpSlaveServer implements AutoCloseable {
+
+    /** 异常码：网关目标设备无响应 */
+    public static final int GATEWAY_TARGET_FAILED = 0x0B;
+
+    private static final int RECEIVE_BUFFER_SIZE = 4096;
+
+    private final String bindAddress;
+    private final Map<Integer, RegisterMap[]> unitsByPort;
+    private final LatencyModel latency;
+    private final SimulatorStats stats;
+
+    // 待发送的响应按到期时间排序，到期时间相同按入队顺序
+    private final PriorityQueue<PendingResponse> pending =
+            new PriorityQueue<>(Comparator.comparingLong(PendingResponse::dueNanos).thenComparingLong(PendingResponse::sequence));
+    private final List<ServerSocketChannel> servers = new ArrayList<>();
+    private long sequence;
+
+    private Selector selector;
+    private Thread worker;
+    private volatile boolean running;
+
+    /**
+     * @param unitsByPort 端口 -> 按单元标识（0~255）索引的从站寄存器表，没有从站的位置为 null；端口为 0 时随机分配
+     */
+    public ModbusTcpSlaveServer(String bindAddress, Map<Integer, RegisterMap[]> unitsByPort,
+                                LatencyModel latency, SimulatorStats stats) {
+        this.bindAddress = bindAddress;
+        this.unitsByPort = unitsByPort;
+        this.latency = latency;
+        this.stats = stats;
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        selector = Selector.open();
+        try {
+            for (Map.Entry<Integer, RegisterMap[]> entry : unitsByPort.entrySet()) {
+                ServerSocketChannel server = ServerSocketChannel.open();
+                servers.add(server);
+                server.bind(new InetSocketAddress(bindAddress, entry.getKey()), 1024);
+                server.configureBlocking(false);
+                server.register(selector, SelectionKey.OP_ACCEPT, entry.getValue());
+            }
+        } catch (IOException e) {
+            closeChannels();
+            throw e;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, "modbus-tcp-simulator");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("🔌 Modbus TCP 仿真从站已启动：{} 个端口 {}", servers.size(), getLocalPorts());
+    }
+
+    /**
+     * 实际监听的端口，顺序与构造参数一致
+     */
+    public List<Integer> getLocalPorts() {
+        List<Integer> ports = new ArrayList<>(servers.size());
+        for (ServerSocketChannel server : servers) {
+            ports.add(server.socket().getLocalPort());
+        }
+        return ports;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeChannels();
+    }
+
+    private void closeChannels() {
+        if (selector != null) {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+        servers.clear();
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                PendingResponse next = pending.peek();
+                if (next == null) {
+                    selector.select();
+                } else {
+                    // 向上取整，避免在响应到期前反复空转
+                    long waitMs = TimeUnit.NANOSECONDS.toMillis(next.dueNanos() - System.nanoTime() + 999_999);
+                    if (waitMs > 0) {
+                        selector.select(waitMs);
+                    } else {
+                        selector.selectNow();
+                    }
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept(key);
+                    } else {
+                        if (key.isReadable()) {
+                            receive(key);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(key);
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+                sendDueResponses();
+            } catch (IOException e) {
+                log.error("❌ Modbus TCP 仿真服务异常", e);
+            }
+        }
+    }
+
+    private void accept(SelectionKey key) throws IOException {
+        SocketChannel channel = ((ServerSocketChannel) key.channel()).accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection((RegisterMap[]) key.attachment()));
+    }
+
+    private void receive(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer in = connection.in;
+        try {
+            if (channel.read(in) < 0) {
+                closeQuietly(key);
+                return;
+            }
+        } catch (IOException e) {
+            closeQuietly(key);
+            return;
+        }
+
+        in.flip();
+        byte[] buffer = in.array();
+        try {
+            while (true) {
+                int offset = in.position();
+                int frameLength = ModbusTcpCodec.frameLength(buffer, offset, in.remaining());
+                if (frameLength == 0 || frameLength > in.remaining()) {
+                    break;
+                }
+                in.position(offset + frameLength);
+                handle(key, connection, buffer, offset, frameLength);
+            }
+        } catch (ModbusException e) {
+            // 报文头非法后无法再定位帧边界，与真实设备一样断开连接
+            stats.recordDropped();
+            closeQuietly(key);
+            return;
+        }
+        in.compact();
+    }
+
+    private void handle(SelectionKey key, Connection connection, byte[] frame, int offset, int length) {
+        int transactionId = ModbusTcpCodec.transactionId(frame, offset);
+        int unitId = frame[offset + ModbusTcpCodec.UNIT_ID_OFFSET] & 0xFF;
+        byte[] response = new byte[ModbusTcpCodec.MBAP_HEADER_LENGTH + ModbusPduProcessor.MAX_PDU_LENGTH];
+        int pduOffset = ModbusTcpCodec.MBAP_HEADER_LENGTH;
+        RegisterMap registers = connection.units[unitId];
+        int pduLength;
+        if (registers == null) {
+            response[pduOffset] = (byte) (frame[offset + pduOffset] | 0x80);
+            response[pduOffset + 1] = GATEWAY_TARGET_FAILED;
+            pduLength = 2;
+        } else {
+            pduLength = ModbusPduProcessor.process(registers, frame, offset + pduOffset,
+                    length - ModbusTcpCodec.MBAP_HEADER_LENGTH, response, pduOffset);
+        }
+        stats.recordRequest(ModbusPduProcessor.isException(response, pduOffset));
+        ModbusTcpCodec.writeHeader(response, 0, transactionId, pduLength, unitId);
+
+        // 同一连接的请求依次处理：本请求从上一个请求处理完才开始计时
+        long due = Math.max(System.nanoTime(), connection.lastDueNanos) + latency.nextDelayNanos();
+        connection.lastDueNanos = due;
+        pending.add(new PendingResponse(key, ByteBuffer.wrap(response, 0, pduOffset + pduLength), due, sequence++));
+    }
+
+    private void sendDueResponses() {
+        long now = System.nanoTime();
+        while (!pending.isEmpty() && pending.peek().dueNanos() - now <= 0) {
+            PendingResponse response = pending.poll();
+            if (!response.key().isValid()) {
+                continue; // 连接已关闭
+            }
+            ((Connection) response.key().attachment()).out.add(response.data());
+            flush(response.key());
+        }
+    }
+
+    private void flush(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Deque<ByteBuffer> out = ((Connection) key.attachment()).out;
+        try {
+            while (!out.isEmpty()) {
+                ByteBuffer head = out.peek();
+                channel.write(head);
+                if (head.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                out.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            closeQuietly(key);
+        }
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 一个主站连接的收发状态
+     */
+    private static final class Connection {
+        final RegisterMap[] units;
+        final ByteBuffer in = ByteBuffer.allocate(RECEIVE_BUFFER_SIZE);
+        final Deque<ByteBuffer> out = new ArrayDeque<>();
+        long lastDueNanos;
+
+        Connection(RegisterMap[] units) {
+            this.units = units;
+        }
+    }
+
+    private record PendingResponse(SelectionKey key, ByteBuffer data, long dueNanos, long sequence) {
+    }
+}
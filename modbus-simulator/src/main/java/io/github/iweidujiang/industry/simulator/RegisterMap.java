@@ -0,0 +1,112 @@
+package io.github.iweidujiang.industry.simulator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 一个仿真从站的寄存器表：保持寄存器（可读写）与输入寄存器（只读）
+ * <p>
+ * 寄存器以 char 数组保存（每个 2 字节），数千个从站也只占几 MB。
+ * 读写都以整个请求为单位加锁，主站看到的块读结果不会混入半个写请求。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class RegisterMap {
+
+    private final char[] holding;
+    private final char[] input;
+
+    public RegisterMap(int holdingCount, int inputCount) {
+        if (holdingCount < 0 || holdingCount > 0x10000 || inputCount < 0 || inputCount > 0x10000) {
+            throw new IllegalArgumentException("寄存器数量必须在 0 到 65536 之间");
+        }
+        this.holding = new char[holdingCount];
+        this.input = new char[inputCount];
+    }
+
+    /**
+     * 创建寄存器表，初始值为 (seed + 地址) 的低 16 位，便于主站校验读到的地址是否正确
+     */
+    public static RegisterMap withPattern(int holdingCount, int inputCount, int seed) {
+        RegisterMap map = new RegisterMap(holdingCount, inputCount);
+        for (int i = 0; i < holdingCount; i++) {
+            map.holding[i] = (char) (seed + i);
+        }
+        for (int i = 0; i < inputCount; i++) {
+            map.input[i] = (char) (seed + i);
+        }
+        return map;
+    }
+
+    public int getHoldingCount() {
+        return holding.length;
+    }
+
+    public int getInputCount() {
+        return input.length;
+    }
+
+    public synchronized int getHolding(int address) {
+        return holding[address];
+    }
+
+    public synchronized void setHolding(int address, int value) {
+        holding[address] = (char) value;
+    }
+
+    public synchronized int getInput(int address) {
+        return input[address];
+    }
+
+    public synchronized void setInput(int address, int value) {
+        input[address] = (char) value;
+    }
+
+    /**
+     * 把 [start, start + quantity) 的寄存器按大端序写入 dst
+     *
+     * @param inputRegisters true 读输入寄存器，false 读保持寄存器
+     * @return 地址越界时返回 false，dst 不变
+     */
+    public synchronized boolean read(boolean inputRegisters, int start, int quantity, byte[] dst, int offset) {
+        char[] registers = inputRegisters ? input : holding;
+        if (start + quantity > registers.length) {
+            return false;
+        }
+        for (int i = 0; i < quantity; i++) {
+            char value = registers[start + i];
+            dst[offset++] = (byte) (value >> 8);
+            dst[offset++] = (byte) value;
+        }
+        return true;
+    }
+
+    /**
+     * 把 src 中按大端序排列的 quantity 个寄存器写入 [start, start + quantity) 的保持寄存器
+     *
+     * @return 地址越界时返回 false，寄存器不变
+     */
+    public synchronized boolean write(int start, int quantity, byte[] src, int offset) {
+        if (start + quantity > holding.length) {
+            return false;
+        }
+        for (int i = 0; i < quantity; i++) {
+            holding[start + i] = (char) (((src[offset] & 0xFF) << 8) | (src[offset + 1] & 0xFF));
+            offset += 2;
+        }
+        return true;
+    }
+
+    /**
+     * 输入寄存器随机游走 ±1，模拟现场数值的缓慢变化
+     */
+    public synchronized void drift() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < input.length; i++) {
+            input[i] += (char) (random.nextInt(3) - 1);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.iweidujiang.industry.simulator;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * 仿真器配置（properties 格式，示例见 classpath 下的 simulator.properties）
+ * <p>
+ * 从站数量 = TCP 端口数 × 每端口单元数 + RTU 线路数 × 每线路从站数，
+ * 例如 tcp.portCount=100、tcp.unitsPerPort=20 即 2000 个 TCP 从站。
+ * 每个从站有独立的寄存器表，初始值为 (从站地址 + 寄存器地址) 的低 16 位。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+@Getter
+public final class SimulatorConfig {
+
+    /** 默认配置文件（classpath） */
+    public static final String DEFAULT_RESOURCE = "simulator.properties";
+
+    private final boolean tcpEnabled;
+    private final String tcpBindAddress;
+    private final int tcpBasePort;
+    private final int tcpPortCount;
+    private final int tcpUnitsPerPort;
+
+    private final List<String> rtuPorts;
+    private final int rtuBaudRate;
+    private final int rtuSlavesPerPort;
+    private final boolean rtuEmulateWireTime;
+
+    private final int holdingRegisters;
+    private final int inputRegisters;
+    private final int driftIntervalMs;
+    private final LatencyModel latency;
+    private final int statsIntervalSeconds;
+
+    private SimulatorConfig(Properties props) {
+        this.tcpEnabled = Boolean.parseBoolean(props.getProperty("tcp.enabled", "true"));
+        this.tcpBindAddress = props.getProperty("tcp.bindAddress", "0.0.0.0").trim();
+        this.tcpBasePort = getInt(props, "tcp.basePort", 5020, 0, 65535);
+        this.tcpPortCount = getInt(props, "tcp.portCount", 1, 1, 65535);
+        this.tcpUnitsPerPort = getInt(props, "tcp.unitsPerPort", 1, 1, 255);
+        if (tcpBasePort == 0 && tcpPortCount > 1) {
+            throw new IllegalArgumentException("随机端口（tcp.basePort=0）只能配置 1 个端口");
+        }
+        if (tcpBasePort + tcpPortCount - 1 > 65535) {
+            throw new IllegalArgumentException("TCP 端口范围超出 65535：" + tcpBasePort + "+" + tcpPortCount);
+        }
+
+        String ports = props.getProperty("rtu.ports", "").trim();
+        this.rtuPorts = ports.isEmpty() ? List.of()
+                : Arrays.stream(ports.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        this.rtuBaudRate = getInt(props, "rtu.baudRate", 9600, 300, 921600);
+        this.rtuSlavesPerPort = getInt(props, "rtu.slavesPerPort", 1, 1, ModbusRtuSlaveServer.MAX_SLAVE_ID);
+        this.rtuEmulateWireTime = Boolean.parseBoolean(props.getProperty("rtu.emulateWireTime", "true"));
+
+        this.holdingRegisters = getInt(props, "registers.holding", 1000, 0, 0x10000);
+        this.inputRegisters = getInt(props, "registers.input", 1000, 0, 0x10000);
+        this.driftIntervalMs = getInt(props, "registers.driftIntervalMs", 1000, 0, Integer.MAX_VALUE);
+        this.latency = new LatencyModel(getInt(props, "latency.minMs", 2, 0, 60_000),
+                getInt(props, "latency.maxMs", 10, 0, 60_000));
+        this.statsIntervalSeconds = getInt(props, "stats.intervalSeconds", 10, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 从文件加载
+     *
+     * @throws IllegalArgumentException 配置项取值非法
+     */
+    public static SimulatorConfig load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Properties props = new Properties();
+            props.load(reader);
+            return new SimulatorConfig(props);
+        }
+    }
+
+    /**
+     * 从 classpath 加载默认配置
+     */
+    public static SimulatorConfig loadDefault() throws IOException {
+        try (InputStream in = SimulatorConfig.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+            Properties props = new Properties();
+            if (in != null) {
+                props.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+            return new SimulatorConfig(props);
+        }
+    }
+
+    public static SimulatorConfig of(Properties props) {
+        return new SimulatorConfig(props);
+    }
+
+    private static int getInt(Properties props, String key, int defaultValue, int min, int max) {
+        String value = props.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("配置项 " + key + " 不是整数：" + value);
+        }
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException("配置项 " + key + " 必须在 " + min + " 到 " + max + " 之间：" + parsed);
+        }
+        return parsed;
+    }
+}
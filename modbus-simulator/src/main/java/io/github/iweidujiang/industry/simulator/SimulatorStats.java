@@ -0,0 +1,47 @@
+package io.github.iweidujiang.industry.simulator;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 仿真器统计：已处理请求数、异常响应数、丢弃的请求数（CRC 错误、帧不完整或从站不存在）
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class SimulatorStats {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder exceptions = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void recordRequest(boolean exception) {
+        requests.increment();
+        if (exception) {
+            exceptions.increment();
+        }
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getExceptions() {
+        return exceptions.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "请求 " + getRequests() + "，异常响应 " + getExceptions() + "，丢弃 " + getDropped();
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.iweidujiang.industry.simulator;
+
+import io.github.iweidujiang.industry.modbus.rtu.RtuChannel;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JVM 内的虚拟串口对：主站端与从站端两个 {@link RtuChannel}，一端写入的字节从另一端读出
+ * <p>
+ * 按波特率模拟线路上的字节时序：每个字节占 11 位（起始位 + 8 数据位 + 校验位/停止位）的传输时间，
+ * 依次“到达”对端，读方看到的是与真实串口一样逐字节、分片到达的数据。
+ * 不依赖操作系统的伪终端，单元测试和基准测试可以直接把主站端交给
+ * {@link io.github.iweidujiang.industry.modbus.rtu.SerialSession}。
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class VirtualSerialPair {
+
+    private static final int BITS_PER_CHAR = 11;
+    private static final int LINE_BUFFER_SIZE = 4096;
+
+    private final int baudRate;
+    private final Line toSlave;
+    private final Line toMaster;
+    private final RtuChannel master;
+    private final RtuChannel slave;
+
+    public VirtualSerialPair(int baudRate) {
+        if (baudRate <= 0) {
+            throw new IllegalArgumentException("波特率必须大于 0：" + baudRate);
+        }
+        this.baudRate = baudRate;
+        long charNanos = TimeUnit.SECONDS.toNanos(BITS_PER_CHAR) / baudRate;
+        this.toSlave = new Line(charNanos);
+        this.toMaster = new Line(charNanos);
+        this.master = new End(toSlave, toMaster);
+        this.slave = new End(toMaster, toSlave);
+    }
+
+    /**
+     * 主站端：交给 SerialSession / RtuFrameReceiver 使用
+     */
+    public RtuChannel master() {
+        return master;
+    }
+
+    /**
+     * 从站端：交给 {@link ModbusRtuSlaveServer} 使用
+     */
+    public RtuChannel slave() {
+        return slave;
+    }
+
+    private final class End implements RtuChannel {
+        private final Line out;
+        private final Line in;
+
+        End(Line out, Line in) {
+            this.out = out;
+            this.in = in;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length, int timeoutMs) throws IOException {
+            return in.read(buffer, offset, length, timeoutMs);
+        }
+
+        @Override
+        public void discardInput() {
+            in.discardArrived();
+        }
+
+        @Override
+        public int getBaudRate() {
+            return baudRate;
+        }
+    }
+
+    /**
+     * 单向线路：环形缓冲区，每个字节记录到达对端的时刻
+     */
+    private static final class Line {
+        private final long charNanos;
+        private final byte[] data = new byte[LINE_BUFFER_SIZE];
+        private final long[] arrivalNanos = new long[LINE_BUFFER_SIZE];
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition written = lock.newCondition();
+        private int head;
+        private int size;
+        private long lineFreeNanos; // 线路上最后一个字节发送完毕的时刻
+
+        Line(long charNanos) {
+            this.charNanos = charNanos;
+        }
+
+        void write(byte[] buffer, int offset, int length) throws IOException {
+            lock.lock();
+            try {
+                if (size + length > LINE_BUFFER_SIZE) {
+                    throw new IOException("虚拟串口缓冲区溢出");
+                }
+                long now = System.nanoTime();
+                if (lineFreeNanos - now < 0) {
+                    lineFreeNanos = now;
+                }
+                for (int i = 0; i < length; i++) {
+                    int slot = (head + size) % LINE_BUFFER_SIZE;
+                    lineFreeNanos += charNanos;
+                    data[slot] = buffer[offset + i];
+                    arrivalNanos[slot] = lineFreeNanos;
+                    size++;
+                }
+                written.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 读出已到达的字节：有字节到达即返回，最长等待 timeoutMs
+         */
+        int read(byte[] buffer, int offset, int length, int timeoutMs) throws IOException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            lock.lock();
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    int n = 0;
+                    while (n < length && n < size && arrivalNanos[(head + n) % LINE_BUFFER_SIZE] - now <= 0) {
+                        buffer[offset + n] = data[(head + n) % LINE_BUFFER_SIZE];
+                        n++;
+                    }
+                    if (n > 0) {
+                        head = (head + n) % LINE_BUFFER_SIZE;
+                        size -= n;
+                        return n;
+                    }
+                    long remaining = deadline - now;
+                    if (remaining <= 0) {
+                        return 0;
+                    }
+                    // 有字节在线路上时等到它到达，否则等待写入
+                    written.awaitNanos(size > 0 ? Math.min(remaining, arrivalNanos[head] - now) : remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("读取虚拟串口被中断", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 丢弃已到达的字节，仍在线路上的字节不受影响
+         */
+        void discardArrived() {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                while (size > 0 && arrivalNanos[head] - now <= 0) {
+                    head = (head + 1) % LINE_BUFFER_SIZE;
+                    size--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
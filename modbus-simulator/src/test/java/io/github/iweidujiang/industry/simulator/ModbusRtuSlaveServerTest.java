@@ -0,0 +1,67 @@
+package io.github.iweidujiang.industry.simulator;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusException;
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.modbus.rtu.SerialLineConfig;
+import io.github.iweidujiang.industry.modbus.rtu.SerialSession;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Modbus RTU 仿真从站测试：经虚拟串口对与 SerialSession 通信，验证多从站寻址与波特率时序
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusRtuSlaveServerTest {
+
+    @Test
+    public void answersAddressedSlaveAtLineSpeed() throws Exception {
+        VirtualSerialPair line = new VirtualSerialPair(9600);
+        RegisterMap[] slaves = new RegisterMap[3];
+        slaves[1] = RegisterMap.withPattern(200, 0, 1);
+        slaves[2] = RegisterMap.withPattern(200, 0, 2);
+        SimulatorStats stats = new SimulatorStats();
+        byte[] request = new byte[ModbusRtuCodec.MAX_FRAME_LENGTH];
+        byte[] response = new byte[ModbusRtuCodec.MAX_FRAME_LENGTH];
+
+        try (ModbusRtuSlaveServer server = new ModbusRtuSlaveServer("virtual", line.slave(), slaves,
+                LatencyModel.NONE, false, stats);
+             SerialSession session = new SerialSession(SerialLineConfig.of("virtual", 9600), line.master(), 300)) {
+            server.start();
+
+            long start = System.nanoTime();
+            int n = ModbusRtuCodec.encodeReadHoldingRegisters(request, 0, 2, 100, 10);
+            int read = session.transact(request, n, response);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            ModbusRtuCodec.checkResponse(response, 0, read, 2, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS);
+            assertEquals(102, ModbusRtuCodec.getRegister(response, 0, 0));
+            // 8 字节请求 + 25 字节响应，9600 波特下线路传输约 38ms
+            assertTrue(elapsedMs >= 35, "耗时 " + elapsedMs + "ms");
+
+            n = ModbusRtuCodec.encodeWriteSingleRegister(request, 0, 1, 5, 0xBEEF);
+            read = session.transact(request, n, response);
+            ModbusRtuCodec.checkResponse(response, 0, read, 1, ModbusRtuCodec.FC_WRITE_SINGLE_REGISTER);
+            assertEquals(0xBEEF, slaves[1].getHolding(5));
+
+            // 越界地址返回异常码 02
+            n = ModbusRtuCodec.encodeReadHoldingRegisters(request, 0, 1, 199, 2);
+            int length = session.transact(request, n, response);
+            ModbusException e = assertThrows(ModbusException.class, () ->
+                    ModbusRtuCodec.checkResponse(response, 0, length, 1, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS));
+            assertEquals(ModbusPduProcessor.ILLEGAL_DATA_ADDRESS, e.getExceptionCode());
+
+            // 总线上不存在的从站不应答
+            n = ModbusRtuCodec.encodeReadHoldingRegisters(request, 0, 7, 0, 1);
+            int silentLength = n;
+            assertThrows(ModbusException.class, () -> session.transact(request, silentLength, response));
+        }
+        assertEquals(3, stats.getRequests());
+    }
+}
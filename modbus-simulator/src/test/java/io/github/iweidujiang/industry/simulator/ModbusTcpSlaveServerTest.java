@@ -0,0 +1,83 @@
+package io.github.iweidujiang.industry.simulator;
+
+import io.github.iweidujiang.industry.modbus.codec.ModbusException;
+import io.github.iweidujiang.industry.modbus.codec.ModbusRtuCodec;
+import io.github.iweidujiang.industry.modbus.codec.ModbusTcpCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Modbus TCP 仿真从站测试：流水线读、块写回读、未配置的单元标识
+ * <p>
+ * 作者: 苏渡苇
+ * GitHub:  https://github.com/iweidujiang
+ * 公众号: 苏渡苇
+ *
+ * @date 2026/10/18
+ */
+public class ModbusTcpSlaveServerTest {
+
+    private static byte[] receive(DataInputStream in) throws Exception {
+        byte[] frame = new byte[ModbusTcpCodec.MAX_FRAME_LENGTH];
+        in.readFully(frame, 0, ModbusTcpCodec.MBAP_HEADER_LENGTH);
+        int length = ModbusTcpCodec.frameLength(frame, 0, ModbusTcpCodec.MBAP_HEADER_LENGTH);
+        in.readFully(frame, ModbusTcpCodec.MBAP_HEADER_LENGTH, length - ModbusTcpCodec.MBAP_HEADER_LENGTH);
+        return frame;
+    }
+
+    @Test
+    public void servesPipelinedRequestsInOrder() throws Exception {
+        RegisterMap[] units = new RegisterMap[256];
+        units[1] = RegisterMap.withPattern(100, 100, 1);
+        units[2] = RegisterMap.withPattern(100, 100, 2);
+        SimulatorStats stats = new SimulatorStats();
+        try (ModbusTcpSlaveServer server = new ModbusTcpSlaveServer("127.0.0.1", Map.of(0, units),
+                new LatencyModel(1, 3), stats)) {
+            server.start();
+            try (Socket socket = new Socket("127.0.0.1", server.getLocalPorts().get(0))) {
+                OutputStream out = socket.getOutputStream();
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                byte[] request = new byte[ModbusTcpCodec.MAX_FRAME_LENGTH];
+
+                // 两个读请求一次发出，响应按请求顺序返回
+                int n = ModbusTcpCodec.encodeReadRequest(request, 0, 10, 1, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS, 10, 2);
+                n += ModbusTcpCodec.encodeReadRequest(request, n, 11, 2, ModbusRtuCodec.FC_READ_INPUT_REGISTERS, 0, 1);
+                out.write(request, 0, n);
+                byte[] first = receive(in);
+                assertEquals(10, ModbusTcpCodec.transactionId(first, 0));
+                assertEquals(11, ((first[9] & 0xFF) << 8) | (first[10] & 0xFF)); // 从站 1：1 + 10
+                byte[] second = receive(in);
+                assertEquals(11, ModbusTcpCodec.transactionId(second, 0));
+                assertEquals(2, ((second[9] & 0xFF) << 8) | (second[10] & 0xFF));
+
+                // 块写后回读
+                request[13] = 0x12;
+                request[14] = 0x34;
+                request[15] = 0x56;
+                request[16] = 0x78;
+                n = ModbusTcpCodec.encodeWriteMultipleRegisters(request, 0, 12, 1, 20, 2);
+                out.write(request, 0, n);
+                byte[] echo = receive(in);
+                ModbusTcpCodec.checkWriteResponse(echo, 0, ModbusTcpCodec.WRITE_RESPONSE_LENGTH,
+                        ModbusRtuCodec.FC_WRITE_MULTIPLE_REGISTERS);
+                assertEquals(0x5678, units[1].getHolding(21));
+
+                // 未配置的单元标识
+                n = ModbusTcpCodec.encodeReadRequest(request, 0, 13, 9, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS, 0, 1);
+                out.write(request, 0, n);
+                byte[] failed = receive(in);
+                ModbusException e = assertThrows(ModbusException.class, () -> ModbusTcpCodec.checkResponse(failed, 0,
+                        ModbusTcpCodec.MBAP_HEADER_LENGTH + 2, 9, ModbusRtuCodec.FC_READ_HOLDING_REGISTERS, 1));
+                assertEquals(ModbusTcpSlaveServer.GATEWAY_TARGET_FAILED, e.getExceptionCode());
+            }
+        }
+        assertEquals(4, stats.getRequests());
+        assertEquals(1, stats.getExceptions());
+    }
+}